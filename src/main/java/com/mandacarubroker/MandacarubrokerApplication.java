@@ -3,7 +3,12 @@ package com.mandacarubroker;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-@SpringBootApplication
+/**
+ * The servlet (Spring MVC + JPA) application. R2DBC is excluded by name because it is
+ * only on the classpath in the {@code reactive} Maven profile, which builds the
+ * WebFlux variant of the stock API alongside this one.
+ */
+@SpringBootApplication(excludeName = "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration")
 public class MandacarubrokerApplication {
 
   public static void main(String[] args) {
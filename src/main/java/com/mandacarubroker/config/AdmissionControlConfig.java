@@ -0,0 +1,41 @@
+package com.mandacarubroker.config;
+
+import com.mandacarubroker.controller.StockController;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Rate limits each client of the {@code /stocks} endpoints and caps how many requests
+ * they serve at once, so a single client cannot exhaust the connection pool.
+ *
+ * <p>Enabled by setting {@code mandacaru.admission.enabled=true}; the limits are set with
+ * {@code mandacaru.admission.*}, see {@link AdmissionControlProperties}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "mandacaru.admission.enabled", havingValue = "true")
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+  private final AdmissionControlProperties properties;
+  private final MeterRegistry meterRegistry;
+
+  public AdmissionControlConfig(AdmissionControlProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Bean
+  public AdmissionControlInterceptor admissionControlInterceptor() {
+    return new AdmissionControlInterceptor(StockController.class, properties, meterRegistry, System::nanoTime);
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(admissionControlInterceptor()).addPathPatterns("/stocks", "/stocks/**");
+  }
+}
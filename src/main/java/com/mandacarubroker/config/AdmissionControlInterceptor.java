@@ -0,0 +1,159 @@
+package com.mandacarubroker.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Sheds load on the handlers of a controller before it reaches the services and the
+ * connection pool they share.
+ *
+ * <p>Each client gets a {@link TokenBucket} per route, so one client hammering one
+ * endpoint is answered with 429 Too Many Requests without affecting other clients or
+ * routes. Admitted requests then take one of a fixed number of slots for the whole
+ * node, and a request finding none free is answered with 503 Service Unavailable
+ * rather than queuing for a database connection. Both answers carry a Retry-After
+ * header, and every rejection increments the {@code admission.rejected} counter, tagged
+ * with the route and the reason.
+ */
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+  static final String ADMITTED_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".admitted";
+
+  private static final String RATE_LIMITED = "rate_limited";
+  private static final String OVERLOADED = "overloaded";
+
+  private final Class<?> controllerType;
+  private final String clientHeader;
+  private final AdmissionControlProperties.RateLimit defaultLimit;
+  private final Map<String, AdmissionControlProperties.RouteRateLimit> routeLimits = new HashMap<>();
+  private final Semaphore slots;
+  private final MeterRegistry meterRegistry;
+  private final LongSupplier nanoTime;
+  private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+  /**
+   * Creates the interceptor and registers its gauges.
+   *
+   * @param controllerType the controller whose handlers are limited; other handlers pass through.
+   * @param properties     the limits to apply.
+   * @param meterRegistry  the registry the admission metrics are published to.
+   * @param nanoTime       the clock the token buckets are refilled by.
+   */
+  public AdmissionControlInterceptor(Class<?> controllerType, AdmissionControlProperties properties,
+                                     MeterRegistry meterRegistry, LongSupplier nanoTime) {
+    this.controllerType = controllerType;
+    this.clientHeader = StringUtils.hasText(properties.getClientHeader()) ? properties.getClientHeader() : null;
+    this.defaultLimit = properties.getRateLimit();
+    for (AdmissionControlProperties.RouteRateLimit route : properties.getRoutes()) {
+      routeLimits.put(routeKey(route.getMethod(), route.getPattern()), route);
+    }
+    this.slots = new Semaphore(properties.getMaxConcurrentRequests());
+    this.meterRegistry = meterRegistry;
+    this.nanoTime = nanoTime;
+
+    int maxConcurrentRequests = properties.getMaxConcurrentRequests();
+    meterRegistry.gauge("admission.in.flight", slots, semaphore -> maxConcurrentRequests - semaphore.availablePermits());
+    meterRegistry.gaugeMapSize("admission.buckets", Tags.empty(), buckets);
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+          throws IOException {
+    if (request.getAttribute(ADMITTED_ATTRIBUTE) != null) {
+      // The async dispatch that completes a streamed response was admitted already.
+      return true;
+    }
+    if (!(handler instanceof HandlerMethod handlerMethod) || handlerMethod.getBeanType() != controllerType) {
+      return true;
+    }
+
+    String route = routeKey(request.getMethod(), (String) request.getAttribute(
+            HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+    long capacity;
+    double refillPerSecond;
+    AdmissionControlProperties.RouteRateLimit routeLimit = routeLimits.get(route);
+    if (routeLimit != null) {
+      capacity = routeLimit.getCapacity();
+      refillPerSecond = routeLimit.getRefillPerSecond();
+    } else {
+      capacity = defaultLimit.getCapacity();
+      refillPerSecond = defaultLimit.getRefillPerSecond();
+    }
+
+    if (capacity > 0) {
+      long now = nanoTime.getAsLong();
+      TokenBucket bucket = buckets.computeIfAbsent(client(request) + ' ' + route,
+              key -> new TokenBucket(capacity, refillPerSecond, now));
+      long waitNanos = bucket.tryAcquire(now);
+      if (waitNanos > 0) {
+        reject(request, response, HttpStatus.TOO_MANY_REQUESTS, RATE_LIMITED,
+                Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+        return false;
+      }
+    }
+
+    if (!slots.tryAcquire()) {
+      reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, OVERLOADED, 1);
+      return false;
+    }
+    request.setAttribute(ADMITTED_ATTRIBUTE, Boolean.TRUE);
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                              Exception ex) {
+    if (request.getAttribute(ADMITTED_ATTRIBUTE) != null) {
+      request.removeAttribute(ADMITTED_ATTRIBUTE);
+      slots.release();
+    }
+  }
+
+  /**
+   * Drops the buckets that have refilled completely, so clients that went away do not
+   * keep their buckets in memory.
+   */
+  @Scheduled(fixedDelayString = "${mandacaru.admission.sweep-interval-ms:60000}")
+  public void sweep() {
+    long now = nanoTime.getAsLong();
+    buckets.values().removeIf(bucket -> bucket.isFull(now));
+  }
+
+  private String client(HttpServletRequest request) {
+    String client = clientHeader == null ? null : request.getHeader(clientHeader);
+    return StringUtils.hasText(client) ? client : request.getRemoteAddr();
+  }
+
+  private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String reason,
+                      long retryAfterSeconds) throws IOException {
+    Counter.builder("admission.rejected")
+            .tag("method", request.getMethod())
+            .tag("uri", String.valueOf(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)))
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+    response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+    response.sendError(status.value());
+  }
+
+  private static String routeKey(String method, String pattern) {
+    return method + ' ' + pattern;
+  }
+}
@@ -0,0 +1,58 @@
+package com.mandacarubroker.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limits applied to the stock endpoints by {@link AdmissionControlInterceptor}, bound
+ * from {@code mandacaru.admission.*}.
+ */
+@Data
+@ConfigurationProperties("mandacaru.admission")
+public class AdmissionControlProperties {
+
+  /**
+   * The request header identifying the client, set by a trusted gateway. When empty or
+   * absent from a request, the client is identified by its remote address.
+   */
+  private String clientHeader;
+
+  /**
+   * The number of stock requests a node serves at once; the rest are rejected with 503.
+   * Streamed responses hold their slot until the stream ends.
+   */
+  private int maxConcurrentRequests = 20;
+
+  /**
+   * The rate limit of each client on each route without a limit of its own.
+   */
+  private RateLimit rateLimit = new RateLimit();
+
+  /**
+   * Rate limits for specific routes, overriding {@link #rateLimit}.
+   */
+  private List<RouteRateLimit> routes = new ArrayList<>();
+
+  /**
+   * A token bucket per client and route. A capacity of 0 disables rate limiting.
+   */
+  @Data
+  public static class RateLimit {
+    private long capacity = 100;
+    private double refillPerSecond = 50;
+  }
+
+  /**
+   * The rate limit of one route, identified by its HTTP method and its path pattern as
+   * declared on the controller, such as {@code PUT} and {@code /stocks/{id}}.
+   */
+  @Data
+  public static class RouteRateLimit {
+    private String method;
+    private String pattern;
+    private long capacity;
+    private double refillPerSecond;
+  }
+}
@@ -0,0 +1,53 @@
+package com.mandacarubroker.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configures the JCache caches in front of the stock repository.
+ *
+ * <p>Both caches are bounded by entry count and expire entries a fixed time after
+ * they are written, so a stock changed outside this instance is served stale for at
+ * most the configured TTL. Statistics are enabled so hits, misses and evictions are
+ * published through JMX and the actuator metrics endpoint.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+  public static final String STOCKS_BY_ID = "stocksById";
+  public static final String STOCKS_BY_SYMBOL = "stocksBySymbol";
+
+  /**
+   * Creates the stock caches when the JCache manager starts.
+   *
+   * @param maximumSize the maximum number of entries in each cache.
+   * @param timeToLive  how long an entry is kept after it is written, in seconds.
+   * @return the customizer that creates the caches.
+   */
+  @Bean
+  public JCacheManagerCustomizer stockCachesCustomizer(
+          @Value("${mandacaru.cache.stocks.maximum-size:10000}") long maximumSize,
+          @Value("${mandacaru.cache.stocks.time-to-live-seconds:300}") long timeToLive) {
+    return cacheManager -> {
+      cacheManager.createCache(STOCKS_BY_ID, stockCacheConfiguration(maximumSize, timeToLive));
+      cacheManager.createCache(STOCKS_BY_SYMBOL, stockCacheConfiguration(maximumSize, timeToLive));
+    };
+  }
+
+  private static CaffeineConfiguration<Object, Object> stockCacheConfiguration(long maximumSize,
+                                                                              long timeToLive) {
+    return new CaffeineConfiguration<>()
+            .setMaximumSize(OptionalLong.of(maximumSize))
+            .setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(timeToLive)))
+            .setStoreByValue(false)
+            .setStatisticsEnabled(true)
+            .setManagementEnabled(true);
+  }
+}
@@ -0,0 +1,26 @@
+package com.mandacarubroker.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the {@link io.micrometer.core.annotation.Timed} annotations on the service
+ * and data access beans.
+ *
+ * <p>HTTP endpoints, Spring Data repositories, the Hikari pool and Hibernate are
+ * instrumented by Spring Boot itself; see {@code application.properties}. Setting
+ * {@code mandacaru.metrics.timed.enabled=false} removes the aspect entirely, which the
+ * benchmarks use to measure the instrumentation overhead.
+ */
+@Configuration
+@ConditionalOnProperty(name = "mandacaru.metrics.timed.enabled", matchIfMissing = true)
+public class MetricsConfig {
+
+  @Bean
+  public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+    return new TimedAspect(meterRegistry);
+  }
+}
@@ -0,0 +1,84 @@
+package com.mandacarubroker.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Clock;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Sends the reads of a client that has just written to the primary, so it sees its
+ * own writes even though the replica has not replayed them yet.
+ *
+ * <p>Every write request reads from the primary itself, since whatever it reads it
+ * may write back, and stamps the client with a cookie holding the time of the write.
+ * Reads from a client whose last write is more recent than the configured window plus
+ * the measured replica lag are routed to the primary for the whole request.
+ */
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+  static final String LAST_WRITE_COOKIE = "mandacaru-last-write";
+
+  private final ReplicaLagMonitor replicaLagMonitor;
+  private final long windowMillis;
+  private final Clock clock;
+
+  /**
+   * Creates the interceptor.
+   *
+   * @param replicaLagMonitor the monitor giving the current replica lag.
+   * @param windowMillis      how long after a write its client reads from the primary, on top of the lag.
+   * @param clock             the clock the write times are taken from.
+   */
+  public ReadYourWritesInterceptor(ReplicaLagMonitor replicaLagMonitor, long windowMillis, Clock clock) {
+    this.replicaLagMonitor = replicaLagMonitor;
+    this.windowMillis = windowMillis;
+    this.clock = clock;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    long now = clock.millis();
+    if (isRead(request)) {
+      long lastWrite = lastWrite(request);
+      long lag = Math.max(replicaLagMonitor.getLagMillis(), 0);
+      ReplicaRoutingDataSource.setPrimaryRequired(lastWrite > 0 && now - lastWrite <= windowMillis + lag);
+    } else {
+      ReplicaRoutingDataSource.setPrimaryRequired(true);
+      Cookie cookie = new Cookie(LAST_WRITE_COOKIE, Long.toString(now));
+      cookie.setPath("/");
+      cookie.setHttpOnly(true);
+      response.addCookie(cookie);
+    }
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                              Exception ex) {
+    ReplicaRoutingDataSource.setPrimaryRequired(false);
+  }
+
+  private static boolean isRead(HttpServletRequest request) {
+    String method = request.getMethod();
+    return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+  }
+
+  private static long lastWrite(HttpServletRequest request) {
+    Cookie[] cookies = request.getCookies();
+    if (cookies == null) {
+      return 0;
+    }
+    for (Cookie cookie : cookies) {
+      if (LAST_WRITE_COOKIE.equals(cookie.getName())) {
+        try {
+          return Long.parseLong(cookie.getValue());
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,117 @@
+package com.mandacarubroker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Splits database traffic between the primary and a read replica.
+ *
+ * <p>Enabled by setting {@code mandacaru.datasource.replica.url}. The primary keeps
+ * the {@code spring.datasource.*} settings and the replica takes
+ * {@code mandacaru.datasource.replica.*}, each with its own Hikari pool. The data
+ * source everything else uses routes read-only transactions to the replica while its
+ * lag, polled with {@code mandacaru.datasource.replica.lag-query}, is within
+ * {@code mandacaru.datasource.replica.max-lag-ms}; writes, and reads by clients that
+ * have just written, go to the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "mandacaru.datasource.replica", name = "url")
+public class ReplicaDataSourceConfig implements WebMvcConfigurer {
+
+  /**
+   * Replication lag on a PostgreSQL standby: zero when it has replayed everything it
+   * received, otherwise the time since the last transaction it replayed.
+   */
+  static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() "
+          + "THEN 0 ELSE CAST(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 AS BIGINT) END";
+
+  private final ObjectProvider<ReplicaLagMonitor> replicaLagMonitor;
+  private final long readYourWritesWindow;
+
+  public ReplicaDataSourceConfig(
+          ObjectProvider<ReplicaLagMonitor> replicaLagMonitor,
+          @Value("${mandacaru.datasource.replica.read-your-writes-window-ms:2000}") long readYourWritesWindow) {
+    this.replicaLagMonitor = replicaLagMonitor;
+    this.readYourWritesWindow = readYourWritesWindow;
+  }
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  /**
+   * Binds the replica connection settings. Not an autowire candidate, so it does not
+   * clash with the {@code spring.datasource.*} properties of the primary.
+   *
+   * @return the replica properties.
+   */
+  @Bean(autowireCandidate = false)
+  @ConfigurationProperties("mandacaru.datasource.replica")
+  public DataSourceProperties replicaDataSourceProperties() {
+    return new DataSourceProperties();
+  }
+
+  @Bean
+  @ConfigurationProperties("mandacaru.datasource.replica.hikari")
+  public HikariDataSource replicaDataSource() {
+    return replicaDataSourceProperties().initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  /**
+   * Creates the monitor polling the replica lag.
+   *
+   * @param replica       the replica data source.
+   * @param lagQuery      the query returning the replication lag in milliseconds.
+   * @param maxLag        the highest lag at which reads are still sent to the replica, in milliseconds.
+   * @param meterRegistry the registry the lag gauges are published to.
+   * @return the monitor.
+   */
+  @Bean
+  public ReplicaLagMonitor replicaLagMonitor(
+          @Qualifier("replicaDataSource") DataSource replica,
+          @Value("${mandacaru.datasource.replica.lag-query:" + POSTGRES_LAG_QUERY + "}") String lagQuery,
+          @Value("${mandacaru.datasource.replica.max-lag-ms:1000}") long maxLag,
+          MeterRegistry meterRegistry) {
+    return new ReplicaLagMonitor(new JdbcTemplate(replica), lagQuery, maxLag, meterRegistry);
+  }
+
+  /**
+   * Creates the data source used by JPA, JDBC and Flyway.
+   *
+   * @param primary           the primary data source.
+   * @param replica           the replica data source.
+   * @param replicaLagMonitor the monitor deciding whether the replica is usable.
+   * @return the routing data source, behind a lazy connection proxy.
+   */
+  @Bean
+  @Primary
+  public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                               @Qualifier("replicaDataSource") DataSource replica,
+                               ReplicaLagMonitor replicaLagMonitor) {
+    return new LazyConnectionDataSourceProxy(
+            new ReplicaRoutingDataSource(primary, replica, replicaLagMonitor::isReplicaUsable));
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new ReadYourWritesInterceptor(replicaLagMonitor.getObject(),
+            readYourWritesWindow, Clock.systemUTC()));
+  }
+}
@@ -0,0 +1,74 @@
+package com.mandacarubroker.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Polls how far the replica is behind the primary.
+ *
+ * <p>The replica is usable while its last measured lag is within the allowed maximum.
+ * If the lag query fails, the replica is treated as unusable until a poll succeeds,
+ * so reads fall back to the primary rather than to a replica that may be stale.
+ */
+public class ReplicaLagMonitor {
+
+  static final long UNKNOWN_LAG = -1L;
+
+  private final JdbcTemplate replicaJdbcTemplate;
+  private final String lagQuery;
+  private final long maxLagMillis;
+
+  private volatile long lagMillis = UNKNOWN_LAG;
+
+  /**
+   * Creates the monitor, registers its gauges and takes a first measurement.
+   *
+   * @param replicaJdbcTemplate the template connected to the replica.
+   * @param lagQuery            a query returning the replication lag in milliseconds.
+   * @param maxLagMillis        the highest lag at which reads are still sent to the replica.
+   * @param meterRegistry       the registry the lag gauges are published to.
+   */
+  public ReplicaLagMonitor(JdbcTemplate replicaJdbcTemplate, String lagQuery, long maxLagMillis,
+                           MeterRegistry meterRegistry) {
+    this.replicaJdbcTemplate = replicaJdbcTemplate;
+    this.lagQuery = lagQuery;
+    this.maxLagMillis = maxLagMillis;
+    meterRegistry.gauge("datasource.replica.lag", this, ReplicaLagMonitor::getLagMillis);
+    meterRegistry.gauge("datasource.replica.usable", this, monitor -> monitor.isReplicaUsable() ? 1 : 0);
+    poll();
+  }
+
+  /**
+   * Measures the replication lag.
+   */
+  @Scheduled(fixedDelayString = "${mandacaru.datasource.replica.lag-poll-interval-ms:1000}")
+  public void poll() {
+    try {
+      Long lag = replicaJdbcTemplate.queryForObject(lagQuery, Long.class);
+      lagMillis = lag == null ? 0 : Math.max(lag, 0);
+    } catch (DataAccessException e) {
+      lagMillis = UNKNOWN_LAG;
+    }
+  }
+
+  /**
+   * Gets the replication lag measured by the last poll.
+   *
+   * @return the lag in milliseconds, or -1 if the last poll failed.
+   */
+  public long getLagMillis() {
+    return lagMillis;
+  }
+
+  /**
+   * Tells whether reads may be sent to the replica.
+   *
+   * @return true if the last poll succeeded and found the lag within the maximum.
+   */
+  public boolean isReplicaUsable() {
+    long lag = lagMillis;
+    return lag != UNKNOWN_LAG && lag <= maxLagMillis;
+  }
+}
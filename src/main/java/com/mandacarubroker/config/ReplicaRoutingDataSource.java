@@ -0,0 +1,76 @@
+package com.mandacarubroker.config;
+
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections for read-only transactions to the replica and everything else to
+ * the primary.
+ *
+ * <p>The transaction must be known when the connection is chosen, so this data source
+ * is meant to sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which
+ * defers fetching the connection until the first statement. Reads still go to the
+ * primary when the replica is not usable, or when the current thread has asked to
+ * read its own writes with {@link #setPrimaryRequired(boolean)}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  /**
+   * The data sources a connection can be routed to.
+   */
+  public enum Target {
+    PRIMARY,
+    REPLICA
+  }
+
+  private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+  private final BooleanSupplier replicaUsable;
+
+  /**
+   * Creates the routing data source.
+   *
+   * @param primary       the data source for writes.
+   * @param replica       the data source for read-only transactions.
+   * @param replicaUsable tells whether the replica is currently up to date enough to read from.
+   */
+  public ReplicaRoutingDataSource(DataSource primary, DataSource replica, BooleanSupplier replicaUsable) {
+    this.replicaUsable = replicaUsable;
+    setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+    setDefaultTargetDataSource(primary);
+    afterPropertiesSet();
+  }
+
+  /**
+   * Makes the read-only transactions of the current thread use the primary, or lifts
+   * that requirement.
+   *
+   * @param required true to read from the primary.
+   */
+  public static void setPrimaryRequired(boolean required) {
+    if (required) {
+      PRIMARY_REQUIRED.set(Boolean.TRUE);
+    } else {
+      PRIMARY_REQUIRED.remove();
+    }
+  }
+
+  /**
+   * Chooses the data source for a new connection.
+   *
+   * @return the target of the current transaction.
+   */
+  @Override
+  protected Target determineCurrentLookupKey() {
+    if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            && PRIMARY_REQUIRED.get() == null
+            && replicaUsable.getAsBoolean()) {
+      return Target.REPLICA;
+    }
+    return Target.PRIMARY;
+  }
+}
@@ -0,0 +1,12 @@
+package com.mandacarubroker.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the scheduled background jobs, such as the price tick flush.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
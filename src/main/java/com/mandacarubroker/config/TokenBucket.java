@@ -0,0 +1,66 @@
+package com.mandacarubroker.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket that refills continuously, kept as a single timestamp so it can be
+ * updated with compare-and-set instead of a lock.
+ *
+ * <p>The timestamp is the time at which the bucket will be full again, as in the generic
+ * cell rate algorithm. Taking a token moves it one refill interval later, and a token
+ * is available as long as that leaves it at most {@code capacity} intervals ahead of now.
+ * Times are {@link System#nanoTime()} values.
+ */
+public class TokenBucket {
+
+  private final long capacity;
+  private final long intervalNanos;
+  private final AtomicLong fullAt;
+
+  /**
+   * Creates a full bucket.
+   *
+   * @param capacity        the number of tokens the bucket holds, which is the largest burst allowed.
+   * @param refillPerSecond the number of tokens added per second.
+   * @param nowNanos        the current time.
+   */
+  public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+    if (capacity < 1 || !(refillPerSecond > 0)) {
+      throw new IllegalArgumentException("A token bucket needs a positive capacity and refill rate");
+    }
+    this.capacity = capacity;
+    this.intervalNanos = Math.max(1L, Math.round(1e9 / refillPerSecond));
+    this.fullAt = new AtomicLong(nowNanos);
+  }
+
+  /**
+   * Takes a token if one is available.
+   *
+   * @param nowNanos the current time.
+   * @return 0 if a token was taken, otherwise the nanoseconds until one will be available.
+   */
+  public long tryAcquire(long nowNanos) {
+    while (true) {
+      long current = fullAt.get();
+      long next = (current - nowNanos > 0 ? current : nowNanos) + intervalNanos;
+      long ahead = next - nowNanos;
+      if (ahead > capacity * intervalNanos) {
+        return ahead - capacity * intervalNanos;
+      }
+      if (fullAt.compareAndSet(current, next)) {
+        return 0;
+      }
+    }
+  }
+
+  /**
+   * Tells whether the bucket has refilled completely, so dropping it and creating a new
+   * one later makes no difference.
+   *
+   * @param nowNanos the current time.
+   * @return whether the bucket is full.
+   */
+  public boolean isFull(long nowNanos) {
+    return fullAt.get() - nowNanos <= 0;
+  }
+}
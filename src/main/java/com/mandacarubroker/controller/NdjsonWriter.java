@@ -0,0 +1,47 @@
+package com.mandacarubroker.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes values as newline-delimited JSON to a response stream, one value per line.
+ * Output is buffered by the generator and only flushed when the writer is closed,
+ * so rows are not pushed to the socket one at a time.
+ */
+class NdjsonWriter implements Closeable {
+
+  private final JsonGenerator generator;
+  private final ObjectWriter writer;
+
+  NdjsonWriter(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+    this.generator = objectMapper.getFactory().createGenerator(outputStream);
+    this.generator.setRootValueSeparator(null);
+    this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+  }
+
+  /**
+   * Writes a single value followed by a line break.
+   *
+   * @param value the value to write.
+   * @throws UncheckedIOException if the client went away.
+   */
+  void write(Object value) {
+    try {
+      writer.writeValue(generator, value);
+      generator.writeRaw('\n');
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    generator.close();
+  }
+}
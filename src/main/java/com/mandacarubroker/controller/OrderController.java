@@ -0,0 +1,45 @@
+package com.mandacarubroker.controller;
+
+import com.mandacarubroker.domain.order.OrderReceipt;
+import com.mandacarubroker.domain.order.PlaceOrderDto;
+import com.mandacarubroker.service.OrderService;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller responsible for placing buy and sell orders.
+ */
+@RestController
+@RequestMapping("/orders")
+public class OrderController {
+
+  static final String RETRY_AFTER_SECONDS = "1";
+
+  private final OrderService orderService;
+
+  public OrderController(OrderService orderService) {
+    this.orderService = orderService;
+  }
+
+  /**
+   * Places an order and waits for it to be matched, without holding the request thread.
+   *
+   * @param data the order to place.
+   * @return 200 OK with the receipt and trades once matched, or 503 Service Unavailable
+   *     with a Retry-After header when the matching engine of the stock is saturated.
+   */
+  @PostMapping
+  public CompletableFuture<ResponseEntity<OrderReceipt>> placeOrder(@RequestBody PlaceOrderDto data) {
+    return orderService.placeOrder(data)
+            .map(receipt -> receipt.thenApply(ResponseEntity::ok))
+            .orElseGet(() -> CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .build()));
+  }
+}
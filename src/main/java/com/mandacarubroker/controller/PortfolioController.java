@@ -0,0 +1,63 @@
+package com.mandacarubroker.controller;
+
+import com.mandacarubroker.domain.portfolio.CreatePortfolioDto;
+import com.mandacarubroker.domain.portfolio.PortfolioTradeDto;
+import com.mandacarubroker.domain.portfolio.PortfolioValuation;
+import com.mandacarubroker.service.PortfolioService;
+import java.net.URI;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller responsible for portfolios and their valuation.
+ */
+@RestController
+@RequestMapping("/portfolios")
+public class PortfolioController {
+
+  private final PortfolioService portfolioService;
+
+  public PortfolioController(PortfolioService portfolioService) {
+    this.portfolioService = portfolioService;
+  }
+
+  /**
+   * Opens a portfolio.
+   *
+   * @param data the owner and initial cash of the portfolio.
+   * @return 201 Created with the valuation of the new portfolio.
+   */
+  @PostMapping
+  public ResponseEntity<PortfolioValuation> createPortfolio(@RequestBody CreatePortfolioDto data) {
+    PortfolioValuation valuation = portfolioService.createPortfolio(data);
+    return ResponseEntity.created(URI.create("/portfolios/" + valuation.id())).body(valuation);
+  }
+
+  /**
+   * Gets the market value and profit or loss of a portfolio at the current stock prices.
+   *
+   * @param id the id of the portfolio.
+   * @return the valuation, or 404 Not Found if there is no such portfolio.
+   */
+  @GetMapping("/{id}")
+  public ResponseEntity<PortfolioValuation> getValuation(@PathVariable String id) {
+    return ResponseEntity.of(portfolioService.getValuation(id));
+  }
+
+  /**
+   * Records a purchase or sale of shares in a portfolio.
+   *
+   * @param id   the id of the portfolio.
+   * @param data the trade.
+   * @return the valuation after the trade, or 404 Not Found if there is no such portfolio.
+   */
+  @PostMapping("/{id}/trades")
+  public ResponseEntity<PortfolioValuation> trade(@PathVariable String id, @RequestBody PortfolioTradeDto data) {
+    return ResponseEntity.of(portfolioService.trade(id, data));
+  }
+}
@@ -0,0 +1,45 @@
+package com.mandacarubroker.controller;
+
+import com.mandacarubroker.domain.history.PriceBar;
+import com.mandacarubroker.service.PriceHistoryService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller responsible for serving the price history of stocks as OHLC bars.
+ */
+@RestController
+@RequestMapping("/stocks/prices")
+@ConditionalOnProperty(name = "mandacaru.history.enabled", matchIfMissing = true)
+public class PriceHistoryController {
+
+  private final PriceHistoryService priceHistoryService;
+
+  public PriceHistoryController(PriceHistoryService priceHistoryService) {
+    this.priceHistoryService = priceHistoryService;
+  }
+
+  /**
+   * Gets the OHLC bars of a stock over a range.
+   *
+   * @param symbol   the symbol of the stock.
+   * @param from     the start of the range, inclusive, as an ISO-8601 instant.
+   * @param to       the end of the range, exclusive, as an ISO-8601 instant.
+   * @param interval the length of each bar as an ISO-8601 duration, one minute by default.
+   * @return the bars in time order; intervals without any price are omitted.
+   */
+  @GetMapping("/{symbol}/bars")
+  public List<PriceBar> getBars(@PathVariable String symbol,
+                                @RequestParam Instant from,
+                                @RequestParam Instant to,
+                                @RequestParam(defaultValue = "PT1M") Duration interval) {
+    return priceHistoryService.getBars(symbol, from, to, interval);
+  }
+}
@@ -0,0 +1,58 @@
+package com.mandacarubroker.controller;
+
+import com.mandacarubroker.domain.stock.PriceTick;
+import com.mandacarubroker.domain.stock.PriceTickReceipt;
+import com.mandacarubroker.service.PriceTickIngestor;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller responsible for ingesting market-data price ticks.
+ */
+@RestController
+@RequestMapping("/stocks/ticks")
+public class PriceTickController {
+
+  static final String RETRY_AFTER_SECONDS = "1";
+
+  private final PriceTickIngestor priceTickIngestor;
+
+  public PriceTickController(PriceTickIngestor priceTickIngestor) {
+    this.priceTickIngestor = priceTickIngestor;
+  }
+
+  /**
+   * Queues price ticks to be written in the next batched flush.
+   *
+   * @param ticks the price ticks, in the order they were received.
+   * @return 202 Accepted when every tick was queued, or 503 Service Unavailable with
+   *     the rejected ticks and a Retry-After header when the ingestion buffer is full.
+   */
+  @PostMapping
+  public ResponseEntity<PriceTickReceipt> ingestTicks(@RequestBody List<PriceTick> ticks) {
+    int accepted = 0;
+    List<PriceTick> rejected = new ArrayList<>();
+    for (PriceTick tick : ticks) {
+      if (priceTickIngestor.offer(tick)) {
+        accepted++;
+      } else {
+        rejected.add(tick);
+      }
+    }
+
+    PriceTickReceipt receipt = new PriceTickReceipt(accepted, rejected);
+    if (rejected.isEmpty()) {
+      return ResponseEntity.status(HttpStatus.ACCEPTED).body(receipt);
+    }
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+            .body(receipt);
+  }
+}
@@ -1,18 +1,41 @@
 package com.mandacarubroker.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mandacarubroker.domain.stock.PriceAdjustmentDto;
 import com.mandacarubroker.domain.stock.RequestStockDto;
 import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.domain.stock.StockChange;
+import com.mandacarubroker.domain.stock.StockImportResult;
+import com.mandacarubroker.domain.stock.StockPage;
+import com.mandacarubroker.domain.stock.StockPageOrder;
+import com.mandacarubroker.domain.stock.StockPriceView;
+import com.mandacarubroker.domain.stock.StockWatermark;
 import com.mandacarubroker.service.StockService;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Controller responsible for managing stocks.
@@ -21,33 +44,152 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/stocks")
 public class StockController {
 
+  private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+  private static final List<MediaType> LIST_FORMATS =
+          List.of(MediaType.APPLICATION_JSON, APPLICATION_SMILE, MediaType.APPLICATION_CBOR);
+  private static final Pattern REFUSED_QUALITY = Pattern.compile("q=0(\\.0{0,3})?");
+
   private final StockService stockService;
+  private final StockListSnapshot stockListSnapshot;
+  private final ObjectMapper objectMapper;
 
-  public StockController(StockService stockService) {
+  public StockController(StockService stockService, StockListSnapshot stockListSnapshot, ObjectMapper objectMapper) {
     this.stockService = stockService;
+    this.stockListSnapshot = stockListSnapshot;
+    this.objectMapper = objectMapper;
   }
 
   /**
    * Gets all available stocks.
+   * The response is validated by a weak ETag, one per format, and a Last-Modified date
+   * taken from the stock watermark kept by the {@link StockListSnapshot}, so a client
+   * whose copy is current gets a 304 Not Modified before the list is loaded or serialized.
+   * Every response varies on Accept and Accept-Encoding.
+   *
+   * <p>JSON responses are written from the shared {@link StockListSnapshot}, gzip-compressed
+   * when the client accepts it, so the list is only read and serialized again after a
+   * stock changes. Smile and CBOR are serialized per request.
    *
-   * @return a list of all stocks.
+   * @param request  the request, checked for If-None-Match, If-Modified-Since, Accept and
+   *                 Accept-Encoding.
+   * @param response the response, which gets the Vary header.
+   * @return a list of all stocks, or null if the client's copy is current.
+   * @throws HttpMediaTypeNotAcceptableException if the client accepts none of JSON, Smile
+   *                                             and CBOR.
    * @author Ricardo Vilela.
    */
   @GetMapping
-  public List<Stock> getAllStocks() {
-    return stockService.getAllStocks();
+  public ResponseEntity<?> getAllStocks(WebRequest request, HttpServletResponse response)
+          throws HttpMediaTypeNotAcceptableException {
+    response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+    MediaType format = negotiate(request.getHeader(HttpHeaders.ACCEPT));
+    if (format == null) {
+      throw new HttpMediaTypeNotAcceptableException(LIST_FORMATS);
+    }
+    StockWatermark watermark = stockListSnapshot.watermark();
+    String etag = StockEtags.of(watermark, format);
+    long lastModified = watermark.lastModified() == null ? -1L : watermark.lastModified().toEpochMilli();
+    if (request.checkNotModified(etag, lastModified)) {
+      return null;
+    }
+    if (!format.equals(MediaType.APPLICATION_JSON)) {
+      return ResponseEntity.ok().contentType(format).body(stockService.getAllStocks());
+    }
+
+    StockListSnapshot.Encoded snapshot = stockListSnapshot.get(watermark);
+    ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+    if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+      return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+    }
+    return builder.body(snapshot.json());
+  }
+
+  /**
+   * Gets one page of stocks using keyset pagination.
+   *
+   * @param orderBy the key the stocks are ordered by, ID or SYMBOL.
+   * @param after   the {@code next} cursor of the previous page, omitted for the first page.
+   * @param size    the maximum number of stocks in the page.
+   * @return the page of stocks and the cursor for the next page.
+   */
+  @GetMapping("/page")
+  public StockPage getStockPage(
+          @RequestParam(defaultValue = "ID") StockPageOrder orderBy,
+          @RequestParam(required = false) String after,
+          @RequestParam(defaultValue = "" + StockService.DEFAULT_PAGE_SIZE) int size) {
+    return stockService.getStockPage(orderBy, after, size);
+  }
+
+  /**
+   * Streams all stocks as newline-delimited JSON, writing rows as they are read
+   * from the database instead of building the whole list first.
+   *
+   * @return the streamed body, one stock per line.
+   */
+  @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamStocks() {
+    StreamingResponseBody body = outputStream -> {
+      try (NdjsonWriter writer = new NdjsonWriter(objectMapper, outputStream)) {
+        stockService.forEachStock(writer::write);
+      }
+    };
+    return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+  }
+
+  /**
+   * Streams the stocks created, updated or deleted since a change token as
+   * newline-delimited JSON. Each line is an UPSERT with the current stock or a DELETE
+   * with its ID; the last line is a CHECKPOINT with the token for the next call, so a
+   * client that did not read it should retry from the same token.
+   *
+   * @param since the token of the previous call's checkpoint, or 0 for every stock.
+   * @return the streamed changes, one per line, or 400 Bad Request if the token is negative.
+   */
+  @GetMapping(value = "/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamChanges(@RequestParam(defaultValue = "0") long since) {
+    if (since < 0) {
+      return ResponseEntity.badRequest().build();
+    }
+    StreamingResponseBody body = outputStream -> {
+      try (NdjsonWriter writer = new NdjsonWriter(objectMapper, outputStream)) {
+        long next = stockService.forEachChangeSince(since, writer::write);
+        writer.write(StockChange.checkpoint(next));
+      }
+    };
+    return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
   }
 
   /**
    * Gets a specific stock by its ID.
+   * The response carries the stock version as its ETag, to be sent back in the
+   * If-Match header of a conditional update, and its update time as Last-Modified.
+   * A GET whose If-None-Match or If-Modified-Since still matches is answered with
+   * 304 Not Modified and no body.
    *
    * @param id the ID of the stock to retrieve.
-   * @return the stock with the specified ID, or null if not found.
+   * @return the stock with the specified ID, or an empty body if not found.
    * @author Ricardo Vilela.
    */
   @GetMapping("/{id}")
-  public Stock getStockById(@PathVariable String id) {
-    return stockService.getStockById(id).orElse(null);
+  public ResponseEntity<Stock> getStockById(@PathVariable String id) {
+    return stockService.getStockById(id)
+            .map(stock -> withValidators(ResponseEntity.ok(), stock).body(stock))
+            .orElseGet(() -> ResponseEntity.ok().build());
+  }
+
+  /**
+   * Gets a specific stock by its symbol.
+   *
+   * @param symbol the symbol of the stock to retrieve.
+   * @return the stock with the specified symbol, or null if not found.
+   */
+  @GetMapping("/symbol/{symbol}")
+  public Stock getStockBySymbol(@PathVariable String symbol) {
+    return stockService.getStockBySymbol(symbol).orElse(null);
   }
 
   /**
@@ -63,17 +205,70 @@ public class StockController {
     return ResponseEntity.ok(createdStock);
   }
 
+  /**
+   * Creates stocks in bulk from a JSON array or a newline-delimited JSON stream of
+   * stock requests. The body is read and persisted incrementally, and the result of
+   * each entry is streamed back as newline-delimited JSON.
+   *
+   * @param body     the request body.
+   * @param response the response the results are written to.
+   * @throws IOException if the body cannot be read or the results cannot be written.
+   */
+  @PostMapping(value = "/batch",
+          consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+          produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public void importStocks(InputStream body, HttpServletResponse response) throws IOException {
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+
+    try (NdjsonWriter writer = new NdjsonWriter(objectMapper, response.getOutputStream());
+         MappingIterator<RequestStockDto> requests =
+                 objectMapper.readerFor(RequestStockDto.class).readValues(body)) {
+      try {
+        stockService.importStocks(requests, writer::write);
+      } catch (RuntimeException e) {
+        if (!(e.getCause() instanceof JsonProcessingException)) {
+          throw e;
+        }
+        writer.write(StockImportResult.rejected(-1, null,
+                "Malformed request body: " + e.getCause().getMessage()));
+      }
+    }
+  }
+
   /**
    * Updates an existing stock.
+   * When an If-Match header other than {@code *} is sent, the update is only applied if
+   * the stock is still at the version of that ETag, and fails with 412 Precondition
+   * Failed otherwise.
    *
    * @param id           the ID of the stock to update.
    * @param updatedStock the updated data for the stock.
-   * @return the updated stock, or null if not found.
+   * @param ifMatch      the ETag of the version the update was based on, if any.
+   * @return the updated stock with its new ETag, or an empty body if not found.
    * @author Ricardo Vilela.
    */
   @PutMapping("/{id}")
-  public Stock updateStock(@PathVariable String id, @RequestBody Stock updatedStock) {
-    return stockService.updateStock(id, updatedStock).orElse(null);
+  public ResponseEntity<Stock> updateStock(@PathVariable String id, @RequestBody Stock updatedStock,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                           String ifMatch) {
+    Optional<Stock> stock = ifMatch == null || "*".equals(ifMatch.trim())
+            ? stockService.updateStock(id, updatedStock)
+            : stockService.updateStock(id, updatedStock, StockEtags.parseVersion(ifMatch));
+    return stock
+            .map(saved -> withValidators(ResponseEntity.ok(), saved).body(saved))
+            .orElseGet(() -> ResponseEntity.ok().build());
+  }
+
+  /**
+   * Adds a delta to the price of a stock atomically, in a single database statement.
+   *
+   * @param id         the ID of the stock to adjust.
+   * @param adjustment the amount to add to the price.
+   * @return the stock's new price, or null if not found.
+   */
+  @PostMapping("/{id}/price-adjustments")
+  public StockPriceView adjustPrice(@PathVariable String id, @RequestBody PriceAdjustmentDto adjustment) {
+    return stockService.adjustPrice(id, adjustment.delta()).orElse(null);
   }
 
   /**
@@ -87,4 +282,54 @@ public class StockController {
     stockService.deleteStock(id);
   }
 
+  /**
+   * Tells whether JSON is the most preferred of the formats the stock list is served in.
+   */
+  private static MediaType negotiate(String accept) {
+    if (accept == null) {
+      return MediaType.APPLICATION_JSON;
+    }
+    List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+    MimeTypeUtils.sortBySpecificity(mediaTypes);
+    for (MediaType mediaType : mediaTypes) {
+      if (mediaType.getQualityValue() == 0) {
+        continue;
+      }
+      for (MediaType format : LIST_FORMATS) {
+        if (mediaType.isCompatibleWith(format)) {
+          return format;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.split(";");
+      String name = parts[0].trim();
+      if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+        continue;
+      }
+      boolean refused = false;
+      for (int i = 1; i < parts.length; i++) {
+        refused |= REFUSED_QUALITY.matcher(parts[i].trim()).matches();
+      }
+      if (!refused) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder, Stock stock) {
+    builder.eTag(StockEtags.of(stock));
+    if (stock.getUpdatedAt() != null) {
+      builder.lastModified(stock.getUpdatedAt());
+    }
+    return builder;
+  }
 }
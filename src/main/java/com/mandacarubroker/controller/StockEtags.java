@@ -0,0 +1,60 @@
+package com.mandacarubroker.controller;
+
+import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.domain.stock.StockWatermark;
+import org.springframework.http.MediaType;
+
+/**
+ * Maps stock versions, and the watermark of the stock list, to entity tags and back.
+ */
+public final class StockEtags {
+
+  private static final long UNKNOWN_VERSION = -1L;
+
+  private StockEtags() {
+  }
+
+  /**
+   * Builds the strong entity tag of a stock, which is its quoted version.
+   *
+   * @param stock the stock.
+   * @return the entity tag.
+   */
+  public static String of(Stock stock) {
+    return "\"" + stock.getVersion() + "\"";
+  }
+
+  /**
+   * Builds the weak entity tag of one representation of the stock list from its
+   * watermark. It is weak because the watermark identifies the list contents, not the
+   * bytes, which differ with the content coding; each format gets its own tag, since a
+   * cache must not answer a JSON request with a Smile body it validated.
+   *
+   * @param watermark the watermark of the stock list.
+   * @param format    the media type of the representation.
+   * @return the entity tag.
+   */
+  public static String of(StockWatermark watermark, MediaType format) {
+    long lastModified = watermark.lastModified() == null ? 0L : watermark.lastModified().toEpochMilli();
+    return "W/\"" + watermark.count() + "-" + lastModified + "-" + format.getSubtype() + "\"";
+  }
+
+  /**
+   * Reads the version a conditional request expects from its If-Match header.
+   *
+   * @param ifMatch the If-Match header value.
+   * @return the expected version, or a version no stock can have if the header does
+   *     not hold a single entity tag produced by {@link #of(Stock)}.
+   */
+  public static long parseVersion(String ifMatch) {
+    String tag = ifMatch.trim();
+    if (tag.length() < 2 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+      return UNKNOWN_VERSION;
+    }
+    try {
+      return Long.parseLong(tag.substring(1, tag.length() - 1));
+    } catch (NumberFormatException e) {
+      return UNKNOWN_VERSION;
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package com.mandacarubroker.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.domain.stock.StockDeletedEvent;
+import com.mandacarubroker.domain.stock.StockPriceChangedEvent;
+import com.mandacarubroker.domain.stock.StockSavedEvent;
+import com.mandacarubroker.domain.stock.StockWatermark;
+import com.mandacarubroker.service.StockService;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * The JSON body of {@code GET /stocks}, serialized and gzip-compressed once and shared
+ * by every request until the stocks change.
+ *
+ * <p>Creating, updating or deleting a stock, or changing its price, only marks the
+ * snapshot stale; it is rebuilt by the next request that needs it, and concurrent
+ * requests wait for that one rebuild instead of each reading the table. The snapshot
+ * is also tied to the {@link StockWatermark} it was built for, so changes made by other
+ * instances, which publish no events here, are picked up as soon as the watermark moves.
+ *
+ * <p>The watermark itself is read once per generation of local changes and reused for
+ * up to {@code mandacaru.cache.stocks.watermark-ttl-ms}, so conditional requests answered
+ * with 304 Not Modified do not query the table each time; changes made by other
+ * instances are seen once that read expires.
+ */
+@Component
+public class StockListSnapshot {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final StockService stockService;
+  private final ObjectWriter writer;
+  private final AtomicLong generation = new AtomicLong();
+  private final Timer buildTimer = Metrics.timer("stock.list.snapshot.build");
+  private final long watermarkTtlNanos;
+
+  private volatile Encoded current;
+  private volatile Watermark watermark;
+
+  public StockListSnapshot(StockService stockService, ObjectMapper objectMapper,
+                           @Value("${mandacaru.cache.stocks.watermark-ttl-ms:1000}") long watermarkTtlMs) {
+    this.stockService = stockService;
+    this.writer = objectMapper.writerFor(new TypeReference<List<Stock>>() { });
+    this.watermarkTtlNanos = watermarkTtlMs * 1_000_000L;
+  }
+
+  /**
+   * Gets the watermark of the stock list, reading it again only after a local change or
+   * once the previous read expires.
+   *
+   * @return the watermark of the stock list.
+   */
+  public StockWatermark watermark() {
+    Watermark read = watermark;
+    long now = System.nanoTime();
+    if (read != null && read.generation() == generation.get() && now - read.readAt() < watermarkTtlNanos) {
+      return read.value();
+    }
+    // Read before the watermark, so a change made while reading leaves the result stale.
+    long readGeneration = generation.get();
+    StockWatermark value = stockService.getWatermark();
+    watermark = new Watermark(readGeneration, now, value);
+    return value;
+  }
+
+  /**
+   * Gets the encoded stock list for a watermark, rebuilding it if stocks changed since
+   * it was built.
+   *
+   * @param watermark the current watermark of the stock list.
+   * @return the encoded stock list.
+   */
+  public Encoded get(StockWatermark watermark) {
+    Encoded encoded = current;
+    if (isCurrent(encoded, watermark)) {
+      return encoded;
+    }
+    synchronized (this) {
+      encoded = current;
+      if (isCurrent(encoded, watermark)) {
+        return encoded;
+      }
+      // Read before the stocks, so a change made while building leaves the result stale.
+      long builtGeneration = generation.get();
+      encoded = buildTimer.record(() -> build(watermark, builtGeneration));
+      current = encoded;
+      return encoded;
+    }
+  }
+
+  @EventListener
+  public void onStockSaved(StockSavedEvent event) {
+    generation.incrementAndGet();
+  }
+
+  @EventListener
+  public void onStockDeleted(StockDeletedEvent event) {
+    generation.incrementAndGet();
+  }
+
+  @EventListener
+  public void onStockPriceChanged(StockPriceChangedEvent event) {
+    generation.incrementAndGet();
+  }
+
+  private boolean isCurrent(Encoded encoded, StockWatermark watermark) {
+    return encoded != null && encoded.generation() == generation.get() && encoded.watermark().equals(watermark);
+  }
+
+  private Encoded build(StockWatermark watermark, long builtGeneration) {
+    try {
+      byte[] json = writer.writeValueAsBytes(stockService.getAllStocks());
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+      try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, BUFFER_SIZE)) {
+        gzip.write(json);
+      }
+      return new Encoded(watermark, builtGeneration, json, compressed.toByteArray());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private record Watermark(long generation, long readAt, StockWatermark value) {
+  }
+
+  /**
+   * The stock list encoded once for every request.
+   *
+   * @param watermark  the watermark the list was read at.
+   * @param generation the number of stock changes seen when the list was read.
+   * @param json       the list as JSON; must not be modified.
+   * @param gzip       the JSON compressed with gzip; must not be modified.
+   */
+  public record Encoded(StockWatermark watermark, long generation, byte[] json, byte[] gzip) {
+  }
+}
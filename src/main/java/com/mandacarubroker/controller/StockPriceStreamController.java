@@ -0,0 +1,36 @@
+package com.mandacarubroker.controller;
+
+import com.mandacarubroker.service.StockPriceBroadcaster;
+import java.util.Set;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Controller responsible for pushing stock price changes to clients.
+ */
+@RestController
+@RequestMapping("/stocks/prices")
+public class StockPriceStreamController {
+
+  private final StockPriceBroadcaster stockPriceBroadcaster;
+
+  public StockPriceStreamController(StockPriceBroadcaster stockPriceBroadcaster) {
+    this.stockPriceBroadcaster = stockPriceBroadcaster;
+  }
+
+  /**
+   * Subscribes to the price changes of a set of stocks as Server-Sent Events. Each
+   * event is named {@code price} and carries the symbol and its new price.
+   *
+   * @param symbols the symbols to subscribe to, comma separated.
+   * @return the event stream.
+   */
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamPrices(@RequestParam Set<String> symbols) {
+    return stockPriceBroadcaster.subscribe(symbols);
+  }
+}
@@ -0,0 +1,38 @@
+package com.mandacarubroker.controller;
+
+import com.mandacarubroker.domain.search.StockSearchHit;
+import com.mandacarubroker.service.StockSearchService;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller responsible for searching stocks by symbol or company name.
+ */
+@RestController
+@RequestMapping("/stocks/search")
+@ConditionalOnProperty(name = "mandacaru.search.enabled", matchIfMissing = true)
+public class StockSearchController {
+
+  private final StockSearchService stockSearchService;
+
+  public StockSearchController(StockSearchService stockSearchService) {
+    this.stockSearchService = stockSearchService;
+  }
+
+  /**
+   * Finds the stocks whose symbol or company name words start with the words of a query.
+   *
+   * @param q     the text typed by the user.
+   * @param limit the maximum number of stocks to return, 10 by default.
+   * @return the matching stocks, best first.
+   */
+  @GetMapping
+  public List<StockSearchHit> search(@RequestParam String q,
+                                     @RequestParam(defaultValue = "" + StockSearchService.DEFAULT_LIMIT) int limit) {
+    return stockSearchService.search(q, limit);
+  }
+}
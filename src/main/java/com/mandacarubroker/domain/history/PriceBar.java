@@ -0,0 +1,20 @@
+package com.mandacarubroker.domain.history;
+
+import com.mandacarubroker.domain.stock.JsonPrice;
+import java.time.Instant;
+
+/**
+ * The open, high, low and close prices of a stock over an interval.
+ *
+ * @param start the start of the interval.
+ * @param open  the first price in the interval.
+ * @param high  the highest price in the interval.
+ * @param low   the lowest price in the interval.
+ * @param close the last price in the interval.
+ */
+public record PriceBar(Instant start,
+                       @JsonPrice long open,
+                       @JsonPrice long high,
+                       @JsonPrice long low,
+                       @JsonPrice long close) {
+}
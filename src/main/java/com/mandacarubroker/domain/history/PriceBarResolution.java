@@ -0,0 +1,59 @@
+package com.mandacarubroker.domain.history;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * The pre-aggregated bar tables, from the finest to the coarsest. Bars of any interval
+ * are built from the coarsest table whose buckets tile the requested range exactly.
+ */
+public enum PriceBarResolution {
+  MINUTE("stock_price_bar_1m", ChronoUnit.MINUTES),
+  HOUR("stock_price_bar_1h", ChronoUnit.HOURS),
+  DAY("stock_price_bar_1d", ChronoUnit.DAYS);
+
+  private final String table;
+  private final ChronoUnit unit;
+
+  PriceBarResolution(String table, ChronoUnit unit) {
+    this.table = table;
+    this.unit = unit;
+  }
+
+  String table() {
+    return table;
+  }
+
+  /**
+   * Gets the start of the UTC bucket an instant falls in.
+   *
+   * @param instant the instant.
+   * @return the start of its bucket.
+   */
+  public Instant truncate(Instant instant) {
+    return instant.truncatedTo(unit);
+  }
+
+  /**
+   * Finds the coarsest resolution whose buckets start at {@code from}, end at
+   * {@code to} and evenly divide {@code interval}.
+   *
+   * @param from     the start of the range, at least minute-aligned.
+   * @param to       the end of the range, at least minute-aligned.
+   * @param interval the length of each bar, a whole number of minutes.
+   * @return the resolution to read the bars from.
+   */
+  public static PriceBarResolution coarsestFor(Instant from, Instant to, Duration interval) {
+    PriceBarResolution[] resolutions = values();
+    for (int i = resolutions.length - 1; i > 0; i--) {
+      PriceBarResolution resolution = resolutions[i];
+      if (interval.toSeconds() % resolution.unit.getDuration().toSeconds() == 0
+              && resolution.truncate(from).equals(from)
+              && resolution.truncate(to).equals(to)) {
+        return resolution;
+      }
+    }
+    return MINUTE;
+  }
+}
@@ -0,0 +1,173 @@
+package com.mandacarubroker.domain.history;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Appends price points to the partitioned tick table, keeps the bar tables rolled up
+ * and reads bars back, all with JDBC.
+ */
+@Repository
+public class PriceHistoryRepository {
+
+  private static final String INSERT_TICK = "INSERT INTO stock_price_tick (symbol, ts, price) VALUES (?, ?, ?)";
+
+  private static final String UPSERT_BAR = "INSERT INTO %s AS bar "
+          + "(symbol, bucket, open, high, low, close, open_at, close_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+          + "ON CONFLICT (symbol, bucket) DO UPDATE SET "
+          + "open = CASE WHEN EXCLUDED.open_at < bar.open_at THEN EXCLUDED.open ELSE bar.open END, "
+          + "high = GREATEST(bar.high, EXCLUDED.high), "
+          + "low = LEAST(bar.low, EXCLUDED.low), "
+          + "close = CASE WHEN EXCLUDED.close_at >= bar.close_at THEN EXCLUDED.close ELSE bar.close END, "
+          + "open_at = LEAST(bar.open_at, EXCLUDED.open_at), "
+          + "close_at = GREATEST(bar.close_at, EXCLUDED.close_at)";
+
+  private static final String SELECT_BARS = "SELECT date_bin(CAST(? AS interval), bucket, ?) AS start, "
+          + "(array_agg(open ORDER BY bucket))[1] AS open, max(high) AS high, min(low) AS low, "
+          + "(array_agg(close ORDER BY bucket DESC))[1] AS close "
+          + "FROM %s WHERE symbol = ? AND bucket >= ? AND bucket < ? GROUP BY 1 ORDER BY 1";
+
+  private static final Map<PriceBarResolution, String> UPSERT_BAR_BY_RESOLUTION = new EnumMap<>(PriceBarResolution.class);
+  private static final Map<PriceBarResolution, String> SELECT_BARS_BY_RESOLUTION = new EnumMap<>(PriceBarResolution.class);
+
+  static {
+    for (PriceBarResolution resolution : PriceBarResolution.values()) {
+      UPSERT_BAR_BY_RESOLUTION.put(resolution, String.format(UPSERT_BAR, resolution.table()));
+      SELECT_BARS_BY_RESOLUTION.put(resolution, String.format(SELECT_BARS, resolution.table()));
+    }
+  }
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public PriceHistoryRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Appends price points to the tick table and merges them into the bars of every
+   * resolution. Points are first folded into one bar per symbol and bucket, so each
+   * bar is upserted once per call.
+   *
+   * @param points the points to append, in the order they were recorded.
+   */
+  @Transactional
+  public void append(List<PricePoint> points) {
+    jdbcTemplate.batchUpdate(INSERT_TICK, points, points.size(), (statement, point) -> {
+      statement.setString(1, point.symbol());
+      statement.setObject(2, utc(point.at()));
+      statement.setLong(3, point.price());
+    });
+    for (PriceBarResolution resolution : PriceBarResolution.values()) {
+      Collection<BarUpdate> bars = rollUp(points, resolution);
+      jdbcTemplate.batchUpdate(UPSERT_BAR_BY_RESOLUTION.get(resolution), bars, bars.size(), (statement, bar) -> {
+        statement.setString(1, bar.symbol);
+        statement.setObject(2, utc(bar.bucket));
+        statement.setLong(3, bar.open);
+        statement.setLong(4, bar.high);
+        statement.setLong(5, bar.low);
+        statement.setLong(6, bar.close);
+        statement.setObject(7, utc(bar.openAt));
+        statement.setObject(8, utc(bar.closeAt));
+      });
+    }
+  }
+
+  /**
+   * Reads the bars of a stock over a range, aggregating the stored bars of one
+   * resolution into bars of the requested interval, aligned on {@code from}.
+   *
+   * @param symbol     the symbol of the stock.
+   * @param resolution the stored bars to aggregate.
+   * @param from       the start of the range, inclusive.
+   * @param to         the end of the range, exclusive.
+   * @param interval   the length of each bar.
+   * @return the bars that have at least one price, in time order.
+   */
+  @Transactional(readOnly = true)
+  public List<PriceBar> findBars(String symbol, PriceBarResolution resolution, Instant from, Instant to,
+                                 Duration interval) {
+    return jdbcTemplate.query(SELECT_BARS_BY_RESOLUTION.get(resolution), PriceHistoryRepository::mapBar,
+            interval.toSeconds() + " seconds", utc(from), symbol, utc(from), utc(to));
+  }
+
+  /**
+   * Creates the tick partitions of the coming days and drops the expired ones.
+   *
+   * @param daysAhead the number of days after today to create partitions for.
+   * @param daysKept  the number of days before today whose ticks are kept.
+   */
+  public void maintainPartitions(int daysAhead, int daysKept) {
+    jdbcTemplate.query("SELECT stock_price_tick_maintain_partitions(?, ?)", (RowCallbackHandler) row -> { },
+            daysAhead, daysKept);
+  }
+
+  private static Collection<BarUpdate> rollUp(List<PricePoint> points, PriceBarResolution resolution) {
+    Map<String, BarUpdate> bars = new LinkedHashMap<>();
+    for (PricePoint point : points) {
+      Instant bucket = resolution.truncate(point.at());
+      bars.computeIfAbsent(point.symbol() + '@' + bucket, key -> new BarUpdate(point.symbol(), bucket, point))
+              .add(point);
+    }
+    return bars.values();
+  }
+
+  private static PriceBar mapBar(ResultSet resultSet, int rowNum) throws SQLException {
+    return new PriceBar(resultSet.getObject("start", OffsetDateTime.class).toInstant(),
+            resultSet.getLong("open"),
+            resultSet.getLong("high"),
+            resultSet.getLong("low"),
+            resultSet.getLong("close"));
+  }
+
+  private static OffsetDateTime utc(Instant instant) {
+    return instant.atOffset(ZoneOffset.UTC);
+  }
+
+  private static final class BarUpdate {
+    private final String symbol;
+    private final Instant bucket;
+    private long open;
+    private long high;
+    private long low;
+    private long close;
+    private Instant openAt;
+    private Instant closeAt;
+
+    private BarUpdate(String symbol, Instant bucket, PricePoint first) {
+      this.symbol = symbol;
+      this.bucket = bucket;
+      this.open = first.price();
+      this.high = first.price();
+      this.low = first.price();
+      this.close = first.price();
+      this.openAt = first.at();
+      this.closeAt = first.at();
+    }
+
+    private void add(PricePoint point) {
+      if (point.at().isBefore(openAt)) {
+        open = point.price();
+        openAt = point.at();
+      }
+      if (!point.at().isBefore(closeAt)) {
+        close = point.price();
+        closeAt = point.at();
+      }
+      high = Math.max(high, point.price());
+      low = Math.min(low, point.price());
+    }
+  }
+}
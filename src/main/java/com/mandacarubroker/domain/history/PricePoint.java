@@ -0,0 +1,13 @@
+package com.mandacarubroker.domain.history;
+
+import java.time.Instant;
+
+/**
+ * A price a stock had at a point in time, as recorded in the price history.
+ *
+ * @param symbol the symbol of the stock.
+ * @param at     when the price was written.
+ * @param price  the price, in {@link com.mandacarubroker.domain.stock.Price} ticks.
+ */
+public record PricePoint(String symbol, Instant at, long price) {
+}
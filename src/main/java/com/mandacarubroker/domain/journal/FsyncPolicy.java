@@ -0,0 +1,13 @@
+package com.mandacarubroker.domain.journal;
+
+/**
+ * When journal writes are forced from the page cache to the storage device.
+ */
+public enum FsyncPolicy {
+  /** After every record: nothing acknowledged is lost, at the cost of a sync per mutation. */
+  ALWAYS,
+  /** On a fixed interval: at most one interval of mutations is lost if the machine fails. */
+  INTERVAL,
+  /** Left to the operating system: survives a process crash, not a machine failure. */
+  NEVER
+}
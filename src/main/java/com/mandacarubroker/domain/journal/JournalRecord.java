@@ -0,0 +1,38 @@
+package com.mandacarubroker.domain.journal;
+
+import com.mandacarubroker.domain.stock.Stock;
+import java.time.Instant;
+
+/**
+ * A stock mutation as written to the {@link StockJournal}. Fields that do not apply
+ * to the type are null or zero.
+ *
+ * @param type        the kind of mutation.
+ * @param id          the id of the stock; null for price changes, which are keyed by symbol.
+ * @param symbol      the symbol of the stock; null for deletes.
+ * @param companyName the company name; only set when a stock is saved.
+ * @param price       the price of the stock; zero for deletes.
+ * @param version     the version of the stock; only set when a stock is saved.
+ * @param updatedAt   the last update time of the stock; only set when a stock is saved.
+ */
+public record JournalRecord(JournalRecordType type,
+                            String id,
+                            String symbol,
+                            String companyName,
+                            long price,
+                            Long version,
+                            Instant updatedAt) {
+
+  public static JournalRecord saved(Stock stock) {
+    return new JournalRecord(JournalRecordType.SAVE, stock.getId(), stock.getSymbol(), stock.getCompanyName(),
+            stock.getPrice(), stock.getVersion(), stock.getUpdatedAt());
+  }
+
+  public static JournalRecord deleted(String id) {
+    return new JournalRecord(JournalRecordType.DELETE, id, null, null, 0, null, null);
+  }
+
+  public static JournalRecord priceChanged(String symbol, long price) {
+    return new JournalRecord(JournalRecordType.PRICE, null, symbol, null, price, null, null);
+  }
+}
@@ -0,0 +1,29 @@
+package com.mandacarubroker.domain.journal;
+
+/**
+ * The kind of stock mutation a {@link JournalRecord} describes, with its on-disk code.
+ */
+public enum JournalRecordType {
+  SAVE((byte) 1),
+  DELETE((byte) 2),
+  PRICE((byte) 3);
+
+  private final byte code;
+
+  JournalRecordType(byte code) {
+    this.code = code;
+  }
+
+  byte code() {
+    return code;
+  }
+
+  static JournalRecordType of(byte code) {
+    for (JournalRecordType type : values()) {
+      if (type.code == code) {
+        return type;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,330 @@
+package com.mandacarubroker.domain.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * An append-only log of stock mutations, stored in fixed-size memory-mapped segment files.
+ *
+ * <p>Each record is laid out as its payload length, a CRC32C checksum, its sequence
+ * number, its type and the payload. The checksum covers everything after itself, and
+ * the length is written last, so a record torn by a crash either reads as the end of
+ * the segment or fails its checksum. Segment files are named after the sequence of
+ * their first record and are zero-filled when created, so a zero length marks the end
+ * of the written part.
+ *
+ * <p>{@link #recover(long, Consumer)} must be called once, before the first append,
+ * to find the end of the log. Records after the first invalid one are not trusted:
+ * the rest of that segment is zeroed and later segments are set aside with a
+ * {@code .corrupt} suffix. All methods are thread-safe.
+ */
+public class StockJournal implements Closeable {
+
+  static final int HEADER_SIZE = 4 + 4 + 8 + 1;
+
+  private static final String SEGMENT_PREFIX = "journal-";
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final String CORRUPT_SUFFIX = ".corrupt";
+
+  private final Path directory;
+  private final int segmentSize;
+  private final FsyncPolicy fsyncPolicy;
+  private final TreeMap<Long, Path> segments = new TreeMap<>();
+  private final CRC32C checksum = new CRC32C();
+
+  private MappedByteBuffer segment;
+  private long lastSequence;
+  private boolean recovered;
+
+  /**
+   * Opens the journal in a directory, creating the directory if needed.
+   *
+   * @param directory   the directory holding the segment files.
+   * @param segmentSize the size of each segment file, in bytes.
+   * @param fsyncPolicy when appended records are forced to the storage device.
+   * @throws IOException If the directory cannot be created or listed.
+   */
+  public StockJournal(Path directory, int segmentSize, FsyncPolicy fsyncPolicy) throws IOException {
+    this.directory = Files.createDirectories(directory);
+    this.segmentSize = segmentSize;
+    this.fsyncPolicy = fsyncPolicy;
+    try (Stream<Path> files = Files.list(directory)) {
+      files.forEach(file -> {
+        String name = file.getFileName().toString();
+        if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+          segments.put(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                  name.length() - SEGMENT_SUFFIX.length())), file);
+        }
+      });
+    }
+  }
+
+  /**
+   * Reads the journal from the start, passes on the records after a sequence and
+   * positions the journal for appending after the last valid record.
+   *
+   * @param afterSequence the sequence already covered by a snapshot; only later records are passed on.
+   * @param consumer      receives the records in sequence order.
+   * @return the sequence of the last record in the journal, or {@code afterSequence} if it is later.
+   * @throws IOException If a segment cannot be read.
+   */
+  public synchronized long recover(long afterSequence, Consumer<JournalRecord> consumer) throws IOException {
+    long last = -1;
+    MappedByteBuffer tail = null;
+    Iterator<Map.Entry<Long, Path>> entries = segments.entrySet().iterator();
+    while (entries.hasNext()) {
+      Map.Entry<Long, Path> entry = entries.next();
+      if (last >= 0 && entry.getKey() != last + 1) {
+        setAside(entry.getValue(), entries);
+        continue;
+      }
+
+      MappedByteBuffer buffer = map(entry.getValue());
+      long expected = entry.getKey();
+      boolean torn = false;
+      while (buffer.remaining() >= HEADER_SIZE) {
+        int start = buffer.position();
+        int length = buffer.getInt(start);
+        if (length == 0) {
+          break;
+        }
+        JournalRecord record = read(buffer, start, length, expected);
+        if (record == null) {
+          torn = true;
+          break;
+        }
+        if (expected > afterSequence) {
+          consumer.accept(record);
+        }
+        last = expected++;
+        buffer.position(start + HEADER_SIZE + length);
+      }
+      if (torn) {
+        for (int i = buffer.position(); i < buffer.limit(); i++) {
+          buffer.put(i, (byte) 0);
+        }
+      }
+      if (last < entry.getKey()) {
+        last = entry.getKey() - 1;
+      }
+      tail = buffer;
+      if (torn) {
+        while (entries.hasNext()) {
+          setAside(entries.next().getValue(), entries);
+        }
+      }
+    }
+
+    segment = tail;
+    lastSequence = last;
+    if (last < afterSequence) {
+      // The snapshot is ahead of the whole journal, so none of it is needed and the
+      // next segment starts right after the snapshot.
+      for (Path file : segments.values()) {
+        Files.deleteIfExists(file);
+      }
+      segments.clear();
+      segment = null;
+      lastSequence = afterSequence;
+    }
+    recovered = true;
+    return lastSequence;
+  }
+
+  /**
+   * Appends a record, starting a new segment when the current one is full.
+   *
+   * @param record the record to append.
+   * @return the sequence assigned to the record.
+   * @throws IOException If a new segment cannot be created.
+   */
+  public synchronized long append(JournalRecord record) throws IOException {
+    if (!recovered) {
+      throw new IllegalStateException("The journal must be recovered before appending");
+    }
+    byte[] id = utf8(record.id());
+    byte[] symbol = utf8(record.symbol());
+    byte[] companyName = utf8(record.companyName());
+    int length = stringSize(id) + stringSize(symbol) + stringSize(companyName) + 8 + 1 + 8 + 1 + 8 + 4;
+    if (HEADER_SIZE + length > segmentSize) {
+      throw new IllegalArgumentException("The record does not fit in a journal segment");
+    }
+    if (segment == null || segment.remaining() < HEADER_SIZE + length) {
+      roll();
+    }
+
+    long sequence = lastSequence + 1;
+    int start = segment.position();
+    segment.position(start + 8);
+    segment.putLong(sequence);
+    segment.put(record.type().code());
+    putString(segment, id);
+    putString(segment, symbol);
+    putString(segment, companyName);
+    segment.putLong(record.price());
+    segment.put((byte) (record.version() == null ? 0 : 1));
+    segment.putLong(record.version() == null ? 0 : record.version());
+    segment.put((byte) (record.updatedAt() == null ? 0 : 1));
+    segment.putLong(record.updatedAt() == null ? 0 : record.updatedAt().getEpochSecond());
+    segment.putInt(record.updatedAt() == null ? 0 : record.updatedAt().getNano());
+
+    segment.putInt(start + 4, checksum(segment, start + 8, 8 + 1 + length));
+    segment.putInt(start, length);
+    if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+      segment.force(start, HEADER_SIZE + length);
+    }
+    lastSequence = sequence;
+    return sequence;
+  }
+
+  /**
+   * Forces the current segment to the storage device.
+   */
+  public synchronized void force() {
+    if (segment != null) {
+      segment.force();
+    }
+  }
+
+  /**
+   * Deletes the segments holding only records up to a sequence. The current segment
+   * is always kept.
+   *
+   * @param sequence the last sequence that is no longer needed.
+   * @throws IOException If a segment cannot be deleted.
+   */
+  public synchronized void deleteSegmentsThrough(long sequence) throws IOException {
+    Iterator<Map.Entry<Long, Path>> entries = segments.entrySet().iterator();
+    while (entries.hasNext()) {
+      Map.Entry<Long, Path> entry = entries.next();
+      Long next = segments.higherKey(entry.getKey());
+      if (next == null || next - 1 > sequence) {
+        return;
+      }
+      Files.deleteIfExists(entry.getValue());
+      entries.remove();
+    }
+  }
+
+  public synchronized long getLastSequence() {
+    return lastSequence;
+  }
+
+  public synchronized int getSegmentCount() {
+    return segments.size();
+  }
+
+  @Override
+  public synchronized void close() {
+    if (fsyncPolicy != FsyncPolicy.NEVER) {
+      force();
+    }
+    segment = null;
+  }
+
+  private void roll() throws IOException {
+    if (segment != null && fsyncPolicy != FsyncPolicy.NEVER) {
+      segment.force();
+    }
+    long first = lastSequence + 1;
+    Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, first, SEGMENT_SUFFIX));
+    segment = map(file);
+    segments.put(first, file);
+  }
+
+  private MappedByteBuffer map(Path file) throws IOException {
+    try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+      if (raf.length() < segmentSize) {
+        raf.setLength(segmentSize);
+      }
+      return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, raf.length());
+    }
+  }
+
+  private void setAside(Path file, Iterator<Map.Entry<Long, Path>> entries) throws IOException {
+    Files.move(file, file.resolveSibling(file.getFileName() + CORRUPT_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+    entries.remove();
+  }
+
+  /**
+   * Decodes the record at a position, or returns null if it is torn, fails its checksum
+   * or is out of sequence.
+   */
+  private JournalRecord read(ByteBuffer buffer, int start, int length, long expectedSequence) {
+    if (length < 0 || length > buffer.limit() - start - HEADER_SIZE) {
+      return null;
+    }
+    if (buffer.getInt(start + 4) != checksum(buffer, start + 8, 8 + 1 + length)
+            || buffer.getLong(start + 8) != expectedSequence) {
+      return null;
+    }
+    JournalRecordType type = JournalRecordType.of(buffer.get(start + 16));
+    if (type == null) {
+      return null;
+    }
+
+    ByteBuffer payload = buffer.slice(start + HEADER_SIZE, length);
+    try {
+      String id = getString(payload);
+      String symbol = getString(payload);
+      String companyName = getString(payload);
+      long price = payload.getLong();
+      boolean hasVersion = payload.get() != 0;
+      long version = payload.getLong();
+      boolean hasUpdatedAt = payload.get() != 0;
+      Instant updatedAt = Instant.ofEpochSecond(payload.getLong(), payload.getInt());
+      return new JournalRecord(type, id, symbol, companyName, price, hasVersion ? version : null,
+              hasUpdatedAt ? updatedAt : null);
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+
+  private int checksum(ByteBuffer buffer, int offset, int length) {
+    checksum.reset();
+    checksum.update(buffer.slice(offset, length));
+    return (int) checksum.getValue();
+  }
+
+  private static byte[] utf8(String value) {
+    return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static int stringSize(byte[] value) {
+    return 4 + (value == null ? 0 : value.length);
+  }
+
+  private static void putString(ByteBuffer buffer, byte[] value) {
+    if (value == null) {
+      buffer.putInt(-1);
+    } else {
+      buffer.putInt(value.length);
+      buffer.put(value);
+    }
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,13 @@
+package com.mandacarubroker.domain.journal;
+
+import com.mandacarubroker.domain.stock.Stock;
+import java.util.List;
+
+/**
+ * The state of every stock as of a journal sequence.
+ *
+ * @param sequence the sequence of the last journal record the snapshot includes.
+ * @param stocks   the stocks.
+ */
+public record StockSnapshot(long sequence, List<Stock> stocks) {
+}
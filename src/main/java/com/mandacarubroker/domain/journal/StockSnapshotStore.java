@@ -0,0 +1,190 @@
+package com.mandacarubroker.domain.journal;
+
+import com.mandacarubroker.domain.stock.Stock;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Writes and reads compact, checksummed snapshots of every stock.
+ *
+ * <p>A snapshot is written to a temporary file, forced to disk and then renamed into
+ * place, so a crash never leaves a partial snapshot under its final name. Its CRC32C
+ * trailer is checked on read; a snapshot that fails the check is skipped in favour of
+ * the previous one, which is why more than one snapshot is kept.
+ */
+public class StockSnapshotStore {
+
+  private static final int MAGIC = 0x4D42534E;
+  private static final int FORMAT_VERSION = 1;
+  private static final String SNAPSHOT_PREFIX = "snapshot-";
+  private static final String SNAPSHOT_SUFFIX = ".snap";
+  private static final String TEMPORARY_SUFFIX = ".tmp";
+
+  private final Path directory;
+  private final boolean fsync;
+
+  /**
+   * Opens the store in a directory, creating the directory if needed.
+   *
+   * @param directory the directory holding the snapshot files.
+   * @param fsync     whether snapshots are forced to the storage device before being renamed into place.
+   * @throws IOException If the directory cannot be created.
+   */
+  public StockSnapshotStore(Path directory, boolean fsync) throws IOException {
+    this.directory = Files.createDirectories(directory);
+    this.fsync = fsync;
+  }
+
+  /**
+   * Writes a snapshot.
+   *
+   * @param snapshot the snapshot to write.
+   * @throws IOException If the snapshot cannot be written.
+   */
+  public void write(StockSnapshot snapshot) throws IOException {
+    Path file = file(snapshot.sequence());
+    Path temporary = file.resolveSibling(file.getFileName() + TEMPORARY_SUFFIX);
+    CRC32C checksum = new CRC32C();
+    try (OutputStream out = Files.newOutputStream(temporary)) {
+      DataOutputStream data = new DataOutputStream(
+              new BufferedOutputStream(new CheckedOutputStream(out, checksum), 1 << 16));
+      data.writeInt(MAGIC);
+      data.writeInt(FORMAT_VERSION);
+      data.writeLong(snapshot.sequence());
+      data.writeInt(snapshot.stocks().size());
+      for (Stock stock : snapshot.stocks()) {
+        writeString(data, stock.getId());
+        writeString(data, stock.getSymbol());
+        writeString(data, stock.getCompanyName());
+        data.writeLong(stock.getPrice());
+        data.writeBoolean(stock.getVersion() != null);
+        data.writeLong(stock.getVersion() == null ? 0 : stock.getVersion());
+        data.writeBoolean(stock.getUpdatedAt() != null);
+        data.writeLong(stock.getUpdatedAt() == null ? 0 : stock.getUpdatedAt().getEpochSecond());
+        data.writeInt(stock.getUpdatedAt() == null ? 0 : stock.getUpdatedAt().getNano());
+      }
+      data.flush();
+      new DataOutputStream(out).writeLong(checksum.getValue());
+    }
+    if (fsync) {
+      try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+        channel.force(true);
+      }
+    }
+    Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * Reads the latest snapshot that passes its checksum.
+   *
+   * @return the snapshot, or empty if there is no valid snapshot.
+   * @throws IOException If the directory cannot be listed.
+   */
+  public Optional<StockSnapshot> readLatest() throws IOException {
+    for (Path file : list(Comparator.reverseOrder())) {
+      Optional<StockSnapshot> snapshot = read(file);
+      if (snapshot.isPresent()) {
+        return snapshot;
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Deletes all but the latest snapshots.
+   *
+   * @param keep the number of snapshots to keep.
+   * @return the sequence of the oldest snapshot kept, or empty if there is none.
+   * @throws IOException If a snapshot cannot be deleted.
+   */
+  public Optional<Long> prune(int keep) throws IOException {
+    List<Path> files = list(Comparator.reverseOrder());
+    for (int i = keep; i < files.size(); i++) {
+      Files.deleteIfExists(files.get(i));
+    }
+    if (files.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(sequence(files.get(Math.min(keep, files.size()) - 1)));
+  }
+
+  private Optional<StockSnapshot> read(Path file) {
+    CRC32C checksum = new CRC32C();
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+      DataInputStream data = new DataInputStream(new CheckedInputStream(in, checksum));
+      if (data.readInt() != MAGIC || data.readInt() != FORMAT_VERSION) {
+        return Optional.empty();
+      }
+      long sequence = data.readLong();
+      int count = data.readInt();
+      List<Stock> stocks = new ArrayList<>(Math.min(count, 1 << 20));
+      for (int i = 0; i < count; i++) {
+        String id = readString(data);
+        String symbol = readString(data);
+        String companyName = readString(data);
+        long price = data.readLong();
+        boolean hasVersion = data.readBoolean();
+        long version = data.readLong();
+        boolean hasUpdatedAt = data.readBoolean();
+        Instant updatedAt = Instant.ofEpochSecond(data.readLong(), data.readInt());
+        stocks.add(new Stock(id, symbol, companyName, price, hasVersion ? version : null,
+                hasUpdatedAt ? updatedAt : null));
+      }
+      long expected = checksum.getValue();
+      if (new DataInputStream(in).readLong() != expected) {
+        return Optional.empty();
+      }
+      return Optional.of(new StockSnapshot(sequence, stocks));
+    } catch (IOException | RuntimeException e) {
+      return Optional.empty();
+    }
+  }
+
+  private List<Path> list(Comparator<Path> order) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(file -> {
+        String name = file.getFileName().toString();
+        return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+      }).sorted(order).toList();
+    }
+  }
+
+  private Path file(long sequence) {
+    return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX));
+  }
+
+  private static long sequence(Path file) {
+    String name = file.getFileName().toString();
+    return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+  }
+
+  private static void writeString(DataOutputStream data, String value) throws IOException {
+    data.writeBoolean(value != null);
+    if (value != null) {
+      data.writeUTF(value);
+    }
+  }
+
+  private static String readString(DataInputStream data) throws IOException {
+    return data.readBoolean() ? data.readUTF() : null;
+  }
+}
@@ -0,0 +1,172 @@
+package com.mandacarubroker.domain.order;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Matches the orders of a shard of stocks on a dedicated thread.
+ *
+ * <p>Orders are submitted from any thread through a lock-free {@link MpscRingBuffer}.
+ * The engine thread is the only one that touches its {@link OrderBook}s, one per
+ * symbol, created by the first order for the symbol, so the match loop needs no locks.
+ * When the buffer runs dry the thread spins briefly and then parks until the next
+ * submission wakes it.
+ */
+public class MatchingEngine implements AutoCloseable {
+
+  private static final int SPINS_BEFORE_PARKING = 1_000;
+
+  private final Map<String, OrderBook> books = new HashMap<>();
+  private final MpscRingBuffer<Command> inbox;
+
+  /**
+   * The symbols whose book was removed while the buffer was full. The engine thread
+   * drops their books before matching the next order for them, or when it goes idle.
+   */
+  private final Set<String> removedBooks = ConcurrentHashMap.newKeySet();
+  private final Consumer<Trade> tradeListener;
+  private final Thread thread;
+
+  private volatile boolean running = true;
+  private volatile boolean parked;
+
+  /**
+   * Creates an engine and starts its thread.
+   *
+   * @param name          the name of the engine, used in its thread name.
+   * @param capacity      the maximum number of orders waiting to be matched.
+   * @param tradeListener receives every trade on the engine thread; must not block.
+   */
+  public MatchingEngine(String name, int capacity, Consumer<Trade> tradeListener) {
+    this.inbox = new MpscRingBuffer<>(capacity);
+    this.tradeListener = tradeListener;
+    this.thread = new Thread(this::run, "matching-engine-" + name);
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * Queues an order to be matched.
+   *
+   * @param order the order.
+   * @return a future completed with the receipt once the order is matched, or null if
+   *     the engine is saturated and the order was not queued.
+   */
+  public CompletableFuture<OrderReceipt> submit(Order order) {
+    CompletableFuture<OrderReceipt> receipt = new CompletableFuture<>();
+    if (!running || !inbox.offer(new Submission(order, receipt))) {
+      return null;
+    }
+    wakeUp();
+    return receipt;
+  }
+
+  /**
+   * Drops the book of a symbol and every order resting in it, once the orders queued
+   * before this call have been matched. Never waits: if the buffer is full the book
+   * is marked as removed instead, and dropped before the next order for the symbol is
+   * matched, which may be one queued before this call.
+   *
+   * @param symbol the symbol whose book is dropped.
+   */
+  public void removeBook(String symbol) {
+    if (!running || !inbox.offer(new Removal(symbol))) {
+      removedBooks.add(symbol);
+    }
+    wakeUp();
+  }
+
+  /**
+   * Stops the engine thread. Orders still queued are completed exceptionally.
+   */
+  @Override
+  public void close() {
+    running = false;
+    LockSupport.unpark(thread);
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void wakeUp() {
+    if (parked) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  private void run() {
+    int idle = 0;
+    while (running) {
+      Command command = inbox.poll();
+      if (command instanceof Submission submission) {
+        idle = 0;
+        process(submission);
+      } else if (command instanceof Removal removal) {
+        idle = 0;
+        books.remove(removal.symbol);
+      } else if (++idle < SPINS_BEFORE_PARKING) {
+        Thread.onSpinWait();
+      } else {
+        dropRemovedBooks();
+        parked = true;
+        if (running && inbox.isEmpty()) {
+          LockSupport.park(this);
+        }
+        parked = false;
+        idle = 0;
+      }
+    }
+
+    Command command;
+    while ((command = inbox.poll()) != null) {
+      if (command instanceof Submission submission) {
+        submission.receipt.completeExceptionally(new CancellationException("The matching engine was stopped"));
+      }
+    }
+  }
+
+  private void dropRemovedBooks() {
+    for (String symbol : removedBooks) {
+      removedBooks.remove(symbol);
+      books.remove(symbol);
+    }
+  }
+
+  private void process(Submission submission) {
+    Order order = submission.order;
+    List<Trade> trades = new ArrayList<>(1);
+    try {
+      if (!removedBooks.isEmpty() && removedBooks.remove(order.getSymbol())) {
+        books.remove(order.getSymbol());
+      }
+      OrderBook book = books.computeIfAbsent(order.getSymbol(), OrderBook::new);
+      book.match(order, trade -> {
+        trades.add(trade);
+        tradeListener.accept(trade);
+      });
+      submission.receipt.complete(new OrderReceipt(order.getId(), order.getSymbol(), order.getStatus(),
+              order.getFilled(), order.getRemaining(), trades));
+    } catch (RuntimeException e) {
+      submission.receipt.completeExceptionally(e);
+    }
+  }
+
+  private interface Command {
+  }
+
+  private record Submission(Order order, CompletableFuture<OrderReceipt> receipt) implements Command {
+  }
+
+  private record Removal(String symbol) implements Command {
+  }
+}
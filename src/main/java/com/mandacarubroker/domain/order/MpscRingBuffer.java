@@ -0,0 +1,105 @@
+package com.mandacarubroker.domain.order;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded, lock-free queue for many producers and a single consumer.
+ *
+ * <p>Each slot carries a sequence number telling whose turn it is. A producer claims
+ * the next position with a compare-and-set on the tail, writes its element and then
+ * publishes the slot by advancing its sequence; the consumer takes a slot only once it
+ * has been published and hands it back to the producers one lap later. Neither side
+ * ever blocks, and a full buffer makes {@link #offer(Object)} fail instead of waiting.
+ *
+ * @param <E> the type of the elements.
+ */
+public final class MpscRingBuffer<E> {
+
+  private final Object[] elements;
+  private final AtomicLongArray sequences;
+  private final int mask;
+  private final AtomicLong tail = new AtomicLong();
+  private long head;
+
+  /**
+   * Creates an empty ring buffer.
+   *
+   * @param capacity the number of slots, rounded up to a power of two.
+   */
+  public MpscRingBuffer(int capacity) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+    }
+    int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+    this.elements = new Object[size];
+    this.sequences = new AtomicLongArray(size);
+    this.mask = size - 1;
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * Appends an element. Safe to call from any thread.
+   *
+   * @param element the element to append.
+   * @return true if the element was appended, false if the buffer is full.
+   */
+  public boolean offer(E element) {
+    long position = tail.get();
+    while (true) {
+      int index = (int) (position & mask);
+      long lag = sequences.get(index) - position;
+      if (lag == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          elements[index] = element;
+          sequences.set(index, position + 1);
+          return true;
+        }
+        position = tail.get();
+      } else if (lag < 0) {
+        return false;
+      } else {
+        position = tail.get();
+      }
+    }
+  }
+
+  /**
+   * Removes the oldest published element. Must only be called by the consumer thread.
+   *
+   * @return the element, or null if none is published yet.
+   */
+  @SuppressWarnings("unchecked")
+  public E poll() {
+    int index = (int) (head & mask);
+    if (sequences.get(index) != head + 1) {
+      return null;
+    }
+    E element = (E) elements[index];
+    elements[index] = null;
+    sequences.lazySet(index, head + elements.length);
+    head++;
+    return element;
+  }
+
+  /**
+   * Checks whether an element is published and waiting. Must only be called by the
+   * consumer thread.
+   *
+   * @return true if {@link #poll()} would return null.
+   */
+  public boolean isEmpty() {
+    return sequences.get((int) (head & mask)) != head + 1;
+  }
+
+  /**
+   * Gets the number of slots.
+   *
+   * @return the capacity of the buffer.
+   */
+  public int capacity() {
+    return elements.length;
+  }
+}
@@ -0,0 +1,62 @@
+package com.mandacarubroker.domain.order;
+
+import lombok.Getter;
+
+/**
+ * An order being matched or resting in an {@link OrderBook}. Only the remaining
+ * quantity changes, and only on the thread that owns the book.
+ */
+@Getter
+public final class Order {
+
+  private final long id;
+  private final String symbol;
+  private final OrderSide side;
+  private final OrderType type;
+  private final long price;
+  private final long quantity;
+  private long remaining;
+
+  /**
+   * Creates an order with nothing filled yet.
+   *
+   * @param id       the id of the order.
+   * @param symbol   the symbol of the stock.
+   * @param side     whether to buy or sell.
+   * @param type     whether the order is a limit or a market order.
+   * @param price    the limit price, in {@link com.mandacarubroker.domain.stock.Price} ticks.
+   * @param quantity the number of shares.
+   */
+  public Order(long id, String symbol, OrderSide side, OrderType type, long price, long quantity) {
+    this.id = id;
+    this.symbol = symbol;
+    this.side = side;
+    this.type = type;
+    this.price = price;
+    this.quantity = quantity;
+    this.remaining = quantity;
+  }
+
+  public long getFilled() {
+    return quantity - remaining;
+  }
+
+  /**
+   * Gets the state of the order, assuming matching is over.
+   *
+   * @return the status of the order.
+   */
+  public OrderStatus getStatus() {
+    if (remaining == 0) {
+      return OrderStatus.FILLED;
+    }
+    if (type == OrderType.MARKET) {
+      return OrderStatus.CANCELLED;
+    }
+    return remaining == quantity ? OrderStatus.NEW : OrderStatus.PARTIALLY_FILLED;
+  }
+
+  void fill(long fillQuantity) {
+    remaining -= fillQuantity;
+  }
+}
@@ -0,0 +1,109 @@
+package com.mandacarubroker.domain.order;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * The resting limit orders of one stock, matched in price-time priority: the best
+ * price first and, at the same price, the order that arrived first.
+ *
+ * <p>Not thread-safe. Each book is owned by a single {@link MatchingEngine} thread,
+ * so matching runs without locks.
+ */
+public class OrderBook {
+
+  private final String symbol;
+  private final TreeMap<Long, ArrayDeque<Order>> bids = new TreeMap<>(Comparator.reverseOrder());
+  private final TreeMap<Long, ArrayDeque<Order>> asks = new TreeMap<>();
+
+  public OrderBook(String symbol) {
+    this.symbol = symbol;
+  }
+
+  public String getSymbol() {
+    return symbol;
+  }
+
+  /**
+   * Matches an incoming order against the opposite side of the book. Each trade
+   * executes at the price of the resting order. Whatever a limit order leaves unfilled
+   * rests in the book; whatever a market order leaves unfilled is dropped.
+   *
+   * @param order  the incoming order.
+   * @param trades receives the trades in execution order.
+   */
+  public void match(Order order, Consumer<Trade> trades) {
+    boolean buy = order.getSide() == OrderSide.BUY;
+    TreeMap<Long, ArrayDeque<Order>> opposite = buy ? asks : bids;
+
+    while (order.getRemaining() > 0 && !opposite.isEmpty()) {
+      Map.Entry<Long, ArrayDeque<Order>> best = opposite.firstEntry();
+      long price = best.getKey();
+      if (order.getType() == OrderType.LIMIT && (buy ? price > order.getPrice() : price < order.getPrice())) {
+        break;
+      }
+
+      ArrayDeque<Order> level = best.getValue();
+      while (order.getRemaining() > 0 && !level.isEmpty()) {
+        Order resting = level.peekFirst();
+        long quantity = Math.min(order.getRemaining(), resting.getRemaining());
+        order.fill(quantity);
+        resting.fill(quantity);
+        trades.accept(buy
+                ? new Trade(symbol, order.getId(), resting.getId(), price, quantity)
+                : new Trade(symbol, resting.getId(), order.getId(), price, quantity));
+        if (resting.getRemaining() == 0) {
+          level.pollFirst();
+        }
+      }
+      if (level.isEmpty()) {
+        opposite.pollFirstEntry();
+      }
+    }
+
+    if (order.getRemaining() > 0 && order.getType() == OrderType.LIMIT) {
+      (buy ? bids : asks).computeIfAbsent(order.getPrice(), key -> new ArrayDeque<>()).addLast(order);
+    }
+  }
+
+  /**
+   * Gets the highest price a resting order is willing to buy at.
+   *
+   * @return the best bid, or empty if no one is buying.
+   */
+  public OptionalLong getBestBid() {
+    return bids.isEmpty() ? OptionalLong.empty() : OptionalLong.of(bids.firstKey());
+  }
+
+  /**
+   * Gets the lowest price a resting order is willing to sell at.
+   *
+   * @return the best ask, or empty if no one is selling.
+   */
+  public OptionalLong getBestAsk() {
+    return asks.isEmpty() ? OptionalLong.empty() : OptionalLong.of(asks.firstKey());
+  }
+
+  /**
+   * Gets the total quantity resting at a price on one side.
+   *
+   * @param side  the side of the book.
+   * @param price the price level.
+   * @return the resting quantity, 0 if there is none.
+   */
+  public long getDepth(OrderSide side, long price) {
+    ArrayDeque<Order> level = (side == OrderSide.BUY ? bids : asks).get(price);
+    if (level == null) {
+      return 0;
+    }
+    long depth = 0;
+    for (Order order : level) {
+      depth += order.getRemaining();
+    }
+    return depth;
+  }
+}
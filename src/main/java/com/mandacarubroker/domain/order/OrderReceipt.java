@@ -0,0 +1,21 @@
+package com.mandacarubroker.domain.order;
+
+import java.util.List;
+
+/**
+ * The outcome of placing an order.
+ *
+ * @param orderId           the id assigned to the order.
+ * @param symbol            the symbol of the stock.
+ * @param status            the state of the order after matching.
+ * @param filledQuantity    the number of shares traded.
+ * @param remainingQuantity the number of shares resting in the book, or cancelled for market orders.
+ * @param trades            the trades the order took part in, in execution order.
+ */
+public record OrderReceipt(long orderId,
+                           String symbol,
+                           OrderStatus status,
+                           long filledQuantity,
+                           long remainingQuantity,
+                           List<Trade> trades) {
+}
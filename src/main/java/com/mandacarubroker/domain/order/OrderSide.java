@@ -0,0 +1,9 @@
+package com.mandacarubroker.domain.order;
+
+/**
+ * The side of the book an order is placed on.
+ */
+public enum OrderSide {
+  BUY,
+  SELL
+}
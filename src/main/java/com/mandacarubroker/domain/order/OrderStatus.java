@@ -0,0 +1,15 @@
+package com.mandacarubroker.domain.order;
+
+/**
+ * The state of an order once it has been matched against the book.
+ */
+public enum OrderStatus {
+  /** Nothing traded and the whole order rests in the book. */
+  NEW,
+  /** Part of the order traded and the rest rests in the book. */
+  PARTIALLY_FILLED,
+  /** The whole order traded. */
+  FILLED,
+  /** The order left the book with quantity unfilled. */
+  CANCELLED
+}
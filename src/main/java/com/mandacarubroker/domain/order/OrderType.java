@@ -0,0 +1,13 @@
+package com.mandacarubroker.domain.order;
+
+/**
+ * How an order is priced.
+ *
+ * <p>A {@link #LIMIT} order trades at its limit price or better and rests in the book
+ * until it is filled. A {@link #MARKET} order trades at the best prices available and
+ * any quantity left unfilled is cancelled.
+ */
+public enum OrderType {
+  LIMIT,
+  MARKET
+}
@@ -0,0 +1,19 @@
+package com.mandacarubroker.domain.order;
+
+import com.mandacarubroker.domain.stock.JsonPrice;
+
+/**
+ * A request to place an order.
+ *
+ * @param symbol   the symbol of the stock.
+ * @param side     whether to buy or sell.
+ * @param type     whether the order is a limit or a market order.
+ * @param price    the limit price; ignored, and may be omitted, for market orders.
+ * @param quantity the number of shares.
+ */
+public record PlaceOrderDto(String symbol,
+                            OrderSide side,
+                            OrderType type,
+                            @JsonPrice Long price,
+                            long quantity) {
+}
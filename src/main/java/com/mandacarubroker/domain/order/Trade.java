@@ -0,0 +1,15 @@
+package com.mandacarubroker.domain.order;
+
+import com.mandacarubroker.domain.stock.JsonPrice;
+
+/**
+ * A match between a buy order and a sell order.
+ *
+ * @param symbol      the symbol of the stock traded.
+ * @param buyOrderId  the id of the buy order.
+ * @param sellOrderId the id of the sell order.
+ * @param price       the price of the resting order the trade executed at.
+ * @param quantity    the number of shares traded.
+ */
+public record Trade(String symbol, long buyOrderId, long sellOrderId, @JsonPrice long price, long quantity) {
+}
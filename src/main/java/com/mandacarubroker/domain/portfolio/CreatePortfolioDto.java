@@ -0,0 +1,12 @@
+package com.mandacarubroker.domain.portfolio;
+
+import com.mandacarubroker.domain.stock.JsonPrice;
+
+/**
+ * A request to open a portfolio.
+ *
+ * @param owner the owner of the portfolio.
+ * @param cash  the initial cash; zero if omitted.
+ */
+public record CreatePortfolioDto(String owner, @JsonPrice Long cash) {
+}
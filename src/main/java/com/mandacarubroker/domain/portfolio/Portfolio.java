@@ -0,0 +1,39 @@
+package com.mandacarubroker.domain.portfolio;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * An account holding cash and stock positions.
+ */
+@Table(name = "portfolio")
+@Entity(name = "portfolio")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class Portfolio {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  private String id;
+
+  private String owner;
+
+  /**
+   * The cash available to buy stocks, in price ticks.
+   */
+  private long cash;
+
+  /**
+   * The profit or loss of every sale so far, in price ticks.
+   */
+  private long realizedPnl;
+}
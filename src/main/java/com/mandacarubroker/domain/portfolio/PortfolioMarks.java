@@ -0,0 +1,234 @@
+package com.mandacarubroker.domain.portfolio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps every portfolio marked to the latest price of its stocks, in memory.
+ *
+ * <p>Each portfolio keeps running totals of its market value and cost basis, and every
+ * position is registered in a reverse index from its symbol. A price change only
+ * visits the positions in that symbol and adjusts each of their portfolios' totals by
+ * the quantity times the price difference, so reading a portfolio's value never sums
+ * over its holdings and a price change never scans unrelated portfolios.
+ *
+ * <p>All methods are thread-safe. Each portfolio's totals and positions are guarded
+ * by the portfolio's own monitor, so price changes on different symbols only contend
+ * on the portfolios that hold both.
+ */
+public class PortfolioMarks {
+
+  private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+  private final Map<String, Set<Mark>> marksBySymbol = new ConcurrentHashMap<>();
+  private final Map<String, Long> prices = new ConcurrentHashMap<>();
+
+  private static final class Account {
+    final String id;
+    String owner;
+    long cash;
+    long realizedPnl;
+    long marketValue;
+    long costBasis;
+    final Map<String, Mark> marks = new TreeMap<>();
+
+    Account(String id) {
+      this.id = id;
+    }
+  }
+
+  private static final class Mark {
+    final Account account;
+    final String symbol;
+    long quantity;
+    long costBasis;
+    long price;
+
+    Mark(Account account, String symbol) {
+      this.account = account;
+      this.symbol = symbol;
+    }
+
+    long marketValue() {
+      return Math.multiplyExact(quantity, price);
+    }
+  }
+
+  /**
+   * Adds a portfolio, or updates the cash and realized profit of an existing one.
+   *
+   * @param id          the id of the portfolio.
+   * @param owner       the owner of the portfolio.
+   * @param cash        the cash available.
+   * @param realizedPnl the profit or loss of every sale so far.
+   */
+  public void putPortfolio(String id, String owner, long cash, long realizedPnl) {
+    Account account = accounts.computeIfAbsent(id, Account::new);
+    synchronized (account) {
+      account.owner = owner;
+      account.cash = cash;
+      account.realizedPnl = realizedPnl;
+    }
+  }
+
+  /**
+   * Sets a position of a portfolio, removing it when the quantity is zero.
+   *
+   * <p>A position in a stock no other portfolio holds is marked at the given price; a
+   * price change published while it is being added may be missed until the next one.
+   *
+   * @param portfolioId the id of the portfolio, which must have been added.
+   * @param symbol      the symbol of the stock.
+   * @param quantity    the number of shares held.
+   * @param costBasis   what the shares held cost.
+   * @param price       the current price of the stock, used if no position in it is marked yet.
+   */
+  public void putPosition(String portfolioId, String symbol, long quantity, long costBasis, long price) {
+    Account account = accounts.get(portfolioId);
+    if (account == null) {
+      throw new IllegalArgumentException("Unknown portfolio " + portfolioId);
+    }
+    synchronized (account) {
+      Mark mark = account.marks.get(symbol);
+      if (mark != null) {
+        account.marketValue -= mark.marketValue();
+        account.costBasis -= mark.costBasis;
+      }
+      if (quantity == 0) {
+        if (mark != null) {
+          account.marks.remove(symbol);
+          marksBySymbol.computeIfPresent(symbol, (key, marks) -> {
+            marks.remove(mark);
+            if (!marks.isEmpty()) {
+              return marks;
+            }
+            prices.remove(symbol);
+            return null;
+          });
+        }
+        return;
+      }
+
+      Mark updated = mark != null ? mark : register(account, symbol, price);
+      updated.quantity = quantity;
+      updated.costBasis = costBasis;
+      updated.price = prices.getOrDefault(symbol, price);
+      account.marketValue += updated.marketValue();
+      account.costBasis += costBasis;
+    }
+  }
+
+  private Mark register(Account account, String symbol, long price) {
+    Mark mark = new Mark(account, symbol);
+    account.marks.put(symbol, mark);
+    marksBySymbol.compute(symbol, (key, marks) -> {
+      Set<Mark> registered = marks == null ? ConcurrentHashMap.newKeySet() : marks;
+      registered.add(mark);
+      prices.putIfAbsent(symbol, price);
+      return registered;
+    });
+    return mark;
+  }
+
+  /**
+   * Re-marks the positions in a stock to a new price. Does nothing if no portfolio
+   * holds the stock.
+   *
+   * @param symbol the symbol of the stock.
+   * @param price  the new price.
+   */
+  public void markPrice(String symbol, long price) {
+    // Store the price under the symbol's entry, so it is only kept while the stock is held.
+    Set<Mark> marks = marksBySymbol.computeIfPresent(symbol, (key, held) -> {
+      prices.put(symbol, price);
+      return held;
+    });
+    if (marks == null) {
+      return;
+    }
+    for (Mark mark : marks) {
+      synchronized (mark.account) {
+        // Read the price back so concurrent changes converge on the last one stored.
+        long latest = prices.getOrDefault(symbol, price);
+        mark.account.marketValue += Math.multiplyExact(mark.quantity, latest - mark.price);
+        mark.price = latest;
+      }
+    }
+  }
+
+  /**
+   * Moves the positions in a stock to a new symbol, merging each into the position its
+   * portfolio already holds under that symbol, if any.
+   *
+   * @param symbol    the symbol the stock had.
+   * @param newSymbol the symbol the stock has now.
+   */
+  public void renameSymbol(String symbol, String newSymbol) {
+    Set<Mark> marks = marksBySymbol.get(symbol);
+    if (marks == null) {
+      return;
+    }
+    for (Mark mark : List.copyOf(marks)) {
+      Account account = mark.account;
+      synchronized (account) {
+        if (account.marks.get(symbol) != mark) {
+          continue;
+        }
+        Mark held = account.marks.get(newSymbol);
+        long quantity = mark.quantity + (held == null ? 0 : held.quantity);
+        long costBasis = mark.costBasis + (held == null ? 0 : held.costBasis);
+        long price = mark.price;
+        putPosition(account.id, symbol, 0, 0, price);
+        putPosition(account.id, newSymbol, quantity, costBasis, price);
+      }
+    }
+  }
+
+  /**
+   * Gets the price positions in a stock are marked at.
+   *
+   * @param symbol the symbol of the stock.
+   * @return the price, or empty if no portfolio holds the stock.
+   */
+  public Optional<Long> getPrice(String symbol) {
+    return Optional.ofNullable(prices.get(symbol));
+  }
+
+  /**
+   * Gets the valuation of a portfolio. The totals are kept up to date as prices
+   * change, so only the positions are copied.
+   *
+   * @param portfolioId the id of the portfolio.
+   * @return the valuation, or empty if there is no such portfolio.
+   */
+  public Optional<PortfolioValuation> getValuation(String portfolioId) {
+    Account account = accounts.get(portfolioId);
+    if (account == null) {
+      return Optional.empty();
+    }
+    synchronized (account) {
+      List<PositionValuation> positions = new ArrayList<>(account.marks.size());
+      for (Mark mark : account.marks.values()) {
+        long marketValue = mark.marketValue();
+        positions.add(new PositionValuation(mark.symbol, mark.quantity, mark.price, marketValue,
+                mark.costBasis, marketValue - mark.costBasis));
+      }
+      return Optional.of(new PortfolioValuation(account.id, account.owner, account.cash,
+              account.marketValue, account.costBasis, account.marketValue - account.costBasis,
+              account.realizedPnl, account.cash + account.marketValue, positions));
+    }
+  }
+
+  /**
+   * Gets the number of portfolios.
+   *
+   * @return the number of portfolios.
+   */
+  public int size() {
+    return accounts.size();
+  }
+}
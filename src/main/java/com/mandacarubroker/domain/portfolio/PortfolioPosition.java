@@ -0,0 +1,37 @@
+package com.mandacarubroker.domain.portfolio;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * The shares of one stock held by a portfolio.
+ */
+@Table(name = "portfolio_position")
+@Entity(name = "portfolio_position")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class PortfolioPosition {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  private String id;
+
+  private String portfolioId;
+  private String symbol;
+  private long quantity;
+
+  /**
+   * What the shares held cost, in price ticks. Reduced in proportion to the shares
+   * sold, so it stays the average cost times the quantity.
+   */
+  private long costBasis;
+}
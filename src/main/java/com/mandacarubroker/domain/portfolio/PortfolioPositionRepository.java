@@ -0,0 +1,16 @@
+package com.mandacarubroker.domain.portfolio;
+
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PortfolioPositionRepository extends JpaRepository<PortfolioPosition, String> {
+
+  List<PortfolioPosition> findByPortfolioId(String portfolioId);
+
+  List<PortfolioPosition> findBySymbol(String symbol);
+
+  Optional<PortfolioPosition> findByPortfolioIdAndSymbol(String portfolioId, String symbol);
+}
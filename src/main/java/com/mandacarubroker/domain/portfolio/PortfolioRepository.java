@@ -0,0 +1,23 @@
+package com.mandacarubroker.domain.portfolio;
+
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PortfolioRepository extends JpaRepository<Portfolio, String> {
+
+  /**
+   * Reads a portfolio and locks its row until the end of the transaction, so trades
+   * on the same portfolio run one after another.
+   *
+   * @param id the id of the portfolio.
+   * @return the portfolio, or empty if it does not exist.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select p from portfolio p where p.id = :id")
+  Optional<Portfolio> findForUpdate(String id);
+}
@@ -0,0 +1,15 @@
+package com.mandacarubroker.domain.portfolio;
+
+import com.mandacarubroker.domain.order.OrderSide;
+import com.mandacarubroker.domain.stock.JsonPrice;
+
+/**
+ * A request to record a purchase or sale of shares in a portfolio.
+ *
+ * @param symbol   the symbol of the stock.
+ * @param side     whether shares were bought or sold.
+ * @param quantity the number of shares.
+ * @param price    the price per share; the current price of the stock if omitted.
+ */
+public record PortfolioTradeDto(String symbol, OrderSide side, long quantity, @JsonPrice Long price) {
+}
@@ -0,0 +1,28 @@
+package com.mandacarubroker.domain.portfolio;
+
+import com.mandacarubroker.domain.stock.JsonPrice;
+import java.util.List;
+
+/**
+ * A portfolio marked to the current prices of its stocks.
+ *
+ * @param id            the id of the portfolio.
+ * @param owner         the owner of the portfolio.
+ * @param cash          the cash available.
+ * @param marketValue   the market value of every position.
+ * @param costBasis     what the shares held cost.
+ * @param unrealizedPnl the market value minus the cost basis.
+ * @param realizedPnl   the profit or loss of every sale so far.
+ * @param totalValue    the cash plus the market value.
+ * @param positions     the positions, by symbol.
+ */
+public record PortfolioValuation(String id,
+                                 String owner,
+                                 @JsonPrice long cash,
+                                 @JsonPrice long marketValue,
+                                 @JsonPrice long costBasis,
+                                 @JsonPrice long unrealizedPnl,
+                                 @JsonPrice long realizedPnl,
+                                 @JsonPrice long totalValue,
+                                 List<PositionValuation> positions) {
+}
@@ -0,0 +1,21 @@
+package com.mandacarubroker.domain.portfolio;
+
+import com.mandacarubroker.domain.stock.JsonPrice;
+
+/**
+ * A position marked to the current price of its stock.
+ *
+ * @param symbol        the symbol of the stock.
+ * @param quantity      the number of shares held.
+ * @param price         the price the position is marked at.
+ * @param marketValue   the quantity times the price.
+ * @param costBasis     what the shares held cost.
+ * @param unrealizedPnl the market value minus the cost basis.
+ */
+public record PositionValuation(String symbol,
+                                long quantity,
+                                @JsonPrice long price,
+                                @JsonPrice long marketValue,
+                                @JsonPrice long costBasis,
+                                @JsonPrice long unrealizedPnl) {
+}
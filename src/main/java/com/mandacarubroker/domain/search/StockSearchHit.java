@@ -0,0 +1,11 @@
+package com.mandacarubroker.domain.search;
+
+/**
+ * A stock found by a search.
+ *
+ * @param id          the id of the stock.
+ * @param symbol      the symbol of the stock.
+ * @param companyName the name of the company.
+ */
+public record StockSearchHit(String id, String symbol, String companyName) {
+}
@@ -0,0 +1,262 @@
+package com.mandacarubroker.domain.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * An in-memory index finding stocks by the start of their symbol or of any word of
+ * their company name, tolerating one typo.
+ *
+ * <p>Symbols and company name words are normalized to lower case without accents and
+ * kept in sorted skip lists keyed by the term followed by the stock id. A prefix
+ * search is a seek to the prefix and a walk over the following keys that stops once
+ * enough stocks are found, so it costs the logarithm of the index size plus the
+ * number of keys visited, no matter how many stocks match. Results are ranked by how
+ * they matched: exact symbol, symbol prefix, company name word prefix, and finally
+ * word prefixes one edit away from the query. Within a rank they are in term order,
+ * so shorter terms come before their extensions.
+ *
+ * <p>Searches do not lock and may run concurrently with updates; updates are
+ * serialized among themselves.
+ */
+public class StockSearchIndex {
+
+  /**
+   * The shortest query term that is also searched with one edit.
+   */
+  public static final int MIN_FUZZY_LENGTH = 4;
+
+  /**
+   * The most keys a multi-word search visits before giving up on finding more stocks
+   * that match every word.
+   */
+  static final int MAX_VISITED = 4096;
+
+  private static final char SEPARATOR = '\u0000';
+  private static final char[] ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+  private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{Alnum}]+");
+
+  private final NavigableMap<String, Entry> symbols = new ConcurrentSkipListMap<>();
+  private final NavigableMap<String, Entry> words = new ConcurrentSkipListMap<>();
+  private final Map<String, Entry> stocksById = new ConcurrentHashMap<>();
+
+  /**
+   * An indexed stock with its terms, so multi-word searches need not normalize it again.
+   */
+  private record Entry(StockSearchHit hit, List<String> symbolTerms, List<String> nameTerms) {
+  }
+
+  /**
+   * Adds a stock to the index, or replaces the stock with the same id.
+   *
+   * @param id          the id of the stock.
+   * @param symbol      the symbol of the stock, may be null.
+   * @param companyName the name of the company, may be null.
+   */
+  public synchronized void put(String id, String symbol, String companyName) {
+    remove(id);
+    Entry entry = new Entry(new StockSearchHit(id, symbol, companyName), terms(symbol), terms(companyName));
+    for (String term : entry.symbolTerms()) {
+      symbols.put(key(term, id), entry);
+    }
+    for (String term : entry.nameTerms()) {
+      words.put(key(term, id), entry);
+    }
+    stocksById.put(id, entry);
+  }
+
+  /**
+   * Removes a stock from the index.
+   *
+   * @param id the id of the stock.
+   */
+  public synchronized void remove(String id) {
+    Entry entry = stocksById.remove(id);
+    if (entry == null) {
+      return;
+    }
+    for (String term : entry.symbolTerms()) {
+      symbols.remove(key(term, id));
+    }
+    for (String term : entry.nameTerms()) {
+      words.remove(key(term, id));
+    }
+  }
+
+  /**
+   * Gets the number of stocks in the index.
+   *
+   * @return the number of stocks.
+   */
+  public int size() {
+    return stocksById.size();
+  }
+
+  /**
+   * Finds the stocks best matching a query.
+   *
+   * <p>Every word of the query must start the symbol or a company name word of a
+   * stock. The longest query word is looked up in the index and the others are
+   * checked against the stocks found. When a single-word query finds fewer stocks than
+   * the limit, the word is also looked up in the company names with one letter
+   * inserted, deleted, replaced or two adjacent letters swapped, if it has at least
+   * {@link #MIN_FUZZY_LENGTH} letters.
+   *
+   * @param query the text typed by the user.
+   * @param limit the maximum number of stocks to return.
+   * @return the matching stocks, best first.
+   */
+  public List<StockSearchHit> search(String query, int limit) {
+    List<String> queryTerms = terms(query);
+    if (queryTerms.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+    String longest = queryTerms.get(0);
+    for (String term : queryTerms) {
+      if (term.length() > longest.length()) {
+        longest = term;
+      }
+    }
+
+    Map<String, StockSearchHit> found = new LinkedHashMap<>();
+    collect(symbols, longest, true, queryTerms, found, limit);
+    collect(symbols, longest, false, queryTerms, found, limit);
+    collect(words, longest, false, queryTerms, found, limit);
+    if (found.size() < limit && queryTerms.size() == 1 && longest.length() >= MIN_FUZZY_LENGTH) {
+      for (String variant : edits(longest, matchedLength(words, longest))) {
+        collect(words, variant, false, queryTerms, found, limit);
+        if (found.size() >= limit) {
+          break;
+        }
+      }
+    }
+    return new ArrayList<>(found.values());
+  }
+
+  /**
+   * Normalizes text into search terms: lower case words of letters and digits, without accents.
+   *
+   * @param text the text, may be null.
+   * @return the terms in the order they appear, without duplicates.
+   */
+  static List<String> terms(String text) {
+    if (text == null || text.isEmpty()) {
+      return List.of();
+    }
+    String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+    List<String> terms = new ArrayList<>();
+    for (String term : NON_ALPHANUMERIC.split(folded.toLowerCase())) {
+      if (!term.isEmpty() && !terms.contains(term)) {
+        terms.add(term);
+      }
+    }
+    return terms;
+  }
+
+  /**
+   * Adds the stocks whose term in an index equals, or starts with, a prefix, until the
+   * limit is reached. Stocks already found keep their place.
+   */
+  private void collect(NavigableMap<String, Entry> index, String prefix, boolean exact,
+                       List<String> queryTerms, Map<String, StockSearchHit> found, int limit) {
+    String from = exact ? prefix + SEPARATOR : prefix;
+    // Most one-edit variants match nothing, so check the first key before walking.
+    String first = index.ceilingKey(from);
+    if (first == null || !first.startsWith(from)) {
+      return;
+    }
+    Iterator<Map.Entry<String, Entry>> entries = index.tailMap(first).entrySet().iterator();
+    int visited = 0;
+    while (found.size() < limit && entries.hasNext() && visited++ < MAX_VISITED) {
+      Map.Entry<String, Entry> next = entries.next();
+      if (!next.getKey().startsWith(from)) {
+        return;
+      }
+      Entry entry = next.getValue();
+      if (!found.containsKey(entry.hit().id()) && matchesAll(entry, queryTerms)) {
+        found.put(entry.hit().id(), entry.hit());
+      }
+    }
+  }
+
+  private static boolean matchesAll(Entry entry, List<String> queryTerms) {
+    if (queryTerms.size() < 2) {
+      return true;
+    }
+    for (String queryTerm : queryTerms) {
+      if (!anyStartsWith(entry.symbolTerms(), queryTerm) && !anyStartsWith(entry.nameTerms(), queryTerm)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean anyStartsWith(List<String> terms, String prefix) {
+    for (String term : terms) {
+      if (term.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets the length of the longest prefix of a term that starts some key of an index.
+   */
+  private static int matchedLength(NavigableMap<String, Entry> index, String term) {
+    int length = 0;
+    while (length < term.length()) {
+      String prefix = term.substring(0, length + 1);
+      String key = index.ceilingKey(prefix);
+      if (key == null || !key.startsWith(prefix)) {
+        break;
+      }
+      length++;
+    }
+    return length;
+  }
+
+  /**
+   * Lists the terms one edit away from a term, swaps and deletions first. Edits are only
+   * made up to a position: an edit after it keeps a prefix that no key starts with.
+   */
+  private static List<String> edits(String term, int lastPosition) {
+    List<String> edits = new ArrayList<>();
+    char[] chars = term.toCharArray();
+    int last = Math.min(lastPosition, chars.length);
+    for (int i = 0; i + 1 < chars.length && i <= last; i++) {
+      if (chars[i] != chars[i + 1]) {
+        edits.add(term.substring(0, i) + chars[i + 1] + chars[i] + term.substring(i + 2));
+      }
+    }
+    for (int i = 0; i < chars.length && i <= last; i++) {
+      edits.add(term.substring(0, i) + term.substring(i + 1));
+    }
+    for (int i = 0; i < chars.length && i <= last; i++) {
+      for (char c : ALPHABET) {
+        if (c != chars[i]) {
+          edits.add(term.substring(0, i) + c + term.substring(i + 1));
+        }
+      }
+    }
+    for (int i = 0; i <= last; i++) {
+      for (char c : ALPHABET) {
+        edits.add(term.substring(0, i) + c + term.substring(i));
+      }
+    }
+    return edits;
+  }
+
+  private static String key(String term, String id) {
+    return term + SEPARATOR + id;
+  }
+}
@@ -0,0 +1,21 @@
+package com.mandacarubroker.domain.stock;
+
+import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@code long} property holding a {@link Price} in ticks, so it is read from
+ * and written to JSON as a decimal number in currency units.
+ */
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+@JacksonAnnotationsInside
+@JsonSerialize(using = PriceSerializer.class)
+@JsonDeserialize(using = PriceDeserializer.class)
+public @interface JsonPrice {
+}
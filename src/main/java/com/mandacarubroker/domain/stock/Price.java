@@ -0,0 +1,231 @@
+package com.mandacarubroker.domain.stock;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point arithmetic for stock prices. A price is held as a {@code long} number of
+ * ticks of 1/10000 of a currency unit, so adding and subtracting prices is exact and
+ * needs neither boxing nor {@link java.math.BigDecimal} instances.
+ */
+public final class Price {
+
+  /**
+   * The number of decimal places a price keeps.
+   */
+  public static final int DECIMALS = 4;
+
+  /**
+   * The number of ticks in one currency unit.
+   */
+  public static final long SCALE = 10_000L;
+
+  /**
+   * The longest text {@link #format(long, char[])} writes: a sign, fifteen integer
+   * digits, the decimal point and four decimals.
+   */
+  public static final int MAX_LENGTH = 21;
+
+  private static final long MAX_UNITS = Long.MAX_VALUE / SCALE;
+
+  private Price() {
+  }
+
+  /**
+   * Converts a floating-point amount to ticks, rounding half up to the nearest tick.
+   *
+   * @param amount the amount in currency units.
+   * @return the amount in ticks.
+   * @throws IllegalArgumentException if the amount is not finite.
+   */
+  public static long of(double amount) {
+    if (!Double.isFinite(amount)) {
+      throw new IllegalArgumentException("Price must be a finite number: " + amount);
+    }
+    return Math.round(amount * SCALE);
+  }
+
+  /**
+   * Converts a decimal amount to ticks, rounding half up to the nearest tick. Used for
+   * binary formats, whose parsers hand decimals over as numbers rather than text.
+   *
+   * @param amount the amount in currency units.
+   * @return the amount in ticks.
+   * @throws ArithmeticException if the amount does not fit in a price.
+   */
+  public static long of(BigDecimal amount) {
+    return amount.setScale(DECIMALS, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+  }
+
+  /**
+   * Converts ticks to the exact decimal amount, for binary formats that encode
+   * decimals natively.
+   *
+   * @param ticks the price in ticks.
+   * @return the price in currency units, with {@link #DECIMALS} decimal places.
+   */
+  public static BigDecimal toDecimal(long ticks) {
+    return BigDecimal.valueOf(ticks, DECIMALS);
+  }
+
+  /**
+   * Converts ticks to the nearest floating-point amount, for display or interop only.
+   *
+   * @param ticks the price in ticks.
+   * @return the price in currency units.
+   */
+  public static double toDouble(long ticks) {
+    return (double) ticks / SCALE;
+  }
+
+  /**
+   * Adds two prices.
+   *
+   * @param ticks the price in ticks.
+   * @param delta the ticks to add.
+   * @return the sum in ticks.
+   * @throws ArithmeticException if the sum overflows.
+   */
+  public static long add(long ticks, long delta) {
+    return Math.addExact(ticks, delta);
+  }
+
+  /**
+   * Subtracts a price from another.
+   *
+   * @param ticks the price in ticks.
+   * @param delta the ticks to subtract.
+   * @return the difference in ticks.
+   * @throws ArithmeticException if the difference overflows.
+   */
+  public static long subtract(long ticks, long delta) {
+    return Math.subtractExact(ticks, delta);
+  }
+
+  /**
+   * Parses a decimal price such as {@code 10}, {@code -0.5} or {@code 33.1234}. Digits
+   * beyond the fourth decimal are rounded half up. Exponents are not accepted.
+   *
+   * @param text the decimal text.
+   * @return the price in ticks.
+   * @throws NumberFormatException if the text is not a plain decimal or overflows.
+   */
+  public static long parse(CharSequence text) {
+    int length = text.length();
+    char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      chars[i] = text.charAt(i);
+    }
+    return parse(chars, 0, length);
+  }
+
+  /**
+   * Parses a decimal price held in a character buffer, without allocating.
+   *
+   * @param chars  the buffer.
+   * @param offset the index of the first character.
+   * @param length the number of characters.
+   * @return the price in ticks.
+   * @throws NumberFormatException if the text is not a plain decimal or overflows.
+   * @see #parse(CharSequence)
+   */
+  public static long parse(char[] chars, int offset, int length) {
+    int end = offset + length;
+    int i = offset;
+    boolean negative = false;
+    if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+      negative = chars[i] == '-';
+      i++;
+    }
+    long units = 0;
+    int digits = 0;
+    while (i < end && isDigit(chars[i])) {
+      if (units > (MAX_UNITS - (chars[i] - '0')) / 10) {
+        throw invalid(chars, offset, length);
+      }
+      units = units * 10 + (chars[i++] - '0');
+      digits++;
+    }
+    long fraction = 0;
+    long fractionScale = SCALE;
+    if (i < end && chars[i] == '.') {
+      i++;
+      while (i < end && isDigit(chars[i])) {
+        if (fractionScale > 1) {
+          fractionScale /= 10;
+          fraction += (chars[i] - '0') * fractionScale;
+        } else if (fractionScale == 1) {
+          fraction += chars[i] >= '5' ? 1 : 0;
+          fractionScale = 0;
+        }
+        i++;
+        digits++;
+      }
+    }
+    if (i != end || digits == 0) {
+      throw invalid(chars, offset, length);
+    }
+    long ticks = units * SCALE + fraction;
+    if (ticks < 0) {
+      throw invalid(chars, offset, length);
+    }
+    return negative ? -ticks : ticks;
+  }
+
+  /**
+   * Writes a price as decimal text, keeping at least one decimal and dropping trailing
+   * zeros, so ten units is written as {@code 10.0} and a tick as {@code 0.0001}.
+   *
+   * @param ticks  the price in ticks.
+   * @param buffer the buffer to write to, at least {@link #MAX_LENGTH} long.
+   * @return the number of characters written.
+   */
+  public static int format(long ticks, char[] buffer) {
+    int position = 0;
+    if (ticks < 0) {
+      buffer[position++] = '-';
+    }
+    long units = Math.abs(ticks / SCALE);
+    long fraction = Math.abs(ticks % SCALE);
+    int unitDigits = 1;
+    for (long rest = units / 10; rest > 0; rest /= 10) {
+      unitDigits++;
+    }
+    for (int i = position + unitDigits - 1; i >= position; i--) {
+      buffer[i] = (char) ('0' + units % 10);
+      units /= 10;
+    }
+    position += unitDigits;
+    buffer[position++] = '.';
+    int decimals = DECIMALS;
+    while (decimals > 1 && fraction % 10 == 0) {
+      fraction /= 10;
+      decimals--;
+    }
+    for (int i = position + decimals - 1; i >= position; i--) {
+      buffer[i] = (char) ('0' + fraction % 10);
+      fraction /= 10;
+    }
+    return position + decimals;
+  }
+
+  /**
+   * Formats a price as decimal text.
+   *
+   * @param ticks the price in ticks.
+   * @return the decimal text.
+   * @see #format(long, char[])
+   */
+  public static String toString(long ticks) {
+    char[] buffer = new char[MAX_LENGTH];
+    return new String(buffer, 0, format(ticks, buffer));
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static NumberFormatException invalid(char[] chars, int offset, int length) {
+    return new NumberFormatException("Invalid price: " + new String(chars, offset, length));
+  }
+}
@@ -0,0 +1,9 @@
+package com.mandacarubroker.domain.stock;
+
+/**
+ * A data transfer object (DTO) representing a relative price change.
+ *
+ * @param delta the ticks added to the current price; negative to decrease it.
+ */
+public record PriceAdjustmentDto(@JsonPrice long delta) {
+}
@@ -0,0 +1,49 @@
+package com.mandacarubroker.domain.stock;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadCapability;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import java.io.IOException;
+
+/**
+ * Reads a JSON decimal number, or a string holding one, as a price in ticks. The digits
+ * are parsed straight from the parser's text buffer; numbers written with an exponent
+ * fall back to a rounded floating-point conversion. Binary formats such as Smile and
+ * CBOR, whose numbers have no text, are read as exact decimals.
+ */
+public class PriceDeserializer extends StdScalarDeserializer<Long> {
+
+  public PriceDeserializer() {
+    super(Long.class);
+  }
+
+  @Override
+  public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+    JsonToken token = parser.currentToken();
+    if ((token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT)
+            && parser.getReadCapabilities().isEnabled(StreamReadCapability.EXACT_FLOATS)) {
+      try {
+        return Price.of(parser.getDecimalValue());
+      } catch (ArithmeticException e) {
+        return (Long) context.handleWeirdNumberValue(Long.class, parser.getNumberValue(), "not a valid price");
+      }
+    }
+    if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+      try {
+        return Price.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+      } catch (NumberFormatException e) {
+        return Price.of(parser.getDoubleValue());
+      }
+    }
+    if (token == JsonToken.VALUE_STRING) {
+      try {
+        return Price.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+      } catch (NumberFormatException e) {
+        return (Long) context.handleWeirdStringValue(Long.class, parser.getText(), "not a valid price");
+      }
+    }
+    return (Long) context.handleUnexpectedToken(Long.class, parser);
+  }
+}
@@ -0,0 +1,42 @@
+package com.mandacarubroker.domain.stock;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+
+/**
+ * Writes a price in ticks as a JSON decimal number. The digits are formatted into a
+ * per-thread buffer and handed to the generator as characters, so no string is built.
+ * Binary formats get the price as a native decimal instead.
+ */
+public class PriceSerializer extends StdSerializer<Long> {
+
+  private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[Price.MAX_LENGTH]);
+
+  public PriceSerializer() {
+    super(Long.class);
+  }
+
+  @Override
+  public void serialize(Long ticks, JsonGenerator generator, SerializerProvider provider) throws IOException {
+    write(ticks, generator);
+  }
+
+  /**
+   * Writes a price without boxing it, for serializers of types holding a price.
+   *
+   * @param ticks     the price in ticks.
+   * @param generator the generator to write to.
+   * @throws IOException if the generator fails to write.
+   */
+  public static void write(long ticks, JsonGenerator generator) throws IOException {
+    if (generator.canWriteBinaryNatively()) {
+      // Smile and CBOR encode decimals as a scale and an unscaled integer, not as text.
+      generator.writeNumber(Price.toDecimal(ticks));
+      return;
+    }
+    char[] buffer = BUFFER.get();
+    generator.writeNumber(buffer, 0, Price.format(ticks, buffer));
+  }
+}
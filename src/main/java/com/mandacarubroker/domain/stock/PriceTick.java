@@ -0,0 +1,10 @@
+package com.mandacarubroker.domain.stock;
+
+/**
+ * A market-data price update for a stock.
+ *
+ * @param symbol the symbol of the stock.
+ * @param price  the latest traded price, in {@link Price} ticks.
+ */
+public record PriceTick(String symbol, @JsonPrice long price) {
+}
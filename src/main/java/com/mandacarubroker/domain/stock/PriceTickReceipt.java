@@ -0,0 +1,13 @@
+package com.mandacarubroker.domain.stock;
+
+import java.util.List;
+
+/**
+ * The answer to a batch of price ticks.
+ *
+ * @param accepted the number of ticks queued for writing.
+ * @param rejected the ticks that were refused because the ingestion buffer is full
+ *                 and should be sent again later.
+ */
+public record PriceTickReceipt(int accepted, List<PriceTick> rejected) {
+}
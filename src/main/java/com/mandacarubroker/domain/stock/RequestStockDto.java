@@ -17,6 +17,7 @@ public record RequestStockDto(
         @NotBlank(message = "Company name cannot be blank")
         String companyName,
         @NotNull(message = "Price cannot be null")
-        double price
+        @JsonPrice
+        long price
 ) {
 }
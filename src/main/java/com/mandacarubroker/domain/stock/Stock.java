@@ -1,14 +1,19 @@
 package com.mandacarubroker.domain.stock;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.time.Instant;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
 
 /**
  * Represents a stock entity in the database.
@@ -21,6 +26,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(of = "id")
+@JsonSerialize(using = StockSerializer.class)
 public class Stock {
 
   @Id
@@ -29,7 +35,29 @@ public class Stock {
 
   private String symbol;
   private String companyName;
-  private double price;
+
+  /**
+   * The price in ticks of 1/{@value Price#SCALE} of a currency unit; see {@link Price}.
+   */
+  @JsonPrice
+  private long price;
+
+  /**
+   * Incremented on every update and checked by Hibernate when saving, so concurrent
+   * read-modify-write cycles on the same stock cannot silently overwrite each other.
+   * Exposed to clients through the ETag header rather than the JSON body.
+   */
+  @Version
+  @JsonIgnore
+  private Long version;
+
+  /**
+   * Set by Hibernate whenever the stock is inserted or updated, and by the JDBC paths
+   * that change the price. Exposed to clients through the Last-Modified header.
+   */
+  @UpdateTimestamp
+  @JsonIgnore
+  private Instant updatedAt;
 
   /**
    * Creates a new Stock instance based on the provided RequestStockDto data.
@@ -51,7 +79,7 @@ public class Stock {
    * @return The new price of the stock.
    * @author Ricardo Vilela
    */
-  public double changePrice(double amount, boolean increase) {
+  public long changePrice(long amount, boolean increase) {
     if (increase) {
       if (amount < this.price) {
         return increasePrice(amount);
@@ -67,12 +95,12 @@ public class Stock {
     }
   }
 
-  public double increasePrice(double amount) {
-    return this.price + amount;
+  public long increasePrice(long amount) {
+    return Price.add(this.price, amount);
   }
 
-  public double decreasePrice(double amount) {
-    return this.price - amount;
+  public long decreasePrice(long amount) {
+    return Price.subtract(this.price, amount);
   }
 
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.mandacarubroker.domain.stock;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * An entry of the stock change feed.
+ *
+ * @param type  what the entry represents.
+ * @param id    the ID of the stock, or null for a checkpoint.
+ * @param stock the current state of the stock, only for upserts.
+ * @param token the token to request the next changes with, only for checkpoints.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record StockChange(StockChangeType type, String id, Stock stock, String token) {
+
+  public static StockChange upsert(Stock stock) {
+    return new StockChange(StockChangeType.UPSERT, stock.getId(), stock, null);
+  }
+
+  public static StockChange delete(String id) {
+    return new StockChange(StockChangeType.DELETE, id, null, null);
+  }
+
+  public static StockChange checkpoint(long token) {
+    return new StockChange(StockChangeType.CHECKPOINT, null, null, Long.toString(token));
+  }
+}
@@ -0,0 +1,19 @@
+package com.mandacarubroker.domain.stock;
+
+/**
+ * Kinds of entries in the stock change feed.
+ */
+public enum StockChangeType {
+  /**
+   * A stock was created or updated; the entry carries its current state.
+   */
+  UPSERT,
+  /**
+   * A stock was deleted; the entry carries only its ID.
+   */
+  DELETE,
+  /**
+   * The feed is complete; the entry carries the token to resume from.
+   */
+  CHECKPOINT
+}
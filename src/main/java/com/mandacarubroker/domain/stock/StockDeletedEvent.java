@@ -0,0 +1,9 @@
+package com.mandacarubroker.domain.stock;
+
+/**
+ * Published after a stock is deleted.
+ *
+ * @param id the id of the deleted stock.
+ */
+public record StockDeletedEvent(String id) {
+}
@@ -0,0 +1,21 @@
+package com.mandacarubroker.domain.stock;
+
+/**
+ * The outcome of importing one entry of a bulk stock import.
+ *
+ * @param index   the position of the entry in the imported payload, starting at 0.
+ * @param success whether the stock was created.
+ * @param id      the ID of the created stock, or null if it was rejected.
+ * @param symbol  the symbol of the entry.
+ * @param message why the entry was rejected, or null if it was created.
+ */
+public record StockImportResult(int index, boolean success, String id, String symbol, String message) {
+
+  public static StockImportResult created(int index, Stock stock) {
+    return new StockImportResult(index, true, stock.getId(), stock.getSymbol(), null);
+  }
+
+  public static StockImportResult rejected(int index, String symbol, String message) {
+    return new StockImportResult(index, false, null, symbol, message);
+  }
+}
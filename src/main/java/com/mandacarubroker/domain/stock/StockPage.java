@@ -0,0 +1,13 @@
+package com.mandacarubroker.domain.stock;
+
+import java.util.List;
+
+/**
+ * A page of stocks read with keyset pagination.
+ *
+ * @param content the stocks in this page, in cursor order.
+ * @param next    the cursor to pass as {@code after} to read the following page,
+ *                or null when this is the last page.
+ */
+public record StockPage(List<Stock> content, String next) {
+}
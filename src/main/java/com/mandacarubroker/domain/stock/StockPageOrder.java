@@ -0,0 +1,10 @@
+package com.mandacarubroker.domain.stock;
+
+/**
+ * Keys a stock page can be ordered by. The last key of a page is the cursor
+ * for the next one, so the key should identify a single listing.
+ */
+public enum StockPageOrder {
+  ID,
+  SYMBOL
+}
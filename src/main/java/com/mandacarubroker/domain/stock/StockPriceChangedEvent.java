@@ -0,0 +1,10 @@
+package com.mandacarubroker.domain.stock;
+
+/**
+ * Published after the price of a stock has been written to the database.
+ *
+ * @param symbol the symbol of the stock.
+ * @param price  the new price, in {@link Price} ticks.
+ */
+public record StockPriceChangedEvent(String symbol, @JsonPrice long price) {
+}
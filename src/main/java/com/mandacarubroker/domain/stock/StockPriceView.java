@@ -0,0 +1,14 @@
+package com.mandacarubroker.domain.stock;
+
+/**
+ * Projection of the columns of a stock needed to report a price change.
+ */
+public interface StockPriceView {
+
+  String getId();
+
+  String getSymbol();
+
+  @JsonPrice
+  long getPrice();
+}
@@ -0,0 +1,43 @@
+package com.mandacarubroker.domain.stock;
+
+import io.micrometer.core.annotation.Timed;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes stock prices straight to the stock table with JDBC, bypassing the
+ * persistence context. Used by high-volume paths that only touch the price.
+ */
+@Repository
+public class StockPriceWriter {
+
+  private static final String UPDATE_PRICE_BY_SYMBOL = "UPDATE stock SET price = ?, version = version + 1, updated_at = ? WHERE symbol = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public StockPriceWriter(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Sets the price of each ticked stock, sending all updates as a single JDBC batch
+   * in one transaction.
+   *
+   * @param ticks the prices to write, at most one per symbol.
+   * @return the number of rows updated by each tick, in the same order.
+   */
+  @Timed(value = "stock.prices.write", histogram = true)
+  @Transactional
+  public int[] updatePrices(List<PriceTick> ticks) {
+    OffsetDateTime updatedAt = OffsetDateTime.now(ZoneOffset.UTC);
+    return jdbcTemplate.batchUpdate(UPDATE_PRICE_BY_SYMBOL, ticks, ticks.size(), (statement, tick) -> {
+      statement.setLong(1, tick.price());
+      statement.setObject(2, updatedAt);
+      statement.setString(3, tick.symbol());
+    })[0];
+  }
+}
@@ -0,0 +1,12 @@
+package com.mandacarubroker.domain.stock;
+
+/**
+ * Published when an update changes the symbol of a stock, inside the transaction that
+ * saves it, so rows that refer to the stock by symbol can be moved along with it.
+ *
+ * @param id             the id of the stock.
+ * @param previousSymbol the symbol the stock had.
+ * @param symbol         the symbol the stock has now.
+ */
+public record StockRenamedEvent(String id, String previousSymbol, String symbol) {
+}
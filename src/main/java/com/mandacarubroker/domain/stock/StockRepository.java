@@ -1,8 +1,48 @@
 package com.mandacarubroker.domain.stock;
 
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 @Repository
-public interface StockRepository  extends JpaRepository<Stock,String> {
+public interface StockRepository  extends JpaRepository<Stock,String>, StockStreamingRepository {
+
+  Optional<Stock> findBySymbol(String symbol);
+
+  @Query("select s.id from stock s where s.symbol in :symbols")
+  List<String> findIdsBySymbolIn(Collection<String> symbols);
+
+  /**
+   * Adds a delta to the price of a stock in a single statement, so the new price is
+   * computed by the database under the row lock and no concurrent adjustment is lost.
+   *
+   * @param id        the ID of the stock.
+   * @param delta     the ticks to add to the price.
+   * @param updatedAt the new update time of the stock.
+   * @return the stock's new price, or empty if there is no stock with that ID.
+   */
+  @Transactional
+  @Query(value = "UPDATE stock SET price = price + :delta, version = version + 1, updated_at = :updatedAt "
+          + "WHERE id = :id RETURNING id, symbol, price", nativeQuery = true)
+  Optional<StockPriceView> adjustPrice(@Param("id") String id, @Param("delta") long delta,
+                                       @Param("updatedAt") Instant updatedAt);
+
+  /**
+   * Summarizes the stock table without reading its rows.
+   *
+   * @return the number of stocks and their latest update time.
+   */
+  @Query("select new com.mandacarubroker.domain.stock.StockWatermark(count(s), max(s.updatedAt)) from stock s")
+  StockWatermark findWatermark();
+
+  List<Stock> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+
+  List<Stock> findBySymbolGreaterThanOrderBySymbolAsc(String symbol, Limit limit);
 }
@@ -0,0 +1,9 @@
+package com.mandacarubroker.domain.stock;
+
+/**
+ * Published after a stock is created or updated.
+ *
+ * @param stock the stock as saved.
+ */
+public record StockSavedEvent(Stock stock) {
+}
@@ -0,0 +1,28 @@
+package com.mandacarubroker.domain.stock;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+
+/**
+ * Writes a {@link Stock} field by field, reading the price as a primitive so that
+ * serializing large stock lists does not box a {@code Long} per stock.
+ */
+public class StockSerializer extends StdSerializer<Stock> {
+
+  public StockSerializer() {
+    super(Stock.class);
+  }
+
+  @Override
+  public void serialize(Stock stock, JsonGenerator generator, SerializerProvider provider) throws IOException {
+    generator.writeStartObject(stock);
+    generator.writeStringField("id", stock.getId());
+    generator.writeStringField("symbol", stock.getSymbol());
+    generator.writeStringField("companyName", stock.getCompanyName());
+    generator.writeFieldName("price");
+    PriceSerializer.write(stock.getPrice(), generator);
+    generator.writeEndObject();
+  }
+}
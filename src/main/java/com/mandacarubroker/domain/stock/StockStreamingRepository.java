@@ -0,0 +1,34 @@
+package com.mandacarubroker.domain.stock;
+
+import java.util.function.Consumer;
+
+/**
+ * Repository fragment that walks the stock table without materializing it.
+ *
+ * @author Ricardo Vilela
+ */
+public interface StockStreamingRepository {
+
+  /**
+   * Visits every stock ordered by ID, fetching rows from the database in chunks
+   * and detaching each entity once it has been handed to the action, so memory
+   * use does not grow with the size of the table.
+   *
+   * @param action the callback invoked for each stock.
+   */
+  void forEachOrderedById(Consumer<Stock> action);
+
+  /**
+   * Visits the stocks created or updated, and the IDs of the stocks deleted, since a
+   * change token, reading only the changed rows through the change-tracking indexes.
+   *
+   * <p>The token is the oldest transaction still running when the read starts, so every
+   * write that is not visible to the read is at or after it and is returned again by
+   * the next call. Changes may be visited more than once, but none is missed.
+   *
+   * @param since  the token returned by a previous call, or 0 for every stock.
+   * @param action the callback invoked for each change.
+   * @return the token to pass on the next call.
+   */
+  long forEachChangeSince(long since, Consumer<StockChange> action);
+}
@@ -0,0 +1,64 @@
+package com.mandacarubroker.domain.stock;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * JPA implementation of {@link StockStreamingRepository}.
+ */
+public class StockStreamingRepositoryImpl implements StockStreamingRepository {
+
+  private static final int FETCH_SIZE = 500;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  @Transactional(readOnly = true)
+  public void forEachOrderedById(Consumer<Stock> action) {
+    try (Stream<Stock> stocks = entityManager
+            .createQuery("select s from stock s order by s.id", Stock.class)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream()) {
+      stocks.forEach(stock -> {
+        action.accept(stock);
+        entityManager.detach(stock);
+      });
+    }
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  @SuppressWarnings("unchecked")
+  public long forEachChangeSince(long since, Consumer<StockChange> action) {
+    String token = (String) entityManager
+            .createNativeQuery("SELECT CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text)")
+            .getSingleResult();
+    String sinceXid = Long.toString(since);
+    try (Stream<Stock> stocks = entityManager
+            .createNativeQuery("SELECT id, symbol, company_name, price, version, updated_at FROM stock "
+                    + "WHERE change_xid >= CAST(:since AS xid8)", Stock.class)
+            .setParameter("since", sinceXid)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream()) {
+      stocks.forEach(stock -> {
+        action.accept(StockChange.upsert(stock));
+        entityManager.detach(stock);
+      });
+    }
+    try (Stream<String> ids = entityManager
+            .createNativeQuery("SELECT id FROM stock_tombstone WHERE change_xid >= CAST(:since AS xid8)")
+            .setParameter("since", sinceXid)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+            .getResultStream()) {
+      ids.forEach(id -> action.accept(StockChange.delete(id)));
+    }
+    return Long.parseLong(token);
+  }
+}
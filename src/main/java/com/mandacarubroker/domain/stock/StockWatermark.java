@@ -0,0 +1,13 @@
+package com.mandacarubroker.domain.stock;
+
+import java.time.Instant;
+
+/**
+ * A summary of the stock table that changes whenever a stock is created, updated or
+ * deleted, used to validate cached copies of the stock list without reading it.
+ *
+ * @param count        the number of stocks.
+ * @param lastModified the latest update time of any stock, or null if there are none.
+ */
+public record StockWatermark(long count, Instant lastModified) {
+}
@@ -0,0 +1,16 @@
+package com.mandacarubroker.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when an order is missing its side or type, has no positive quantity, is a
+ * limit order without a positive price, or names a stock that does not exist.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidOrderException extends RuntimeException {
+
+  public InvalidOrderException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,16 @@
+package com.mandacarubroker.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a portfolio request is malformed, names an unknown stock, or would
+ * leave the portfolio with negative cash or shares.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPortfolioOperationException extends RuntimeException {
+
+  public InvalidPortfolioOperationException(String message) {
+    super(message);
+  }
+}
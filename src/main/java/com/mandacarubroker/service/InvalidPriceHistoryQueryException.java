@@ -0,0 +1,16 @@
+package com.mandacarubroker.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a price history query asks for an empty range, an interval that is
+ * not a whole number of minutes, or more bars than can be returned at once.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPriceHistoryQueryException extends RuntimeException {
+
+  public InvalidPriceHistoryQueryException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,16 @@
+package com.mandacarubroker.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a stock search has no letters or digits to search for, or asks for
+ * more results than can be returned at once.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidStockSearchQueryException extends RuntimeException {
+
+  public InvalidStockSearchQueryException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,234 @@
+package com.mandacarubroker.service;
+
+import com.mandacarubroker.domain.order.MatchingEngine;
+import com.mandacarubroker.domain.order.Order;
+import com.mandacarubroker.domain.order.OrderReceipt;
+import com.mandacarubroker.domain.order.OrderType;
+import com.mandacarubroker.domain.order.PlaceOrderDto;
+import com.mandacarubroker.domain.order.Trade;
+import com.mandacarubroker.domain.stock.PriceTick;
+import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.domain.stock.StockDeletedEvent;
+import com.mandacarubroker.domain.stock.StockSavedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Places orders on the matching engine of their stock and feeds the resulting trades
+ * back into the stock prices.
+ *
+ * <p>The books are sharded by symbol across a fixed number of {@link MatchingEngine}s,
+ * one per core by default, so the threads and buffers do not grow with the number of
+ * stocks traded. A stock's book is created by its first order and dropped when the
+ * stock is deleted or renamed; a renamed stock gets a new book under its new symbol. The price of every trade is offered to the {@link PriceTickIngestor},
+ * which coalesces them so the stock table sees at most one write per symbol per flush.
+ * When the ingestor is full, the last rejected trade price of each symbol is kept and
+ * offered again until it is accepted or superseded by a newer trade.
+ */
+@Service
+public class OrderService {
+
+  private final StockService stockService;
+  private final PriceTickIngestor priceTickIngestor;
+  private final MatchingEngine[] engines;
+
+  /**
+   * The symbol of each stock that has a book, by stock ID.
+   */
+  private final Map<String, String> bookedSymbols = new ConcurrentHashMap<>();
+
+  /**
+   * The ID of the stock each booked symbol belongs to; the inverse of {@link #bookedSymbols}.
+   */
+  private final Map<String, String> bookedStocks = new ConcurrentHashMap<>();
+
+  /**
+   * The latest trade price of each symbol that the ingestor rejected.
+   */
+  private final Map<String, Long> deferredPrices = new ConcurrentHashMap<>();
+  private final AtomicLong orderIds = new AtomicLong();
+
+  private final Counter rejectedOrders;
+  private final Counter trades;
+  private final Counter deferredTradePrices;
+
+  /**
+   * Creates the service and registers its metrics.
+   *
+   * @param stockService      the service used to check that a stock exists.
+   * @param priceTickIngestor the ingestor trade prices are written through.
+   * @param meterRegistry     the registry the order metrics are published to.
+   * @param capacity          the maximum number of orders waiting in each engine.
+   * @param engineCount       the number of engines, or 0 for one per available processor.
+   */
+  public OrderService(StockService stockService,
+                      PriceTickIngestor priceTickIngestor,
+                      MeterRegistry meterRegistry,
+                      @Value("${mandacaru.orders.capacity:65536}") int capacity,
+                      @Value("${mandacaru.orders.engines:0}") int engineCount) {
+    this.stockService = stockService;
+    this.priceTickIngestor = priceTickIngestor;
+    this.engines = new MatchingEngine[engineCount > 0 ? engineCount : Runtime.getRuntime().availableProcessors()];
+    for (int i = 0; i < engines.length; i++) {
+      engines[i] = new MatchingEngine(Integer.toString(i), capacity, this::onTrade);
+    }
+
+    meterRegistry.gauge("orders.engines", Tags.empty(), engines, array -> array.length);
+    meterRegistry.gaugeMapSize("orders.books", Tags.empty(), bookedSymbols);
+    this.rejectedOrders = meterRegistry.counter("orders.rejected");
+    this.trades = meterRegistry.counter("orders.trades");
+    this.deferredTradePrices = meterRegistry.counter("orders.trades.prices.deferred");
+    meterRegistry.gaugeMapSize("orders.trades.prices.pending", Tags.empty(), deferredPrices);
+  }
+
+  /**
+   * Places an order on the book of its stock.
+   *
+   * @param data the order to place.
+   * @return a future completed with the receipt once the order is matched, or empty
+   *     if the engine is saturated and the order should be retried later.
+   * @throws InvalidOrderException If the order is malformed or the stock does not exist.
+   */
+  public Optional<CompletableFuture<OrderReceipt>> placeOrder(PlaceOrderDto data) {
+    validate(data);
+    if (!bookedStocks.containsKey(data.symbol())) {
+      Stock stock = stockService.getStockBySymbol(data.symbol())
+              .orElseThrow(() -> new InvalidOrderException("Unknown symbol " + data.symbol()));
+      book(stock.getId(), data.symbol());
+    }
+    MatchingEngine engine = engineFor(data.symbol());
+
+    long price = data.type() == OrderType.LIMIT ? data.price() : 0;
+    Order order = new Order(orderIds.incrementAndGet(), data.symbol(), data.side(), data.type(), price,
+            data.quantity());
+    CompletableFuture<OrderReceipt> receipt = engine.submit(order);
+    if (receipt == null) {
+      rejectedOrders.increment();
+    }
+    return Optional.ofNullable(receipt);
+  }
+
+  /**
+   * Drops the book of a deleted stock, so no further orders are accepted for it.
+   *
+   * @param event the deletion.
+   */
+  @EventListener
+  public void onStockDeleted(StockDeletedEvent event) {
+    unbook(event.id());
+  }
+
+  /**
+   * Drops the book of a stock whose symbol changed, so its resting orders are not
+   * matched under a symbol the stock no longer has.
+   *
+   * @param event the save.
+   */
+  @EventListener
+  public void onStockSaved(StockSavedEvent event) {
+    Stock stock = event.stock();
+    String symbol = bookedSymbols.get(stock.getId());
+    if (symbol != null && !symbol.equals(stock.getSymbol())) {
+      unbook(stock.getId());
+    }
+  }
+
+  /**
+   * Offers the deferred trade prices to the ingestor again.
+   */
+  @Scheduled(fixedDelayString = "${mandacaru.ticks.flush-interval-ms:100}")
+  public void retryDeferredPrices() {
+    for (String symbol : deferredPrices.keySet()) {
+      deferredPrices.computeIfPresent(symbol,
+              (key, price) -> priceTickIngestor.offer(new PriceTick(key, price)) ? null : price);
+    }
+  }
+
+  /**
+   * Stops every matching engine.
+   */
+  @PreDestroy
+  public void close() {
+    for (MatchingEngine engine : engines) {
+      engine.close();
+    }
+    bookedSymbols.clear();
+    bookedStocks.clear();
+  }
+
+  private synchronized void book(String id, String symbol) {
+    String previous = bookedSymbols.put(id, symbol);
+    if (previous != null && !previous.equals(symbol)) {
+      dropBook(id, previous);
+    }
+    bookedStocks.put(symbol, id);
+  }
+
+  private synchronized void unbook(String id) {
+    String symbol = bookedSymbols.remove(id);
+    if (symbol != null) {
+      dropBook(id, symbol);
+    }
+  }
+
+  private void dropBook(String id, String symbol) {
+    bookedStocks.remove(symbol, id);
+    engineFor(symbol).removeBook(symbol);
+    deferredPrices.remove(symbol);
+  }
+
+  private MatchingEngine engineFor(String symbol) {
+    return engines[Math.floorMod(symbol.hashCode(), engines.length)];
+  }
+
+  private void onTrade(Trade trade) {
+    trades.increment();
+    PriceTick tick = new PriceTick(trade.symbol(), trade.price());
+    // Only this engine thread defers prices for the symbol, so without a deferred price
+    // no retry can race this tick.
+    if (!deferredPrices.containsKey(tick.symbol())) {
+      if (!priceTickIngestor.offer(tick)) {
+        deferredTradePrices.increment();
+        deferredPrices.put(tick.symbol(), tick.price());
+      }
+      return;
+    }
+    // Offering under the map's lock keeps a concurrent retry from sending the older price after this one.
+    deferredPrices.compute(tick.symbol(), (symbol, deferred) -> {
+      if (priceTickIngestor.offer(tick)) {
+        return null;
+      }
+      deferredTradePrices.increment();
+      return tick.price();
+    });
+  }
+
+  private static void validate(PlaceOrderDto data) {
+    if (data.symbol() == null || data.symbol().isBlank()) {
+      throw new InvalidOrderException("Symbol cannot be blank");
+    }
+    if (data.side() == null) {
+      throw new InvalidOrderException("Side cannot be null");
+    }
+    if (data.type() == null) {
+      throw new InvalidOrderException("Type cannot be null");
+    }
+    if (data.quantity() <= 0) {
+      throw new InvalidOrderException("Quantity must be positive");
+    }
+    if (data.type() == OrderType.LIMIT && (data.price() == null || data.price() <= 0)) {
+      throw new InvalidOrderException("Limit price must be positive");
+    }
+  }
+}
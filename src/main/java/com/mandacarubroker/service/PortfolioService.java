@@ -0,0 +1,330 @@
+package com.mandacarubroker.service;
+
+import com.mandacarubroker.domain.order.OrderSide;
+import com.mandacarubroker.domain.portfolio.CreatePortfolioDto;
+import com.mandacarubroker.domain.portfolio.Portfolio;
+import com.mandacarubroker.domain.portfolio.PortfolioMarks;
+import com.mandacarubroker.domain.portfolio.PortfolioPosition;
+import com.mandacarubroker.domain.portfolio.PortfolioPositionRepository;
+import com.mandacarubroker.domain.portfolio.PortfolioRepository;
+import com.mandacarubroker.domain.portfolio.PortfolioTradeDto;
+import com.mandacarubroker.domain.portfolio.PortfolioValuation;
+import com.mandacarubroker.domain.portfolio.PositionValuation;
+import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.domain.stock.StockChangeType;
+import com.mandacarubroker.domain.stock.StockPriceChangedEvent;
+import com.mandacarubroker.domain.stock.StockRenamedEvent;
+import com.mandacarubroker.domain.stock.StockSavedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Manages portfolios and values them against the current stock prices.
+ *
+ * <p>Portfolios and positions are stored in the database and mirrored in
+ * {@link PortfolioMarks}, which is loaded at startup and re-marked from the stock
+ * price events, so a valuation is read from memory without touching the database or
+ * summing over the holdings. Trades lock the portfolio row, so trades on the same
+ * portfolio are applied one at a time, and update the marks before committing, so
+ * the marks see them in the same order. Trades and price changes made by other
+ * instances are picked up by a periodic reconciliation, which reloads the portfolios
+ * and positions from the primary and re-marks the stocks changed since the previous
+ * run, every {@code mandacaru.portfolio.reconcile-interval-ms}. Positions follow
+ * their stock when it is renamed.
+ */
+@Service
+public class PortfolioService {
+
+  private final PortfolioRepository portfolioRepository;
+  private final PortfolioPositionRepository positionRepository;
+  private final StockService stockService;
+  private final TransactionTemplate transactionTemplate;
+  private final PortfolioMarks marks = new PortfolioMarks();
+  private final Timer remarkTimer;
+
+  /**
+   * The portfolios traded while a reconciliation is reading the database, whose marks
+   * may be newer than what it read; null when no reconciliation is running.
+   */
+  private volatile Set<String> tradedDuringReconcile;
+  private long changeToken;
+
+  /**
+   * Creates the service and registers its metrics.
+   *
+   * @param portfolioRepository the repository portfolios are stored in.
+   * @param positionRepository  the repository positions are stored in.
+   * @param stockService        the service giving the current price of stocks.
+   * @param transactionManager  the transaction manager trades run in.
+   * @param meterRegistry       the registry the portfolio metrics are published to.
+   */
+  public PortfolioService(PortfolioRepository portfolioRepository,
+                          PortfolioPositionRepository positionRepository,
+                          StockService stockService,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+    this.portfolioRepository = portfolioRepository;
+    this.positionRepository = positionRepository;
+    this.stockService = stockService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    meterRegistry.gauge("portfolio.count", marks, PortfolioMarks::size);
+    this.remarkTimer = meterRegistry.timer("portfolio.remark");
+  }
+
+  /**
+   * Loads every portfolio and position and marks them to the current prices.
+   */
+  @PostConstruct
+  public void load() {
+    for (Portfolio portfolio : portfolioRepository.findAll()) {
+      marks.putPortfolio(portfolio.getId(), portfolio.getOwner(), portfolio.getCash(), portfolio.getRealizedPnl());
+    }
+    for (PortfolioPosition position : positionRepository.findAll()) {
+      put(position);
+    }
+  }
+
+  @EventListener
+  public void onStockPriceChanged(StockPriceChangedEvent event) {
+    remarkTimer.record(() -> marks.markPrice(event.symbol(), event.price()));
+  }
+
+  @EventListener
+  public void onStockSaved(StockSavedEvent event) {
+    Stock stock = event.stock();
+    if (stock.getSymbol() != null) {
+      remarkTimer.record(() -> marks.markPrice(stock.getSymbol(), stock.getPrice()));
+    }
+  }
+
+  /**
+   * Moves the positions in a renamed stock to its new symbol, in the transaction that
+   * renames it, merging them into any position already held under the new symbol.
+   *
+   * @param event the rename.
+   */
+  @EventListener
+  public void onStockRenamed(StockRenamedEvent event) {
+    for (PortfolioPosition position : positionRepository.findBySymbol(event.previousSymbol())) {
+      Optional<PortfolioPosition> held =
+              positionRepository.findByPortfolioIdAndSymbol(position.getPortfolioId(), event.symbol());
+      if (held.isPresent()) {
+        held.get().setQuantity(held.get().getQuantity() + position.getQuantity());
+        held.get().setCostBasis(held.get().getCostBasis() + position.getCostBasis());
+        positionRepository.delete(position);
+        positionRepository.save(held.get());
+      } else {
+        position.setSymbol(event.symbol());
+        positionRepository.save(position);
+      }
+    }
+    marks.renameSymbol(event.previousSymbol(), event.symbol());
+  }
+
+  /**
+   * Reloads every portfolio and position from the primary and re-marks the stocks
+   * changed since the previous run, so the marks converge with the trades and price
+   * changes of other instances. The first run reads the whole stock change feed.
+   * Portfolios traded here during the run are skipped, and picked up by the next one.
+   */
+  @Scheduled(fixedDelayString = "${mandacaru.portfolio.reconcile-interval-ms:60000}",
+          initialDelayString = "${mandacaru.portfolio.reconcile-interval-ms:60000}")
+  public void reconcile() {
+    tradedDuringReconcile = ConcurrentHashMap.newKeySet();
+    try {
+      transactionTemplate.executeWithoutResult(status -> {
+        changeToken = stockService.forEachChangeSince(changeToken, change -> {
+          if (change.type() == StockChangeType.UPSERT && change.stock().getSymbol() != null) {
+            marks.markPrice(change.stock().getSymbol(), change.stock().getPrice());
+          }
+        });
+        Map<String, List<PortfolioPosition>> positions = new HashMap<>();
+        for (PortfolioPosition position : positionRepository.findAll()) {
+          positions.computeIfAbsent(position.getPortfolioId(), id -> new ArrayList<>()).add(position);
+        }
+        for (Portfolio portfolio : portfolioRepository.findAll()) {
+          if (!tradedDuringReconcile.contains(portfolio.getId())) {
+            refresh(portfolio, positions.getOrDefault(portfolio.getId(), List.of()));
+          }
+        }
+      });
+    } finally {
+      tradedDuringReconcile = null;
+    }
+  }
+
+  /**
+   * Opens a portfolio.
+   *
+   * @param data the owner and initial cash of the portfolio.
+   * @return the valuation of the new portfolio.
+   * @throws InvalidPortfolioOperationException If the owner is blank or the cash is negative.
+   */
+  public PortfolioValuation createPortfolio(CreatePortfolioDto data) {
+    if (data.owner() == null || data.owner().isBlank()) {
+      throw new InvalidPortfolioOperationException("Owner cannot be blank");
+    }
+    long cash = data.cash() == null ? 0 : data.cash();
+    if (cash < 0) {
+      throw new InvalidPortfolioOperationException("Cash cannot be negative");
+    }
+    Portfolio portfolio = portfolioRepository.save(new Portfolio(null, data.owner(), cash, 0));
+    marks.putPortfolio(portfolio.getId(), portfolio.getOwner(), portfolio.getCash(), portfolio.getRealizedPnl());
+    return marks.getValuation(portfolio.getId()).orElseThrow();
+  }
+
+  /**
+   * Gets the valuation of a portfolio at the current stock prices.
+   *
+   * @param id the id of the portfolio.
+   * @return the valuation, or empty if there is no such portfolio.
+   */
+  public Optional<PortfolioValuation> getValuation(String id) {
+    return marks.getValuation(id);
+  }
+
+  /**
+   * Records a purchase or sale of shares, moving cash in or out of the portfolio.
+   * Purchases add to the cost basis of the position; sales remove the average cost of
+   * the shares sold from it and add the difference to the realized profit.
+   *
+   * @param id   the id of the portfolio.
+   * @param data the trade.
+   * @return the valuation after the trade, or empty if there is no such portfolio.
+   * @throws InvalidPortfolioOperationException If the trade is malformed, names an unknown stock,
+   *                                            or needs more cash or shares than the portfolio has.
+   */
+  public Optional<PortfolioValuation> trade(String id, PortfolioTradeDto data) {
+    validate(data);
+    Set<String> traded = tradedDuringReconcile;
+    if (traded != null) {
+      traded.add(id);
+    }
+    long marketPrice = currentPrice(data.symbol())
+            .orElseThrow(() -> new InvalidPortfolioOperationException("Unknown symbol " + data.symbol()));
+    long price = data.price() == null ? marketPrice : data.price();
+    if (price <= 0) {
+      throw new InvalidPortfolioOperationException("Stock " + data.symbol() + " has no positive price to trade at");
+    }
+    try {
+      return Optional.ofNullable(transactionTemplate.execute(status -> applyTrade(id, data, price, marketPrice)));
+    } catch (DataAccessException | TransactionException e) {
+      // The marks may already hold the trade that failed to commit.
+      reload(id);
+      throw e;
+    }
+  }
+
+  private PortfolioValuation applyTrade(String id, PortfolioTradeDto data, long price, long marketPrice) {
+    Optional<Portfolio> found = portfolioRepository.findForUpdate(id);
+    if (found.isEmpty()) {
+      return null;
+    }
+    Portfolio portfolio = found.get();
+    PortfolioPosition position = positionRepository.findByPortfolioIdAndSymbol(id, data.symbol())
+            .orElseGet(() -> new PortfolioPosition(null, id, data.symbol(), 0, 0));
+
+    try {
+      long amount = Math.multiplyExact(data.quantity(), price);
+      if (data.side() == OrderSide.BUY) {
+        if (portfolio.getCash() < amount) {
+          throw new InvalidPortfolioOperationException("Insufficient cash");
+        }
+        portfolio.setCash(portfolio.getCash() - amount);
+        position.setQuantity(Math.addExact(position.getQuantity(), data.quantity()));
+        position.setCostBasis(Math.addExact(position.getCostBasis(), amount));
+      } else {
+        if (position.getQuantity() < data.quantity()) {
+          throw new InvalidPortfolioOperationException("Insufficient shares");
+        }
+        long soldCost = data.quantity() == position.getQuantity() ? position.getCostBasis()
+                : Math.multiplyExact(position.getCostBasis(), data.quantity()) / position.getQuantity();
+        portfolio.setCash(Math.addExact(portfolio.getCash(), amount));
+        portfolio.setRealizedPnl(Math.addExact(portfolio.getRealizedPnl(), amount - soldCost));
+        position.setQuantity(position.getQuantity() - data.quantity());
+        position.setCostBasis(position.getCostBasis() - soldCost);
+      }
+    } catch (ArithmeticException e) {
+      throw new InvalidPortfolioOperationException("Trade amount is too large");
+    }
+
+    portfolioRepository.save(portfolio);
+    if (position.getQuantity() > 0) {
+      positionRepository.save(position);
+    } else if (position.getId() != null) {
+      positionRepository.delete(position);
+    }
+    portfolioRepository.flush();
+
+    marks.putPortfolio(id, portfolio.getOwner(), portfolio.getCash(), portfolio.getRealizedPnl());
+    marks.putPosition(id, data.symbol(), position.getQuantity(), position.getCostBasis(), marketPrice);
+    return marks.getValuation(id).orElseThrow();
+  }
+
+  private void reload(String id) {
+    Optional<Portfolio> portfolio = portfolioRepository.findById(id);
+    if (portfolio.isEmpty() || marks.getValuation(id).isEmpty()) {
+      return;
+    }
+    refresh(portfolio.get(), positionRepository.findByPortfolioId(id));
+  }
+
+  private void refresh(Portfolio portfolio, List<PortfolioPosition> positions) {
+    String id = portfolio.getId();
+    Optional<PortfolioValuation> valuation = marks.getValuation(id);
+    marks.putPortfolio(id, portfolio.getOwner(), portfolio.getCash(), portfolio.getRealizedPnl());
+    Set<String> symbols = new HashSet<>();
+    for (PortfolioPosition position : positions) {
+      symbols.add(position.getSymbol());
+    }
+    if (valuation.isPresent()) {
+      for (PositionValuation held : valuation.get().positions()) {
+        if (!symbols.contains(held.symbol())) {
+          marks.putPosition(id, held.symbol(), 0, 0, held.price());
+        }
+      }
+    }
+    positions.forEach(this::put);
+  }
+
+  private void put(PortfolioPosition position) {
+    marks.putPosition(position.getPortfolioId(), position.getSymbol(), position.getQuantity(),
+            position.getCostBasis(), currentPrice(position.getSymbol()).orElse(0L));
+  }
+
+  private Optional<Long> currentPrice(String symbol) {
+    Optional<Long> marked = marks.getPrice(symbol);
+    return marked.isPresent() ? marked : stockService.getStockBySymbol(symbol).map(Stock::getPrice);
+  }
+
+  private static void validate(PortfolioTradeDto data) {
+    if (data.symbol() == null || data.symbol().isBlank()) {
+      throw new InvalidPortfolioOperationException("Symbol cannot be blank");
+    }
+    if (data.side() == null) {
+      throw new InvalidPortfolioOperationException("Side cannot be null");
+    }
+    if (data.quantity() <= 0) {
+      throw new InvalidPortfolioOperationException("Quantity must be positive");
+    }
+    if (data.price() != null && data.price() <= 0) {
+      throw new InvalidPortfolioOperationException("Price must be positive");
+    }
+  }
+}
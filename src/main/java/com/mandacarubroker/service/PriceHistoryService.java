@@ -0,0 +1,200 @@
+package com.mandacarubroker.service;
+
+import com.mandacarubroker.domain.history.PriceBar;
+import com.mandacarubroker.domain.history.PriceBarResolution;
+import com.mandacarubroker.domain.history.PriceHistoryRepository;
+import com.mandacarubroker.domain.history.PricePoint;
+import com.mandacarubroker.domain.stock.StockPriceChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Records every stock price change in the price history and answers OHLC bar queries.
+ *
+ * <p>Price changes are queued in memory as they are published and appended to the
+ * history in periodic batches, so writers never wait on the history tables. When the
+ * queue is full new changes are dropped and counted rather than blocking the writer.
+ * A batch that keeps failing is written one point at a time, so a point the database
+ * refuses is dropped and counted instead of holding up every point queued after it.
+ * Bars are read from the pre-aggregated minute, hour or day tables, never from the
+ * raw ticks, so a query costs in proportion to the bars it returns.
+ */
+@Service
+@ConditionalOnProperty(name = "mandacaru.history.enabled", matchIfMissing = true)
+public class PriceHistoryService {
+
+  public static final int MAX_BARS = 100_000;
+
+  private static final Duration MIN_INTERVAL = Duration.ofMinutes(1);
+
+  private final PriceHistoryRepository priceHistoryRepository;
+  private final BlockingQueue<PricePoint> pending;
+  private final int batchSize;
+  private final int partitionDaysAhead;
+  private final int tickRetentionDays;
+  private final int maxWriteAttempts;
+  private int failedAttempts;
+
+  private final Counter droppedPoints;
+  private final Counter failedWrites;
+  private final Counter rejectedPoints;
+  private final Timer flushTimer;
+
+  /**
+   * Creates the service and registers its metrics.
+   *
+   * @param priceHistoryRepository the repository the history is written to and read from.
+   * @param meterRegistry          the registry the history metrics are published to.
+   * @param capacity               the maximum number of price changes waiting to be written.
+   * @param batchSize              the maximum number of price changes written at once.
+   * @param partitionDaysAhead     the number of days ahead to create tick partitions for.
+   * @param tickRetentionDays      the number of days raw ticks are kept; bars are kept forever.
+   * @param maxWriteAttempts       the number of times a batch is written whole before its points are written one by one.
+   */
+  public PriceHistoryService(PriceHistoryRepository priceHistoryRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${mandacaru.history.capacity:100000}") int capacity,
+                             @Value("${mandacaru.history.batch-size:1000}") int batchSize,
+                             @Value("${mandacaru.history.partition-days-ahead:7}") int partitionDaysAhead,
+                             @Value("${mandacaru.history.tick-retention-days:30}") int tickRetentionDays,
+                             @Value("${mandacaru.history.max-write-attempts:3}") int maxWriteAttempts) {
+    this.priceHistoryRepository = priceHistoryRepository;
+    this.pending = new ArrayBlockingQueue<>(capacity);
+    this.batchSize = batchSize;
+    this.partitionDaysAhead = partitionDaysAhead;
+    this.tickRetentionDays = tickRetentionDays;
+    this.maxWriteAttempts = maxWriteAttempts;
+
+    meterRegistry.gaugeCollectionSize("stock.history.queue.depth", List.of(), pending);
+    this.droppedPoints = meterRegistry.counter("stock.history.dropped");
+    this.failedWrites = meterRegistry.counter("stock.history.write.failures");
+    this.rejectedPoints = meterRegistry.counter("stock.history.rejected");
+    this.flushTimer = meterRegistry.timer("stock.history.flush");
+  }
+
+  /**
+   * Queues a price change to be appended to the history.
+   *
+   * @param event the price change.
+   */
+  @EventListener
+  public void onStockPriceChanged(StockPriceChangedEvent event) {
+    if (!pending.offer(new PricePoint(event.symbol(), Instant.now(), event.price()))) {
+      droppedPoints.increment();
+    }
+  }
+
+  /**
+   * Appends the queued price changes to the history in batches. A batch is only taken
+   * off the queue once it has been written, so a failed write is retried by the next
+   * flush instead of leaving a hole in the bars. After {@code mandacaru.history.max-write-attempts}
+   * failed attempts the batch is written point by point: a point refused as invalid,
+   * such as one with no partition for its day, is dropped and counted in
+   * {@code stock.history.rejected}, and any other failure stops the flush until the next one.
+   */
+  @Scheduled(fixedDelayString = "${mandacaru.history.flush-interval-ms:1000}")
+  public void flush() {
+    if (pending.isEmpty()) {
+      return;
+    }
+
+    flushTimer.record(() -> {
+      List<PricePoint> batch;
+      while (!(batch = peekBatch()).isEmpty()) {
+        try {
+          priceHistoryRepository.append(batch);
+        } catch (RuntimeException e) {
+          failedWrites.increment();
+          if (++failedAttempts < maxWriteAttempts) {
+            throw e;
+          }
+          failedAttempts = 0;
+          appendOneByOne(batch);
+          continue;
+        }
+        failedAttempts = 0;
+        // This is the only consumer, so the head of the queue is still the batch just written.
+        for (int i = 0; i < batch.size(); i++) {
+          pending.poll();
+        }
+      }
+    });
+  }
+
+  private void appendOneByOne(List<PricePoint> batch) {
+    for (PricePoint point : batch) {
+      try {
+        priceHistoryRepository.append(List.of(point));
+      } catch (DataIntegrityViolationException e) {
+        rejectedPoints.increment();
+      }
+      pending.poll();
+    }
+  }
+
+  private List<PricePoint> peekBatch() {
+    List<PricePoint> batch = new ArrayList<>(batchSize);
+    Iterator<PricePoint> points = pending.iterator();
+    while (batch.size() < batchSize && points.hasNext()) {
+      batch.add(points.next());
+    }
+    return batch;
+  }
+
+  /**
+   * Makes sure the tick partitions of the coming days exist and drops expired ones.
+   * Runs at startup and then every day at midnight UTC.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(cron = "${mandacaru.history.partition-cron:0 0 0 * * *}", zone = "UTC")
+  public void maintainPartitions() {
+    priceHistoryRepository.maintainPartitions(partitionDaysAhead, tickRetentionDays);
+  }
+
+  /**
+   * Gets the OHLC bars of a stock over a range. The bounds are rounded down to the
+   * minute and bars start at {@code from}; intervals without any price are omitted.
+   *
+   * @param symbol   The symbol of the stock.
+   * @param from     The start of the range, inclusive.
+   * @param to       The end of the range, exclusive.
+   * @param interval The length of each bar, a whole number of minutes.
+   * @return The bars in time order.
+   * @throws InvalidPriceHistoryQueryException If the range is empty, the interval is
+   *     not a whole number of minutes, or the query would return more than {@value #MAX_BARS} bars.
+   */
+  public List<PriceBar> getBars(String symbol, Instant from, Instant to, Duration interval) {
+    Instant start = from.truncatedTo(ChronoUnit.MINUTES);
+    Instant end = to.truncatedTo(ChronoUnit.MINUTES);
+    if (!start.isBefore(end)) {
+      throw new InvalidPriceHistoryQueryException("The range must span at least one minute");
+    }
+    if (interval.compareTo(MIN_INTERVAL) < 0 || interval.toSeconds() % MIN_INTERVAL.toSeconds() != 0
+            || interval.toNanosPart() != 0) {
+      throw new InvalidPriceHistoryQueryException("The interval must be a whole number of minutes");
+    }
+    long bars = Duration.between(start, end).toSeconds() / interval.toSeconds();
+    if (bars >= MAX_BARS) {
+      throw new InvalidPriceHistoryQueryException("The query would return more than " + MAX_BARS + " bars");
+    }
+
+    PriceBarResolution resolution = PriceBarResolution.coarsestFor(start, end, interval);
+    return priceHistoryRepository.findBars(symbol, resolution, start, end, interval);
+  }
+}
@@ -0,0 +1,208 @@
+package com.mandacarubroker.service;
+
+import com.mandacarubroker.config.CacheConfig;
+import com.mandacarubroker.domain.stock.PriceTick;
+import com.mandacarubroker.domain.stock.StockPriceChangedEvent;
+import com.mandacarubroker.domain.stock.StockPriceWriter;
+import com.mandacarubroker.domain.stock.StockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Buffers market-data price ticks in memory and writes them to the stock table in
+ * periodic batches.
+ *
+ * <p>Ticks are coalesced per symbol: only the latest price received since the last
+ * flush is written, so the database sees at most one update per symbol per flush
+ * interval however fast ticks arrive. The buffer holds at most {@code capacity}
+ * symbols; ticks for new symbols are rejected once it is full, which callers should
+ * surface as backpressure.
+ */
+@Service
+public class PriceTickIngestor {
+
+  private final StockPriceWriter stockPriceWriter;
+  private final StockRepository stockRepository;
+  private final CacheManager cacheManager;
+  private final ApplicationEventPublisher eventPublisher;
+  private final int capacity;
+  private final int batchSize;
+
+  private final Map<String, Long> pending = new ConcurrentHashMap<>();
+  private final AtomicInteger depth = new AtomicInteger();
+
+  private final Counter acceptedTicks;
+  private final Counter coalescedTicks;
+  private final Counter rejectedTicks;
+  private final Counter unknownSymbols;
+  private final Counter failedWrites;
+  private final Timer flushTimer;
+
+  /**
+   * Creates the ingestor and registers its metrics.
+   *
+   * @param stockPriceWriter the writer the coalesced prices are flushed through.
+   * @param stockRepository  the repository used to find the cached stocks to invalidate.
+   * @param cacheManager     the cache manager holding the stock caches to invalidate.
+   * @param eventPublisher   the publisher of the price change events.
+   * @param meterRegistry    the registry the ingestion metrics are published to.
+   * @param capacity         the maximum number of symbols waiting to be flushed.
+   * @param batchSize        the maximum number of updates sent in one JDBC batch.
+   */
+  public PriceTickIngestor(StockPriceWriter stockPriceWriter,
+                           StockRepository stockRepository,
+                           CacheManager cacheManager,
+                           ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry,
+                           @Value("${mandacaru.ticks.capacity:100000}") int capacity,
+                           @Value("${mandacaru.ticks.batch-size:1000}") int batchSize) {
+    this.stockPriceWriter = stockPriceWriter;
+    this.stockRepository = stockRepository;
+    this.cacheManager = cacheManager;
+    this.eventPublisher = eventPublisher;
+    this.capacity = capacity;
+    this.batchSize = batchSize;
+
+    meterRegistry.gauge("stock.ticks.queue.depth", depth);
+    meterRegistry.gauge("stock.ticks.queue.capacity", Tags.empty(), this, ingestor -> ingestor.capacity);
+    this.acceptedTicks = meterRegistry.counter("stock.ticks.accepted");
+    this.coalescedTicks = meterRegistry.counter("stock.ticks.coalesced");
+    this.rejectedTicks = meterRegistry.counter("stock.ticks.rejected");
+    this.unknownSymbols = meterRegistry.counter("stock.ticks.unknown.symbols");
+    this.failedWrites = meterRegistry.counter("stock.ticks.write.failures");
+    this.flushTimer = meterRegistry.timer("stock.ticks.flush");
+  }
+
+  /**
+   * Queues a price tick for the next flush, replacing any tick for the same symbol
+   * that has not been flushed yet.
+   *
+   * @param tick the price tick.
+   * @return false if the tick was rejected because the buffer is full.
+   */
+  public boolean offer(PriceTick tick) {
+    if (pending.replace(tick.symbol(), tick.price()) != null) {
+      acceptedTicks.increment();
+      coalescedTicks.increment();
+      return true;
+    }
+
+    if (depth.incrementAndGet() > capacity) {
+      depth.decrementAndGet();
+      rejectedTicks.increment();
+      return false;
+    }
+
+    if (pending.put(tick.symbol(), tick.price()) != null) {
+      depth.decrementAndGet();
+      coalescedTicks.increment();
+    }
+    acceptedTicks.increment();
+    return true;
+  }
+
+  /**
+   * Returns the number of symbols waiting to be flushed.
+   *
+   * @return the queue depth.
+   */
+  public int getQueueDepth() {
+    return depth.get();
+  }
+
+  /**
+   * Writes every pending price to the database in batches, invalidates the cached
+   * stocks they belong to and publishes a {@link StockPriceChangedEvent} for each
+   * updated stock. Ticks received while a flush runs are kept for the next one.
+   *
+   * <p>If a batch fails to write, its ticks are put back for the next flush, unless a
+   * newer tick for the same symbol arrived in the meantime, and the failure is rethrown.
+   * Requeued ticks are accepted even when they take the buffer over its capacity.
+   */
+  @Scheduled(fixedDelayString = "${mandacaru.ticks.flush-interval-ms:100}")
+  public void flush() {
+    if (pending.isEmpty()) {
+      return;
+    }
+
+    flushTimer.record(() -> {
+      List<PriceTick> batch = new ArrayList<>();
+      Iterator<String> symbols = pending.keySet().iterator();
+      while (symbols.hasNext()) {
+        String symbol = symbols.next();
+        Long price = pending.remove(symbol);
+        if (price == null) {
+          continue;
+        }
+        depth.decrementAndGet();
+        batch.add(new PriceTick(symbol, price));
+
+        if (batch.size() == batchSize) {
+          write(batch);
+          batch = new ArrayList<>();
+        }
+      }
+      write(batch);
+    });
+  }
+
+  private void write(List<PriceTick> batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    int[] updated;
+    try {
+      updated = stockPriceWriter.updatePrices(batch);
+    } catch (RuntimeException e) {
+      failedWrites.increment();
+      requeue(batch);
+      throw e;
+    }
+    evictCachedStocks(batch);
+
+    for (int i = 0; i < updated.length; i++) {
+      if (updated[i] == 0) {
+        unknownSymbols.increment();
+      } else {
+        PriceTick tick = batch.get(i);
+        eventPublisher.publishEvent(new StockPriceChangedEvent(tick.symbol(), tick.price()));
+      }
+    }
+  }
+
+  private void requeue(List<PriceTick> batch) {
+    for (PriceTick tick : batch) {
+      if (pending.putIfAbsent(tick.symbol(), tick.price()) == null) {
+        depth.incrementAndGet();
+      }
+    }
+  }
+
+  private void evictCachedStocks(List<PriceTick> batch) {
+    List<String> symbols = batch.stream().map(PriceTick::symbol).toList();
+
+    Cache stocksBySymbol = cacheManager.getCache(CacheConfig.STOCKS_BY_SYMBOL);
+    if (stocksBySymbol != null) {
+      symbols.forEach(stocksBySymbol::evict);
+    }
+    Cache stocksById = cacheManager.getCache(CacheConfig.STOCKS_BY_ID);
+    if (stocksById != null) {
+      stockRepository.findIdsBySymbolIn(symbols).forEach(stocksById::evict);
+    }
+  }
+}
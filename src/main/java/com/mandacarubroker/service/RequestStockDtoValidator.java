@@ -0,0 +1,65 @@
+package com.mandacarubroker.service;
+
+import com.mandacarubroker.domain.stock.RequestStockDto;
+
+/**
+ * Allocation-free checks mirroring the JSR-380 constraints declared on
+ * {@link RequestStockDto}.
+ *
+ * <p>A {@code true} result means the request satisfies every constraint. A
+ * {@code false} result only means the fast path could not prove it, and the
+ * request must go through the full validator to get the violations.
+ */
+final class RequestStockDtoValidator {
+
+  private RequestStockDtoValidator() {
+  }
+
+  /**
+   * Checks whether the request is known to be valid.
+   *
+   * @param data the request to check.
+   * @return true if the request satisfies every constraint.
+   */
+  static boolean isValid(RequestStockDto data) {
+    return isValidSymbol(data.symbol()) && isValidCompanyName(data.companyName());
+  }
+
+  /**
+   * Mirrors {@code @Pattern(regexp = "[A-Za-z]{2}\\d")}, which accepts null.
+   */
+  private static boolean isValidSymbol(String symbol) {
+    if (symbol == null) {
+      return true;
+    }
+    return symbol.length() == 3
+            && isAsciiLetter(symbol.charAt(0))
+            && isAsciiLetter(symbol.charAt(1))
+            && isAsciiDigit(symbol.charAt(2));
+  }
+
+  /**
+   * Mirrors {@code @NotBlank}. Only names holding at least one visible, non-whitespace
+   * character are accepted, so unusual whitespace is left to the full validator.
+   */
+  private static boolean isValidCompanyName(String companyName) {
+    if (companyName == null) {
+      return false;
+    }
+    for (int i = 0; i < companyName.length(); i++) {
+      char c = companyName.charAt(i);
+      if (c > ' ' && !Character.isWhitespace(c)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isAsciiLetter(char c) {
+    return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+  }
+
+  private static boolean isAsciiDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+}
@@ -0,0 +1,16 @@
+package com.mandacarubroker.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a conditional update targets a version of a stock that is no longer
+ * the current one.
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class StaleStockVersionException extends RuntimeException {
+
+  public StaleStockVersionException(String id, long expectedVersion) {
+    super(String.format("Stock %s is no longer at version %d", id, expectedVersion));
+  }
+}
@@ -0,0 +1,315 @@
+package com.mandacarubroker.service;
+
+import com.mandacarubroker.domain.journal.FsyncPolicy;
+import com.mandacarubroker.domain.journal.JournalRecord;
+import com.mandacarubroker.domain.journal.StockJournal;
+import com.mandacarubroker.domain.journal.StockSnapshot;
+import com.mandacarubroker.domain.journal.StockSnapshotStore;
+import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.domain.stock.StockDeletedEvent;
+import com.mandacarubroker.domain.stock.StockPriceChangedEvent;
+import com.mandacarubroker.domain.stock.StockSavedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the state of every stock in memory, backed by a write-ahead journal and
+ * periodic snapshots on local disk.
+ *
+ * <p>Every stock mutation event is appended to the {@link StockJournal} and applied to
+ * the in-memory state under one lock, so the journal order is the order the state
+ * saw. A snapshot of the state is written every snapshot interval, after which the
+ * journal segments it covers are deleted. On startup the latest snapshot is loaded
+ * and only the journal records after it are replayed, so recovery time depends on
+ * the snapshot interval rather than the size of the table. PostgreSQL is read only
+ * once, to seed the first snapshot when the journal directory is empty. The recovered
+ * state is not loaded into the stock caches, since it can miss mutations made while
+ * the journal was disabled or by other instances.
+ *
+ * <p>A mutation that cannot be appended to the journal is still applied in memory,
+ * since it is already committed to the database, and the next snapshot reseeds the
+ * state from the database so the lost record is not missed on recovery. The reseed
+ * reads the primary without holding the lock, and the mutations recorded meanwhile
+ * are applied on top of what it read.
+ *
+ * <p>Opt-in with {@code mandacaru.journal.enabled=true}. Mutations made while the
+ * journal is disabled, or by other instances, are not seen by it.
+ */
+@Service
+@ConditionalOnProperty(name = "mandacaru.journal.enabled")
+public class StockJournalService {
+
+  private static final int SNAPSHOTS_KEPT = 2;
+
+  private final StockService stockService;
+  private final TransactionTemplate primaryReads;
+  private final StockJournal journal;
+  private final StockSnapshotStore snapshotStore;
+  private final FsyncPolicy fsyncPolicy;
+
+  private final Map<String, Stock> stocksById = new HashMap<>();
+  private final Map<String, String> idsBySymbol = new HashMap<>();
+  private long snapshotSequence = -1;
+  private long failedAppends;
+  private long reseededThrough;
+  private List<JournalRecord> recordedDuringReseed;
+
+  private final Counter appendFailures;
+  private final Timer appendTimer;
+  private final Timer snapshotTimer;
+  private final Timer recoveryTimer;
+
+  /**
+   * Opens the journal and snapshot store and registers the journal metrics.
+   *
+   * @param stockService       the service used to seed the first snapshot from the database.
+   * @param transactionManager the transaction manager the database is read in, so the reads go to the primary.
+   * @param meterRegistry      the registry the journal metrics are published to.
+   * @param directory          the directory holding the journal segments and snapshots.
+   * @param segmentSize        the size of each journal segment, in bytes.
+   * @param fsyncPolicy        when journal writes are forced to the storage device.
+   * @throws IOException If the directory cannot be created or listed.
+   */
+  public StockJournalService(StockService stockService,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${mandacaru.journal.directory:data/journal}") Path directory,
+                             @Value("${mandacaru.journal.segment-size:67108864}") int segmentSize,
+                             @Value("${mandacaru.journal.fsync:INTERVAL}") FsyncPolicy fsyncPolicy)
+          throws IOException {
+    this.stockService = stockService;
+    this.primaryReads = new TransactionTemplate(transactionManager);
+    this.journal = new StockJournal(directory, segmentSize, fsyncPolicy);
+    this.snapshotStore = new StockSnapshotStore(directory, fsyncPolicy != FsyncPolicy.NEVER);
+    this.fsyncPolicy = fsyncPolicy;
+
+    meterRegistry.gauge("stock.journal.sequence", journal, StockJournal::getLastSequence);
+    meterRegistry.gauge("stock.journal.segments", journal, StockJournal::getSegmentCount);
+    this.appendTimer = meterRegistry.timer("stock.journal.append");
+    this.appendFailures = meterRegistry.counter("stock.journal.append.failures");
+    this.snapshotTimer = meterRegistry.timer("stock.journal.snapshot");
+    this.recoveryTimer = meterRegistry.timer("stock.journal.recovery");
+  }
+
+  /**
+   * Loads the latest snapshot and replays the journal after it. When there is neither
+   * a snapshot nor a journal, the state is read from the database and snapshotted
+   * right away.
+   *
+   * @throws IOException If the journal cannot be read.
+   */
+  @PostConstruct
+  public void recover() throws IOException {
+    long start = System.nanoTime();
+    Optional<StockSnapshot> snapshot = snapshotStore.readLatest();
+    synchronized (this) {
+      snapshot.ifPresent(loaded -> {
+        loaded.stocks().forEach(this::put);
+        snapshotSequence = loaded.sequence();
+      });
+      long lastSequence = journal.recover(snapshot.map(StockSnapshot::sequence).orElse(0L), this::apply);
+      if (snapshot.isEmpty() && lastSequence == 0) {
+        readDatabase().forEach(this::put);
+      }
+    }
+    if (snapshot.isEmpty()) {
+      snapshot();
+    }
+    recoveryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+  }
+
+  @EventListener
+  public void onStockSaved(StockSavedEvent event) {
+    record(JournalRecord.saved(event.stock()));
+  }
+
+  @EventListener
+  public void onStockDeleted(StockDeletedEvent event) {
+    record(JournalRecord.deleted(event.id()));
+  }
+
+  @EventListener
+  public void onStockPriceChanged(StockPriceChangedEvent event) {
+    record(JournalRecord.priceChanged(event.symbol(), event.price()));
+  }
+
+  /**
+   * Writes a snapshot of the current state and deletes the snapshots and journal
+   * segments it makes redundant. If journal appends failed since the last snapshot,
+   * the state is first read again from the primary database, without blocking the
+   * mutations recorded meanwhile.
+   *
+   * @throws IOException If the snapshot cannot be written.
+   */
+  @Scheduled(fixedDelayString = "${mandacaru.journal.snapshot-interval-ms:60000}",
+          initialDelayString = "${mandacaru.journal.snapshot-interval-ms:60000}")
+  public void snapshot() throws IOException {
+    long failures;
+    boolean reseed;
+    synchronized (this) {
+      failures = failedAppends;
+      reseed = failures > reseededThrough;
+      if (reseed) {
+        recordedDuringReseed = new ArrayList<>();
+      } else if (journal.getLastSequence() == snapshotSequence) {
+        return;
+      }
+    }
+
+    List<Stock> reseeded = null;
+    if (reseed) {
+      try {
+        reseeded = readDatabase();
+      } catch (RuntimeException e) {
+        synchronized (this) {
+          recordedDuringReseed = null;
+        }
+        throw e;
+      }
+    }
+
+    StockSnapshot snapshot;
+    synchronized (this) {
+      if (reseeded != null) {
+        stocksById.clear();
+        idsBySymbol.clear();
+        reseeded.forEach(this::put);
+        recordedDuringReseed.forEach(this::apply);
+        recordedDuringReseed = null;
+      }
+      snapshot = new StockSnapshot(journal.getLastSequence(), getStocks());
+    }
+
+    long start = System.nanoTime();
+    snapshotStore.write(snapshot);
+    synchronized (this) {
+      snapshotSequence = snapshot.sequence();
+      reseededThrough = failures;
+    }
+    Optional<Long> oldest = snapshotStore.prune(SNAPSHOTS_KEPT);
+    if (oldest.isPresent()) {
+      journal.deleteSegmentsThrough(oldest.get());
+    }
+    snapshotTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Forces the journal to the storage device, when the fsync policy is {@link FsyncPolicy#INTERVAL}.
+   */
+  @Scheduled(fixedDelayString = "${mandacaru.journal.fsync-interval-ms:1000}")
+  public void force() {
+    if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+      journal.force();
+    }
+  }
+
+  /**
+   * Gets a copy of the in-memory state of every stock.
+   *
+   * @return the stocks, in no particular order.
+   */
+  public synchronized List<Stock> getStocks() {
+    List<Stock> stocks = new ArrayList<>(stocksById.size());
+    for (Stock stock : stocksById.values()) {
+      stocks.add(copy(stock));
+    }
+    return stocks;
+  }
+
+  /**
+   * Gets a copy of the in-memory state of a stock.
+   *
+   * @param id the id of the stock.
+   * @return the stock, or empty if it does not exist.
+   */
+  public synchronized Optional<Stock> getStock(String id) {
+    return Optional.ofNullable(stocksById.get(id)).map(StockJournalService::copy);
+  }
+
+  @PreDestroy
+  public void close() {
+    journal.close();
+  }
+
+  private void record(JournalRecord record) {
+    appendTimer.record(() -> {
+      synchronized (this) {
+        try {
+          journal.append(record);
+        } catch (IOException | IllegalArgumentException e) {
+          // The mutation is committed, so the request that made it must not fail.
+          appendFailures.increment();
+          failedAppends++;
+        }
+        apply(record);
+        if (recordedDuringReseed != null) {
+          recordedDuringReseed.add(record);
+        }
+      }
+    });
+  }
+
+  private List<Stock> readDatabase() {
+    List<Stock> stocks = new ArrayList<>();
+    primaryReads.executeWithoutResult(status -> stockService.forEachStock(stock -> stocks.add(copy(stock))));
+    return stocks;
+  }
+
+  private void apply(JournalRecord record) {
+    switch (record.type()) {
+      case SAVE -> put(new Stock(record.id(), record.symbol(), record.companyName(), record.price(),
+              record.version(), record.updatedAt()));
+      case DELETE -> {
+        Stock removed = stocksById.remove(record.id());
+        if (removed != null && removed.getSymbol() != null) {
+          idsBySymbol.remove(removed.getSymbol(), removed.getId());
+        }
+      }
+      case PRICE -> {
+        String id = idsBySymbol.get(record.symbol());
+        if (id != null) {
+          // The database bumps the version and update time along with the price, but
+          // the event does not carry them, so they are unknown until the next save.
+          Stock stock = stocksById.get(id);
+          stock.setPrice(record.price());
+          stock.setVersion(null);
+          stock.setUpdatedAt(null);
+        }
+      }
+      default -> throw new IllegalStateException("Unknown journal record type " + record.type());
+    }
+  }
+
+  private void put(Stock stock) {
+    Stock previous = stocksById.put(stock.getId(), stock);
+    if (previous != null && previous.getSymbol() != null) {
+      idsBySymbol.remove(previous.getSymbol(), previous.getId());
+    }
+    if (stock.getSymbol() != null) {
+      idsBySymbol.put(stock.getSymbol(), stock.getId());
+    }
+  }
+
+  private static Stock copy(Stock stock) {
+    return new Stock(stock.getId(), stock.getSymbol(), stock.getCompanyName(), stock.getPrice(),
+            stock.getVersion(), stock.getUpdatedAt());
+  }
+}
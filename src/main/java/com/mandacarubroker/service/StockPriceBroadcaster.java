@@ -0,0 +1,261 @@
+package com.mandacarubroker.service;
+
+import com.mandacarubroker.domain.stock.StockPriceChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes stock price changes to Server-Sent Events subscribers.
+ *
+ * <p>Publishing a price change never blocks on a client: the change is recorded in
+ * the pending map of every subscription interested in the symbol, and a drain task
+ * for that subscription is scheduled on the broadcaster's own sender threads if one
+ * is not already queued. Pending changes are coalesced per symbol, so a slow client
+ * receives the latest price of each symbol instead of an ever-growing backlog.
+ *
+ * <p>Writing to a client blocks while its TCP window is full, so the sender threads
+ * are kept apart from the MVC async executor that serves the other streamed responses,
+ * and a subscription whose write has been stuck for longer than
+ * {@code mandacaru.prices.send-timeout-ms} is evicted: it stops receiving changes, and
+ * its emitter is completed with an error as soon as the blocked write returns, so the
+ * connection is closed and the client reconnects instead of idling until the stream
+ * timeout.
+ */
+@Service
+public class StockPriceBroadcaster {
+
+  static final String PRICE_EVENT = "price";
+
+  private final Map<String, Set<PriceSubscription>> subscriptionsBySymbol = new ConcurrentHashMap<>();
+  private final Set<PriceSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+  private final Executor executor;
+  private final long timeout;
+  private final long sendTimeoutNanos;
+  private final LongSupplier nanoTime;
+  private final Counter evictedSubscriptions;
+
+  /**
+   * Creates the broadcaster with its own pool of sender threads. The pool queues at
+   * most one drain task per subscription.
+   *
+   * @param meterRegistry the registry the subscriber metrics are published to.
+   * @param timeout       how long a subscription stays open, in milliseconds.
+   * @param senderThreads the number of threads writing to subscribers.
+   * @param sendTimeout   how long a write to a subscriber may block before it is evicted, in milliseconds.
+   */
+  @Autowired
+  public StockPriceBroadcaster(MeterRegistry meterRegistry,
+                               @Value("${mandacaru.prices.stream-timeout-ms:1800000}") long timeout,
+                               @Value("${mandacaru.prices.sender-threads:4}") int senderThreads,
+                               @Value("${mandacaru.prices.send-timeout-ms:5000}") long sendTimeout) {
+    this(Executors.newFixedThreadPool(senderThreads, senderThreadFactory()), meterRegistry, timeout, sendTimeout,
+            System::nanoTime);
+  }
+
+  StockPriceBroadcaster(Executor executor, MeterRegistry meterRegistry, long timeout, long sendTimeout,
+                        LongSupplier nanoTime) {
+    this.executor = executor;
+    this.timeout = timeout;
+    this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeout);
+    this.nanoTime = nanoTime;
+    meterRegistry.gaugeCollectionSize("stock.prices.subscribers", Tags.empty(), subscriptions);
+    this.evictedSubscriptions = meterRegistry.counter("stock.prices.subscribers.evicted");
+  }
+
+  /**
+   * Opens a subscription to the price changes of the given symbols.
+   *
+   * @param symbols the symbols to receive price changes for.
+   * @return the emitter the price changes are sent through.
+   */
+  public SseEmitter subscribe(Set<String> symbols) {
+    return register(new SseEmitter(timeout), symbols);
+  }
+
+  SseEmitter register(SseEmitter emitter, Set<String> symbols) {
+    PriceSubscription subscription = new PriceSubscription(emitter, Set.copyOf(symbols));
+    for (String symbol : subscription.symbols) {
+      subscriptionsBySymbol.computeIfAbsent(symbol, key -> ConcurrentHashMap.newKeySet()).add(subscription);
+    }
+    subscriptions.add(subscription);
+
+    emitter.onCompletion(subscription::close);
+    emitter.onTimeout(subscription::close);
+    emitter.onError(error -> subscription.close());
+    return emitter;
+  }
+
+  /**
+   * Returns the number of open subscriptions.
+   *
+   * @return the subscription count.
+   */
+  public int getSubscriptionCount() {
+    return subscriptions.size();
+  }
+
+  /**
+   * Queues a price change for every subscription interested in its symbol.
+   *
+   * @param event the price change.
+   */
+  @EventListener
+  public void onStockPriceChanged(StockPriceChangedEvent event) {
+    Set<PriceSubscription> subscriptions = subscriptionsBySymbol.get(event.symbol());
+    if (subscriptions == null) {
+      return;
+    }
+    for (PriceSubscription subscription : subscriptions) {
+      subscription.enqueue(event);
+    }
+  }
+
+  /**
+   * Evicts the subscriptions whose current write has been blocked for longer than the
+   * send timeout, so a client that stopped reading no longer receives changes and has
+   * its connection closed.
+   */
+  @Scheduled(fixedDelayString = "${mandacaru.prices.send-timeout-ms:5000}")
+  public void evictSlowSubscribers() {
+    long now = nanoTime.getAsLong();
+    for (PriceSubscription subscription : subscriptions) {
+      if (subscription.sending && now - subscription.sendStartedAt > sendTimeoutNanos) {
+        subscription.evict();
+        evictedSubscriptions.increment();
+      }
+    }
+  }
+
+  /**
+   * Stops the sender threads.
+   */
+  @PreDestroy
+  public void close() {
+    if (executor instanceof ExecutorService executorService) {
+      executorService.shutdownNow();
+    }
+  }
+
+  private static CustomizableThreadFactory senderThreadFactory() {
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("price-stream-");
+    threadFactory.setDaemon(true);
+    return threadFactory;
+  }
+
+  private final class PriceSubscription {
+
+    private final SseEmitter emitter;
+    private final Set<String> symbols;
+    private final Map<String, StockPriceChangedEvent> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private volatile boolean evicted;
+    private volatile long sendStartedAt;
+    private volatile boolean sending;
+
+    private PriceSubscription(SseEmitter emitter, Set<String> symbols) {
+      this.emitter = emitter;
+      this.symbols = symbols;
+    }
+
+    private void enqueue(StockPriceChangedEvent event) {
+      pending.put(event.symbol(), event);
+      scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+      if (!closed.get() && drainScheduled.compareAndSet(false, true)) {
+        executor.execute(this::drain);
+      }
+    }
+
+    private void drain() {
+      try {
+        for (String symbol : pending.keySet()) {
+          StockPriceChangedEvent event = pending.remove(symbol);
+          if (closed.get()) {
+            return;
+          }
+          if (event != null) {
+            sendStartedAt = nanoTime.getAsLong();
+            sending = true;
+            emitter.send(SseEmitter.event().name(PRICE_EVENT).data(event));
+            sending = false;
+          }
+        }
+      } catch (IOException | IllegalStateException e) {
+        close();
+        completeWithError(e);
+        return;
+      } finally {
+        sending = false;
+        drainScheduled.set(false);
+        if (evicted) {
+          completeEvicted();
+        }
+      }
+
+      if (!pending.isEmpty()) {
+        scheduleDrain();
+      }
+    }
+
+    private void evict() {
+      evicted = true;
+      close();
+      if (!sending) {
+        completeEvicted();
+      }
+    }
+
+    /**
+     * Completes the emitter of an evicted subscription. The emitter's methods share one
+     * lock, so this is only called once no write is blocked on it: by the drain task when
+     * its write returns, or by the eviction itself when no write is in progress.
+     */
+    private void completeEvicted() {
+      completeWithError(new TimeoutException("Price subscriber stopped reading"));
+    }
+
+    private void completeWithError(Throwable error) {
+      if (completed.compareAndSet(false, true)) {
+        emitter.completeWithError(error);
+      }
+    }
+
+    private void close() {
+      if (!closed.compareAndSet(false, true)) {
+        return;
+      }
+      for (String symbol : symbols) {
+        subscriptionsBySymbol.computeIfPresent(symbol, (key, subscriptions) -> {
+          subscriptions.remove(this);
+          return subscriptions.isEmpty() ? null : subscriptions;
+        });
+      }
+      pending.clear();
+      subscriptions.remove(this);
+    }
+  }
+}
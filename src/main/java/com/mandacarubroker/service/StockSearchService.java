@@ -0,0 +1,111 @@
+package com.mandacarubroker.service;
+
+import com.mandacarubroker.domain.search.StockSearchHit;
+import com.mandacarubroker.domain.search.StockSearchIndex;
+import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.domain.stock.StockChange;
+import com.mandacarubroker.domain.stock.StockDeletedEvent;
+import com.mandacarubroker.domain.stock.StockSavedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Finds stocks by partial symbol or company name for type-ahead search.
+ *
+ * <p>The {@link StockSearchIndex} is built from the database once at startup and then
+ * kept up to date from the stock saved and deleted events, so searches never touch
+ * the database. Stocks changed by other instances are picked up by a periodic
+ * reconciliation that reads the stock change feed from where the previous one left
+ * off, so the indexes of every instance converge within
+ * {@code mandacaru.search.reconcile-interval-ms}.
+ */
+@Service
+@ConditionalOnProperty(name = "mandacaru.search.enabled", matchIfMissing = true)
+public class StockSearchService {
+
+  public static final int DEFAULT_LIMIT = 10;
+  public static final int MAX_LIMIT = 100;
+
+  private final StockService stockService;
+  private final StockSearchIndex index = new StockSearchIndex();
+  private final Timer searchTimer;
+  private long changeToken;
+
+  /**
+   * Creates the service and registers its metrics.
+   *
+   * @param stockService  the service used to load the stocks at startup.
+   * @param meterRegistry the registry the search metrics are published to.
+   */
+  public StockSearchService(StockService stockService, MeterRegistry meterRegistry) {
+    this.stockService = stockService;
+    meterRegistry.gauge("stock.search.entries", index, StockSearchIndex::size);
+    this.searchTimer = meterRegistry.timer("stock.search");
+  }
+
+  /**
+   * Loads every stock into the index.
+   */
+  @PostConstruct
+  public void load() {
+    stockService.forEachStock(this::put);
+  }
+
+  /**
+   * Applies the stocks created, updated or deleted since the previous run. The first
+   * run reads the whole feed, since the startup load does not return a change token.
+   */
+  @Scheduled(fixedDelayString = "${mandacaru.search.reconcile-interval-ms:60000}",
+          initialDelayString = "${mandacaru.search.reconcile-interval-ms:60000}")
+  public void reconcile() {
+    changeToken = stockService.forEachChangeSince(changeToken, this::apply);
+  }
+
+  @EventListener
+  public void onStockSaved(StockSavedEvent event) {
+    put(event.stock());
+  }
+
+  @EventListener
+  public void onStockDeleted(StockDeletedEvent event) {
+    index.remove(event.id());
+  }
+
+  /**
+   * Finds the stocks best matching a query.
+   *
+   * @param query the text typed by the user.
+   * @param limit the maximum number of stocks to return, at most {@link #MAX_LIMIT}.
+   * @return the matching stocks, best first.
+   * @throws InvalidStockSearchQueryException If the query has no letters or digits or the limit is out of range.
+   */
+  public List<StockSearchHit> search(String query, int limit) {
+    if (query == null || query.chars().noneMatch(Character::isLetterOrDigit)) {
+      throw new InvalidStockSearchQueryException("The query must have at least one letter or digit");
+    }
+    if (limit < 1 || limit > MAX_LIMIT) {
+      throw new InvalidStockSearchQueryException("The limit must be between 1 and " + MAX_LIMIT);
+    }
+    return searchTimer.record(() -> index.search(query, limit));
+  }
+
+  private void apply(StockChange change) {
+    switch (change.type()) {
+      case UPSERT -> put(change.stock());
+      case DELETE -> index.remove(change.id());
+      default -> {
+        // Checkpoints only carry the token, which is returned separately.
+      }
+    }
+  }
+
+  private void put(Stock stock) {
+    index.put(stock.getId(), stock.getSymbol(), stock.getCompanyName());
+  }
+}
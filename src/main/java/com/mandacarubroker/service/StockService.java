@@ -1,17 +1,43 @@
 package com.mandacarubroker.service;
 
+import com.mandacarubroker.config.CacheConfig;
 import com.mandacarubroker.domain.stock.RequestStockDto;
 import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.domain.stock.StockChange;
+import com.mandacarubroker.domain.stock.StockDeletedEvent;
+import com.mandacarubroker.domain.stock.StockImportResult;
+import com.mandacarubroker.domain.stock.StockPage;
+import com.mandacarubroker.domain.stock.StockPageOrder;
+import com.mandacarubroker.domain.stock.StockPriceChangedEvent;
+import com.mandacarubroker.domain.stock.StockPriceView;
+import com.mandacarubroker.domain.stock.StockRenamedEvent;
 import com.mandacarubroker.domain.stock.StockRepository;
+import com.mandacarubroker.domain.stock.StockSavedEvent;
+import com.mandacarubroker.domain.stock.StockWatermark;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Metrics;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
-import jakarta.validation.ValidatorFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Service for managing stock-related operations.
@@ -19,27 +45,145 @@ import org.springframework.stereotype.Service;
  * @author Ricardo Vilela.
  */
 @Service
+@Timed(value = "stock.service", histogram = true)
 public class StockService {
 
+  public static final int DEFAULT_PAGE_SIZE = 100;
+  public static final int MAX_PAGE_SIZE = 1000;
+  public static final int IMPORT_CHUNK_SIZE = 500;
+  public static final int MAX_UPDATE_ATTEMPTS = 5;
+
+  static final String VALIDATION_FAILURES = "stock.validation.failures";
+
+  /**
+   * Validators are thread-safe and expensive to bootstrap, so a single instance
+   * is shared by every request.
+   */
+  private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
   private final StockRepository stockRepository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final TransactionTemplate updateTransaction;
 
-  public StockService(StockRepository stockRepository) {
+  /**
+   * Creates the service.
+   *
+   * @param stockRepository    the repository stocks are stored in.
+   * @param eventPublisher     the publisher of the stock events.
+   * @param transactionManager the transaction manager each update attempt runs in.
+   */
+  public StockService(StockRepository stockRepository, ApplicationEventPublisher eventPublisher,
+                      PlatformTransactionManager transactionManager) {
     this.stockRepository = stockRepository;
+    this.eventPublisher = eventPublisher;
+    this.updateTransaction = new TransactionTemplate(transactionManager);
   }
 
+  @Transactional(readOnly = true)
   public List<Stock> getAllStocks() {
     return stockRepository.findAll();
   }
 
+  /**
+   * Gets a summary of the stocks that changes whenever any stock is created, updated
+   * or deleted, so clients polling {@link #getAllStocks()} can be told nothing changed
+   * without loading the list.
+   *
+   * @return the number of stocks and their latest update time.
+   */
+  @Transactional(readOnly = true)
+  public StockWatermark getWatermark() {
+    return stockRepository.findWatermark();
+  }
+
+  /**
+   * Gets a stock by its ID. The result is cached, so the lookup runs in a read-write
+   * transaction: with a read replica configured, a row read from a lagging replica
+   * would otherwise be served from the cache until it expires, even to the client
+   * that just updated it.
+   *
+   * @param id The ID of the stock.
+   * @return The stock, or empty if it does not exist.
+   */
+  @Cacheable(cacheNames = CacheConfig.STOCKS_BY_ID, unless = "#result == null")
+  @Transactional
   public Optional<Stock> getStockById(String id) {
     return stockRepository.findById(id);
   }
 
+  /**
+   * Gets a stock by its symbol. Like {@link #getStockById(String)}, the lookup reads
+   * the primary, since the result is cached.
+   *
+   * @param symbol The symbol of the stock.
+   * @return The stock, or empty if it does not exist.
+   */
+  @Cacheable(cacheNames = CacheConfig.STOCKS_BY_SYMBOL, unless = "#result == null")
+  @Transactional
+  public Optional<Stock> getStockBySymbol(String symbol) {
+    return stockRepository.findBySymbol(symbol);
+  }
+
+  /**
+   * Reads one page of stocks using keyset pagination. Each page is a bounded
+   * index range scan that starts right after the given cursor, so reading deep
+   * pages costs the same as reading the first one.
+   *
+   * @param order The key the stocks are ordered by.
+   * @param after The cursor returned with the previous page, or null for the first page.
+   * @param size  The maximum number of stocks in the page, capped at {@link #MAX_PAGE_SIZE}.
+   * @return The page, with the cursor for the next page if there are more stocks.
+   */
+  @Transactional(readOnly = true)
+  public StockPage getStockPage(StockPageOrder order, String after, int size) {
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    String cursor = after == null ? "" : after;
+    Limit limit = Limit.of(pageSize + 1);
+
+    List<Stock> stocks = switch (order) {
+      case ID -> stockRepository.findByIdGreaterThanOrderByIdAsc(cursor, limit);
+      case SYMBOL -> stockRepository.findBySymbolGreaterThanOrderBySymbolAsc(cursor, limit);
+    };
+
+    if (stocks.size() <= pageSize) {
+      return new StockPage(stocks, null);
+    }
+
+    List<Stock> content = stocks.subList(0, pageSize);
+    Stock last = content.get(pageSize - 1);
+    String next = order == StockPageOrder.ID ? last.getId() : last.getSymbol();
+    return new StockPage(content, next);
+  }
+
+  /**
+   * Visits every stock ordered by ID without loading the whole table into memory.
+   *
+   * @param action The callback invoked for each stock, in ID order.
+   */
+  @Transactional(readOnly = true)
+  public void forEachStock(Consumer<Stock> action) {
+    stockRepository.forEachOrderedById(action);
+  }
+
+  /**
+   * Visits the stocks created, updated or deleted since a change token, so replicas
+   * can sync in proportion to the changes rather than to the size of the table.
+   *
+   * @param since  The token returned by the previous sync, or 0 for a full sync.
+   * @param action The callback invoked for each change.
+   * @return The token to pass on the next sync.
+   */
+  @Transactional(readOnly = true)
+  public long forEachChangeSince(long since, Consumer<StockChange> action) {
+    return stockRepository.forEachChangeSince(since, action);
+  }
+
   /**
    * Creates a new stock based on the provided request data.
    * This method validates the request data using JSR-380 annotations
    * and throws a `ConstraintViolationException` if there are any errors.
-   * If the data is valid, a new `Stock` object is created and saved to the database.
+   * If the data is valid, a new `Stock` object is created and saved to the database,
+   * and a {@link StockSavedEvent} is published.
    *
    * @param data The request data containing stock information.
    * @return The saved `Stock` object.
@@ -49,64 +193,235 @@ public class StockService {
   public Stock createStock(RequestStockDto data) {
     Stock novaAcao = new Stock(data);
     validateRequestStockDto(data);
-    return stockRepository.save(novaAcao);
+    Stock savedStock = stockRepository.save(novaAcao);
+    eventPublisher.publishEvent(new StockSavedEvent(savedStock));
+    return savedStock;
+  }
+
+  /**
+   * Creates stocks in bulk. Entries are validated as they are read from the source
+   * and valid ones are persisted in chunks of {@link #IMPORT_CHUNK_SIZE}, each chunk in
+   * its own transaction so Hibernate can send the inserts as JDBC batches. Only one
+   * chunk is held in memory at a time, so the source can be a stream of any length.
+   *
+   * <p>A result is reported for every entry: rejected entries as soon as they are
+   * validated, created ones once their chunk is committed. If a chunk fails to
+   * commit, its entries are saved one by one, so only the ones the database refuses
+   * are reported as rejected.
+   *
+   * @param requests The entries to import, in payload order.
+   * @param results  The callback that receives the result of each entry.
+   */
+  public void importStocks(Iterator<RequestStockDto> requests, Consumer<StockImportResult> results) {
+    List<RequestStockDto> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+    int[] chunkIndexes = new int[IMPORT_CHUNK_SIZE];
+    int index = 0;
+
+    try {
+      while (requests.hasNext()) {
+        RequestStockDto data = requests.next();
+        if (data == null) {
+          results.accept(StockImportResult.rejected(index++, null, "Entry must not be null"));
+          continue;
+        }
+        try {
+          validateRequestStockDto(data);
+          chunkIndexes[chunk.size()] = index;
+          chunk.add(data);
+        } catch (ConstraintViolationException e) {
+          results.accept(StockImportResult.rejected(index, data.symbol(), e.getMessage()));
+        }
+        index++;
+
+        if (chunk.size() == IMPORT_CHUNK_SIZE) {
+          saveImportChunk(chunk, chunkIndexes, results);
+        }
+      }
+    } finally {
+      saveImportChunk(chunk, chunkIndexes, results);
+    }
+  }
+
+  private void saveImportChunk(List<RequestStockDto> chunk, int[] chunkIndexes,
+                               Consumer<StockImportResult> results) {
+    if (chunk.isEmpty()) {
+      return;
+    }
+
+    try {
+      List<Stock> saved = stockRepository.saveAll(chunk.stream().map(Stock::new).toList());
+      for (int i = 0; i < saved.size(); i++) {
+        eventPublisher.publishEvent(new StockSavedEvent(saved.get(i)));
+        results.accept(StockImportResult.created(chunkIndexes[i], saved.get(i)));
+      }
+    } catch (DataAccessException e) {
+      // The whole chunk was rolled back; fresh entities are saved since the failed ones may hold generated IDs.
+      for (int i = 0; i < chunk.size(); i++) {
+        saveImportEntry(chunk.get(i), chunkIndexes[i], results);
+      }
+    }
+    chunk.clear();
+  }
+
+  private void saveImportEntry(RequestStockDto data, int index, Consumer<StockImportResult> results) {
+    try {
+      Stock saved = stockRepository.save(new Stock(data));
+      eventPublisher.publishEvent(new StockSavedEvent(saved));
+      results.accept(StockImportResult.created(index, saved));
+    } catch (DataAccessException e) {
+      results.accept(StockImportResult.rejected(index, data.symbol(), e.getMostSpecificCause().getMessage()));
+    }
   }
 
   /**
    * Updates an existing stock with the provided information.
+   * Each attempt reads and saves the stock in one read-write transaction, so the read
+   * goes to the primary even when a read replica is configured.
+   * If another update commits between reading and saving the stock, the update is
+   * retried on the fresh state, up to {@link #MAX_UPDATE_ATTEMPTS} times.
+   * A {@link StockPriceChangedEvent} and then a {@link StockSavedEvent} are published once the stock is saved,
+   * preceded by a {@link StockRenamedEvent} inside the transaction if the symbol changed.
    *
    * @param id           The ID of the stock to update.
    * @param updatedStock The updated stock information.
    * @return An Optional containing the updated stock, or empty if the stock was not found.
+   * @throws OptimisticLockingFailureException If every attempt lost to a concurrent update.
    * @author Ricardo Vilela.
    */
+  @Caching(evict = {
+      @CacheEvict(cacheNames = CacheConfig.STOCKS_BY_ID, key = "#id"),
+      @CacheEvict(cacheNames = CacheConfig.STOCKS_BY_SYMBOL, allEntries = true)
+  })
   public Optional<Stock> updateStock(String id, Stock updatedStock) {
-    return stockRepository.findById(id)
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return applyUpdate(id, updatedStock, null);
+      } catch (OptimisticLockingFailureException e) {
+        if (attempt >= MAX_UPDATE_ATTEMPTS) {
+          throw e;
+        }
+      }
+    }
+  }
+
+  /**
+   * Updates an existing stock only if it is still at the expected version.
+   * Unlike {@link #updateStock(String, Stock)}, a conflicting concurrent update is not
+   * retried, since the caller's view of the stock is out of date either way.
+   *
+   * @param id              The ID of the stock to update.
+   * @param updatedStock    The updated stock information.
+   * @param expectedVersion The version the caller last read.
+   * @return An Optional containing the updated stock, or empty if the stock was not found.
+   * @throws StaleStockVersionException If the stock is no longer at the expected version.
+   */
+  @Caching(evict = {
+      @CacheEvict(cacheNames = CacheConfig.STOCKS_BY_ID, key = "#id"),
+      @CacheEvict(cacheNames = CacheConfig.STOCKS_BY_SYMBOL, allEntries = true)
+  })
+  public Optional<Stock> updateStock(String id, Stock updatedStock, long expectedVersion) {
+    try {
+      return applyUpdate(id, updatedStock, expectedVersion);
+    } catch (OptimisticLockingFailureException e) {
+      throw new StaleStockVersionException(id, expectedVersion);
+    }
+  }
+
+  private Optional<Stock> applyUpdate(String id, Stock updatedStock, Long expectedVersion) {
+    Stock savedStock = updateTransaction.execute(status -> stockRepository.findById(id)
             .map(stock -> {
+              if (expectedVersion != null && !expectedVersion.equals(stock.getVersion())) {
+                throw new StaleStockVersionException(id, expectedVersion);
+              }
+
+              String previousSymbol = stock.getSymbol();
               stock.setSymbol(updatedStock.getSymbol());
               stock.setCompanyName(updatedStock.getCompanyName());
-              double newPrice = stock.changePrice(updatedStock.getPrice(), true);
+              long newPrice = stock.changePrice(updatedStock.getPrice(), true);
               stock.setPrice(newPrice);
 
-              return stockRepository.save(stock);
-            });
+              Stock saved = stockRepository.save(stock);
+              if (previousSymbol != null && !previousSymbol.equals(saved.getSymbol())) {
+                eventPublisher.publishEvent(new StockRenamedEvent(id, previousSymbol, saved.getSymbol()));
+              }
+              return saved;
+            })
+            .orElse(null));
+    if (savedStock == null) {
+      return Optional.empty();
+    }
+
+    eventPublisher.publishEvent(new StockPriceChangedEvent(savedStock.getSymbol(), savedStock.getPrice()));
+    eventPublisher.publishEvent(new StockSavedEvent(savedStock));
+    return Optional.of(savedStock);
+  }
+
+  /**
+   * Adjusts the price of a stock by a delta with a single atomic UPDATE, without
+   * loading the entity. A {@link StockPriceChangedEvent} is published with the new price.
+   *
+   * @param id    The ID of the stock to adjust.
+   * @param delta The ticks to add to the price; negative to decrease it.
+   * @return An Optional containing the new price, or empty if the stock was not found.
+   */
+  @Caching(evict = {
+      @CacheEvict(cacheNames = CacheConfig.STOCKS_BY_ID, key = "#id"),
+      @CacheEvict(cacheNames = CacheConfig.STOCKS_BY_SYMBOL, key = "#result.get().symbol",
+          condition = "#result.isPresent()")
+  })
+  public Optional<StockPriceView> adjustPrice(String id, long delta) {
+    Optional<StockPriceView> adjusted = stockRepository.adjustPrice(id, delta, Instant.now());
+    adjusted.ifPresent(stock -> eventPublisher.publishEvent(
+            new StockPriceChangedEvent(stock.getSymbol(), stock.getPrice())));
+    return adjusted;
   }
 
   /**
-   * Deletes an existing action record in the database.
+   * Deletes an existing action record in the database and publishes a {@link StockDeletedEvent}.
    *
    * @param id The ID of the action to be deleted.
    * @throws IllegalArgumentException If the supplied ID is null or empty.
    * @author Ricardo Vilela.
    */
+  @Caching(evict = {
+      @CacheEvict(cacheNames = CacheConfig.STOCKS_BY_ID, key = "#id"),
+      @CacheEvict(cacheNames = CacheConfig.STOCKS_BY_SYMBOL, allEntries = true)
+  })
   public void deleteStock(String id) {
     stockRepository.deleteById(id);
+    eventPublisher.publishEvent(new StockDeletedEvent(id));
   }
 
   /**
    * Validates the given RequestStockDto, ensuring that it meets all validation constraints.
+   * Requests that pass the allocation-free checks in {@link RequestStockDtoValidator} are
+   * accepted directly; the others go through the shared JSR-380 validator, which
+   * reports every violation. Each violation increments the
+   * {@code stock.validation.failures} counter, tagged with the offending field.
    *
    * @param data The RequestStockDto to validate.
    * @throws ConstraintViolationException If validation fails.
    * @author Ricardo Vilela.
    */
   public static void validateRequestStockDto(RequestStockDto data) {
-    try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
-      Validator validator = factory.getValidator();
-      Set<ConstraintViolation<RequestStockDto>> violations = validator.validate(data);
-
-      if (!violations.isEmpty()) {
-        StringBuilder errorMessage = new StringBuilder("Validation failed. Details: ");
+    if (RequestStockDtoValidator.isValid(data)) {
+      return;
+    }
 
-        for (ConstraintViolation<RequestStockDto> violation : violations) {
-          errorMessage.append(String.format("[%s: %s], ",
-                  violation.getPropertyPath(), violation.getMessage()));
-        }
+    Set<ConstraintViolation<RequestStockDto>> violations = VALIDATOR.validate(data);
 
-        errorMessage.delete(errorMessage.length() - 2, errorMessage.length());
+    if (!violations.isEmpty()) {
+      StringBuilder errorMessage = new StringBuilder("Validation failed. Details: ");
 
-        throw new ConstraintViolationException(errorMessage.toString(), violations);
+      for (ConstraintViolation<RequestStockDto> violation : violations) {
+        Metrics.counter(VALIDATION_FAILURES, "field", violation.getPropertyPath().toString()).increment();
+        errorMessage.append(String.format("[%s: %s], ",
+                violation.getPropertyPath(), violation.getMessage()));
       }
+
+      errorMessage.delete(errorMessage.length() - 2, errorMessage.length());
+
+      throw new ConstraintViolationException(errorMessage.toString(), violations);
     }
   }
 
@@ -0,0 +1 @@
+CREATE UNIQUE INDEX stock_symbol_idx ON stock (symbol);
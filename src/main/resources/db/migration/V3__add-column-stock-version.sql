@@ -0,0 +1 @@
+ALTER TABLE stock ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1 @@
+ALTER TABLE stock ALTER COLUMN price TYPE BIGINT USING ROUND(price * 10000);
@@ -0,0 +1,2 @@
+ALTER TABLE stock ADD COLUMN updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now();
+CREATE INDEX stock_updated_at_idx ON stock (updated_at);
@@ -0,0 +1,27 @@
+-- Every write to a stock records the ID of the writing transaction, and every delete
+-- leaves a tombstone, so the changes since a point in time can be read from an index.
+ALTER TABLE stock ADD COLUMN change_xid XID8 NOT NULL DEFAULT pg_current_xact_id();
+CREATE INDEX stock_change_xid_idx ON stock (change_xid);
+
+CREATE TABLE stock_tombstone(
+    id VARCHAR PRIMARY KEY,
+    change_xid XID8 NOT NULL DEFAULT pg_current_xact_id()
+);
+CREATE INDEX stock_tombstone_change_xid_idx ON stock_tombstone (change_xid);
+
+CREATE FUNCTION stock_track_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO stock_tombstone (id) VALUES (OLD.id)
+        ON CONFLICT (id) DO UPDATE SET change_xid = pg_current_xact_id();
+        RETURN OLD;
+    END IF;
+    NEW.change_xid := pg_current_xact_id();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER stock_track_write BEFORE INSERT OR UPDATE ON stock
+    FOR EACH ROW EXECUTE FUNCTION stock_track_change();
+CREATE TRIGGER stock_track_delete AFTER DELETE ON stock
+    FOR EACH ROW EXECUTE FUNCTION stock_track_change();
@@ -0,0 +1,50 @@
+-- Append-only log of every price a stock has had, partitioned by UTC day so old
+-- days can be dropped whole and queries only touch the days they cover.
+CREATE TABLE stock_price_tick(
+    symbol VARCHAR NOT NULL,
+    ts TIMESTAMP WITH TIME ZONE NOT NULL,
+    price BIGINT NOT NULL
+) PARTITION BY RANGE (ts);
+CREATE INDEX stock_price_tick_symbol_ts_idx ON stock_price_tick (symbol, ts);
+
+-- OHLC bars rolled up as ticks are written. open_at and close_at are the times of the
+-- ticks the open and close came from, so batches written out of order merge correctly.
+CREATE TABLE stock_price_bar_1m(
+    symbol VARCHAR NOT NULL,
+    bucket TIMESTAMP WITH TIME ZONE NOT NULL,
+    open BIGINT NOT NULL,
+    high BIGINT NOT NULL,
+    low BIGINT NOT NULL,
+    close BIGINT NOT NULL,
+    open_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    close_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (symbol, bucket)
+);
+CREATE TABLE stock_price_bar_1h (LIKE stock_price_bar_1m INCLUDING ALL);
+CREATE TABLE stock_price_bar_1d (LIKE stock_price_bar_1m INCLUDING ALL);
+
+-- Creates the partitions of the coming days and drops those older than the retention.
+-- Run by the application every day; the bars are kept regardless.
+CREATE FUNCTION stock_price_tick_maintain_partitions(days_ahead INTEGER, days_kept INTEGER) RETURNS void AS $$
+DECLARE
+    today DATE := (now() AT TIME ZONE 'UTC')::date;
+    partition_day DATE;
+    expired RECORD;
+BEGIN
+    FOR partition_day IN SELECT generate_series(today, today + days_ahead, INTERVAL '1 day')::date LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF stock_price_tick FOR VALUES FROM (%L) TO (%L)',
+                       'stock_price_tick_' || to_char(partition_day, 'YYYYMMDD'),
+                       partition_day::timestamp AT TIME ZONE 'UTC',
+                       (partition_day + 1)::timestamp AT TIME ZONE 'UTC');
+    END LOOP;
+    FOR expired IN
+        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'stock_price_tick'::regclass
+          AND c.relname < 'stock_price_tick_' || to_char(today - days_kept, 'YYYYMMDD')
+    LOOP
+        EXECUTE format('DROP TABLE %I', expired.relname);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT stock_price_tick_maintain_partitions(7, 30);
@@ -0,0 +1,17 @@
+-- Accounts holding cash and stock positions. Amounts are in price ticks, like stock.price.
+CREATE TABLE portfolio(
+    id VARCHAR PRIMARY KEY,
+    owner VARCHAR NOT NULL,
+    cash BIGINT NOT NULL CHECK (cash >= 0),
+    realized_pnl BIGINT NOT NULL DEFAULT 0
+);
+
+-- One row per stock held; the row is deleted when the last share is sold.
+CREATE TABLE portfolio_position(
+    id VARCHAR PRIMARY KEY,
+    portfolio_id VARCHAR NOT NULL REFERENCES portfolio (id) ON DELETE CASCADE,
+    symbol VARCHAR NOT NULL,
+    quantity BIGINT NOT NULL CHECK (quantity > 0),
+    cost_basis BIGINT NOT NULL,
+    UNIQUE (portfolio_id, symbol)
+);
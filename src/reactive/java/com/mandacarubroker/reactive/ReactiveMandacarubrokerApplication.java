@@ -0,0 +1,50 @@
+package com.mandacarubroker.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * The reactive (WebFlux + R2DBC) variant of the stock API. It serves the same
+ * {@code /stocks} contract as the servlet application from a Netty event loop, reading
+ * and writing the same {@code stock} table through a non-blocking R2DBC pool.
+ *
+ * <p>Only this package is scanned and the JDBC, JPA and Flyway auto-configurations are
+ * excluded, so none of the servlet application's beans are started; the schema is
+ * still migrated by the servlet application. Every bean here is limited to the
+ * {@value #PROFILE} Spring profile, which {@link #main(String[])} activates, so the
+ * servlet application skips them when both are built together with
+ * {@code mvn -Preactive}.
+ */
+@SpringBootApplication(exclude = {
+    DataSourceAutoConfiguration.class,
+    HibernateJpaAutoConfiguration.class,
+    FlywayAutoConfiguration.class
+})
+@Profile(ReactiveMandacarubrokerApplication.PROFILE)
+public class ReactiveMandacarubrokerApplication {
+
+  public static final String PROFILE = "reactive";
+
+  public static void main(String[] args) {
+    SpringApplication application = new SpringApplication(ReactiveMandacarubrokerApplication.class);
+    application.setAdditionalProfiles(PROFILE);
+    application.run(args);
+  }
+
+  /**
+   * Serves on Reactor Netty. Tomcat is also on the classpath, for the servlet
+   * application, and would otherwise be preferred.
+   *
+   * @return the Netty server factory.
+   */
+  @Bean
+  public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+    return new NettyReactiveWebServerFactory();
+  }
+}
@@ -0,0 +1,165 @@
+package com.mandacarubroker.reactive;
+
+import com.mandacarubroker.controller.StockEtags;
+import com.mandacarubroker.domain.stock.RequestStockDto;
+import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.domain.stock.StockPage;
+import com.mandacarubroker.domain.stock.StockPageOrder;
+import com.mandacarubroker.service.StockService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The WebFlux counterpart of {@link com.mandacarubroker.controller.StockController}.
+ * Requests, responses, status codes and validators are the same, so clients can be
+ * pointed at either application. Batch import, the changes feed and price
+ * adjustments are only served by the servlet application.
+ */
+@RestController
+@RequestMapping("/stocks")
+@Profile(ReactiveMandacarubrokerApplication.PROFILE)
+public class ReactiveStockController {
+
+  private final ReactiveStockService stockService;
+
+  public ReactiveStockController(ReactiveStockService stockService) {
+    this.stockService = stockService;
+  }
+
+  /**
+   * Gets all available stocks as a JSON array, written element by element as the rows
+   * arrive. The response carries the same weak ETag and Last-Modified date as the
+   * servlet application, and a client whose copy is current gets a 304 Not Modified
+   * without the list being read.
+   *
+   * @return the stocks, or 304 Not Modified.
+   */
+  @GetMapping
+  public Mono<ResponseEntity<Flux<Stock>>> getAllStocks() {
+    return stockService.getWatermark().map(watermark -> {
+      ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(StockEtags.of(watermark));
+      if (watermark.lastModified() != null) {
+        builder.lastModified(watermark.lastModified());
+      }
+      return builder.body(stockService.getAllStocks());
+    });
+  }
+
+  /**
+   * Gets one page of stocks using keyset pagination.
+   *
+   * @param orderBy the key the stocks are ordered by, ID or SYMBOL.
+   * @param after   the {@code next} cursor of the previous page, omitted for the first page.
+   * @param size    the maximum number of stocks in the page.
+   * @return the page of stocks and the cursor for the next page.
+   */
+  @GetMapping("/page")
+  public Mono<StockPage> getStockPage(
+          @RequestParam(defaultValue = "ID") StockPageOrder orderBy,
+          @RequestParam(required = false) String after,
+          @RequestParam(defaultValue = "" + StockService.DEFAULT_PAGE_SIZE) int size) {
+    return stockService.getStockPage(orderBy, after, size);
+  }
+
+  /**
+   * Streams all stocks as newline-delimited JSON. Rows are only fetched as fast as the
+   * client reads them, so a slow client holds one connection rather than a buffered table.
+   *
+   * @return the streamed stocks, one per line.
+   */
+  @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public Flux<Stock> streamStocks() {
+    return stockService.getAllStocks();
+  }
+
+  /**
+   * Gets a specific stock by its ID, with its version as ETag and its update time as
+   * Last-Modified.
+   *
+   * @param id the ID of the stock to retrieve.
+   * @return the stock with the specified ID, or an empty body if not found.
+   */
+  @GetMapping("/{id}")
+  public Mono<ResponseEntity<Stock>> getStockById(@PathVariable String id) {
+    return stockService.getStockById(id)
+            .map(stock -> withValidators(ResponseEntity.ok(), stock).body(stock))
+            .defaultIfEmpty(ResponseEntity.ok().build());
+  }
+
+  /**
+   * Gets a specific stock by its symbol.
+   *
+   * @param symbol the symbol of the stock to retrieve.
+   * @return the stock with the specified symbol, or an empty body if not found.
+   */
+  @GetMapping("/symbol/{symbol}")
+  public Mono<Stock> getStockBySymbol(@PathVariable String symbol) {
+    return stockService.getStockBySymbol(symbol);
+  }
+
+  /**
+   * Creates a new stock.
+   *
+   * @param data the details of the new stock to create.
+   * @return the newly created stock.
+   */
+  @PostMapping
+  public Mono<ResponseEntity<Stock>> createStock(@RequestBody RequestStockDto data) {
+    return stockService.createStock(data).map(ResponseEntity::ok);
+  }
+
+  /**
+   * Updates an existing stock. When an If-Match header other than {@code *} is sent,
+   * the update is only applied if the stock is still at the version of that ETag, and
+   * fails with 412 Precondition Failed otherwise.
+   *
+   * @param id           the ID of the stock to update.
+   * @param updatedStock the updated data for the stock.
+   * @param ifMatch      the ETag of the version the update was based on, if any.
+   * @return the updated stock with its new ETag, or an empty body if not found.
+   */
+  @PutMapping("/{id}")
+  public Mono<ResponseEntity<Stock>> updateStock(@PathVariable String id, @RequestBody Stock updatedStock,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                 String ifMatch) {
+    Mono<Stock> stock = ifMatch == null || "*".equals(ifMatch.trim())
+            ? stockService.updateStock(id, updatedStock)
+            : stockService.updateStock(id, updatedStock, StockEtags.parseVersion(ifMatch));
+    return stock
+            .map(saved -> withValidators(ResponseEntity.ok(), saved).body(saved))
+            .defaultIfEmpty(ResponseEntity.ok().build());
+  }
+
+  /**
+   * Deletes a stock by its ID.
+   *
+   * @param id the ID of the stock to delete.
+   * @return completes once the stock is deleted.
+   */
+  @DeleteMapping("/{id}")
+  public Mono<Void> deleteStock(@PathVariable String id) {
+    return stockService.deleteStock(id);
+  }
+
+  private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder, Stock stock) {
+    builder.eTag(StockEtags.of(stock));
+    if (stock.getUpdatedAt() != null) {
+      builder.lastModified(stock.getUpdatedAt());
+    }
+    return builder;
+  }
+}
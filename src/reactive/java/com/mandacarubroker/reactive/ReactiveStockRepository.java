@@ -0,0 +1,143 @@
+package com.mandacarubroker.reactive;
+
+import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.domain.stock.StockPageOrder;
+import com.mandacarubroker.domain.stock.StockWatermark;
+import io.r2dbc.spi.Readable;
+import java.time.Instant;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads and writes the {@code stock} table through R2DBC, mapping rows to the same
+ * {@link Stock} class the servlet application uses, so both serialize stocks alike.
+ *
+ * <p>Rows are emitted as the driver decodes them and only as fast as the subscriber
+ * requests them, so a slow client slows down the read instead of buffering the table.
+ */
+@Repository
+@Profile(ReactiveMandacarubrokerApplication.PROFILE)
+public class ReactiveStockRepository {
+
+  private static final int FETCH_SIZE = 500;
+  private static final String COLUMNS = "id, symbol, company_name, price, version, updated_at";
+
+  private final DatabaseClient client;
+
+  public ReactiveStockRepository(DatabaseClient client) {
+    this.client = client;
+  }
+
+  /**
+   * Streams every stock ordered by ID.
+   *
+   * @return the stocks, fetched from the database in batches as they are requested.
+   */
+  public Flux<Stock> findAllOrderedById() {
+    return client.sql("SELECT " + COLUMNS + " FROM stock ORDER BY id")
+            .filter(statement -> statement.fetchSize(FETCH_SIZE))
+            .map(ReactiveStockRepository::toStock)
+            .all();
+  }
+
+  public Mono<Stock> findById(String id) {
+    return client.sql("SELECT " + COLUMNS + " FROM stock WHERE id = :id")
+            .bind("id", id)
+            .map(ReactiveStockRepository::toStock)
+            .one();
+  }
+
+  public Mono<Stock> findBySymbol(String symbol) {
+    return client.sql("SELECT " + COLUMNS + " FROM stock WHERE symbol = :symbol LIMIT 1")
+            .bind("symbol", symbol)
+            .map(ReactiveStockRepository::toStock)
+            .one();
+  }
+
+  /**
+   * Reads the stocks after a cursor in key order, as one bounded index range scan.
+   *
+   * @param order the key the stocks are ordered by.
+   * @param after the key of the last stock already read, or an empty string for the first one.
+   * @param limit the maximum number of stocks to read.
+   * @return the stocks, in key order.
+   */
+  public Flux<Stock> findAfter(StockPageOrder order, String after, int limit) {
+    String key = order == StockPageOrder.ID ? "id" : "symbol";
+    return client.sql("SELECT " + COLUMNS + " FROM stock WHERE " + key + " > :after ORDER BY " + key
+                    + " LIMIT :limit")
+            .bind("after", after)
+            .bind("limit", limit)
+            .map(ReactiveStockRepository::toStock)
+            .all();
+  }
+
+  public Mono<StockWatermark> findWatermark() {
+    return client.sql("SELECT count(*) AS count, max(updated_at) AS last_modified FROM stock")
+            .map(row -> new StockWatermark(row.get("count", Long.class), row.get("last_modified", Instant.class)))
+            .one();
+  }
+
+  /**
+   * Inserts a new stock, whose ID, version and update time must already be set.
+   *
+   * @param stock the stock to insert.
+   * @return the inserted stock.
+   */
+  public Mono<Stock> insert(Stock stock) {
+    return client.sql("INSERT INTO stock (" + COLUMNS + ") "
+                    + "VALUES (:id, :symbol, :companyName, :price, :version, :updatedAt)")
+            .bind("id", stock.getId())
+            .bind("symbol", stock.getSymbol())
+            .bind("companyName", stock.getCompanyName())
+            .bind("price", stock.getPrice())
+            .bind("version", stock.getVersion())
+            .bind("updatedAt", stock.getUpdatedAt())
+            .fetch()
+            .rowsUpdated()
+            .thenReturn(stock);
+  }
+
+  /**
+   * Overwrites a stock only if it is still at the version it was read at, the same
+   * check Hibernate makes for the servlet application.
+   *
+   * @param stock           the new state of the stock, with its incremented version.
+   * @param expectedVersion the version the stock was read at.
+   * @return whether the stock was still at that version and was updated.
+   */
+  public Mono<Boolean> update(Stock stock, long expectedVersion) {
+    return client.sql("UPDATE stock SET symbol = :symbol, company_name = :companyName, price = :price, "
+                    + "version = :version, updated_at = :updatedAt WHERE id = :id AND version = :expectedVersion")
+            .bind("symbol", stock.getSymbol())
+            .bind("companyName", stock.getCompanyName())
+            .bind("price", stock.getPrice())
+            .bind("version", stock.getVersion())
+            .bind("updatedAt", stock.getUpdatedAt())
+            .bind("id", stock.getId())
+            .bind("expectedVersion", expectedVersion)
+            .fetch()
+            .rowsUpdated()
+            .map(rows -> rows == 1);
+  }
+
+  public Mono<Long> deleteById(String id) {
+    return client.sql("DELETE FROM stock WHERE id = :id")
+            .bind("id", id)
+            .fetch()
+            .rowsUpdated();
+  }
+
+  private static Stock toStock(Readable row) {
+    return new Stock(
+            row.get("id", String.class),
+            row.get("symbol", String.class),
+            row.get("company_name", String.class),
+            row.get("price", Long.class),
+            row.get("version", Long.class),
+            row.get("updated_at", Instant.class));
+  }
+}
@@ -0,0 +1,148 @@
+package com.mandacarubroker.reactive;
+
+import com.mandacarubroker.domain.stock.RequestStockDto;
+import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.domain.stock.StockPage;
+import com.mandacarubroker.domain.stock.StockPageOrder;
+import com.mandacarubroker.domain.stock.StockWatermark;
+import com.mandacarubroker.service.StaleStockVersionException;
+import com.mandacarubroker.service.StockService;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * The stock operations of {@link StockService}, with the same validation, pricing and
+ * versioning rules, on a non-blocking repository.
+ *
+ * <p>Stock caches and application events belong to the servlet application and are
+ * not maintained here.
+ */
+@Service
+@Profile(ReactiveMandacarubrokerApplication.PROFILE)
+public class ReactiveStockService {
+
+  private final ReactiveStockRepository stockRepository;
+
+  public ReactiveStockService(ReactiveStockRepository stockRepository) {
+    this.stockRepository = stockRepository;
+  }
+
+  public Flux<Stock> getAllStocks() {
+    return stockRepository.findAllOrderedById();
+  }
+
+  public Mono<StockWatermark> getWatermark() {
+    return stockRepository.findWatermark();
+  }
+
+  public Mono<Stock> getStockById(String id) {
+    return stockRepository.findById(id);
+  }
+
+  public Mono<Stock> getStockBySymbol(String symbol) {
+    return stockRepository.findBySymbol(symbol);
+  }
+
+  /**
+   * Reads one page of stocks using keyset pagination, as {@link StockService#getStockPage} does.
+   *
+   * @param order The key the stocks are ordered by.
+   * @param after The cursor returned with the previous page, or null for the first page.
+   * @param size  The maximum number of stocks in the page, capped at {@link StockService#MAX_PAGE_SIZE}.
+   * @return The page, with the cursor for the next page if there are more stocks.
+   */
+  public Mono<StockPage> getStockPage(StockPageOrder order, String after, int size) {
+    int pageSize = Math.max(1, Math.min(size, StockService.MAX_PAGE_SIZE));
+    return stockRepository.findAfter(order, after == null ? "" : after, pageSize + 1)
+            .collectList()
+            .map(stocks -> {
+              if (stocks.size() <= pageSize) {
+                return new StockPage(stocks, null);
+              }
+              List<Stock> content = stocks.subList(0, pageSize);
+              Stock last = content.get(pageSize - 1);
+              return new StockPage(content, order == StockPageOrder.ID ? last.getId() : last.getSymbol());
+            });
+  }
+
+  /**
+   * Validates and inserts a new stock.
+   *
+   * @param data The data for the new stock.
+   * @return The saved stock, or a {@link jakarta.validation.ConstraintViolationException}
+   *     if the request data is invalid.
+   */
+  public Mono<Stock> createStock(RequestStockDto data) {
+    return Mono.fromCallable(() -> {
+      Stock stock = new Stock(data);
+      StockService.validateRequestStockDto(data);
+      stock.setId(UUID.randomUUID().toString());
+      stock.setVersion(0L);
+      stock.setUpdatedAt(Instant.now());
+      return stock;
+    }).flatMap(stockRepository::insert);
+  }
+
+  /**
+   * Updates an existing stock, retrying up to {@link StockService#MAX_UPDATE_ATTEMPTS}
+   * times when a concurrent update wins the race.
+   *
+   * @param id           The ID of the stock to update.
+   * @param updatedStock The updated stock information.
+   * @return The updated stock, or empty if the stock was not found.
+   */
+  public Mono<Stock> updateStock(String id, Stock updatedStock) {
+    return applyUpdate(id, updatedStock, null)
+            .retryWhen(Retry.max(StockService.MAX_UPDATE_ATTEMPTS - 1)
+                    .filter(OptimisticLockingFailureException.class::isInstance)
+                    .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+  }
+
+  /**
+   * Updates an existing stock only if it is still at the expected version.
+   *
+   * @param id              The ID of the stock to update.
+   * @param updatedStock    The updated stock information.
+   * @param expectedVersion The version the caller last read.
+   * @return The updated stock, empty if the stock was not found, or a
+   *     {@link StaleStockVersionException} if it is no longer at the expected version.
+   */
+  public Mono<Stock> updateStock(String id, Stock updatedStock, long expectedVersion) {
+    return applyUpdate(id, updatedStock, expectedVersion)
+            .onErrorMap(OptimisticLockingFailureException.class,
+                    e -> new StaleStockVersionException(id, expectedVersion));
+  }
+
+  public Mono<Void> deleteStock(String id) {
+    return stockRepository.deleteById(id).then();
+  }
+
+  private Mono<Stock> applyUpdate(String id, Stock updatedStock, Long expectedVersion) {
+    return stockRepository.findById(id)
+            .flatMap(stock -> {
+              long version = stock.getVersion();
+              if (expectedVersion != null && expectedVersion != version) {
+                return Mono.error(new StaleStockVersionException(id, expectedVersion));
+              }
+
+              stock.setSymbol(updatedStock.getSymbol());
+              stock.setCompanyName(updatedStock.getCompanyName());
+              stock.setPrice(stock.changePrice(updatedStock.getPrice(), true));
+              stock.setVersion(version + 1);
+              stock.setUpdatedAt(Instant.now());
+
+              return stockRepository.update(stock, version)
+                      .flatMap(updated -> updated
+                              ? Mono.just(stock)
+                              : Mono.error(new OptimisticLockingFailureException(
+                                      "Stock " + id + " was updated or deleted concurrently")));
+            });
+  }
+}
@@ -0,0 +1,235 @@
+package com.mandacarubroker.reactive;
+
+import com.mandacarubroker.domain.stock.Stock;
+import io.r2dbc.h2.H2ConnectionFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ReactiveStockControllerTest {
+
+  private static final String STOCK_JSON = "{\"symbol\":\"BB3\",\"companyName\":\"Banco do Brasil\",\"price\":10.0}";
+
+  private DatabaseClient client;
+  private WebTestClient webTestClient;
+
+  @Before
+  public void setUp() {
+    client = DatabaseClient.create(H2ConnectionFactory.inMemory(UUID.randomUUID().toString()));
+    client.sql("CREATE TABLE stock (id VARCHAR PRIMARY KEY, symbol VARCHAR NOT NULL, "
+            + "company_name VARCHAR NOT NULL, price BIGINT NOT NULL, version BIGINT NOT NULL DEFAULT 0, "
+            + "updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now())").then().block();
+    ReactiveStockService stockService = new ReactiveStockService(new ReactiveStockRepository(client));
+    webTestClient = WebTestClient.bindToController(new ReactiveStockController(stockService)).build();
+  }
+
+  /**
+   * Method under test: {@link ReactiveStockController#createStock}
+   */
+  @Test
+  public void testCreateStock() {
+    // Arrange and Act
+    Stock created = create();
+
+    // Assert
+    assertNotNull(created.getId());
+    assertEquals("BB3", created.getSymbol());
+    assertEquals(-100_000L, created.getPrice());
+    webTestClient.get().uri("/stocks/{id}", created.getId()).exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+            .expectBody()
+            .jsonPath("$.symbol").isEqualTo("BB3")
+            .jsonPath("$.companyName").isEqualTo("Banco do Brasil");
+  }
+
+  /**
+   * Method under test: {@link ReactiveStockController#getAllStocks()}
+   */
+  @Test
+  public void testGetAllStocks() {
+    // Arrange
+    create();
+    create();
+
+    // Act
+    EntityExchangeResult<List<Stock>> result = webTestClient.get().uri("/stocks").exchange()
+            .expectStatus().isOk()
+            .expectBodyList(Stock.class).hasSize(2)
+            .returnResult();
+
+    // Assert
+    String etag = result.getResponseHeaders().getETag();
+    assertNotNull(etag);
+    webTestClient.get().uri("/stocks").header(HttpHeaders.IF_NONE_MATCH, etag).exchange()
+            .expectStatus().isNotModified()
+            .expectBody().isEmpty();
+  }
+
+  /**
+   * Method under test: {@link ReactiveStockController#streamStocks()}
+   */
+  @Test
+  public void testStreamStocks() {
+    // Arrange
+    String first = create().getId();
+    String second = create().getId();
+
+    // Act
+    String body = webTestClient.get().uri("/stocks/stream").accept(MediaType.APPLICATION_NDJSON).exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .expectBody(String.class).returnResult().getResponseBody();
+
+    // Assert
+    String[] lines = body.trim().split("\n");
+    assertEquals(2, lines.length);
+    assertEquals(first.compareTo(second) < 0 ? first : second, id(lines[0]));
+  }
+
+  /**
+   * Method under test: {@link ReactiveStockController#getStockPage}
+   */
+  @Test
+  public void testGetStockPage() {
+    // Arrange
+    create();
+    create();
+    create();
+    String next = pageCursor();
+
+    // Act and Assert
+    webTestClient.get().uri("/stocks/page?size=2").exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.content.length()").isEqualTo(2)
+            .jsonPath("$.next").isEqualTo(next);
+    webTestClient.get().uri("/stocks/page?size=2&after={after}", next).exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.content.length()").isEqualTo(1)
+            .jsonPath("$.next").doesNotExist();
+  }
+
+  /**
+   * Method under test: {@link ReactiveStockController#getStockBySymbol(String)}
+   */
+  @Test
+  public void testGetStockBySymbol() {
+    // Arrange
+    String id = create().getId();
+
+    // Act and Assert
+    webTestClient.get().uri("/stocks/symbol/BB3").exchange()
+            .expectStatus().isOk()
+            .expectBody().jsonPath("$.id").isEqualTo(id);
+    webTestClient.get().uri("/stocks/symbol/XX9").exchange()
+            .expectStatus().isOk()
+            .expectBody().isEmpty();
+  }
+
+  /**
+   * Method under test: {@link ReactiveStockController#updateStock}
+   */
+  @Test
+  public void testUpdateStock() {
+    // Arrange
+    String id = create().getId();
+
+    // Act and Assert
+    webTestClient.put().uri("/stocks/{id}", id).header(HttpHeaders.IF_MATCH, "\"0\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue("{\"symbol\":\"BB4\",\"companyName\":\"Banco do Brasil\",\"price\":5.0}")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+            .expectBody().jsonPath("$.symbol").isEqualTo("BB4");
+    assertEquals(1L, (long) find(id).getVersion());
+  }
+
+  /**
+   * Method under test: {@link ReactiveStockController#updateStock}
+   */
+  @Test
+  public void testUpdateStock2() {
+    // Arrange
+    String id = create().getId();
+
+    // Act and Assert
+    webTestClient.put().uri("/stocks/{id}", id).header(HttpHeaders.IF_MATCH, "\"7\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue("{\"symbol\":\"BB4\",\"companyName\":\"Banco do Brasil\",\"price\":5.0}")
+            .exchange()
+            .expectStatus().isEqualTo(412);
+    assertEquals("BB3", find(id).getSymbol());
+  }
+
+  /**
+   * Method under test: {@link ReactiveStockController#updateStock}
+   */
+  @Test
+  public void testUpdateStock3() {
+    // Arrange, Act and Assert
+    webTestClient.put().uri("/stocks/{id}", "missing")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue("{\"symbol\":\"BB4\",\"companyName\":\"Banco do Brasil\",\"price\":5.0}")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().isEmpty();
+  }
+
+  /**
+   * Method under test: {@link ReactiveStockController#deleteStock(String)}
+   */
+  @Test
+  public void testDeleteStock() {
+    // Arrange
+    String id = create().getId();
+
+    // Act
+    webTestClient.delete().uri("/stocks/{id}", id).exchange().expectStatus().isOk();
+
+    // Assert
+    assertNull(find(id));
+    webTestClient.get().uri("/stocks/{id}", id).exchange()
+            .expectStatus().isOk()
+            .expectBody().isEmpty();
+  }
+
+  private Stock create() {
+    return webTestClient.post().uri("/stocks")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(STOCK_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(Stock.class)
+            .returnResult().getResponseBody();
+  }
+
+  private Stock find(String id) {
+    return new ReactiveStockRepository(client).findById(id).block();
+  }
+
+  private String pageCursor() {
+    return client.sql("SELECT id FROM stock ORDER BY id LIMIT 1 OFFSET 1")
+            .map(row -> row.get("id", String.class))
+            .one()
+            .block();
+  }
+
+  private static String id(String line) {
+    int start = line.indexOf("\"id\":\"") + 6;
+    return line.substring(start, line.indexOf('"', start));
+  }
+}
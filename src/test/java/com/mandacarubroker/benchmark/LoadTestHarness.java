@@ -0,0 +1,178 @@
+package com.mandacarubroker.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load generator used to compare the platform-thread and
+ * virtual-thread execution modes, and the servlet and reactive stacks (or any other
+ * server variant exposing the same API).
+ *
+ * <p>Each client repeatedly sends a GET to the target URL and records the latency of
+ * every response. At the end it prints throughput, error count and latency
+ * percentiles on a single line, so runs against different modes can be compared
+ * side by side.
+ *
+ * <p>Any further arguments are Actuator metric URLs, such as
+ * {@code /actuator/metrics/hikaricp.connections.active} or
+ * {@code /actuator/metrics/r2dbc.pool.acquired}, which are polled during the run; the
+ * peak of each is printed after the latencies, to compare how many database
+ * connections and threads each node needed to serve the same clients.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mandacarubroker.benchmark.LoadTestHarness \
+ *     -Dexec.args="http://localhost:8080/stocks/page 200 60 \
+ *         http://localhost:8080/actuator/metrics/hikaricp.connections.active"
+ * </pre>
+ */
+public final class LoadTestHarness {
+
+  private static final int INITIAL_SAMPLES_PER_CLIENT = 16_384;
+  private static final long METRIC_POLL_INTERVAL_MILLIS = 100;
+  private static final Pattern METRIC_VALUE = Pattern.compile("\"value\"\\s*:\\s*([-0-9.eE+]+)");
+
+  private LoadTestHarness() {
+  }
+
+  /**
+   * Runs the load test.
+   *
+   * @param args the target URL, the number of concurrent clients (default 100), the
+   *             duration in seconds (default 30) and any metric URLs to poll.
+   * @throws InterruptedException if interrupted while waiting for the clients.
+   */
+  public static void main(String[] args) throws InterruptedException {
+    if (args.length == 0) {
+      System.err.println("usage: LoadTestHarness <url> [clients] [durationSeconds] [metricUrl...]");
+      System.exit(1);
+    }
+    URI target = URI.create(args[0]);
+    int clients = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+    long durationSeconds = args.length > 2 ? Long.parseLong(args[2]) : 30;
+
+    HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(Math.max(4, clients / 10)))
+            .build();
+    HttpRequest request = HttpRequest.newBuilder(target).timeout(Duration.ofSeconds(30)).GET().build();
+
+    URI[] metrics = new URI[Math.max(0, args.length - 3)];
+    for (int i = 0; i < metrics.length; i++) {
+      metrics[i] = URI.create(args[i + 3]);
+    }
+    double[] peaks = new double[metrics.length];
+    Arrays.fill(peaks, Double.NaN);
+    ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor();
+    if (metrics.length > 0) {
+      poller.scheduleWithFixedDelay(() -> poll(httpClient, metrics, peaks),
+              0, METRIC_POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    long[][] latencies = new long[clients][];
+    int[] counts = new int[clients];
+    int[] errors = new int[clients];
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+    CountDownLatch done = new CountDownLatch(clients);
+    ExecutorService pool = Executors.newFixedThreadPool(clients);
+
+    for (int client = 0; client < clients; client++) {
+      int id = client;
+      pool.execute(() -> {
+        long[] samples = new long[INITIAL_SAMPLES_PER_CLIENT];
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+          long start = System.nanoTime();
+          try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+              errors[id]++;
+            }
+          } catch (Exception e) {
+            errors[id]++;
+          }
+          if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+          }
+          samples[count++] = System.nanoTime() - start;
+        }
+        latencies[id] = samples;
+        counts[id] = count;
+        done.countDown();
+      });
+    }
+
+    done.await();
+    pool.shutdown();
+    poller.shutdown();
+    poller.awaitTermination(5, TimeUnit.SECONDS);
+    report(target, clients, durationSeconds, latencies, counts, errors, metrics, peaks);
+    System.exit(0);
+  }
+
+  /**
+   * Reads the current value of each metric and keeps the highest seen. A metric that
+   * cannot be read is skipped until the next poll.
+   */
+  private static void poll(HttpClient httpClient, URI[] metrics, double[] peaks) {
+    for (int i = 0; i < metrics.length; i++) {
+      try {
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(metrics[i])
+                .timeout(Duration.ofSeconds(5)).GET().build(), HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = METRIC_VALUE.matcher(response.body());
+        if (response.statusCode() == 200 && matcher.find()) {
+          double value = Double.parseDouble(matcher.group(1));
+          if (Double.isNaN(peaks[i]) || value > peaks[i]) {
+            peaks[i] = value;
+          }
+        }
+      } catch (Exception e) {
+        // Polled again on the next tick.
+      }
+    }
+  }
+
+  private static void report(URI target, int clients, long durationSeconds,
+                             long[][] latencies, int[] counts, int[] errors, URI[] metrics, double[] peaks) {
+    int total = Arrays.stream(counts).sum();
+    long[] all = new long[total];
+    int offset = 0;
+    for (int client = 0; client < clients; client++) {
+      System.arraycopy(latencies[client], 0, all, offset, counts[client]);
+      offset += counts[client];
+    }
+    Arrays.sort(all);
+
+    StringBuilder line = new StringBuilder(String.format(Locale.ROOT,
+            "url=%s clients=%d requests=%d errors=%d throughput=%.1f/s p50=%.2fms p99=%.2fms p999=%.2fms max=%.2fms",
+            target, clients, total, Arrays.stream(errors).sum(), (double) total / durationSeconds,
+            percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999),
+            total == 0 ? 0.0 : all[total - 1] / 1e6));
+    for (int i = 0; i < metrics.length; i++) {
+      String path = metrics[i].getPath();
+      line.append(String.format(Locale.ROOT, " peak.%s=%.0f", path.substring(path.lastIndexOf('/') + 1), peaks[i]));
+    }
+    System.out.println(line);
+  }
+
+  private static double percentile(long[] sorted, double quantile) {
+    if (sorted.length == 0) {
+      return 0.0;
+    }
+    int index = (int) Math.ceil(quantile * sorted.length) - 1;
+    return sorted[Math.max(0, index)] / 1e6;
+  }
+}
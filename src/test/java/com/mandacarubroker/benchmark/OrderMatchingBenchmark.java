@@ -0,0 +1,128 @@
+package com.mandacarubroker.benchmark;
+
+import com.mandacarubroker.domain.order.MatchingEngine;
+import com.mandacarubroker.domain.order.Order;
+import com.mandacarubroker.domain.order.OrderBook;
+import com.mandacarubroker.domain.order.OrderReceipt;
+import com.mandacarubroker.domain.order.OrderSide;
+import com.mandacarubroker.domain.order.OrderType;
+import com.mandacarubroker.domain.order.Trade;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Measures order matching: an {@link OrderBook} matching a random order flow on the
+ * benchmark thread, and a {@link MatchingEngine} fed by several producer threads.
+ *
+ * <p>The flow is 90% limit orders within ten ticks of the mid price and 10% market
+ * orders, so most orders either trade or rest near the top of the book.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderMatchingBenchmark {
+
+  private static final int FLOW_SIZE = 1 << 16;
+  private static final long MID_PRICE = 100_000L;
+  private static final long PRICE_STEP = 100L;
+
+  /**
+   * A pre-generated order flow, so the benchmark does not measure the random generator.
+   */
+  @State(Scope.Thread)
+  public static class Flow {
+    final OrderSide[] sides = new OrderSide[FLOW_SIZE];
+    final OrderType[] types = new OrderType[FLOW_SIZE];
+    final long[] prices = new long[FLOW_SIZE];
+    final long[] quantities = new long[FLOW_SIZE];
+    int next;
+
+    @Setup
+    public void setUp() {
+      SplittableRandom random = new SplittableRandom(42);
+      for (int i = 0; i < FLOW_SIZE; i++) {
+        sides[i] = random.nextBoolean() ? OrderSide.BUY : OrderSide.SELL;
+        types[i] = random.nextInt(10) == 0 ? OrderType.MARKET : OrderType.LIMIT;
+        prices[i] = MID_PRICE + random.nextInt(-10, 11) * PRICE_STEP;
+        quantities[i] = 1 + random.nextInt(100);
+      }
+    }
+
+    Order nextOrder(long id) {
+      int i = next++ & (FLOW_SIZE - 1);
+      return new Order(id, "UU9", sides[i], types[i], prices[i], quantities[i]);
+    }
+  }
+
+  /**
+   * A book owned by the benchmark thread.
+   */
+  @State(Scope.Thread)
+  public static class Book {
+    OrderBook book;
+    long orderIds;
+
+    @Setup
+    public void setUp(Flow flow) {
+      book = new OrderBook("UU9");
+      for (int i = 0; i < 10_000; i++) {
+        book.match(flow.nextOrder(++orderIds), trade -> { });
+      }
+    }
+  }
+
+  /**
+   * An engine shared by every benchmark thread.
+   */
+  @State(Scope.Benchmark)
+  public static class Engine {
+    MatchingEngine engine;
+    final AtomicLong orderIds = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+      engine = new MatchingEngine("UU9", 1 << 16, trade -> { });
+    }
+
+    @TearDown
+    public void tearDown() {
+      engine.close();
+    }
+  }
+
+  @Benchmark
+  public void match(Book book, Flow flow, Blackhole blackhole) {
+    Consumer<Trade> trades = blackhole::consume;
+    book.book.match(flow.nextOrder(++book.orderIds), trades);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public CompletableFuture<OrderReceipt> submit(Engine engine, Flow flow) {
+    Order order = flow.nextOrder(engine.orderIds.incrementAndGet());
+    CompletableFuture<OrderReceipt> receipt;
+    while ((receipt = engine.engine.submit(order)) == null) {
+      Thread.onSpinWait();
+    }
+    return receipt;
+  }
+}
@@ -0,0 +1,57 @@
+package com.mandacarubroker.benchmark;
+
+import com.mandacarubroker.domain.stock.Price;
+import com.mandacarubroker.domain.stock.RequestStockDto;
+import com.mandacarubroker.domain.stock.Stock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link Stock} operations on the request path: price changes and
+ * building an entity from a {@link RequestStockDto}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StockBenchmark {
+
+  private Stock stock;
+  private RequestStockDto request;
+  private long amount;
+
+  @Setup
+  public void setUp() {
+    stock = new Stock();
+    stock.setPrice(Price.parse("33.12"));
+    request = new RequestStockDto("UU9", "Company Name", Price.parse("10.5"));
+    amount = Price.parse("0.25");
+  }
+
+  @Benchmark
+  public long changePriceIncrease() {
+    return stock.changePrice(amount, true);
+  }
+
+  @Benchmark
+  public long changePriceDecrease() {
+    return stock.changePrice(amount, false);
+  }
+
+  @Benchmark
+  public Stock newStock() {
+    return new Stock(request);
+  }
+}
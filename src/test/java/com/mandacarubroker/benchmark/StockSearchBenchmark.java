@@ -0,0 +1,79 @@
+package com.mandacarubroker.benchmark;
+
+import com.mandacarubroker.domain.search.StockSearchHit;
+import com.mandacarubroker.domain.search.StockSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures type-ahead searches on a {@link StockSearchIndex} holding a million stocks
+ * with random symbols and two- or three-word company names.
+ *
+ * <p>The queries cover a one-letter prefix matching a large part of the index, a
+ * word prefix, two words, a typo only found by the one-edit lookup, and a miss, which
+ * is the worst case since every one-edit variant is looked up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class StockSearchBenchmark {
+
+  private static final int STOCKS = 1_000_000;
+  private static final int LIMIT = 10;
+
+  @Param({"m", "merca", "merca brasil", "mrecado", "zzqxj"})
+  public String query;
+
+  private StockSearchIndex index;
+
+  @Setup
+  public void setUp() {
+    SplittableRandom random = new SplittableRandom(42);
+    String[] vocabulary = new String[20_000];
+    for (int i = 0; i < vocabulary.length; i++) {
+      vocabulary[i] = word(random, 4 + random.nextInt(7));
+    }
+    vocabulary[0] = "mercado";
+    vocabulary[1] = "brasil";
+
+    index = new StockSearchIndex();
+    for (int i = 0; i < STOCKS; i++) {
+      StringBuilder name = new StringBuilder(vocabulary[random.nextInt(vocabulary.length)]);
+      int words = 2 + random.nextInt(2);
+      for (int w = 1; w < words; w++) {
+        name.append(' ').append(vocabulary[random.nextInt(vocabulary.length)]);
+      }
+      index.put(Integer.toString(i), word(random, 4) + random.nextInt(10), name.toString());
+    }
+    index.put("mercado", "MB3", "Mercado Brasil");
+  }
+
+  @Benchmark
+  public List<StockSearchHit> search() {
+    return index.search(query, LIMIT);
+  }
+
+  private static String word(SplittableRandom random, int length) {
+    char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      chars[i] = (char) ('a' + random.nextInt(26));
+    }
+    return new String(chars);
+  }
+}
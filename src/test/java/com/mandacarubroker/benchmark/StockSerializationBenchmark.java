@@ -0,0 +1,77 @@
+package com.mandacarubroker.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mandacarubroker.domain.stock.Stock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writing a {@code List<Stock>} as the body of {@code GET /stocks} in each
+ * format the endpoint can negotiate, with object mappers configured the way Spring MVC
+ * configures its own.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StockSerializationBenchmark {
+
+  @Param({"1000", "100000", "1000000"})
+  private int size;
+
+  @Param({"json", "smile", "cbor"})
+  private String format;
+
+  private List<Stock> stocks;
+  private ObjectWriter writer;
+  private OutputStream out;
+
+  @Setup
+  public void setUp() {
+    stocks = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      Stock stock = new Stock();
+      stock.setId(UUID.randomUUID().toString());
+      stock.setSymbol("UU" + i % 10);
+      stock.setCompanyName("Company Name " + i);
+      stock.setPrice(100_000L + i);
+      stocks.add(stock);
+    }
+    Jackson2ObjectMapperBuilder builder = switch (format) {
+      case "smile" -> Jackson2ObjectMapperBuilder.smile();
+      case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+      default -> Jackson2ObjectMapperBuilder.json();
+    };
+    writer = builder.build()
+            .writerFor(new TypeReference<List<Stock>>() { })
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    out = OutputStream.nullOutputStream();
+  }
+
+  @Benchmark
+  public List<Stock> writeList() throws IOException {
+    writer.writeValue(out, stocks);
+    return stocks;
+  }
+}
@@ -0,0 +1,117 @@
+package com.mandacarubroker.benchmark;
+
+import com.mandacarubroker.MandacarubrokerApplication;
+import com.mandacarubroker.domain.stock.RequestStockDto;
+import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.domain.stock.StockPage;
+import com.mandacarubroker.domain.stock.StockPageOrder;
+import com.mandacarubroker.service.StockService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link StockService} end to end, through the caches, Spring Data and
+ * Hibernate, against an in-memory H2 database seeded with {@value #STOCKS} stocks.
+ * The schema is generated by Hibernate because the Flyway migrations target PostgreSQL.
+ *
+ * <p>Each benchmark runs with the production metrics ({@code instrumented=true}) and with
+ * the timers, meters and Hibernate statistics switched off, so the difference between
+ * the two is the cost of the instrumentation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 5)
+@Measurement(iterations = 10, time = 5)
+@Fork(3)
+@State(Scope.Benchmark)
+public class StockServiceBenchmark {
+
+  private static final int STOCKS = 5_000;
+
+  @Param({"true", "false"})
+  private boolean instrumented;
+
+  private ConfigurableApplicationContext context;
+  private StockService stockService;
+  private List<Stock> stocks;
+
+  @Setup
+  public void setUp() {
+    context = new SpringApplicationBuilder(MandacarubrokerApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.flyway.enabled=false",
+                    "--spring.jpa.hibernate.ddl-auto=create",
+                    "--logging.level.root=WARN",
+                    "--mandacaru.history.enabled=false",
+                    "--mandacaru.search.enabled=false",
+                    "--mandacaru.portfolio.reconcile-interval-ms=86400000",
+                    "--mandacaru.metrics.timed.enabled=" + instrumented,
+                    "--management.metrics.enable.all=" + instrumented,
+                    "--spring.jpa.properties.hibernate.generate_statistics=" + instrumented);
+    stockService = context.getBean(StockService.class);
+
+    List<RequestStockDto> requests = new ArrayList<>(STOCKS);
+    for (int i = 0; i < STOCKS; i++) {
+      String symbol = "" + (char) ('A' + i / 260 % 26) + (char) ('A' + i / 10 % 26) + i % 10;
+      requests.add(new RequestStockDto(symbol, "Company Name " + i, 100_000L + i));
+    }
+    stockService.importStocks(requests.iterator(), result -> { });
+    stocks = stockService.getAllStocks();
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public Optional<Stock> getStockById() {
+    return stockService.getStockById(randomStock().getId());
+  }
+
+  @Benchmark
+  public Optional<Stock> getStockBySymbol() {
+    return stockService.getStockBySymbol(randomStock().getSymbol());
+  }
+
+  @Benchmark
+  public StockPage getStockPage() {
+    return stockService.getStockPage(StockPageOrder.ID, randomStock().getId(), 100);
+  }
+
+  @Benchmark
+  public Optional<Stock> updateStock() {
+    Stock stock = randomStock();
+    Stock updatedStock = new Stock();
+    updatedStock.setSymbol(stock.getSymbol());
+    updatedStock.setCompanyName(stock.getCompanyName());
+    updatedStock.setPrice(stock.getPrice());
+    return stockService.updateStock(stock.getId(), updatedStock);
+  }
+
+  private Stock randomStock() {
+    return stocks.get(ThreadLocalRandom.current().nextInt(stocks.size()));
+  }
+}
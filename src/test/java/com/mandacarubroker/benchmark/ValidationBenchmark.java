@@ -0,0 +1,64 @@
+package com.mandacarubroker.benchmark;
+
+import com.mandacarubroker.domain.stock.RequestStockDto;
+import com.mandacarubroker.service.StockService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of validating a {@link RequestStockDto} with a validator factory
+ * bootstrapped per call, a shared validator, and {@link StockService#validateRequestStockDto}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+  private RequestStockDto validRequest;
+  private Validator sharedValidator;
+
+  @Setup
+  public void setUp() {
+    validRequest = new RequestStockDto("UU9", "Company Name", 100_000L);
+    sharedValidator = Validation.buildDefaultValidatorFactory().getValidator();
+  }
+
+  /**
+   * The previous implementation: a factory built and closed for every request.
+   */
+  @Benchmark
+  public Set<ConstraintViolation<RequestStockDto>> perCallFactory() {
+    try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+      return factory.getValidator().validate(validRequest);
+    }
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<RequestStockDto>> sharedValidator() {
+    return sharedValidator.validate(validRequest);
+  }
+
+  @Benchmark
+  public RequestStockDto validateRequestStockDto() {
+    StockService.validateRequestStockDto(validRequest);
+    return validRequest;
+  }
+}
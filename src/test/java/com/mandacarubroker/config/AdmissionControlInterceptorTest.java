@@ -0,0 +1,176 @@
+package com.mandacarubroker.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mandacarubroker.controller.StockController;
+import com.mandacarubroker.controller.StockListSnapshot;
+import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.service.StockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.when;
+
+public class AdmissionControlInterceptorTest {
+
+  private static final long NOW = 1_000_000_000_000L;
+
+  private final AtomicLong nanoTime = new AtomicLong(NOW);
+  private SimpleMeterRegistry meterRegistry;
+  private AdmissionControlProperties properties;
+  private StockService stockService;
+
+  @Before
+  public void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    properties = new AdmissionControlProperties();
+    properties.getRateLimit().setCapacity(2);
+    properties.getRateLimit().setRefillPerSecond(1);
+    stockService = Mockito.mock(StockService.class);
+    when(stockService.getStockById("42"))
+            .thenReturn(Optional.of(new Stock("42", "UU9", "Company Name", 100_000L, 0L, null)));
+  }
+
+  private MockMvc mockMvc(AdmissionControlInterceptor interceptor) {
+    ObjectMapper objectMapper = new ObjectMapper();
+    StockController controller = new StockController(stockService,
+            new StockListSnapshot(stockService, objectMapper, 0L), objectMapper);
+    return MockMvcBuilders.standaloneSetup(controller).addInterceptors(interceptor).build();
+  }
+
+  private AdmissionControlInterceptor interceptor() {
+    return new AdmissionControlInterceptor(StockController.class, properties, meterRegistry, nanoTime::get);
+  }
+
+  /**
+   * Method under test: {@link AdmissionControlInterceptor#preHandle(jakarta.servlet.http.HttpServletRequest,
+   * jakarta.servlet.http.HttpServletResponse, Object)}
+   */
+  @Test
+  public void testPreHandle() throws Exception {
+    // Arrange
+    MockMvc mockMvc = mockMvc(interceptor());
+
+    // Act and Assert
+    mockMvc.perform(MockMvcRequestBuilders.get("/stocks/42")).andExpect(MockMvcResultMatchers.status().isOk());
+    mockMvc.perform(MockMvcRequestBuilders.get("/stocks/42")).andExpect(MockMvcResultMatchers.status().isOk());
+    mockMvc.perform(MockMvcRequestBuilders.get("/stocks/42"))
+            .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+            .andExpect(MockMvcResultMatchers.header().string("Retry-After", "1"));
+    assertEquals(1.0, meterRegistry.get("admission.rejected")
+            .tag("method", "GET").tag("uri", "/stocks/{id}").tag("reason", "rate_limited").counter().count(), 0.0);
+
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    mockMvc.perform(MockMvcRequestBuilders.get("/stocks/42")).andExpect(MockMvcResultMatchers.status().isOk());
+  }
+
+  /**
+   * Method under test: {@link AdmissionControlInterceptor#preHandle(jakarta.servlet.http.HttpServletRequest,
+   * jakarta.servlet.http.HttpServletResponse, Object)}
+   */
+  @Test
+  public void testPreHandle2() throws Exception {
+    // Arrange: each client has its own bucket.
+    properties.setClientHeader("X-Client-Id");
+    MockMvc mockMvc = mockMvc(interceptor());
+    mockMvc.perform(MockMvcRequestBuilders.get("/stocks/42").header("X-Client-Id", "a"));
+    mockMvc.perform(MockMvcRequestBuilders.get("/stocks/42").header("X-Client-Id", "a"));
+
+    // Act and Assert
+    mockMvc.perform(MockMvcRequestBuilders.get("/stocks/42").header("X-Client-Id", "a"))
+            .andExpect(MockMvcResultMatchers.status().isTooManyRequests());
+    mockMvc.perform(MockMvcRequestBuilders.get("/stocks/42").header("X-Client-Id", "b"))
+            .andExpect(MockMvcResultMatchers.status().isOk());
+  }
+
+  /**
+   * Method under test: {@link AdmissionControlInterceptor#preHandle(jakarta.servlet.http.HttpServletRequest,
+   * jakarta.servlet.http.HttpServletResponse, Object)}
+   */
+  @Test
+  public void testPreHandle3() throws Exception {
+    // Arrange: a route limit overrides the default on its route only.
+    AdmissionControlProperties.RouteRateLimit route = new AdmissionControlProperties.RouteRateLimit();
+    route.setMethod("GET");
+    route.setPattern("/stocks/symbol/{symbol}");
+    route.setCapacity(1);
+    route.setRefillPerSecond(1);
+    properties.setRoutes(List.of(route));
+    when(stockService.getStockBySymbol("UU9"))
+            .thenReturn(Optional.of(new Stock("42", "UU9", "Company Name", 100_000L, 0L, null)));
+    MockMvc mockMvc = mockMvc(interceptor());
+
+    // Act and Assert
+    mockMvc.perform(MockMvcRequestBuilders.get("/stocks/symbol/UU9")).andExpect(MockMvcResultMatchers.status().isOk());
+    mockMvc.perform(MockMvcRequestBuilders.get("/stocks/symbol/UU9"))
+            .andExpect(MockMvcResultMatchers.status().isTooManyRequests());
+    mockMvc.perform(MockMvcRequestBuilders.get("/stocks/42")).andExpect(MockMvcResultMatchers.status().isOk());
+    mockMvc.perform(MockMvcRequestBuilders.get("/stocks/42")).andExpect(MockMvcResultMatchers.status().isOk());
+  }
+
+  /**
+   * Method under test: {@link AdmissionControlInterceptor#preHandle(jakarta.servlet.http.HttpServletRequest,
+   * jakarta.servlet.http.HttpServletResponse, Object)}
+   */
+  @Test
+  public void testPreHandle4() throws Exception {
+    // Arrange
+    properties.setMaxConcurrentRequests(0);
+    MockMvc mockMvc = mockMvc(interceptor());
+
+    // Act and Assert
+    mockMvc.perform(MockMvcRequestBuilders.get("/stocks/42"))
+            .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+            .andExpect(MockMvcResultMatchers.header().string("Retry-After", "1"));
+    assertEquals(1.0, meterRegistry.get("admission.rejected")
+            .tag("method", "GET").tag("uri", "/stocks/{id}").tag("reason", "overloaded").counter().count(), 0.0);
+  }
+
+  /**
+   * Method under test: {@link AdmissionControlInterceptor#afterCompletion(jakarta.servlet.http.HttpServletRequest,
+   * jakarta.servlet.http.HttpServletResponse, Object, Exception)}
+   */
+  @Test
+  public void testAfterCompletion() throws Exception {
+    // Arrange
+    properties.getRateLimit().setCapacity(0);
+    properties.setMaxConcurrentRequests(1);
+    MockMvc mockMvc = mockMvc(interceptor());
+
+    // Act and Assert: the one slot is released after each request.
+    for (int i = 0; i < 5; i++) {
+      mockMvc.perform(MockMvcRequestBuilders.get("/stocks/42").accept(MediaType.APPLICATION_JSON))
+              .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+    assertEquals(0.0, meterRegistry.get("admission.in.flight").gauge().value(), 0.0);
+  }
+
+  /**
+   * Method under test: {@link AdmissionControlInterceptor#sweep()}
+   */
+  @Test
+  public void testSweep() throws Exception {
+    // Arrange
+    AdmissionControlInterceptor interceptor = interceptor();
+    mockMvc(interceptor).perform(MockMvcRequestBuilders.get("/stocks/42"));
+
+    // Act and Assert
+    interceptor.sweep();
+    assertEquals(1.0, meterRegistry.get("admission.buckets").gauge().value(), 0.0);
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    interceptor.sweep();
+    assertEquals(0.0, meterRegistry.get("admission.buckets").gauge().value(), 0.0);
+  }
+}
@@ -0,0 +1,112 @@
+package com.mandacarubroker.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ReadYourWritesInterceptorTest {
+
+  private static final long NOW = 1_700_000_000_000L;
+
+  private ReadYourWritesInterceptor interceptor;
+  private ReplicaRoutingDataSource routing;
+
+  @Before
+  public void setUp() {
+    JdbcTemplate replicaJdbcTemplate = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:read-your-writes;DB_CLOSE_DELAY=-1"));
+    ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicaJdbcTemplate, "SELECT 500", 1000,
+            new SimpleMeterRegistry());
+    interceptor = new ReadYourWritesInterceptor(monitor, 2000,
+            Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC));
+    routing = new ReplicaRoutingDataSource(replicaJdbcTemplate.getDataSource(),
+            replicaJdbcTemplate.getDataSource(), monitor::isReplicaUsable);
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+  }
+
+  @After
+  public void tearDown() {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    ReplicaRoutingDataSource.setPrimaryRequired(false);
+  }
+
+  /**
+   * Method under test: {@link ReadYourWritesInterceptor#preHandle(jakarta.servlet.http.HttpServletRequest,
+   * jakarta.servlet.http.HttpServletResponse, Object)}
+   */
+  @Test
+  public void testPreHandle() {
+    // Arrange
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/stocks");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    // Act
+    interceptor.preHandle(request, response, null);
+
+    // Assert
+    Cookie cookie = response.getCookie(ReadYourWritesInterceptor.LAST_WRITE_COOKIE);
+    assertNotNull(cookie);
+    assertEquals(Long.toString(NOW), cookie.getValue());
+    assertEquals("/", cookie.getPath());
+    assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, routing.determineCurrentLookupKey());
+    interceptor.afterCompletion(request, response, null, null);
+    assertEquals(ReplicaRoutingDataSource.Target.REPLICA, routing.determineCurrentLookupKey());
+  }
+
+  /**
+   * Method under test: {@link ReadYourWritesInterceptor#preHandle(jakarta.servlet.http.HttpServletRequest,
+   * jakarta.servlet.http.HttpServletResponse, Object)}
+   */
+  @Test
+  public void testPreHandle2() {
+    // Arrange
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/stocks");
+    request.setCookies(new Cookie(ReadYourWritesInterceptor.LAST_WRITE_COOKIE, Long.toString(NOW - 2400)));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    // Act
+    interceptor.preHandle(request, response, null);
+
+    // Assert
+    assertNull(response.getCookie(ReadYourWritesInterceptor.LAST_WRITE_COOKIE));
+    assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, routing.determineCurrentLookupKey());
+    interceptor.afterCompletion(request, response, null, null);
+    assertEquals(ReplicaRoutingDataSource.Target.REPLICA, routing.determineCurrentLookupKey());
+  }
+
+  /**
+   * Method under test: {@link ReadYourWritesInterceptor#preHandle(jakarta.servlet.http.HttpServletRequest,
+   * jakarta.servlet.http.HttpServletResponse, Object)}
+   */
+  @Test
+  public void testPreHandle3() {
+    // Arrange
+    MockHttpServletRequest stale = new MockHttpServletRequest("GET", "/stocks");
+    stale.setCookies(new Cookie(ReadYourWritesInterceptor.LAST_WRITE_COOKIE, Long.toString(NOW - 2600)));
+    MockHttpServletRequest malformed = new MockHttpServletRequest("GET", "/stocks");
+    malformed.setCookies(new Cookie(ReadYourWritesInterceptor.LAST_WRITE_COOKIE, "yesterday"));
+
+    // Act and Assert
+    interceptor.preHandle(stale, new MockHttpServletResponse(), null);
+    assertEquals(ReplicaRoutingDataSource.Target.REPLICA, routing.determineCurrentLookupKey());
+    interceptor.preHandle(malformed, new MockHttpServletResponse(), null);
+    assertEquals(ReplicaRoutingDataSource.Target.REPLICA, routing.determineCurrentLookupKey());
+    interceptor.preHandle(new MockHttpServletRequest("GET", "/stocks"), new MockHttpServletResponse(), null);
+    assertEquals(ReplicaRoutingDataSource.Target.REPLICA, routing.determineCurrentLookupKey());
+  }
+}
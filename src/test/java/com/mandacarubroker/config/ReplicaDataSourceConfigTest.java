@@ -0,0 +1,126 @@
+package com.mandacarubroker.config;
+
+import com.mandacarubroker.MandacarubrokerApplication;
+import com.mandacarubroker.domain.stock.RequestStockDto;
+import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.service.StockService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the stock service against a replica that has the schema but has not replayed
+ * any of the primary's writes yet.
+ */
+public class ReplicaDataSourceConfigTest {
+
+  private ConfigurableApplicationContext context;
+  private StockService stockService;
+
+  @Before
+  public void setUp() {
+    String primaryUrl = "jdbc:h2:mem:primary-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    String replicaUrl = "jdbc:h2:mem:replica-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    context = new SpringApplicationBuilder(MandacarubrokerApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.datasource.url=" + primaryUrl,
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--mandacaru.datasource.replica.url=" + replicaUrl,
+                    "--mandacaru.datasource.replica.username=sa",
+                    "--mandacaru.datasource.replica.password=",
+                    "--mandacaru.datasource.replica.lag-query=SELECT millis FROM replication_lag",
+                    "--mandacaru.datasource.replica.lag-poll-interval-ms=3600000",
+                    "--spring.flyway.enabled=false",
+                    "--spring.jpa.hibernate.ddl-auto=create",
+                    "--logging.level.root=WARN",
+                    "--mandacaru.history.enabled=false",
+                    "--mandacaru.search.enabled=false");
+    stockService = context.getBean(StockService.class);
+
+    // Until the lag table exists the replica is unusable, so startup read the primary.
+    JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(primaryUrl, "sa", ""));
+    JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(replicaUrl, "sa", ""));
+    List<String> schema = primary.queryForList("SCRIPT NODATA", String.class);
+    schema.stream().filter(statement -> !statement.startsWith("CREATE USER")).forEach(replica::execute);
+    replica.execute("CREATE TABLE replication_lag (millis BIGINT)");
+    replica.update("INSERT INTO replication_lag VALUES (0)");
+    ReplicaLagMonitor monitor = context.getBean(ReplicaLagMonitor.class);
+    monitor.poll();
+    assertTrue(monitor.isReplicaUsable());
+  }
+
+  @After
+  public void tearDown() {
+    context.close();
+  }
+
+  /**
+   * Method under test: {@link StockService#updateStock(String, Stock)}
+   */
+  @Test
+  public void testUpdateStock() {
+    // Arrange
+    Stock created = stockService.createStock(new RequestStockDto("UU9", "Company Name", 100_000L));
+    assertTrue(stockService.getAllStocks().isEmpty());
+
+    // Act
+    Stock updated = stockService.updateStock(created.getId(), stock("Updated Name")).orElseThrow();
+
+    // Assert
+    assertEquals("Updated Name", updated.getCompanyName());
+    assertEquals(Long.valueOf(created.getVersion() + 1), updated.getVersion());
+  }
+
+  /**
+   * Method under test: {@link StockService#updateStock(String, Stock, long)}
+   */
+  @Test
+  public void testUpdateStock2() {
+    // Arrange
+    Stock created = stockService.createStock(new RequestStockDto("UU9", "Company Name", 100_000L));
+
+    // Act
+    Stock updated = stockService.updateStock(created.getId(), stock("Updated Name"), created.getVersion())
+            .orElseThrow();
+
+    // Assert
+    assertEquals("Updated Name", updated.getCompanyName());
+  }
+
+  /**
+   * Method under test: {@link StockService#getStockById(String)}
+   */
+  @Test
+  public void testGetStockById() {
+    // Arrange
+    Stock created = stockService.createStock(new RequestStockDto("UU9", "Company Name", 100_000L));
+    stockService.updateStock(created.getId(), stock("Updated Name"));
+
+    // Act
+    Stock stock = stockService.getStockById(created.getId()).orElseThrow();
+
+    // Assert that the cached stock was read from the primary
+    assertEquals("Updated Name", stock.getCompanyName());
+    assertEquals("Updated Name", stockService.getStockBySymbol("UU9").orElseThrow().getCompanyName());
+  }
+
+  private static Stock stock(String companyName) {
+    Stock stock = new Stock();
+    stock.setSymbol("UU9");
+    stock.setCompanyName(companyName);
+    stock.setPrice(110_000L);
+    return stock;
+  }
+}
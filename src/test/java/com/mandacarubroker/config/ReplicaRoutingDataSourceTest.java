@@ -0,0 +1,131 @@
+package com.mandacarubroker.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import javax.sql.DataSource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReplicaRoutingDataSourceTest {
+
+  private static final String NODE_QUERY = "SELECT name FROM node";
+
+  private JdbcTemplate primaryJdbcTemplate;
+  private JdbcTemplate replicaJdbcTemplate;
+  private ReplicaLagMonitor monitor;
+  private JdbcTemplate jdbcTemplate;
+  private TransactionTemplate readOnly;
+  private TransactionTemplate readWrite;
+
+  @Before
+  public void setUp() {
+    primaryJdbcTemplate = new JdbcTemplate(node("primary"));
+    replicaJdbcTemplate = new JdbcTemplate(node("replica"));
+    replicaJdbcTemplate.execute("CREATE TABLE replication_lag (millis BIGINT)");
+    replicaJdbcTemplate.update("INSERT INTO replication_lag VALUES (0)");
+    monitor = new ReplicaLagMonitor(replicaJdbcTemplate, "SELECT millis FROM replication_lag", 1000,
+            new SimpleMeterRegistry());
+
+    DataSource dataSource = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+            primaryJdbcTemplate.getDataSource(), replicaJdbcTemplate.getDataSource(), monitor::isReplicaUsable));
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+    readOnly = new TransactionTemplate(transactionManager);
+    readOnly.setReadOnly(true);
+    readWrite = new TransactionTemplate(transactionManager);
+  }
+
+  @After
+  public void tearDown() {
+    ReplicaRoutingDataSource.setPrimaryRequired(false);
+  }
+
+  /**
+   * Method under test: {@link ReplicaRoutingDataSource#determineCurrentLookupKey()}
+   */
+  @Test
+  public void testDetermineCurrentLookupKey() {
+    // Arrange, Act and Assert
+    assertEquals("replica", readOnly.execute(status -> currentNode()));
+    assertEquals("primary", readWrite.execute(status -> currentNode()));
+    assertEquals("primary", currentNode());
+  }
+
+  /**
+   * Method under test: {@link ReplicaRoutingDataSource#setPrimaryRequired(boolean)}
+   */
+  @Test
+  public void testSetPrimaryRequired() {
+    // Arrange
+    ReplicaRoutingDataSource.setPrimaryRequired(true);
+
+    // Act and Assert
+    assertEquals("primary", readOnly.execute(status -> currentNode()));
+    ReplicaRoutingDataSource.setPrimaryRequired(false);
+    assertEquals("replica", readOnly.execute(status -> currentNode()));
+  }
+
+  /**
+   * Method under test: {@link ReplicaLagMonitor#poll()}
+   */
+  @Test
+  public void testPoll() {
+    // Arrange
+    replicaJdbcTemplate.update("UPDATE replication_lag SET millis = 5000");
+
+    // Act
+    monitor.poll();
+
+    // Assert
+    assertEquals(5000, monitor.getLagMillis());
+    assertFalse(monitor.isReplicaUsable());
+    assertEquals("primary", readOnly.execute(status -> currentNode()));
+
+    replicaJdbcTemplate.update("UPDATE replication_lag SET millis = 200");
+    monitor.poll();
+    assertEquals(200, monitor.getLagMillis());
+    assertTrue(monitor.isReplicaUsable());
+    assertEquals("replica", readOnly.execute(status -> currentNode()));
+  }
+
+  /**
+   * Method under test: {@link ReplicaLagMonitor#poll()}
+   */
+  @Test
+  public void testPoll2() {
+    // Arrange
+    replicaJdbcTemplate.execute("DROP TABLE replication_lag");
+
+    // Act
+    monitor.poll();
+
+    // Assert
+    assertEquals(ReplicaLagMonitor.UNKNOWN_LAG, monitor.getLagMillis());
+    assertFalse(monitor.isReplicaUsable());
+    assertEquals("primary", readOnly.execute(status -> currentNode()));
+  }
+
+  private String currentNode() {
+    return jdbcTemplate.queryForObject(NODE_QUERY, String.class);
+  }
+
+  private static DataSource node(String name) {
+    JdbcDataSource dataSource = new JdbcDataSource();
+    dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(16))");
+    jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+    return dataSource;
+  }
+}
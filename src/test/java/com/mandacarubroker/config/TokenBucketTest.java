@@ -0,0 +1,86 @@
+package com.mandacarubroker.config;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TokenBucketTest {
+
+  private static final long NOW = 1_000_000_000_000L;
+
+  /**
+   * Method under test: {@link TokenBucket#tryAcquire(long)}
+   */
+  @Test
+  public void testTryAcquire() {
+    // Arrange
+    TokenBucket bucket = new TokenBucket(3, 10, NOW);
+
+    // Act and Assert
+    assertEquals(0, bucket.tryAcquire(NOW));
+    assertEquals(0, bucket.tryAcquire(NOW));
+    assertEquals(0, bucket.tryAcquire(NOW));
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.tryAcquire(NOW));
+  }
+
+  /**
+   * Method under test: {@link TokenBucket#tryAcquire(long)}
+   */
+  @Test
+  public void testTryAcquire2() {
+    // Arrange
+    TokenBucket bucket = new TokenBucket(2, 10, NOW);
+    bucket.tryAcquire(NOW);
+    bucket.tryAcquire(NOW);
+
+    // Act and Assert
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(60), bucket.tryAcquire(NOW + TimeUnit.MILLISECONDS.toNanos(40)));
+    assertEquals(0, bucket.tryAcquire(NOW + TimeUnit.MILLISECONDS.toNanos(100)));
+    assertTrue(bucket.tryAcquire(NOW + TimeUnit.MILLISECONDS.toNanos(100)) > 0);
+  }
+
+  /**
+   * Method under test: {@link TokenBucket#tryAcquire(long)}
+   */
+  @Test
+  public void testTryAcquire3() {
+    // Arrange
+    TokenBucket bucket = new TokenBucket(2, 10, NOW);
+    bucket.tryAcquire(NOW);
+
+    // Act and Assert: an idle bucket refills up to its capacity and no further.
+    long later = NOW + TimeUnit.SECONDS.toNanos(60);
+    assertEquals(0, bucket.tryAcquire(later));
+    assertEquals(0, bucket.tryAcquire(later));
+    assertTrue(bucket.tryAcquire(later) > 0);
+  }
+
+  /**
+   * Method under test: {@link TokenBucket#isFull(long)}
+   */
+  @Test
+  public void testIsFull() {
+    // Arrange
+    TokenBucket bucket = new TokenBucket(5, 10, NOW);
+
+    // Act
+    bucket.tryAcquire(NOW);
+
+    // Assert
+    assertFalse(bucket.isFull(NOW));
+    assertTrue(bucket.isFull(NOW + TimeUnit.MILLISECONDS.toNanos(100)));
+  }
+
+  /**
+   * Method under test: {@link TokenBucket#TokenBucket(long, double, long)}
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructor() {
+    // Arrange, Act and Assert
+    new TokenBucket(0, 10, NOW);
+  }
+}
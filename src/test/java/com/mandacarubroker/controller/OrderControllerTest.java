@@ -0,0 +1,92 @@
+package com.mandacarubroker.controller;
+
+import com.mandacarubroker.domain.order.OrderReceipt;
+import com.mandacarubroker.domain.order.OrderSide;
+import com.mandacarubroker.domain.order.OrderStatus;
+import com.mandacarubroker.domain.order.OrderType;
+import com.mandacarubroker.domain.order.PlaceOrderDto;
+import com.mandacarubroker.domain.order.Trade;
+import com.mandacarubroker.service.OrderService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.Mockito.when;
+
+@ContextConfiguration(classes = {OrderController.class})
+@RunWith(SpringJUnit4ClassRunner.class)
+public class OrderControllerTest {
+  @Autowired
+  private OrderController orderController;
+
+  @MockBean
+  private OrderService orderService;
+
+  /**
+   * Method under test: {@link OrderController#placeOrder(PlaceOrderDto)}
+   */
+  @Test
+  public void testPlaceOrder() throws Exception {
+    // Arrange
+    OrderReceipt receipt = new OrderReceipt(2, "UU9", OrderStatus.FILLED, 4, 0,
+            List.of(new Trade("UU9", 2, 1, 100_000L, 4)));
+    when(orderService.placeOrder(new PlaceOrderDto("UU9", OrderSide.BUY, OrderType.LIMIT, 100_000L, 4)))
+            .thenReturn(Optional.of(CompletableFuture.completedFuture(receipt)));
+    MockMvc mockMvc = MockMvcBuilders.standaloneSetup(orderController).build();
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.post("/orders")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"symbol\":\"UU9\",\"side\":\"BUY\",\"type\":\"LIMIT\",\"price\":10.0,\"quantity\":4}");
+
+    // Act
+    MvcResult result = mockMvc.perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.request().asyncStarted())
+            .andReturn();
+
+    // Assert
+    mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.content().string("{\"orderId\":2,\"symbol\":\"UU9\",\"status\":\"FILLED\","
+                    + "\"filledQuantity\":4,\"remainingQuantity\":0,\"trades\":[{\"symbol\":\"UU9\",\"buyOrderId\":2,"
+                    + "\"sellOrderId\":1,\"price\":10.0,\"quantity\":4}]}"));
+  }
+
+  /**
+   * Method under test: {@link OrderController#placeOrder(PlaceOrderDto)}
+   */
+  @Test
+  public void testPlaceOrder2() throws Exception {
+    // Arrange
+    when(orderService.placeOrder(new PlaceOrderDto("UU9", OrderSide.SELL, OrderType.MARKET, null, 4)))
+            .thenReturn(Optional.empty());
+    MockMvc mockMvc = MockMvcBuilders.standaloneSetup(orderController).build();
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.post("/orders")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"symbol\":\"UU9\",\"side\":\"SELL\",\"type\":\"MARKET\",\"quantity\":4}");
+
+    // Act
+    MvcResult result = mockMvc.perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.request().asyncStarted())
+            .andReturn();
+
+    // Assert
+    mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+            .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+            .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER,
+                    OrderController.RETRY_AFTER_SECONDS));
+  }
+}
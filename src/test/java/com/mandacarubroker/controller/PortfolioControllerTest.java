@@ -0,0 +1,102 @@
+package com.mandacarubroker.controller;
+
+import com.mandacarubroker.domain.order.OrderSide;
+import com.mandacarubroker.domain.portfolio.CreatePortfolioDto;
+import com.mandacarubroker.domain.portfolio.PortfolioTradeDto;
+import com.mandacarubroker.domain.portfolio.PortfolioValuation;
+import com.mandacarubroker.domain.portfolio.PositionValuation;
+import com.mandacarubroker.service.InvalidPortfolioOperationException;
+import com.mandacarubroker.service.PortfolioService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.when;
+
+@ContextConfiguration(classes = {PortfolioController.class})
+@RunWith(SpringJUnit4ClassRunner.class)
+public class PortfolioControllerTest {
+  @Autowired
+  private PortfolioController portfolioController;
+
+  @MockBean
+  private PortfolioService portfolioService;
+
+  /**
+   * Method under test: {@link PortfolioController#createPortfolio(CreatePortfolioDto)}
+   */
+  @Test
+  public void testCreatePortfolio() throws Exception {
+    // Arrange
+    when(portfolioService.createPortfolio(new CreatePortfolioDto("ana", 1_000_000L)))
+            .thenReturn(new PortfolioValuation("p1", "ana", 1_000_000L, 0L, 0L, 0L, 0L, 1_000_000L, List.of()));
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.post("/portfolios")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"owner\":\"ana\",\"cash\":100.0}");
+
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(portfolioController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isCreated())
+            .andExpect(MockMvcResultMatchers.header().string("Location", "/portfolios/p1"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.cash").value(100.0d))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.totalValue").value(100.0d));
+  }
+
+  /**
+   * Method under test: {@link PortfolioController#getValuation(String)}
+   */
+  @Test
+  public void testGetValuation() throws Exception {
+    // Arrange
+    when(portfolioService.getValuation("p1")).thenReturn(Optional.of(new PortfolioValuation("p1", "ana",
+            100_000L, 120_000L, 100_000L, 20_000L, 0L, 220_000L,
+            List.of(new PositionValuation("AB1", 1, 120_000L, 120_000L, 100_000L, 20_000L)))));
+    when(portfolioService.getValuation("p2")).thenReturn(Optional.empty());
+
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(portfolioController)
+            .build()
+            .perform(MockMvcRequestBuilders.get("/portfolios/p1"))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.marketValue").value(12.0d))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.unrealizedPnl").value(2.0d))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.positions[0].symbol").value("AB1"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.positions[0].price").value(12.0d));
+    MockMvcBuilders.standaloneSetup(portfolioController)
+            .build()
+            .perform(MockMvcRequestBuilders.get("/portfolios/p2"))
+            .andExpect(MockMvcResultMatchers.status().isNotFound());
+  }
+
+  /**
+   * Method under test: {@link PortfolioController#trade(String, PortfolioTradeDto)}
+   */
+  @Test
+  public void testTrade() throws Exception {
+    // Arrange
+    when(portfolioService.trade("p1", new PortfolioTradeDto("AB1", OrderSide.BUY, 5, null)))
+            .thenThrow(new InvalidPortfolioOperationException("Insufficient cash"));
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.post("/portfolios/p1/trades")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"symbol\":\"AB1\",\"side\":\"BUY\",\"quantity\":5}");
+
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(portfolioController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isBadRequest());
+  }
+}
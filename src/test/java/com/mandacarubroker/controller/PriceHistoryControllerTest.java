@@ -0,0 +1,97 @@
+package com.mandacarubroker.controller;
+
+import com.mandacarubroker.domain.history.PriceBar;
+import com.mandacarubroker.service.InvalidPriceHistoryQueryException;
+import com.mandacarubroker.service.PriceHistoryService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+@ContextConfiguration(classes = {PriceHistoryController.class})
+@RunWith(SpringJUnit4ClassRunner.class)
+public class PriceHistoryControllerTest {
+  @Autowired
+  private PriceHistoryController priceHistoryController;
+
+  @MockBean
+  private PriceHistoryService priceHistoryService;
+
+  /**
+   * Method under test: {@link PriceHistoryController#getBars(String, Instant, Instant, Duration)}
+   */
+  @Test
+  public void testGetBars() throws Exception {
+    // Arrange
+    Instant from = Instant.parse("2024-01-02T09:00:00Z");
+    Instant to = Instant.parse("2024-01-02T10:00:00Z");
+    when(priceHistoryService.getBars("UU9", from, to, Duration.ofMinutes(15)))
+            .thenReturn(List.of(new PriceBar(from, 100_000L, 120_000L, 90_000L, 115_000L)));
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/stocks/prices/UU9/bars")
+            .param("from", "2024-01-02T09:00:00Z")
+            .param("to", "2024-01-02T10:00:00Z")
+            .param("interval", "PT15M");
+
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(priceHistoryController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].open").value(10.0d))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].high").value(12.0d))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].low").value(9.0d))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].close").value(11.5d));
+  }
+
+  /**
+   * Method under test: {@link PriceHistoryController#getBars(String, Instant, Instant, Duration)}
+   */
+  @Test
+  public void testGetBars2() throws Exception {
+    // Arrange
+    Instant from = Instant.parse("2024-01-02T09:00:00Z");
+    Instant to = Instant.parse("2024-01-02T10:00:00Z");
+    when(priceHistoryService.getBars("UU9", from, to, Duration.ofSeconds(30)))
+            .thenThrow(new InvalidPriceHistoryQueryException("The interval must be a whole number of minutes"));
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/stocks/prices/UU9/bars")
+            .param("from", "2024-01-02T09:00:00Z")
+            .param("to", "2024-01-02T10:00:00Z")
+            .param("interval", "PT30S");
+
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(priceHistoryController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isBadRequest());
+  }
+
+  /**
+   * Method under test: {@link PriceHistoryController#getBars(String, Instant, Instant, Duration)}
+   */
+  @Test
+  public void testGetBars3() throws Exception {
+    // Arrange
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/stocks/prices/UU9/bars")
+            .param("from", "2024-01-02T09:00:00Z")
+            .param("to", "2024-01-02T10:00:00Z")
+            .param("interval", "15 minutes");
+
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(priceHistoryController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isBadRequest());
+  }
+}
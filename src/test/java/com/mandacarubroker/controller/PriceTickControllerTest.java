@@ -0,0 +1,69 @@
+package com.mandacarubroker.controller;
+
+import com.mandacarubroker.domain.stock.PriceTick;
+import com.mandacarubroker.service.PriceTickIngestor;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.when;
+
+@ContextConfiguration(classes = {PriceTickController.class})
+@RunWith(SpringJUnit4ClassRunner.class)
+public class PriceTickControllerTest {
+  @Autowired
+  private PriceTickController priceTickController;
+
+  @MockBean
+  private PriceTickIngestor priceTickIngestor;
+
+  /**
+   * Method under test: {@link PriceTickController#ingestTicks(java.util.List)}
+   */
+  @Test
+  public void testIngestTicks() throws Exception {
+    // Arrange
+    when(priceTickIngestor.offer(new PriceTick("UU9", 100_000L))).thenReturn(true);
+    when(priceTickIngestor.offer(new PriceTick("AB1", 50_000L))).thenReturn(true);
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.post("/stocks/ticks")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[{\"symbol\":\"UU9\",\"price\":10.0},{\"symbol\":\"AB1\",\"price\":5.0}]");
+
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(priceTickController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isAccepted())
+            .andExpect(MockMvcResultMatchers.content().string("{\"accepted\":2,\"rejected\":[]}"));
+  }
+
+  /**
+   * Method under test: {@link PriceTickController#ingestTicks(java.util.List)}
+   */
+  @Test
+  public void testIngestTicks2() throws Exception {
+    // Arrange
+    when(priceTickIngestor.offer(new PriceTick("UU9", 100_000L))).thenReturn(true);
+    when(priceTickIngestor.offer(new PriceTick("AB1", 50_000L))).thenReturn(false);
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.post("/stocks/ticks")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[{\"symbol\":\"UU9\",\"price\":10.0},{\"symbol\":\"AB1\",\"price\":5.0}]");
+
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(priceTickController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+            .andExpect(MockMvcResultMatchers.header().string("Retry-After", "1"))
+            .andExpect(MockMvcResultMatchers.content()
+                    .string("{\"accepted\":1,\"rejected\":[{\"symbol\":\"AB1\",\"price\":5.0}]}"));
+  }
+}
@@ -1,30 +1,62 @@
 package com.mandacarubroker.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.mandacarubroker.domain.stock.RequestStockDto;
 import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.domain.stock.StockChange;
+import com.mandacarubroker.domain.stock.StockImportResult;
+import com.mandacarubroker.domain.stock.StockPage;
+import com.mandacarubroker.domain.stock.StockPageOrder;
+import com.mandacarubroker.domain.stock.StockPriceView;
+import com.mandacarubroker.domain.stock.StockWatermark;
+import com.mandacarubroker.service.StaleStockVersionException;
 import com.mandacarubroker.service.StockService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-@ContextConfiguration(classes = {StockController.class})
+@ContextConfiguration(classes = {StockController.class, StockListSnapshot.class, JacksonAutoConfiguration.class})
 @RunWith(SpringJUnit4ClassRunner.class)
+@TestPropertySource(properties = "mandacaru.cache.stocks.watermark-ttl-ms=0")
 public class StockControllerTest {
   @Autowired
   private StockController stockController;
@@ -33,13 +65,14 @@ public class StockControllerTest {
   private StockService stockService;
 
   /**
-   * Method under test: {@link StockController#getAllStocks()}
+   * Method under test: {@link StockController#getAllStocks(WebRequest, HttpServletResponse)}
    *
    * @author Moisés Oliveira
    */
   @Test
   public void testGetAllStocks() throws Exception {
     // Arrange
+    when(stockService.getWatermark()).thenReturn(new StockWatermark(0L, null));
     when(stockService.getAllStocks()).thenReturn(new ArrayList<>());
     MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/stocks");
 
@@ -48,12 +81,14 @@ public class StockControllerTest {
             .build()
             .perform(requestBuilder)
             .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.header().string("ETag", "W/\"0-0-json\""))
+            .andExpect(MockMvcResultMatchers.header().string("Vary", "Accept, Accept-Encoding"))
             .andExpect(MockMvcResultMatchers.content().contentType("application/json"))
             .andExpect(MockMvcResultMatchers.content().string("[]"));
   }
 
   /**
-   * Method under test: {@link StockController#getAllStocks()}
+   * Method under test: {@link StockController#getAllStocks(WebRequest, HttpServletResponse)}
    *
    * @author Moisés Oliveira
    */
@@ -63,11 +98,12 @@ public class StockControllerTest {
     Stock stock = new Stock();
     stock.setCompanyName("Company Name");
     stock.setId("42");
-    stock.setPrice(10.0d);
+    stock.setPrice(100_000L);
     stock.setSymbol("Symbol");
 
     ArrayList<Stock> stockList = new ArrayList<>();
     stockList.add(stock);
+    when(stockService.getWatermark()).thenReturn(new StockWatermark(1L, Instant.ofEpochMilli(1_700_000_000_000L)));
     when(stockService.getAllStocks()).thenReturn(stockList);
     MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/stocks");
 
@@ -81,6 +117,259 @@ public class StockControllerTest {
                     .string("[{\"id\":\"42\",\"symbol\":\"Symbol\",\"companyName\":\"Company Name\",\"price\":10.0}]"));
   }
 
+  /**
+   * Method under test: {@link StockController#getAllStocks(WebRequest, HttpServletResponse)}
+   */
+  @Test
+  public void testGetAllStocks3() throws Exception {
+    // Arrange
+    when(stockService.getWatermark()).thenReturn(new StockWatermark(1L, Instant.ofEpochMilli(1_700_000_000_000L)));
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/stocks")
+            .header("If-None-Match", "W/\"1-1700000000000-json\"");
+
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(stockController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isNotModified())
+            .andExpect(MockMvcResultMatchers.header().exists("Last-Modified"))
+            .andExpect(MockMvcResultMatchers.header().string("Vary", "Accept, Accept-Encoding"))
+            .andExpect(MockMvcResultMatchers.content().string(""));
+    verify(stockService, never()).getAllStocks();
+  }
+
+  /**
+   * Method under test: {@link StockController#getAllStocks(WebRequest, HttpServletResponse)}
+   */
+  @Test
+  public void testGetAllStocks4() throws Exception {
+    // Arrange
+    List<Stock> stocks = new ArrayList<>();
+    stocks.add(new Stock("42", "UU9", "Company Name", 331_234L, 0L, null));
+    when(stockService.getWatermark()).thenReturn(new StockWatermark(1L, null));
+    when(stockService.getAllStocks()).thenReturn(stocks);
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/stocks")
+            .accept("application/x-jackson-smile");
+
+    // Act
+    MvcResult result = MockMvcBuilders.standaloneSetup(stockController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.content().contentType("application/x-jackson-smile"))
+            .andReturn();
+
+    // Assert
+    List<Stock> actualStocks = new ObjectMapper(new SmileFactory())
+            .readValue(result.getResponse().getContentAsByteArray(), new TypeReference<List<Stock>>() { });
+    assertEquals(1, actualStocks.size());
+    assertEquals("UU9", actualStocks.get(0).getSymbol());
+    assertEquals(331_234L, actualStocks.get(0).getPrice());
+  }
+
+  /**
+   * Method under test: {@link StockController#getAllStocks(WebRequest, HttpServletResponse)}
+   */
+  @Test
+  public void testGetAllStocks5() throws Exception {
+    // Arrange
+    List<Stock> stocks = new ArrayList<>();
+    stocks.add(new Stock("42", "UU9", "Company Name", 331_234L, 0L, null));
+    when(stockService.getWatermark()).thenReturn(new StockWatermark(1L, Instant.ofEpochMilli(1_700_000_005_000L)));
+    when(stockService.getAllStocks()).thenReturn(stocks);
+    MockMvc mockMvc = MockMvcBuilders.standaloneSetup(stockController).build();
+
+    // Act
+    MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/stocks")
+                    .header("Accept-Encoding", "br, gzip;q=0.8"))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.header().string("Content-Encoding", "gzip"))
+            .andExpect(MockMvcResultMatchers.header().string("Vary", "Accept, Accept-Encoding"))
+            .andExpect(MockMvcResultMatchers.content().contentType("application/json"))
+            .andReturn();
+    mockMvc.perform(MockMvcRequestBuilders.get("/stocks").header("Accept-Encoding", "gzip;q=0"))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.header().doesNotExist("Content-Encoding"))
+            .andExpect(MockMvcResultMatchers.content().string(
+                    "[{\"id\":\"42\",\"symbol\":\"UU9\",\"companyName\":\"Company Name\",\"price\":33.1234}]"));
+
+    // Assert
+    try (GZIPInputStream gzip = new GZIPInputStream(
+            new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+      assertEquals("[{\"id\":\"42\",\"symbol\":\"UU9\",\"companyName\":\"Company Name\",\"price\":33.1234}]",
+              new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+    }
+    verify(stockService, times(1)).getAllStocks();
+  }
+
+  /**
+   * Method under test: {@link StockController#getAllStocks(WebRequest, HttpServletResponse)}
+   */
+  @Test
+  public void testGetAllStocks6() throws Exception {
+    // Arrange
+    List<Stock> stocks = new ArrayList<>();
+    stocks.add(new Stock("42", "UU9", "Company Name", 331_234L, 0L, null));
+    when(stockService.getWatermark()).thenReturn(new StockWatermark(1L, Instant.ofEpochMilli(1_700_000_000_000L)));
+    when(stockService.getAllStocks()).thenReturn(stocks);
+    MockMvc mockMvc = MockMvcBuilders.standaloneSetup(stockController).build();
+
+    // Act and Assert
+    mockMvc.perform(MockMvcRequestBuilders.get("/stocks")
+                    .accept("application/cbor")
+                    .header("If-None-Match", "W/\"1-1700000000000-json\""))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.header().string("ETag", "W/\"1-1700000000000-cbor\""))
+            .andExpect(MockMvcResultMatchers.header().string("Vary", "Accept, Accept-Encoding"))
+            .andExpect(MockMvcResultMatchers.content().contentType("application/cbor"));
+    mockMvc.perform(MockMvcRequestBuilders.get("/stocks")
+                    .accept("application/cbor")
+                    .header("If-None-Match", "W/\"1-1700000000000-cbor\""))
+            .andExpect(MockMvcResultMatchers.status().isNotModified())
+            .andExpect(MockMvcResultMatchers.header().string("Vary", "Accept, Accept-Encoding"));
+    verify(stockService, times(1)).getAllStocks();
+  }
+
+  /**
+   * Method under test: {@link StockController#getAllStocks(WebRequest, HttpServletResponse)}
+   */
+  @Test
+  public void testGetAllStocks7() throws Exception {
+    // Arrange
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/stocks").accept("text/xml");
+
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(stockController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isNotAcceptable())
+            .andExpect(MockMvcResultMatchers.header().string("Vary", "Accept, Accept-Encoding"));
+    verify(stockService, never()).getWatermark();
+    verify(stockService, never()).getAllStocks();
+  }
+
+  /**
+   * Method under test:
+   * {@link StockController#getStockPage(StockPageOrder, String, int)}
+   */
+  @Test
+  public void testGetStockPage() throws Exception {
+    // Arrange
+    Stock stock = new Stock();
+    stock.setCompanyName("Company Name");
+    stock.setId("42");
+    stock.setPrice(100_000L);
+    stock.setSymbol("Symbol");
+    when(stockService.getStockPage(StockPageOrder.SYMBOL, "ABC", 1))
+            .thenReturn(new StockPage(List.of(stock), "Symbol"));
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/stocks/page")
+            .param("orderBy", "SYMBOL")
+            .param("after", "ABC")
+            .param("size", "1");
+
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(stockController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.content().contentType("application/json"))
+            .andExpect(MockMvcResultMatchers.content()
+                    .string("{\"content\":[{\"id\":\"42\",\"symbol\":\"Symbol\",\"companyName\":\"Company Name\","
+                            + "\"price\":10.0}],\"next\":\"Symbol\"}"));
+  }
+
+  /**
+   * Method under test: {@link StockController#streamStocks()}
+   */
+  @Test
+  public void testStreamStocks() throws Exception {
+    // Arrange
+    Stock stock = new Stock();
+    stock.setCompanyName("Company Name");
+    stock.setId("42");
+    stock.setPrice(100_000L);
+    stock.setSymbol("Symbol");
+    doAnswer(invocation -> {
+      Consumer<Stock> action = invocation.getArgument(0);
+      action.accept(stock);
+      action.accept(stock);
+      return null;
+    }).when(stockService).forEachStock(Mockito.any());
+    MockMvc mockMvc = MockMvcBuilders.standaloneSetup(stockController).build();
+
+    // Act
+    MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/stocks/stream"))
+            .andExpect(MockMvcResultMatchers.request().asyncStarted())
+            .andReturn();
+
+    // Assert
+    String line = "{\"id\":\"42\",\"symbol\":\"Symbol\",\"companyName\":\"Company Name\",\"price\":10.0}\n";
+    mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.content().contentType("application/x-ndjson"))
+            .andExpect(MockMvcResultMatchers.content().string(line + line));
+  }
+
+  /**
+   * Method under test: {@link StockController#streamChanges(long)}
+   */
+  @Test
+  public void testStreamChanges() throws Exception {
+    // Arrange
+    Stock stock = new Stock();
+    stock.setCompanyName("Company Name");
+    stock.setId("42");
+    stock.setPrice(100_000L);
+    stock.setSymbol("Symbol");
+    when(stockService.forEachChangeSince(Mockito.eq(7L), Mockito.any())).thenAnswer(invocation -> {
+      Consumer<StockChange> action = invocation.getArgument(1);
+      action.accept(StockChange.upsert(stock));
+      action.accept(StockChange.delete("43"));
+      return 9L;
+    });
+    MockMvc mockMvc = MockMvcBuilders.standaloneSetup(stockController).build();
+
+    // Act
+    MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/stocks/changes").param("since", "7"))
+            .andExpect(MockMvcResultMatchers.request().asyncStarted())
+            .andReturn();
+
+    // Assert
+    mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.content().string(
+                    "{\"type\":\"UPSERT\",\"id\":\"42\",\"stock\":{\"id\":\"42\",\"symbol\":\"Symbol\","
+                            + "\"companyName\":\"Company Name\",\"price\":10.0}}\n"
+                            + "{\"type\":\"DELETE\",\"id\":\"43\"}\n"
+                            + "{\"type\":\"CHECKPOINT\",\"token\":\"9\"}\n"));
+  }
+
+  /**
+   * Method under test: {@link StockController#streamChanges(long)}
+   */
+  @Test
+  public void testStreamChanges2() throws Exception {
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(stockController)
+            .build()
+            .perform(MockMvcRequestBuilders.get("/stocks/changes").param("since", "not-a-token"))
+            .andExpect(MockMvcResultMatchers.status().isBadRequest());
+  }
+
+  /**
+   * Method under test: {@link StockController#streamChanges(long)}
+   */
+  @Test
+  public void testStreamChanges3() throws Exception {
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(stockController)
+            .build()
+            .perform(MockMvcRequestBuilders.get("/stocks/changes").param("since", "-1"))
+            .andExpect(MockMvcResultMatchers.status().isBadRequest())
+            .andExpect(MockMvcResultMatchers.request().asyncNotStarted());
+    verify(stockService, never()).forEachChangeSince(Mockito.anyLong(), Mockito.any());
+  }
+
   /**
    * Method under test: {@link StockController#getStockById(String)}
    *
@@ -92,7 +381,7 @@ public class StockControllerTest {
     Stock stock = new Stock();
     stock.setCompanyName("Company Name");
     stock.setId("42");
-    stock.setPrice(10.0d);
+    stock.setPrice(100_000L);
     stock.setSymbol("Symbol");
     Optional<Stock> ofResult = Optional.of(stock);
     when(stockService.getStockById(Mockito.any())).thenReturn(ofResult);
@@ -103,11 +392,63 @@ public class StockControllerTest {
             .build()
             .perform(requestBuilder)
             .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.header().exists("ETag"))
             .andExpect(MockMvcResultMatchers.content().contentType("application/json"))
             .andExpect(MockMvcResultMatchers.content()
                     .string("{\"id\":\"42\",\"symbol\":\"Symbol\",\"companyName\":\"Company Name\",\"price\":10.0}"));
   }
 
+  /**
+   * Method under test: {@link StockController#getStockById(String)}
+   */
+  @Test
+  public void testGetStockById2() throws Exception {
+    // Arrange
+    Stock stock = new Stock();
+    stock.setCompanyName("Company Name");
+    stock.setId("42");
+    stock.setPrice(100_000L);
+    stock.setSymbol("Symbol");
+    stock.setVersion(4L);
+    stock.setUpdatedAt(Instant.ofEpochMilli(1_700_000_000_000L));
+    when(stockService.getStockById("42")).thenReturn(Optional.of(stock));
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/stocks/{id}", "42")
+            .header("If-None-Match", "\"4\"");
+
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(stockController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isNotModified())
+            .andExpect(MockMvcResultMatchers.header().string("ETag", "\"4\""))
+            .andExpect(MockMvcResultMatchers.header().string("Last-Modified", "Tue, 14 Nov 2023 22:13:20 GMT"))
+            .andExpect(MockMvcResultMatchers.content().string(""));
+  }
+
+  /**
+   * Method under test: {@link StockController#getStockBySymbol(String)}
+   */
+  @Test
+  public void testGetStockBySymbol() throws Exception {
+    // Arrange
+    Stock stock = new Stock();
+    stock.setCompanyName("Company Name");
+    stock.setId("42");
+    stock.setPrice(100_000L);
+    stock.setSymbol("UU9");
+    when(stockService.getStockBySymbol("UU9")).thenReturn(Optional.of(stock));
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/stocks/symbol/{symbol}", "UU9");
+
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(stockController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.content().contentType("application/json"))
+            .andExpect(MockMvcResultMatchers.content()
+                    .string("{\"id\":\"42\",\"symbol\":\"UU9\",\"companyName\":\"Company Name\",\"price\":10.0}"));
+  }
+
   /**
    * Method under test: {@link StockController#createStock(RequestStockDto)}
    *
@@ -119,7 +460,7 @@ public class StockControllerTest {
     Stock stock = new Stock();
     stock.setCompanyName("Company Name");
     stock.setId("42");
-    stock.setPrice(10.0d);
+    stock.setPrice(100_000L);
     stock.setSymbol("Symbol");
     when(stockService.createStock(Mockito.any())).thenReturn(stock);
     MockHttpServletRequestBuilder contentTypeResult = MockMvcRequestBuilders.post("/stocks")
@@ -127,7 +468,7 @@ public class StockControllerTest {
 
     ObjectMapper objectMapper = new ObjectMapper();
     MockHttpServletRequestBuilder requestBuilder = contentTypeResult
-            .content(objectMapper.writeValueAsString(new RequestStockDto("Symbol", "Company Name", 10.0d)));
+            .content(objectMapper.writeValueAsString(new RequestStockDto("Symbol", "Company Name", 100_000L)));
 
     // Act and Assert
     MockMvcBuilders.standaloneSetup(stockController)
@@ -140,7 +481,99 @@ public class StockControllerTest {
   }
 
   /**
-   * Method under test: {@link StockController#updateStock(String, Stock)}
+   * Method under test: {@link StockController#createStock(RequestStockDto)}
+   */
+  @Test
+  public void testCreateStock2() throws Exception {
+    // Arrange
+    Stock stock = new Stock("42", "Symbol", "Company Name", 100_000L, 0L, null);
+    when(stockService.createStock(Mockito.any())).thenReturn(stock);
+    ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+    RequestStockDto request = new RequestStockDto("Symbol", "Company Name", 100_000L);
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.post("/stocks")
+            .contentType(MediaType.APPLICATION_CBOR)
+            .accept(MediaType.APPLICATION_CBOR)
+            .content(cborMapper.writeValueAsBytes(request));
+
+    // Act
+    MvcResult result = MockMvcBuilders.standaloneSetup(stockController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR))
+            .andReturn();
+
+    // Assert
+    verify(stockService).createStock(request);
+    Stock actualStock = cborMapper.readValue(result.getResponse().getContentAsByteArray(), Stock.class);
+    assertEquals("42", actualStock.getId());
+    assertEquals(100_000L, actualStock.getPrice());
+  }
+
+  /**
+   * Method under test:
+   * {@link StockController#importStocks(java.io.InputStream, jakarta.servlet.http.HttpServletResponse)}
+   */
+  @Test
+  public void testImportStocks() throws Exception {
+    // Arrange
+    List<RequestStockDto> imported = new ArrayList<>();
+    doAnswer(invocation -> {
+      Iterator<RequestStockDto> requests = invocation.getArgument(0);
+      Consumer<StockImportResult> results = invocation.getArgument(1);
+      requests.forEachRemaining(imported::add);
+      results.accept(StockImportResult.rejected(1, "$", "Validation failed."));
+      results.accept(new StockImportResult(0, true, "42", "UU9", null));
+      return null;
+    }).when(stockService).importStocks(Mockito.any(), Mockito.any());
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.post("/stocks/batch")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .content("{\"symbol\":\"UU9\",\"companyName\":\"Company Name\",\"price\":10.0}\n"
+                    + "{\"symbol\":\"$\",\"companyName\":\"Company Name\",\"price\":10.0}\n");
+
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(stockController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.content().contentType("application/x-ndjson"))
+            .andExpect(MockMvcResultMatchers.content()
+                    .string("{\"index\":1,\"success\":false,\"id\":null,\"symbol\":\"$\",\"message\":\"Validation failed.\"}\n"
+                            + "{\"index\":0,\"success\":true,\"id\":\"42\",\"symbol\":\"UU9\",\"message\":null}\n"));
+    assertEquals(List.of(new RequestStockDto("UU9", "Company Name", 100_000L),
+            new RequestStockDto("$", "Company Name", 100_000L)), imported);
+  }
+
+  /**
+   * Method under test:
+   * {@link StockController#importStocks(java.io.InputStream, jakarta.servlet.http.HttpServletResponse)}
+   */
+  @Test
+  public void testImportStocks2() throws Exception {
+    // Arrange
+    List<RequestStockDto> imported = new ArrayList<>();
+    doAnswer(invocation -> {
+      Iterator<RequestStockDto> requests = invocation.getArgument(0);
+      requests.forEachRemaining(imported::add);
+      return null;
+    }).when(stockService).importStocks(Mockito.any(), Mockito.any());
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.post("/stocks/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[{\"symbol\":\"UU9\",\"companyName\":\"Company Name\",\"price\":10.0}, {\"symbol\":");
+
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(stockController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.content().string(
+                    startsWith("{\"index\":-1,\"success\":false,\"id\":null,\"symbol\":null,"
+                            + "\"message\":\"Malformed request body: ")));
+    assertEquals(List.of(new RequestStockDto("UU9", "Company Name", 100_000L)), imported);
+  }
+
+  /**
+   * Method under test: {@link StockController#updateStock(String, Stock, String)}
    *
    * @author Moisés Oliveira
    */
@@ -150,7 +583,7 @@ public class StockControllerTest {
     Stock stock = new Stock();
     stock.setCompanyName("Company Name");
     stock.setId("42");
-    stock.setPrice(10.0d);
+    stock.setPrice(100_000L);
     stock.setSymbol("Symbol");
     Optional<Stock> ofResult = Optional.of(stock);
     when(stockService.updateStock(Mockito.any(), Mockito.any())).thenReturn(ofResult);
@@ -158,7 +591,7 @@ public class StockControllerTest {
     Stock stock2 = new Stock();
     stock2.setCompanyName("Company Name");
     stock2.setId("42");
-    stock2.setPrice(10.0d);
+    stock2.setPrice(100_000L);
     stock2.setSymbol("Symbol");
     String content = (new ObjectMapper()).writeValueAsString(stock2);
     MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.put("/stocks/{id}", "42")
@@ -175,6 +608,78 @@ public class StockControllerTest {
                     .string("{\"id\":\"42\",\"symbol\":\"Symbol\",\"companyName\":\"Company Name\",\"price\":10.0}"));
   }
 
+  /**
+   * Method under test: {@link StockController#updateStock(String, Stock, String)}
+   */
+  @Test
+  public void testUpdateStock2() throws Exception {
+    // Arrange
+    Stock stock = new Stock();
+    stock.setCompanyName("Company Name");
+    stock.setId("42");
+    stock.setPrice(100_000L);
+    stock.setSymbol("Symbol");
+    stock.setVersion(4L);
+    when(stockService.updateStock(Mockito.eq("42"), Mockito.any(), Mockito.eq(3L))).thenReturn(Optional.of(stock));
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.put("/stocks/{id}", "42")
+            .header("If-Match", "\"3\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"symbol\":\"Symbol\",\"companyName\":\"Company Name\",\"price\":10.0}");
+
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(stockController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.header().string("ETag", "\"4\""))
+            .andExpect(MockMvcResultMatchers.content()
+                    .string("{\"id\":\"42\",\"symbol\":\"Symbol\",\"companyName\":\"Company Name\",\"price\":10.0}"));
+  }
+
+  /**
+   * Method under test: {@link StockController#updateStock(String, Stock, String)}
+   */
+  @Test
+  public void testUpdateStock3() throws Exception {
+    // Arrange
+    when(stockService.updateStock(Mockito.eq("42"), Mockito.any(), Mockito.eq(3L)))
+            .thenThrow(new StaleStockVersionException("42", 3L));
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.put("/stocks/{id}", "42")
+            .header("If-Match", "\"3\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"symbol\":\"Symbol\",\"companyName\":\"Company Name\",\"price\":10.0}");
+
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(stockController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+  }
+
+  /**
+   * Method under test: {@link StockController#adjustPrice(String, com.mandacarubroker.domain.stock.PriceAdjustmentDto)}
+   */
+  @Test
+  public void testAdjustPrice() throws Exception {
+    // Arrange
+    StockPriceView adjusted = new SpelAwareProxyProjectionFactory()
+            .createProjection(StockPriceView.class, Map.of("id", "42", "symbol", "UU9", "price", 115_000L));
+    when(stockService.adjustPrice("42", 15_000L)).thenReturn(Optional.of(adjusted));
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+            .post("/stocks/{id}/price-adjustments", "42")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"delta\":1.5}");
+
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(stockController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$.id").value("42"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.symbol").value("UU9"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.price").value(11.5d));
+  }
+
   /**
    * Method under test: {@link StockController#deleteStock(String)}
    *
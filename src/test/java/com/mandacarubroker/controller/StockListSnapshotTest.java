@@ -0,0 +1,132 @@
+package com.mandacarubroker.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.domain.stock.StockDeletedEvent;
+import com.mandacarubroker.domain.stock.StockPriceChangedEvent;
+import com.mandacarubroker.domain.stock.StockSavedEvent;
+import com.mandacarubroker.domain.stock.StockWatermark;
+import com.mandacarubroker.service.StockService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StockListSnapshotTest {
+
+  private static final StockWatermark WATERMARK = new StockWatermark(1L, Instant.ofEpochMilli(1_700_000_000_000L));
+
+  private StockService stockService;
+  private StockListSnapshot snapshot;
+
+  @Before
+  public void setUp() {
+    stockService = Mockito.mock(StockService.class);
+    when(stockService.getAllStocks()).thenReturn(List.of(new Stock("42", "UU9", "Company Name", 100_000L, 0L, null)));
+    when(stockService.getWatermark()).thenReturn(WATERMARK);
+    snapshot = new StockListSnapshot(stockService, new ObjectMapper(), 60_000L);
+  }
+
+  /**
+   * Method under test: {@link StockListSnapshot#get(StockWatermark)}
+   */
+  @Test
+  public void testGet() throws Exception {
+    // Arrange and Act
+    StockListSnapshot.Encoded first = snapshot.get(WATERMARK);
+    StockListSnapshot.Encoded second = snapshot.get(WATERMARK);
+
+    // Assert
+    assertSame(first, second);
+    verify(stockService, times(1)).getAllStocks();
+    String json = "[{\"id\":\"42\",\"symbol\":\"UU9\",\"companyName\":\"Company Name\",\"price\":10.0}]";
+    assertEquals(json, new String(first.json(), StandardCharsets.UTF_8));
+    try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(first.gzip()))) {
+      assertEquals(json, new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+    }
+  }
+
+  /**
+   * Method under test: {@link StockListSnapshot#get(StockWatermark)}
+   */
+  @Test
+  public void testGet2() {
+    // Arrange
+    snapshot.get(WATERMARK);
+
+    // Act
+    snapshot.get(new StockWatermark(2L, WATERMARK.lastModified()));
+
+    // Assert
+    verify(stockService, times(2)).getAllStocks();
+  }
+
+  /**
+   * Methods under test: {@link StockListSnapshot#onStockSaved(StockSavedEvent)},
+   * {@link StockListSnapshot#onStockDeleted(StockDeletedEvent)} and
+   * {@link StockListSnapshot#onStockPriceChanged(StockPriceChangedEvent)}
+   */
+  @Test
+  public void testOnStockChanged() {
+    // Arrange
+    snapshot.get(WATERMARK);
+
+    // Act and Assert
+    snapshot.onStockSaved(new StockSavedEvent(new Stock()));
+    snapshot.get(WATERMARK);
+    snapshot.get(WATERMARK);
+    verify(stockService, times(2)).getAllStocks();
+    snapshot.onStockDeleted(new StockDeletedEvent("42"));
+    snapshot.get(WATERMARK);
+    verify(stockService, times(3)).getAllStocks();
+    snapshot.onStockPriceChanged(new StockPriceChangedEvent("UU9", 1L));
+    snapshot.get(WATERMARK);
+    verify(stockService, times(4)).getAllStocks();
+  }
+
+  /**
+   * Method under test: {@link StockListSnapshot#watermark()}
+   */
+  @Test
+  public void testWatermark() {
+    // Arrange and Act
+    StockWatermark first = snapshot.watermark();
+    StockWatermark second = snapshot.watermark();
+
+    // Assert
+    assertEquals(WATERMARK, first);
+    assertSame(first, second);
+    verify(stockService, times(1)).getWatermark();
+    snapshot.onStockSaved(new StockSavedEvent(new Stock()));
+    snapshot.watermark();
+    snapshot.watermark();
+    verify(stockService, times(2)).getWatermark();
+  }
+
+  /**
+   * Method under test: {@link StockListSnapshot#watermark()}
+   */
+  @Test
+  public void testWatermark2() {
+    // Arrange
+    snapshot = new StockListSnapshot(stockService, new ObjectMapper(), 0L);
+
+    // Act
+    snapshot.watermark();
+    snapshot.watermark();
+
+    // Assert
+    verify(stockService, times(2)).getWatermark();
+  }
+}
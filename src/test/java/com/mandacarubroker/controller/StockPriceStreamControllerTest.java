@@ -0,0 +1,48 @@
+package com.mandacarubroker.controller;
+
+import com.mandacarubroker.service.StockPriceBroadcaster;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ContextConfiguration(classes = {StockPriceStreamController.class})
+@RunWith(SpringJUnit4ClassRunner.class)
+public class StockPriceStreamControllerTest {
+  @Autowired
+  private StockPriceStreamController stockPriceStreamController;
+
+  @MockBean
+  private StockPriceBroadcaster stockPriceBroadcaster;
+
+  /**
+   * Method under test: {@link StockPriceStreamController#streamPrices(Set)}
+   */
+  @Test
+  public void testStreamPrices() throws Exception {
+    // Arrange
+    when(stockPriceBroadcaster.subscribe(Set.of("UU9", "AB1"))).thenReturn(new SseEmitter());
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/stocks/prices/stream")
+            .param("symbols", "UU9,AB1");
+
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(stockPriceStreamController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.request().asyncStarted());
+    verify(stockPriceBroadcaster).subscribe(Set.of("UU9", "AB1"));
+  }
+}
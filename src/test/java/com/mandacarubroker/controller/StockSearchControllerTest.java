@@ -0,0 +1,68 @@
+package com.mandacarubroker.controller;
+
+import com.mandacarubroker.domain.search.StockSearchHit;
+import com.mandacarubroker.service.InvalidStockSearchQueryException;
+import com.mandacarubroker.service.StockSearchService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+@ContextConfiguration(classes = {StockSearchController.class})
+@RunWith(SpringJUnit4ClassRunner.class)
+public class StockSearchControllerTest {
+  @Autowired
+  private StockSearchController stockSearchController;
+
+  @MockBean
+  private StockSearchService stockSearchService;
+
+  /**
+   * Method under test: {@link StockSearchController#search(String, int)}
+   */
+  @Test
+  public void testSearch() throws Exception {
+    // Arrange
+    when(stockSearchService.search("bras", StockSearchService.DEFAULT_LIMIT))
+            .thenReturn(List.of(new StockSearchHit("2", "BB3", "Banco do Brasil")));
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/stocks/search").param("q", "bras");
+
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(stockSearchController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isOk())
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value("2"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].symbol").value("BB3"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$[0].companyName").value("Banco do Brasil"));
+  }
+
+  /**
+   * Method under test: {@link StockSearchController#search(String, int)}
+   */
+  @Test
+  public void testSearch2() throws Exception {
+    // Arrange
+    when(stockSearchService.search("bras", 1000))
+            .thenThrow(new InvalidStockSearchQueryException("The limit must be between 1 and 100"));
+    MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/stocks/search")
+            .param("q", "bras")
+            .param("limit", "1000");
+
+    // Act and Assert
+    MockMvcBuilders.standaloneSetup(stockSearchController)
+            .build()
+            .perform(requestBuilder)
+            .andExpect(MockMvcResultMatchers.status().isBadRequest());
+  }
+}
@@ -0,0 +1,166 @@
+package com.mandacarubroker.domain.journal;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class StockJournalTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Method under test: {@link StockJournal#recover(long, java.util.function.Consumer)}
+   */
+  @Test
+  public void testRecover() throws IOException {
+    // Arrange
+    Path directory = folder.getRoot().toPath();
+    JournalRecord saved = new JournalRecord(JournalRecordType.SAVE, "42", "UU9", "Company Name", 100_000L, 3L,
+            Instant.parse("2024-01-02T09:00:00.123456Z"));
+    try (StockJournal journal = new StockJournal(directory, 4096, FsyncPolicy.ALWAYS)) {
+      journal.recover(0, record -> { });
+      assertEquals(1, journal.append(saved));
+      assertEquals(2, journal.append(JournalRecord.priceChanged("UU9", 110_000L)));
+      assertEquals(3, journal.append(JournalRecord.deleted("42")));
+    }
+
+    // Act
+    List<JournalRecord> all = new ArrayList<>();
+    List<JournalRecord> tail = new ArrayList<>();
+    StockJournal reopened = new StockJournal(directory, 4096, FsyncPolicy.ALWAYS);
+    long last = reopened.recover(0, all::add);
+    new StockJournal(directory, 4096, FsyncPolicy.ALWAYS).recover(2, tail::add);
+
+    // Assert
+    assertEquals(3, last);
+    assertEquals(List.of(saved, JournalRecord.priceChanged("UU9", 110_000L), JournalRecord.deleted("42")), all);
+    assertEquals(List.of(JournalRecord.deleted("42")), tail);
+    assertEquals(4, reopened.append(JournalRecord.deleted("43")));
+  }
+
+  /**
+   * Method under test: {@link StockJournal#recover(long, java.util.function.Consumer)}
+   */
+  @Test
+  public void testRecover2() throws IOException {
+    // Arrange
+    Path directory = folder.getRoot().toPath();
+    try (StockJournal journal = new StockJournal(directory, 4096, FsyncPolicy.NEVER)) {
+      journal.recover(0, record -> { });
+      journal.append(JournalRecord.priceChanged("UU9", 100_000L));
+      journal.append(JournalRecord.priceChanged("UU9", 110_000L));
+      journal.append(JournalRecord.priceChanged("UU9", 120_000L));
+    }
+    Path segment = segments(directory).get(0);
+    try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+      int second = StockJournal.HEADER_SIZE + recordLength();
+      file.seek(second + StockJournal.HEADER_SIZE + 2);
+      file.write(0x7F);
+    }
+
+    // Act
+    List<JournalRecord> records = new ArrayList<>();
+    StockJournal journal = new StockJournal(directory, 4096, FsyncPolicy.NEVER);
+    long last = journal.recover(0, records::add);
+    long appended = journal.append(JournalRecord.priceChanged("UU9", 130_000L));
+    journal.close();
+    List<JournalRecord> recovered = new ArrayList<>();
+    new StockJournal(directory, 4096, FsyncPolicy.NEVER).recover(0, recovered::add);
+
+    // Assert
+    assertEquals(1, last);
+    assertEquals(List.of(JournalRecord.priceChanged("UU9", 100_000L)), records);
+    assertEquals(2, appended);
+    assertEquals(List.of(JournalRecord.priceChanged("UU9", 100_000L), JournalRecord.priceChanged("UU9", 130_000L)),
+            recovered);
+  }
+
+  /**
+   * Method under test: {@link StockJournal#append(JournalRecord)}
+   */
+  @Test
+  public void testAppend() throws IOException {
+    // Arrange
+    Path directory = folder.getRoot().toPath();
+    int segmentSize = 2 * (StockJournal.HEADER_SIZE + recordLength());
+    StockJournal journal = new StockJournal(directory, segmentSize, FsyncPolicy.INTERVAL);
+    journal.recover(0, record -> { });
+
+    // Act
+    for (int i = 0; i < 5; i++) {
+      journal.append(JournalRecord.priceChanged("UU9", 100_000L + i));
+    }
+    journal.deleteSegmentsThrough(3);
+    journal.close();
+
+    // Assert
+    List<JournalRecord> records = new ArrayList<>();
+    long last = new StockJournal(directory, segmentSize, FsyncPolicy.INTERVAL).recover(2, records::add);
+    assertEquals(5, last);
+    assertEquals(2, segments(directory).size());
+    assertEquals(List.of(JournalRecord.priceChanged("UU9", 100_002L), JournalRecord.priceChanged("UU9", 100_003L),
+            JournalRecord.priceChanged("UU9", 100_004L)), records);
+  }
+
+  /**
+   * Method under test: {@link StockJournal#append(JournalRecord)}
+   */
+  @Test
+  public void testAppend2() throws IOException {
+    // Arrange
+    StockJournal journal = new StockJournal(folder.getRoot().toPath(), 64, FsyncPolicy.NEVER);
+
+    // Act and Assert
+    assertThrows(IllegalStateException.class, () -> journal.append(JournalRecord.deleted("42")));
+    journal.recover(0, record -> { });
+    assertThrows(IllegalArgumentException.class,
+            () -> journal.append(JournalRecord.deleted("a very long identifier that cannot fit")));
+  }
+
+  /**
+   * Method under test: {@link StockJournal#recover(long, java.util.function.Consumer)}
+   */
+  @Test
+  public void testRecover3() throws IOException {
+    // Arrange
+    Path directory = folder.getRoot().toPath();
+    try (StockJournal journal = new StockJournal(directory, 4096, FsyncPolicy.NEVER)) {
+      journal.recover(0, record -> { });
+      journal.append(JournalRecord.deleted("42"));
+    }
+
+    // Act
+    StockJournal journal = new StockJournal(directory, 4096, FsyncPolicy.NEVER);
+    long last = journal.recover(10, record -> { });
+
+    // Assert
+    assertEquals(10, last);
+    assertEquals(11, journal.append(JournalRecord.deleted("43")));
+    assertEquals(1, segments(directory).size());
+    assertTrue(segments(directory).get(0).getFileName().toString().endsWith("00011.log"));
+  }
+
+  /** The payload length of a price change record for a three-letter symbol. */
+  private static int recordLength() {
+    return 4 + (4 + 3) + 4 + 8 + 1 + 8 + 1 + 8 + 4;
+  }
+
+  private static List<Path> segments(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(file -> file.toString().endsWith(".log")).sorted().toList();
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.mandacarubroker.domain.journal;
+
+import com.mandacarubroker.domain.stock.Stock;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StockSnapshotStoreTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Method under test: {@link StockSnapshotStore#readLatest()}
+   */
+  @Test
+  public void testReadLatest() throws IOException {
+    // Arrange
+    StockSnapshotStore store = new StockSnapshotStore(folder.getRoot().toPath(), true);
+    Stock stock = new Stock("42", "UU9", "Company Name", 100_000L, 3L, Instant.parse("2024-01-02T09:00:00Z"));
+    Stock unsaved = new Stock("43", null, "Company Name", 50_000L, null, null);
+    store.write(new StockSnapshot(5, List.of(stock)));
+    store.write(new StockSnapshot(9, List.of(stock, unsaved)));
+
+    // Act
+    StockSnapshot snapshot = store.readLatest().orElseThrow();
+
+    // Assert
+    assertEquals(9, snapshot.sequence());
+    assertEquals(2, snapshot.stocks().size());
+    Stock read = snapshot.stocks().get(0);
+    assertEquals("UU9", read.getSymbol());
+    assertEquals("Company Name", read.getCompanyName());
+    assertEquals(100_000L, read.getPrice());
+    assertEquals(3L, (long) read.getVersion());
+    assertEquals(Instant.parse("2024-01-02T09:00:00Z"), read.getUpdatedAt());
+    assertEquals(null, snapshot.stocks().get(1).getSymbol());
+    assertEquals(null, snapshot.stocks().get(1).getVersion());
+  }
+
+  /**
+   * Method under test: {@link StockSnapshotStore#readLatest()}
+   */
+  @Test
+  public void testReadLatest2() throws IOException {
+    // Arrange
+    Path directory = folder.getRoot().toPath();
+    StockSnapshotStore store = new StockSnapshotStore(directory, false);
+    store.write(new StockSnapshot(5, List.of(new Stock("42", "UU9", "Company Name", 100_000L, 3L, null))));
+    store.write(new StockSnapshot(9, List.of(new Stock("42", "UU9", "Company Name", 110_000L, 4L, null))));
+    try (RandomAccessFile file = new RandomAccessFile(
+            directory.resolve("snapshot-00000000000000000009.snap").toFile(), "rw")) {
+      file.seek(30);
+      file.write(0x7F);
+    }
+
+    // Act
+    Optional<StockSnapshot> snapshot = store.readLatest();
+
+    // Assert
+    assertEquals(5, snapshot.orElseThrow().sequence());
+    assertEquals(100_000L, snapshot.get().stocks().get(0).getPrice());
+  }
+
+  /**
+   * Method under test: {@link StockSnapshotStore#prune(int)}
+   */
+  @Test
+  public void testPrune() throws IOException {
+    // Arrange
+    StockSnapshotStore store = new StockSnapshotStore(folder.getRoot().toPath(), false);
+    assertTrue(store.prune(2).isEmpty());
+    for (long sequence = 1; sequence <= 4; sequence++) {
+      store.write(new StockSnapshot(sequence, List.of()));
+    }
+
+    // Act and Assert
+    assertEquals(Optional.of(3L), store.prune(2));
+    assertEquals(2, folder.getRoot().list().length);
+  }
+}
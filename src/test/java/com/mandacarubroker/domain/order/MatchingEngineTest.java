@@ -0,0 +1,120 @@
+package com.mandacarubroker.domain.order;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MatchingEngineTest {
+  /**
+   * Method under test: {@link MatchingEngine#submit(Order)}
+   */
+  @Test
+  public void testSubmit() throws Exception {
+    // Arrange
+    List<Trade> published = new CopyOnWriteArrayList<>();
+    try (MatchingEngine engine = new MatchingEngine("UU9", 16, published::add)) {
+
+      // Act
+      OrderReceipt sell = engine.submit(new Order(1, "UU9", OrderSide.SELL, OrderType.LIMIT, 100_000L, 10))
+              .get(5, TimeUnit.SECONDS);
+      OrderReceipt buy = engine.submit(new Order(2, "UU9", OrderSide.BUY, OrderType.LIMIT, 100_000L, 4))
+              .get(5, TimeUnit.SECONDS);
+
+      // Assert
+      Trade trade = new Trade("UU9", 2, 1, 100_000L, 4);
+      assertEquals(new OrderReceipt(1, "UU9", OrderStatus.NEW, 0, 10, List.of()), sell);
+      assertEquals(new OrderReceipt(2, "UU9", OrderStatus.FILLED, 4, 0, List.of(trade)), buy);
+      assertEquals(List.of(trade), published);
+    }
+  }
+
+  /**
+   * Method under test: {@link MatchingEngine#submit(Order)}
+   */
+  @Test
+  public void testSubmit2() throws Exception {
+    // Arrange
+    MatchingEngine engine = new MatchingEngine("UU9", 16, trade -> { });
+    CompletableFuture<OrderReceipt> receipt =
+            engine.submit(new Order(1, "UU9", OrderSide.BUY, OrderType.MARKET, 0, 10));
+    receipt.get(5, TimeUnit.SECONDS);
+
+    // Act
+    engine.close();
+
+    // Assert
+    assertNull(engine.submit(new Order(2, "UU9", OrderSide.BUY, OrderType.MARKET, 0, 10)));
+    assertEquals(OrderStatus.CANCELLED, receipt.get().status());
+  }
+
+  /**
+   * Method under test: {@link MatchingEngine#removeBook(String)}
+   */
+  @Test
+  public void testRemoveBook() throws Exception {
+    // Arrange
+    try (MatchingEngine engine = new MatchingEngine("0", 16, trade -> { })) {
+      engine.submit(new Order(1, "UU9", OrderSide.SELL, OrderType.LIMIT, 100_000L, 10));
+      engine.submit(new Order(2, "AB1", OrderSide.SELL, OrderType.LIMIT, 50_000L, 10));
+
+      // Act
+      engine.removeBook("UU9");
+
+      // Assert
+      OrderReceipt removed = engine.submit(new Order(3, "UU9", OrderSide.BUY, OrderType.MARKET, 0, 4))
+              .get(5, TimeUnit.SECONDS);
+      OrderReceipt kept = engine.submit(new Order(4, "AB1", OrderSide.BUY, OrderType.MARKET, 0, 4))
+              .get(5, TimeUnit.SECONDS);
+      assertEquals(OrderStatus.CANCELLED, removed.status());
+      assertEquals(OrderStatus.FILLED, kept.status());
+    }
+  }
+
+  /**
+   * Method under test: {@link MatchingEngine#removeBook(String)}
+   */
+  @Test(timeout = 10_000)
+  public void testRemoveBook2() throws Exception {
+    // Arrange: the engine thread is stuck in a trade listener and its buffer is full.
+    CountDownLatch matched = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    try (MatchingEngine engine = new MatchingEngine("0", 4, trade -> {
+      matched.countDown();
+      await(release);
+    })) {
+      engine.submit(new Order(1, "UU9", OrderSide.SELL, OrderType.LIMIT, 100_000L, 10));
+      engine.submit(new Order(2, "UU9", OrderSide.BUY, OrderType.LIMIT, 100_000L, 1));
+      await(matched);
+      long id = 3;
+      while (engine.submit(new Order(id++, "AB1", OrderSide.SELL, OrderType.LIMIT, 50_000L, 1)) != null) {
+        Thread.onSpinWait();
+      }
+
+      // Act
+      engine.removeBook("UU9");
+      release.countDown();
+
+      // Assert
+      CompletableFuture<OrderReceipt> receipt;
+      while ((receipt = engine.submit(new Order(id++, "UU9", OrderSide.BUY, OrderType.MARKET, 0, 4))) == null) {
+        Thread.onSpinWait();
+      }
+      assertEquals(OrderStatus.CANCELLED, receipt.get(5, TimeUnit.SECONDS).status());
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package com.mandacarubroker.domain.order;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class MpscRingBufferTest {
+  /**
+   * Method under test: {@link MpscRingBuffer#offer(Object)}
+   */
+  @Test
+  public void testOffer() {
+    // Arrange
+    MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(3);
+
+    // Act and Assert
+    assertEquals(4, buffer.capacity());
+    assertTrue(buffer.isEmpty());
+    for (int i = 0; i < 4; i++) {
+      assertTrue(buffer.offer(i));
+    }
+    assertFalse(buffer.offer(4));
+    assertEquals(0, (int) buffer.poll());
+    assertTrue(buffer.offer(4));
+    for (int i = 1; i <= 4; i++) {
+      assertEquals(i, (int) buffer.poll());
+    }
+    assertNull(buffer.poll());
+    assertTrue(buffer.isEmpty());
+  }
+
+  /**
+   * Method under test: {@link MpscRingBuffer#offer(Object)}
+   */
+  @Test
+  public void testOffer2() throws InterruptedException {
+    // Arrange
+    int producers = 4;
+    int perProducer = 100_000;
+    MpscRingBuffer<Long> buffer = new MpscRingBuffer<>(1024);
+    ExecutorService executor = Executors.newFixedThreadPool(producers);
+    CountDownLatch start = new CountDownLatch(1);
+    for (int p = 0; p < producers; p++) {
+      long producer = p;
+      executor.execute(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        for (long i = 0; i < perProducer; i++) {
+          while (!buffer.offer(producer * perProducer + i)) {
+            Thread.onSpinWait();
+          }
+        }
+      });
+    }
+
+    // Act
+    start.countDown();
+    long[] next = new long[producers];
+    long sum = 0;
+    for (int received = 0; received < producers * perProducer; ) {
+      Long value = buffer.poll();
+      if (value == null) {
+        Thread.onSpinWait();
+        continue;
+      }
+      int producer = (int) (value / perProducer);
+      assertEquals(next[producer]++, value % perProducer);
+      sum += value;
+      received++;
+    }
+    executor.shutdown();
+
+    // Assert
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    long n = (long) producers * perProducer;
+    assertEquals(n * (n - 1) / 2, sum);
+    assertTrue(buffer.isEmpty());
+  }
+
+  /**
+   * Method under test: {@link MpscRingBuffer#MpscRingBuffer(int)}
+   */
+  @Test
+  public void testNewMpscRingBuffer() {
+    // Arrange, Act and Assert
+    assertThrows(IllegalArgumentException.class, () -> new MpscRingBuffer<>(0));
+  }
+}
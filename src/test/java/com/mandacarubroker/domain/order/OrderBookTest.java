@@ -0,0 +1,110 @@
+package com.mandacarubroker.domain.order;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OrderBookTest {
+  /**
+   * Method under test: {@link OrderBook#match(Order, java.util.function.Consumer)}
+   */
+  @Test
+  public void testMatch() {
+    // Arrange
+    OrderBook book = new OrderBook("UU9");
+    List<Trade> trades = new ArrayList<>();
+    book.match(limit(1, OrderSide.SELL, 101_000L, 10), trades::add);
+    book.match(limit(2, OrderSide.SELL, 100_000L, 10), trades::add);
+    book.match(limit(3, OrderSide.SELL, 100_000L, 10), trades::add);
+    Order buy = limit(4, OrderSide.BUY, 101_000L, 25);
+
+    // Act
+    book.match(buy, trades::add);
+
+    // Assert
+    assertEquals(List.of(
+            new Trade("UU9", 4, 2, 100_000L, 10),
+            new Trade("UU9", 4, 3, 100_000L, 10),
+            new Trade("UU9", 4, 1, 101_000L, 5)), trades);
+    assertEquals(OrderStatus.FILLED, buy.getStatus());
+    assertEquals(OptionalLong.of(101_000L), book.getBestAsk());
+    assertEquals(5, book.getDepth(OrderSide.SELL, 101_000L));
+    assertEquals(0, book.getDepth(OrderSide.SELL, 100_000L));
+    assertTrue(book.getBestBid().isEmpty());
+  }
+
+  /**
+   * Method under test: {@link OrderBook#match(Order, java.util.function.Consumer)}
+   */
+  @Test
+  public void testMatch2() {
+    // Arrange
+    OrderBook book = new OrderBook("UU9");
+    List<Trade> trades = new ArrayList<>();
+    book.match(limit(1, OrderSide.BUY, 99_000L, 10), trades::add);
+    Order sell = limit(2, OrderSide.SELL, 100_000L, 10);
+
+    // Act
+    book.match(sell, trades::add);
+
+    // Assert
+    assertTrue(trades.isEmpty());
+    assertEquals(OrderStatus.NEW, sell.getStatus());
+    assertEquals(OptionalLong.of(99_000L), book.getBestBid());
+    assertEquals(OptionalLong.of(100_000L), book.getBestAsk());
+  }
+
+  /**
+   * Method under test: {@link OrderBook#match(Order, java.util.function.Consumer)}
+   */
+  @Test
+  public void testMatch3() {
+    // Arrange
+    OrderBook book = new OrderBook("UU9");
+    List<Trade> trades = new ArrayList<>();
+    book.match(limit(1, OrderSide.BUY, 100_000L, 5), trades::add);
+    book.match(limit(2, OrderSide.BUY, 99_000L, 5), trades::add);
+    Order sell = limit(3, OrderSide.SELL, 99_500L, 8);
+
+    // Act
+    book.match(sell, trades::add);
+
+    // Assert
+    assertEquals(List.of(new Trade("UU9", 1, 3, 100_000L, 5)), trades);
+    assertEquals(OrderStatus.PARTIALLY_FILLED, sell.getStatus());
+    assertEquals(3, sell.getRemaining());
+    assertEquals(OptionalLong.of(99_000L), book.getBestBid());
+    assertEquals(OptionalLong.of(99_500L), book.getBestAsk());
+  }
+
+  /**
+   * Method under test: {@link OrderBook#match(Order, java.util.function.Consumer)}
+   */
+  @Test
+  public void testMatch4() {
+    // Arrange
+    OrderBook book = new OrderBook("UU9");
+    List<Trade> trades = new ArrayList<>();
+    book.match(limit(1, OrderSide.SELL, 100_000L, 5), trades::add);
+    Order buy = new Order(2, "UU9", OrderSide.BUY, OrderType.MARKET, 0, 8);
+
+    // Act
+    book.match(buy, trades::add);
+
+    // Assert
+    assertEquals(List.of(new Trade("UU9", 2, 1, 100_000L, 5)), trades);
+    assertEquals(OrderStatus.CANCELLED, buy.getStatus());
+    assertEquals(5, buy.getFilled());
+    assertTrue(book.getBestAsk().isEmpty());
+    assertTrue(book.getBestBid().isEmpty());
+  }
+
+  private static Order limit(long id, OrderSide side, long price, long quantity) {
+    return new Order(id, "UU9", side, OrderType.LIMIT, price, quantity);
+  }
+}
@@ -0,0 +1,138 @@
+package com.mandacarubroker.domain.portfolio;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class PortfolioMarksTest {
+  private PortfolioMarks marks;
+
+  @Before
+  public void setUp() {
+    marks = new PortfolioMarks();
+    marks.putPortfolio("p1", "ana", 1_000_000L, 0L);
+    marks.putPortfolio("p2", "bia", 500_000L, 0L);
+    marks.putPosition("p1", "AB1", 10, 1_000_000L, 100_000L);
+    marks.putPosition("p1", "CD2", 5, 250_000L, 50_000L);
+    marks.putPosition("p2", "AB1", 2, 220_000L, 100_000L);
+  }
+
+  /**
+   * Method under test: {@link PortfolioMarks#getValuation(String)}
+   */
+  @Test
+  public void testGetValuation() {
+    // Arrange and Act
+    PortfolioValuation valuation = marks.getValuation("p1").orElseThrow();
+
+    // Assert
+    assertEquals(new PortfolioValuation("p1", "ana", 1_000_000L, 1_250_000L, 1_250_000L, 0L, 0L, 2_250_000L,
+            List.of(new PositionValuation("AB1", 10, 100_000L, 1_000_000L, 1_000_000L, 0L),
+                    new PositionValuation("CD2", 5, 50_000L, 250_000L, 250_000L, 0L))), valuation);
+    assertEquals(Optional.empty(), marks.getValuation("unknown"));
+  }
+
+  /**
+   * Method under test: {@link PortfolioMarks#markPrice(String, long)}
+   */
+  @Test
+  public void testMarkPrice() {
+    // Arrange and Act
+    marks.markPrice("AB1", 120_000L);
+    marks.markPrice("XX9", 1L);
+
+    // Assert
+    PortfolioValuation first = marks.getValuation("p1").orElseThrow();
+    assertEquals(1_450_000L, first.marketValue());
+    assertEquals(200_000L, first.unrealizedPnl());
+    assertEquals(2_450_000L, first.totalValue());
+    assertEquals(new PositionValuation("AB1", 10, 120_000L, 1_200_000L, 1_000_000L, 200_000L),
+            first.positions().get(0));
+    PortfolioValuation second = marks.getValuation("p2").orElseThrow();
+    assertEquals(240_000L, second.marketValue());
+    assertEquals(20_000L, second.unrealizedPnl());
+    assertEquals(Optional.empty(), marks.getPrice("XX9"));
+  }
+
+  /**
+   * Method under test: {@link PortfolioMarks#putPosition(String, String, long, long, long)}
+   */
+  @Test
+  public void testPutPosition() {
+    // Arrange
+    marks.markPrice("AB1", 110_000L);
+
+    // Act
+    marks.putPosition("p1", "AB1", 4, 400_000L, 100_000L);
+    marks.putPosition("p1", "CD2", 0, 0L, 50_000L);
+    marks.putPosition("p1", "EF3", 3, 30_000L, 10_000L);
+
+    // Assert
+    PortfolioValuation valuation = marks.getValuation("p1").orElseThrow();
+    assertEquals(List.of(new PositionValuation("AB1", 4, 110_000L, 440_000L, 400_000L, 40_000L),
+            new PositionValuation("EF3", 3, 10_000L, 30_000L, 30_000L, 0L)), valuation.positions());
+    assertEquals(470_000L, valuation.marketValue());
+    assertEquals(430_000L, valuation.costBasis());
+    assertEquals(Optional.empty(), marks.getPrice("CD2"));
+    assertEquals(Optional.of(110_000L), marks.getPrice("AB1"));
+    assertThrows(IllegalArgumentException.class, () -> marks.putPosition("unknown", "AB1", 1, 1L, 1L));
+  }
+
+  /**
+   * Method under test: {@link PortfolioMarks#renameSymbol(String, String)}
+   */
+  @Test
+  public void testRenameSymbol() {
+    // Arrange
+    marks.putPosition("p2", "XY9", 3, 330_000L, 100_000L);
+
+    // Act
+    marks.renameSymbol("AB1", "XY9");
+    marks.markPrice("XY9", 110_000L);
+
+    // Assert
+    assertEquals(List.of(new PositionValuation("CD2", 5, 50_000L, 250_000L, 250_000L, 0L),
+                    new PositionValuation("XY9", 10, 110_000L, 1_100_000L, 1_000_000L, 100_000L)),
+            marks.getValuation("p1").orElseThrow().positions());
+    PortfolioValuation second = marks.getValuation("p2").orElseThrow();
+    assertEquals(List.of(new PositionValuation("XY9", 5, 110_000L, 550_000L, 550_000L, 0L)), second.positions());
+    assertEquals(550_000L, second.marketValue());
+    assertEquals(Optional.empty(), marks.getPrice("AB1"));
+  }
+
+  /**
+   * Method under test: {@link PortfolioMarks#markPrice(String, long)}
+   */
+  @Test
+  public void testMarkPrice2() throws InterruptedException {
+    // Arrange
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    // Act
+    for (int t = 0; t < 4; t++) {
+      String symbol = t % 2 == 0 ? "AB1" : "CD2";
+      executor.execute(() -> {
+        for (long price = 1; price <= 10_000; price++) {
+          marks.markPrice(symbol, price);
+        }
+      });
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+    marks.markPrice("AB1", 100_000L);
+    marks.markPrice("CD2", 60_000L);
+
+    // Assert
+    assertEquals(1_300_000L, marks.getValuation("p1").orElseThrow().marketValue());
+    assertEquals(200_000L, marks.getValuation("p2").orElseThrow().marketValue());
+  }
+}
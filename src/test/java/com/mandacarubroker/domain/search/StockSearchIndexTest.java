@@ -0,0 +1,109 @@
+package com.mandacarubroker.domain.search;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StockSearchIndexTest {
+  private StockSearchIndex index;
+
+  @Before
+  public void setUp() {
+    index = new StockSearchIndex();
+    index.put("1", "PT4", "Petróleo Brasileiro S.A.");
+    index.put("2", "BB3", "Banco do Brasil");
+    index.put("3", "PE3", "Pet Center Comércio");
+    index.put("4", "VL3", "Vale S.A.");
+    index.put("5", "BR1", "Braskem");
+  }
+
+  /**
+   * Method under test: {@link StockSearchIndex#search(String, int)}
+   */
+  @Test
+  public void testSearch() {
+    // Arrange, Act and Assert
+    assertEquals(List.of("5", "2", "1"), ids(index.search("br", 10)));
+    assertEquals(List.of("3", "1"), ids(index.search("pe", 10)));
+    assertEquals(List.of("1"), ids(index.search("PETRO", 10)));
+    assertEquals(List.of("2"), ids(index.search("bb3", 10)));
+    assertEquals(List.of("2", "1", "5"), ids(index.search("bras", 10)));
+    assertEquals(List.of("5", "2"), ids(index.search("br", 2)));
+    assertEquals(List.of("5"), ids(index.search("br", 1)));
+  }
+
+  /**
+   * Method under test: {@link StockSearchIndex#search(String, int)}
+   */
+  @Test
+  public void testSearch2() {
+    // Arrange, Act and Assert
+    assertEquals(List.of("3"), ids(index.search("comercio", 10)));
+    assertEquals(List.of("4"), ids(index.search("vale s", 10)));
+    assertEquals(List.of("2"), ids(index.search("banco bras", 10)));
+    assertEquals(List.of("1"), ids(index.search("petr bras", 10)));
+    assertTrue(index.search("banco vale", 10).isEmpty());
+    assertTrue(index.search(" - ", 10).isEmpty());
+    assertTrue(index.search("br", 0).isEmpty());
+  }
+
+  /**
+   * Method under test: {@link StockSearchIndex#search(String, int)}
+   */
+  @Test
+  public void testSearch3() {
+    // Arrange, Act and Assert
+    assertEquals(List.of("5"), ids(index.search("barskem", 10)));
+    assertEquals(List.of("1"), ids(index.search("petroelo", 10)));
+    assertEquals(List.of("2"), ids(index.search("bamco", 10)));
+    assertTrue(index.search("bnk", 10).isEmpty());
+  }
+
+  /**
+   * Method under test: {@link StockSearchIndex#put(String, String, String)}
+   */
+  @Test
+  public void testPut() {
+    // Arrange and Act
+    index.put("5", "BK1", "Braskem Petroquímica");
+
+    // Assert
+    assertEquals(5, index.size());
+    assertEquals(List.of("2", "1", "5"), ids(index.search("br", 10)));
+    assertEquals(List.of("5"), ids(index.search("bk", 10)));
+    assertEquals(List.of(new StockSearchHit("5", "BK1", "Braskem Petroquímica")), index.search("petroq", 1));
+  }
+
+  /**
+   * Method under test: {@link StockSearchIndex#remove(String)}
+   */
+  @Test
+  public void testRemove() {
+    // Arrange and Act
+    index.remove("2");
+    index.remove("unknown");
+
+    // Assert
+    assertEquals(4, index.size());
+    assertEquals(List.of("5", "1"), ids(index.search("br", 10)));
+  }
+
+  /**
+   * Method under test: {@link StockSearchIndex#terms(String)}
+   */
+  @Test
+  public void testTerms() {
+    // Arrange, Act and Assert
+    assertEquals(List.of("petroleo", "brasileiro", "s", "a"), StockSearchIndex.terms("Petróleo Brasileiro S.A."));
+    assertEquals(List.of("ab1"), StockSearchIndex.terms("ab1 AB1"));
+    assertTrue(StockSearchIndex.terms(null).isEmpty());
+  }
+
+  private static List<String> ids(List<StockSearchHit> hits) {
+    return hits.stream().map(StockSearchHit::id).toList();
+  }
+}
@@ -0,0 +1,153 @@
+package com.mandacarubroker.domain.stock;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class PriceTest {
+  /**
+   * Method under test: {@link Price#parse(CharSequence)}
+   */
+  @Test
+  public void testParse() {
+    // Arrange, Act and Assert
+    assertEquals(100_000L, Price.parse("10"));
+    assertEquals(100_000L, Price.parse("10.0"));
+    assertEquals(-5_000L, Price.parse("-0.5"));
+    assertEquals(331_234L, Price.parse("33.1234"));
+    assertEquals(1L, Price.parse("0.00005"));
+    assertEquals(10_000L, Price.parse("0.99995"));
+    assertEquals(5_000L, Price.parse(".5"));
+  }
+
+  /**
+   * Method under test: {@link Price#parse(CharSequence)}
+   */
+  @Test
+  public void testParse2() {
+    // Arrange, Act and Assert
+    assertThrows(NumberFormatException.class, () -> Price.parse(""));
+    assertThrows(NumberFormatException.class, () -> Price.parse("-"));
+    assertThrows(NumberFormatException.class, () -> Price.parse("1e3"));
+    assertThrows(NumberFormatException.class, () -> Price.parse("10.0.0"));
+    assertThrows(NumberFormatException.class, () -> Price.parse("9223372036854775807"));
+  }
+
+  /**
+   * Method under test: {@link Price#toString(long)}
+   */
+  @Test
+  public void testToString() {
+    // Arrange, Act and Assert
+    assertEquals("10.0", Price.toString(100_000L));
+    assertEquals("-0.5", Price.toString(-5_000L));
+    assertEquals("0.0001", Price.toString(1L));
+    assertEquals("33.05", Price.toString(330_500L));
+    assertEquals("0.0", Price.toString(0L));
+    assertEquals("-922337203685477.5808", Price.toString(Long.MIN_VALUE));
+  }
+
+  /**
+   * Method under test: {@link Price#add(long, long)}
+   */
+  @Test
+  public void testAdd() {
+    // Arrange
+    long price = 0L;
+
+    // Act
+    for (int i = 0; i < 10; i++) {
+      price = Price.add(price, Price.parse("0.1"));
+    }
+
+    // Assert
+    assertEquals(Price.parse("1.0"), price);
+    assertThrows(ArithmeticException.class, () -> Price.add(Long.MAX_VALUE, 1L));
+  }
+
+  /**
+   * Methods under test: {@link PriceSerializer} and {@link PriceDeserializer}
+   */
+  @Test
+  public void testJson() throws Exception {
+    // Arrange
+    ObjectMapper objectMapper = new ObjectMapper();
+    Stock stock = new Stock();
+    stock.setId("42");
+    stock.setSymbol("UU9");
+    stock.setCompanyName("Company Name");
+    stock.setPrice(331_234L);
+
+    // Act
+    String json = objectMapper.writeValueAsString(stock);
+    Stock actualStock = objectMapper.readValue(json, Stock.class);
+
+    // Assert
+    assertEquals("{\"id\":\"42\",\"symbol\":\"UU9\",\"companyName\":\"Company Name\",\"price\":33.1234}", json);
+    assertEquals(331_234L, actualStock.getPrice());
+    assertEquals(new PriceTick("UU9", 15_000L), objectMapper.readValue("{\"symbol\":\"UU9\",\"price\":\"1.5\"}",
+            PriceTick.class));
+    assertEquals(new PriceTick("UU9", 15_000L), objectMapper.readValue("{\"symbol\":\"UU9\",\"price\":1.5e0}",
+            PriceTick.class));
+  }
+
+  /**
+   * Methods under test: {@link PriceSerializer} and {@link PriceDeserializer}
+   */
+  @Test
+  public void testSmile() throws Exception {
+    assertBinaryRoundTrip(new ObjectMapper(new SmileFactory()));
+  }
+
+  /**
+   * Methods under test: {@link PriceSerializer} and {@link PriceDeserializer}
+   */
+  @Test
+  public void testCbor() throws Exception {
+    assertBinaryRoundTrip(new ObjectMapper(new CBORFactory()));
+  }
+
+  private static void assertBinaryRoundTrip(ObjectMapper binaryMapper) throws Exception {
+    // Arrange
+    ObjectMapper jsonMapper = new ObjectMapper();
+    List<Stock> stocks = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      stocks.add(new Stock(UUID.randomUUID().toString(), "UU" + i % 10, "Company Name " + i, 331_234L - i,
+              null, null));
+    }
+    RequestStockDto request = new RequestStockDto("UU9", "Company Name", -5_000L);
+    TypeReference<List<Stock>> listType = new TypeReference<>() { };
+
+    // Act
+    byte[] binary = binaryMapper.writeValueAsBytes(stocks);
+    List<Stock> actualStocks = binaryMapper.readValue(binary, listType);
+    RequestStockDto actualRequest = binaryMapper.readValue(binaryMapper.writeValueAsBytes(request),
+            RequestStockDto.class);
+
+    // Assert
+    assertEquals(stocks.size(), actualStocks.size());
+    for (int i = 0; i < stocks.size(); i++) {
+      assertEquals(stocks.get(i).getId(), actualStocks.get(i).getId());
+      assertEquals(stocks.get(i).getSymbol(), actualStocks.get(i).getSymbol());
+      assertEquals(stocks.get(i).getCompanyName(), actualStocks.get(i).getCompanyName());
+      assertEquals(stocks.get(i).getPrice(), actualStocks.get(i).getPrice());
+    }
+    assertEquals(request, actualRequest);
+    assertTrue(binary.length < jsonMapper.writeValueAsBytes(stocks).length);
+    assertEquals(new PriceTick("UU9", 15_000L), binaryMapper.readValue(
+            binaryMapper.writeValueAsBytes(Map.of("symbol", "UU9", "price", 1.5)), PriceTick.class));
+    assertEquals(new PriceTick("UU9", 20_000L), binaryMapper.readValue(
+            binaryMapper.writeValueAsBytes(Map.of("symbol", "UU9", "price", 2)), PriceTick.class));
+  }
+}
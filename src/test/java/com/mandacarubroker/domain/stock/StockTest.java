@@ -6,20 +6,20 @@ import static org.junit.Assert.assertEquals;
 
 public class StockTest {
   /**
-   * Method under test: {@link Stock#changePrice(double, boolean)}
+   * Method under test: {@link Stock#changePrice(long, boolean)}
    *
    * @author Moisés Oliveira
    */
   @Test
   public void testChangePrice() {
     // Arrange, Act and Assert
-    assertEquals(-10.0d, (new Stock()).changePrice(10.0d, true), 0.0);
-    assertEquals(-0.5d, (new Stock()).changePrice(-0.5d, true), 0.0);
-    assertEquals(10.0d, (new Stock()).changePrice(10.0d, false), 0.0);
+    assertEquals(-100_000L, (new Stock()).changePrice(100_000L, true));
+    assertEquals(-5_000L, (new Stock()).changePrice(-5_000L, true));
+    assertEquals(100_000L, (new Stock()).changePrice(100_000L, false));
   }
 
   /**
-   * Method under test: {@link Stock#changePrice(double, boolean)}
+   * Method under test: {@link Stock#changePrice(long, boolean)}
    *
    * @author Moisés Oliveira
    */
@@ -29,33 +29,33 @@ public class StockTest {
     Stock stock = new Stock();
     stock.setCompanyName("Company Name");
     stock.setId("42");
-    stock.setPrice(10.0d);
+    stock.setPrice(100_000L);
     stock.setSymbol("Symbol");
 
     // Act and Assert
-    assertEquals(0.0d, stock.changePrice(10.0d, false), 0.0);
+    assertEquals(0L, stock.changePrice(100_000L, false));
   }
 
   /**
-   * Method under test: {@link Stock#increasePrice(double)}
+   * Method under test: {@link Stock#increasePrice(long)}
    *
    * @author Moisés Oliveira
    */
   @Test
   public void testIncreasePrice() {
     // Arrange, Act and Assert
-    assertEquals(10.0d, (new Stock()).increasePrice(10.0d), 0.0);
+    assertEquals(100_000L, (new Stock()).increasePrice(100_000L));
   }
 
   /**
-   * Method under test: {@link Stock#decreasePrice(double)}
+   * Method under test: {@link Stock#decreasePrice(long)}
    *
    * @author Moisés Oliveira
    */
   @Test
   public void testDecreasePrice() {
     // Arrange, Act and Assert
-    assertEquals(-10.0d, (new Stock()).decreasePrice(10.0d), 0.0);
+    assertEquals(-100_000L, (new Stock()).decreasePrice(100_000L));
   }
 
   /**
@@ -66,12 +66,12 @@ public class StockTest {
   @Test
   public void testNewStock() {
     // Arrange and Act
-    Stock actualStock = new Stock(new RequestStockDto("Symbol", "Company Name", 10.0d));
+    Stock actualStock = new Stock(new RequestStockDto("Symbol", "Company Name", 100_000L));
 
     // Assert
     assertEquals("Company Name", actualStock.getCompanyName());
     assertEquals("Symbol", actualStock.getSymbol());
-    assertEquals(-10.0d, actualStock.getPrice(), 0.0);
+    assertEquals(-100_000L, actualStock.getPrice());
   }
 
   /**
@@ -82,11 +82,11 @@ public class StockTest {
   @Test
   public void testNewStock2() {
     // Arrange and Act
-    Stock actualStock = new Stock(new RequestStockDto("Symbol", "Company Name", -0.5d));
+    Stock actualStock = new Stock(new RequestStockDto("Symbol", "Company Name", -5_000L));
 
     // Assert
     assertEquals("Company Name", actualStock.getCompanyName());
     assertEquals("Symbol", actualStock.getSymbol());
-    assertEquals(-0.5d, actualStock.getPrice(), 0.0);
+    assertEquals(-5_000L, actualStock.getPrice());
   }
 }
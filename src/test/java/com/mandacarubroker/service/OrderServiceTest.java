@@ -0,0 +1,208 @@
+package com.mandacarubroker.service;
+
+import com.mandacarubroker.domain.order.OrderReceipt;
+import com.mandacarubroker.domain.order.OrderSide;
+import com.mandacarubroker.domain.order.OrderStatus;
+import com.mandacarubroker.domain.order.OrderType;
+import com.mandacarubroker.domain.order.PlaceOrderDto;
+import com.mandacarubroker.domain.stock.PriceTick;
+import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.domain.stock.StockDeletedEvent;
+import com.mandacarubroker.domain.stock.StockSavedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OrderServiceTest {
+  private StockService stockService;
+  private PriceTickIngestor priceTickIngestor;
+  private SimpleMeterRegistry meterRegistry;
+  private OrderService orderService;
+
+  @Before
+  public void setUp() {
+    stockService = mock(StockService.class);
+    priceTickIngestor = mock(PriceTickIngestor.class);
+    meterRegistry = new SimpleMeterRegistry();
+    orderService = new OrderService(stockService, priceTickIngestor, meterRegistry, 16, 2);
+    when(stockService.getStockBySymbol("UU9"))
+            .thenReturn(Optional.of(new Stock("42", "UU9", "Company Name", 100_000L, 0L, null)));
+  }
+
+  @After
+  public void tearDown() {
+    orderService.close();
+  }
+
+  /**
+   * Method under test: {@link OrderService#placeOrder(PlaceOrderDto)}
+   */
+  @Test
+  public void testPlaceOrder() throws Exception {
+    // Arrange
+    orderService.placeOrder(new PlaceOrderDto("UU9", OrderSide.SELL, OrderType.LIMIT, 100_000L, 10)).orElseThrow()
+            .get(5, TimeUnit.SECONDS);
+
+    // Act
+    OrderReceipt receipt = orderService.placeOrder(new PlaceOrderDto("UU9", OrderSide.BUY, OrderType.MARKET, null, 4))
+            .orElseThrow()
+            .get(5, TimeUnit.SECONDS);
+
+    // Assert
+    assertEquals(OrderStatus.FILLED, receipt.status());
+    assertEquals(1, receipt.trades().size());
+    verify(priceTickIngestor).offer(new PriceTick("UU9", 100_000L));
+    verify(stockService, times(1)).getStockBySymbol("UU9");
+    assertEquals(1.0d, meterRegistry.counter("orders.trades").count(), 0.0);
+    assertEquals(2.0d, meterRegistry.get("orders.engines").gauge().value(), 0.0);
+    assertEquals(1.0d, meterRegistry.get("orders.books").gauge().value(), 0.0);
+  }
+
+  /**
+   * Method under test: {@link OrderService#placeOrder(PlaceOrderDto)}
+   */
+  @Test
+  public void testPlaceOrder2() {
+    // Arrange
+    when(stockService.getStockBySymbol("AB1")).thenReturn(Optional.empty());
+
+    // Act and Assert
+    assertThrows(InvalidOrderException.class,
+            () -> orderService.placeOrder(new PlaceOrderDto("AB1", OrderSide.BUY, OrderType.LIMIT, 100_000L, 1)));
+    assertThrows(InvalidOrderException.class,
+            () -> orderService.placeOrder(new PlaceOrderDto("UU9", null, OrderType.LIMIT, 100_000L, 1)));
+    assertThrows(InvalidOrderException.class,
+            () -> orderService.placeOrder(new PlaceOrderDto("UU9", OrderSide.BUY, null, 100_000L, 1)));
+    assertThrows(InvalidOrderException.class,
+            () -> orderService.placeOrder(new PlaceOrderDto("UU9", OrderSide.BUY, OrderType.LIMIT, 100_000L, 0)));
+    assertThrows(InvalidOrderException.class,
+            () -> orderService.placeOrder(new PlaceOrderDto("UU9", OrderSide.BUY, OrderType.LIMIT, null, 1)));
+    assertThrows(InvalidOrderException.class,
+            () -> orderService.placeOrder(new PlaceOrderDto(" ", OrderSide.BUY, OrderType.LIMIT, 100_000L, 1)));
+    verify(priceTickIngestor, never()).offer(Mockito.any());
+  }
+
+  /**
+   * Method under test: {@link OrderService#onStockDeleted(StockDeletedEvent)}
+   */
+  @Test
+  public void testOnStockDeleted() throws Exception {
+    // Arrange
+    orderService.placeOrder(new PlaceOrderDto("UU9", OrderSide.SELL, OrderType.LIMIT, 100_000L, 10)).orElseThrow()
+            .get(5, TimeUnit.SECONDS);
+
+    // Act
+    orderService.onStockDeleted(new StockDeletedEvent("42"));
+
+    // Assert
+    assertEquals(0.0d, meterRegistry.get("orders.books").gauge().value(), 0.0);
+    when(stockService.getStockBySymbol("UU9")).thenReturn(Optional.empty());
+    assertThrows(InvalidOrderException.class,
+            () -> orderService.placeOrder(new PlaceOrderDto("UU9", OrderSide.BUY, OrderType.MARKET, null, 4)));
+  }
+
+  /**
+   * Method under test: {@link OrderService#onStockDeleted(StockDeletedEvent)}
+   */
+  @Test
+  public void testOnStockDeleted2() throws Exception {
+    // Arrange: the stock is deleted and listed again under the same symbol.
+    orderService.placeOrder(new PlaceOrderDto("UU9", OrderSide.SELL, OrderType.LIMIT, 100_000L, 10)).orElseThrow()
+            .get(5, TimeUnit.SECONDS);
+    orderService.onStockDeleted(new StockDeletedEvent("42"));
+
+    // Act
+    OrderReceipt receipt = orderService.placeOrder(new PlaceOrderDto("UU9", OrderSide.BUY, OrderType.MARKET, null, 4))
+            .orElseThrow()
+            .get(5, TimeUnit.SECONDS);
+
+    // Assert that the old book and its resting order are gone
+    assertEquals(OrderStatus.CANCELLED, receipt.status());
+    verify(priceTickIngestor, never()).offer(Mockito.any());
+  }
+
+  /**
+   * Method under test: {@link OrderService#onStockSaved(StockSavedEvent)}
+   */
+  @Test
+  public void testOnStockSaved() throws Exception {
+    // Arrange
+    orderService.placeOrder(new PlaceOrderDto("UU9", OrderSide.SELL, OrderType.LIMIT, 100_000L, 10)).orElseThrow()
+            .get(5, TimeUnit.SECONDS);
+    Stock renamed = new Stock("42", "UU8", "Company Name", 100_000L, 1L, null);
+    when(stockService.getStockBySymbol("UU9")).thenReturn(Optional.empty());
+    when(stockService.getStockBySymbol("UU8")).thenReturn(Optional.of(renamed));
+
+    // Act
+    orderService.onStockSaved(new StockSavedEvent(renamed));
+
+    // Assert that the old symbol is no longer booked and the new one starts with an empty book
+    assertEquals(0.0d, meterRegistry.get("orders.books").gauge().value(), 0.0);
+    assertThrows(InvalidOrderException.class,
+            () -> orderService.placeOrder(new PlaceOrderDto("UU9", OrderSide.BUY, OrderType.MARKET, null, 4)));
+    OrderReceipt receipt = orderService.placeOrder(new PlaceOrderDto("UU8", OrderSide.BUY, OrderType.MARKET, null, 4))
+            .orElseThrow()
+            .get(5, TimeUnit.SECONDS);
+    assertEquals(OrderStatus.CANCELLED, receipt.status());
+    assertEquals(1.0d, meterRegistry.get("orders.books").gauge().value(), 0.0);
+  }
+
+  /**
+   * Method under test: {@link OrderService#onStockSaved(StockSavedEvent)}
+   */
+  @Test
+  public void testOnStockSaved2() throws Exception {
+    // Arrange
+    orderService.placeOrder(new PlaceOrderDto("UU9", OrderSide.SELL, OrderType.LIMIT, 100_000L, 10)).orElseThrow()
+            .get(5, TimeUnit.SECONDS);
+
+    // Act: a save that keeps the symbol, such as a price change, leaves the book alone.
+    orderService.onStockSaved(new StockSavedEvent(new Stock("42", "UU9", "Company Name", 110_000L, 1L, null)));
+
+    // Assert
+    OrderReceipt receipt = orderService.placeOrder(new PlaceOrderDto("UU9", OrderSide.BUY, OrderType.MARKET, null, 4))
+            .orElseThrow()
+            .get(5, TimeUnit.SECONDS);
+    assertEquals(OrderStatus.FILLED, receipt.status());
+  }
+
+  /**
+   * Method under test: {@link OrderService#retryDeferredPrices()}
+   */
+  @Test
+  public void testRetryDeferredPrices() throws Exception {
+    // Arrange: the ingestor is full when the trades happen.
+    when(priceTickIngestor.offer(Mockito.any())).thenReturn(false);
+    orderService.placeOrder(new PlaceOrderDto("UU9", OrderSide.SELL, OrderType.LIMIT, 100_000L, 10)).orElseThrow()
+            .get(5, TimeUnit.SECONDS);
+    orderService.placeOrder(new PlaceOrderDto("UU9", OrderSide.SELL, OrderType.LIMIT, 110_000L, 10)).orElseThrow()
+            .get(5, TimeUnit.SECONDS);
+    orderService.placeOrder(new PlaceOrderDto("UU9", OrderSide.BUY, OrderType.MARKET, null, 15)).orElseThrow()
+            .get(5, TimeUnit.SECONDS);
+    orderService.retryDeferredPrices();
+
+    // Act
+    when(priceTickIngestor.offer(Mockito.any())).thenReturn(true);
+    orderService.retryDeferredPrices();
+    orderService.retryDeferredPrices();
+
+    // Assert that only the last trade price was retried, until it was accepted
+    assertEquals(2.0d, meterRegistry.counter("orders.trades.prices.deferred").count(), 0.0);
+    assertEquals(0.0d, meterRegistry.get("orders.trades.prices.pending").gauge().value(), 0.0);
+    verify(priceTickIngestor, times(3)).offer(new PriceTick("UU9", 110_000L));
+    verify(priceTickIngestor, times(1)).offer(new PriceTick("UU9", 100_000L));
+  }
+}
@@ -0,0 +1,286 @@
+package com.mandacarubroker.service;
+
+import com.mandacarubroker.domain.order.OrderSide;
+import com.mandacarubroker.domain.portfolio.CreatePortfolioDto;
+import com.mandacarubroker.domain.portfolio.Portfolio;
+import com.mandacarubroker.domain.portfolio.PortfolioPosition;
+import com.mandacarubroker.domain.portfolio.PortfolioPositionRepository;
+import com.mandacarubroker.domain.portfolio.PortfolioRepository;
+import com.mandacarubroker.domain.portfolio.PortfolioTradeDto;
+import com.mandacarubroker.domain.portfolio.PortfolioValuation;
+import com.mandacarubroker.domain.portfolio.PositionValuation;
+import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.domain.stock.StockChange;
+import com.mandacarubroker.domain.stock.StockPriceChangedEvent;
+import com.mandacarubroker.domain.stock.StockRenamedEvent;
+import com.mandacarubroker.domain.stock.StockSavedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PortfolioServiceTest {
+  private PortfolioRepository portfolioRepository;
+  private PortfolioPositionRepository positionRepository;
+  private StockService stockService;
+  private PlatformTransactionManager transactionManager;
+  private Portfolio portfolio;
+  private PortfolioPosition position;
+  private PortfolioService portfolioService;
+
+  @Before
+  public void setUp() {
+    portfolioRepository = mock(PortfolioRepository.class);
+    positionRepository = mock(PortfolioPositionRepository.class);
+    stockService = mock(StockService.class);
+    transactionManager = mock(PlatformTransactionManager.class);
+    portfolio = new Portfolio("p1", "ana", 1_000_000L, 0L);
+    position = new PortfolioPosition("pos1", "p1", "AB1", 10, 900_000L);
+    when(portfolioRepository.findAll()).thenReturn(List.of(portfolio));
+    when(positionRepository.findAll()).thenReturn(List.of(position));
+    when(portfolioRepository.findForUpdate("p1")).thenReturn(Optional.of(portfolio));
+    when(positionRepository.findByPortfolioIdAndSymbol("p1", "AB1")).thenReturn(Optional.of(position));
+    when(positionRepository.findByPortfolioIdAndSymbol("p1", "CD2")).thenReturn(Optional.empty());
+    when(stockService.getStockBySymbol("AB1"))
+            .thenReturn(Optional.of(new Stock("s1", "AB1", "Alpha Beta", 100_000L, 0L, null)));
+    when(stockService.getStockBySymbol("CD2"))
+            .thenReturn(Optional.of(new Stock("s2", "CD2", "Charlie Delta", 50_000L, 0L, null)));
+    when(stockService.getStockBySymbol("EF3"))
+            .thenReturn(Optional.of(new Stock("s3", "EF3", "Echo Foxtrot", -10_000L, 0L, null)));
+    portfolioService = new PortfolioService(portfolioRepository, positionRepository, stockService,
+            transactionManager, new SimpleMeterRegistry());
+    portfolioService.load();
+  }
+
+  /**
+   * Method under test: {@link PortfolioService#load()}
+   */
+  @Test
+  public void testLoad() {
+    // Arrange, Act and Assert
+    PortfolioValuation valuation = portfolioService.getValuation("p1").orElseThrow();
+    assertEquals(1_000_000L, valuation.marketValue());
+    assertEquals(100_000L, valuation.unrealizedPnl());
+    assertEquals(2_000_000L, valuation.totalValue());
+    assertEquals(Optional.empty(), portfolioService.getValuation("p2"));
+  }
+
+  /**
+   * Method under test: {@link PortfolioService#onStockPriceChanged(StockPriceChangedEvent)}
+   */
+  @Test
+  public void testOnStockPriceChanged() {
+    // Arrange and Act
+    portfolioService.onStockPriceChanged(new StockPriceChangedEvent("AB1", 80_000L));
+
+    // Assert
+    assertEquals(-100_000L, portfolioService.getValuation("p1").orElseThrow().unrealizedPnl());
+
+    portfolioService.onStockSaved(new StockSavedEvent(new Stock("s1", "AB1", "Alpha Beta", 95_000L, 1L, null)));
+    assertEquals(50_000L, portfolioService.getValuation("p1").orElseThrow().unrealizedPnl());
+  }
+
+  /**
+   * Method under test: {@link PortfolioService#onStockRenamed(StockRenamedEvent)}
+   */
+  @Test
+  public void testOnStockRenamed() {
+    // Arrange
+    when(positionRepository.findBySymbol("AB1")).thenReturn(List.of(position));
+    when(positionRepository.findByPortfolioIdAndSymbol("p1", "XY9")).thenReturn(Optional.empty());
+
+    // Act
+    portfolioService.onStockRenamed(new StockRenamedEvent("s1", "AB1", "XY9"));
+    portfolioService.onStockPriceChanged(new StockPriceChangedEvent("AB1", 50_000L));
+    portfolioService.onStockPriceChanged(new StockPriceChangedEvent("XY9", 80_000L));
+
+    // Assert
+    assertEquals("XY9", position.getSymbol());
+    verify(positionRepository).save(position);
+    assertEquals(List.of(new PositionValuation("XY9", 10, 80_000L, 800_000L, 900_000L, -100_000L)),
+            portfolioService.getValuation("p1").orElseThrow().positions());
+  }
+
+  /**
+   * Method under test: {@link PortfolioService#onStockRenamed(StockRenamedEvent)}
+   */
+  @Test
+  public void testOnStockRenamed2() {
+    // Arrange
+    PortfolioPosition held = new PortfolioPosition("pos2", "p1", "XY9", 2, 150_000L);
+    when(positionRepository.findBySymbol("AB1")).thenReturn(List.of(position));
+    when(positionRepository.findByPortfolioIdAndSymbol("p1", "XY9")).thenReturn(Optional.of(held));
+
+    // Act
+    portfolioService.onStockRenamed(new StockRenamedEvent("s1", "AB1", "XY9"));
+
+    // Assert
+    assertEquals(12, held.getQuantity());
+    assertEquals(1_050_000L, held.getCostBasis());
+    verify(positionRepository).delete(position);
+    verify(positionRepository).save(held);
+    assertEquals(List.of(new PositionValuation("XY9", 10, 100_000L, 1_000_000L, 900_000L, 100_000L)),
+            portfolioService.getValuation("p1").orElseThrow().positions());
+  }
+
+  /**
+   * Method under test: {@link PortfolioService#reconcile()}
+   */
+  @Test
+  public void testReconcile() {
+    // Arrange
+    portfolio.setCash(700_000L);
+    position.setQuantity(13);
+    position.setCostBasis(1_200_000L);
+    when(portfolioRepository.findAll())
+            .thenReturn(List.of(portfolio, new Portfolio("p2", "bia", 300_000L, 0L)));
+    when(positionRepository.findAll()).thenReturn(List.of(position,
+            new PortfolioPosition("pos2", "p2", "CD2", 2, 90_000L)));
+    doAnswer(invocation -> {
+      Consumer<StockChange> action = invocation.getArgument(1);
+      action.accept(StockChange.upsert(new Stock("s1", "AB1", "Alpha Beta", 90_000L, 2L, null)));
+      return 7L;
+    }).when(stockService).forEachChangeSince(eq(0L), any());
+
+    // Act
+    portfolioService.reconcile();
+
+    // Assert
+    PortfolioValuation first = portfolioService.getValuation("p1").orElseThrow();
+    assertEquals(700_000L, first.cash());
+    assertEquals(List.of(new PositionValuation("AB1", 13, 90_000L, 1_170_000L, 1_200_000L, -30_000L)),
+            first.positions());
+    assertEquals(List.of(new PositionValuation("CD2", 2, 50_000L, 100_000L, 90_000L, 10_000L)),
+            portfolioService.getValuation("p2").orElseThrow().positions());
+    verify(transactionManager).commit(any());
+
+    portfolioService.reconcile();
+    verify(stockService).forEachChangeSince(eq(7L), any());
+  }
+
+  /**
+   * Method under test: {@link PortfolioService#createPortfolio(CreatePortfolioDto)}
+   */
+  @Test
+  public void testCreatePortfolio() {
+    // Arrange
+    when(portfolioRepository.save(any(Portfolio.class))).thenReturn(new Portfolio("p2", "bia", 300_000L, 0L));
+
+    // Act
+    PortfolioValuation valuation = portfolioService.createPortfolio(new CreatePortfolioDto("bia", 300_000L));
+
+    // Assert
+    assertEquals(new PortfolioValuation("p2", "bia", 300_000L, 0L, 0L, 0L, 0L, 300_000L, List.of()), valuation);
+    assertEquals(Optional.of(valuation), portfolioService.getValuation("p2"));
+    assertThrows(InvalidPortfolioOperationException.class,
+            () -> portfolioService.createPortfolio(new CreatePortfolioDto(" ", 0L)));
+    assertThrows(InvalidPortfolioOperationException.class,
+            () -> portfolioService.createPortfolio(new CreatePortfolioDto("bia", -1L)));
+  }
+
+  /**
+   * Method under test: {@link PortfolioService#trade(String, PortfolioTradeDto)}
+   */
+  @Test
+  public void testTrade() {
+    // Arrange and Act
+    PortfolioValuation valuation = portfolioService
+            .trade("p1", new PortfolioTradeDto("CD2", OrderSide.BUY, 4, 45_000L)).orElseThrow();
+
+    // Assert
+    assertEquals(820_000L, valuation.cash());
+    assertEquals(new PositionValuation("CD2", 4, 50_000L, 200_000L, 180_000L, 20_000L),
+            valuation.positions().get(1));
+    assertEquals(1_200_000L, valuation.marketValue());
+    assertEquals(2_020_000L, valuation.totalValue());
+    verify(positionRepository).save(any(PortfolioPosition.class));
+    verify(transactionManager).commit(any());
+  }
+
+  /**
+   * Method under test: {@link PortfolioService#trade(String, PortfolioTradeDto)}
+   */
+  @Test
+  public void testTrade2() {
+    // Arrange and Act
+    PortfolioValuation partial = portfolioService
+            .trade("p1", new PortfolioTradeDto("AB1", OrderSide.SELL, 4, null)).orElseThrow();
+
+    // Assert
+    assertEquals(1_400_000L, partial.cash());
+    assertEquals(40_000L, partial.realizedPnl());
+    assertEquals(new PositionValuation("AB1", 6, 100_000L, 600_000L, 540_000L, 60_000L),
+            partial.positions().get(0));
+
+    PortfolioValuation closed = portfolioService
+            .trade("p1", new PortfolioTradeDto("AB1", OrderSide.SELL, 6, 90_000L)).orElseThrow();
+    assertEquals(1_940_000L, closed.cash());
+    assertEquals(40_000L, closed.realizedPnl());
+    assertTrue(closed.positions().isEmpty());
+    verify(positionRepository).delete(position);
+  }
+
+  /**
+   * Method under test: {@link PortfolioService#trade(String, PortfolioTradeDto)}
+   */
+  @Test
+  public void testTrade3() {
+    // Arrange, Act and Assert
+    assertThrows(InvalidPortfolioOperationException.class,
+            () -> portfolioService.trade("p1", new PortfolioTradeDto("CD2", OrderSide.BUY, 21, null)));
+    assertThrows(InvalidPortfolioOperationException.class,
+            () -> portfolioService.trade("p1", new PortfolioTradeDto("AB1", OrderSide.SELL, 11, null)));
+    assertThrows(InvalidPortfolioOperationException.class,
+            () -> portfolioService.trade("p1", new PortfolioTradeDto("XX9", OrderSide.BUY, 1, null)));
+    assertThrows(InvalidPortfolioOperationException.class,
+            () -> portfolioService.trade("p1", new PortfolioTradeDto("EF3", OrderSide.BUY, 1, null)));
+    assertThrows(InvalidPortfolioOperationException.class,
+            () -> portfolioService.trade("p1", new PortfolioTradeDto("AB1", null, 1, null)));
+    assertThrows(InvalidPortfolioOperationException.class,
+            () -> portfolioService.trade("p1", new PortfolioTradeDto("AB1", OrderSide.BUY, 0, null)));
+    assertThrows(InvalidPortfolioOperationException.class,
+            () -> portfolioService.trade("p1", new PortfolioTradeDto("AB1", OrderSide.BUY, 1, -5L)));
+    assertEquals(Optional.empty(), portfolioService.trade("p2", new PortfolioTradeDto("AB1", OrderSide.BUY, 1, null)));
+    assertEquals(1_000_000L, portfolioService.getValuation("p1").orElseThrow().cash());
+    verify(portfolioRepository, never()).save(any(Portfolio.class));
+  }
+
+  /**
+   * Method under test: {@link PortfolioService#trade(String, PortfolioTradeDto)}
+   */
+  @Test
+  public void testTrade4() {
+    // Arrange
+    doThrow(new CannotAcquireLockException("commit failed")).when(transactionManager).commit(any());
+    when(portfolioRepository.findById("p1")).thenReturn(Optional.of(new Portfolio("p1", "ana", 1_000_000L, 0L)));
+    when(positionRepository.findByPortfolioId("p1"))
+            .thenReturn(List.of(new PortfolioPosition("pos1", "p1", "AB1", 10, 900_000L)));
+
+    // Act
+    assertThrows(CannotAcquireLockException.class,
+            () -> portfolioService.trade("p1", new PortfolioTradeDto("CD2", OrderSide.BUY, 4, null)));
+
+    // Assert
+    PortfolioValuation valuation = portfolioService.getValuation("p1").orElseThrow();
+    assertEquals(1_000_000L, valuation.cash());
+    assertEquals(1, valuation.positions().size());
+    assertEquals(1_000_000L, valuation.marketValue());
+  }
+}
@@ -0,0 +1,255 @@
+package com.mandacarubroker.service;
+
+import com.mandacarubroker.domain.history.PriceBar;
+import com.mandacarubroker.domain.history.PriceBarResolution;
+import com.mandacarubroker.domain.history.PriceHistoryRepository;
+import com.mandacarubroker.domain.history.PricePoint;
+import com.mandacarubroker.domain.stock.StockPriceChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PriceHistoryServiceTest {
+  private PriceHistoryRepository priceHistoryRepository;
+  private SimpleMeterRegistry meterRegistry;
+  private PriceHistoryService priceHistoryService;
+
+  @Before
+  public void setUp() {
+    priceHistoryRepository = mock(PriceHistoryRepository.class);
+    meterRegistry = new SimpleMeterRegistry();
+    priceHistoryService = new PriceHistoryService(priceHistoryRepository, meterRegistry, 3, 2, 7, 30, 2);
+  }
+
+  /**
+   * Method under test: {@link PriceHistoryService#onStockPriceChanged(StockPriceChangedEvent)}
+   */
+  @Test
+  public void testOnStockPriceChanged() {
+    // Arrange and Act
+    for (int i = 0; i < 4; i++) {
+      priceHistoryService.onStockPriceChanged(new StockPriceChangedEvent("UU9", 100_000L + i));
+    }
+
+    // Assert
+    assertEquals(3.0d, meterRegistry.get("stock.history.queue.depth").gauge().value(), 0.0);
+    assertEquals(1.0d, meterRegistry.counter("stock.history.dropped").count(), 0.0);
+  }
+
+  /**
+   * Method under test: {@link PriceHistoryService#flush()}
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testFlush() {
+    // Arrange
+    priceHistoryService.onStockPriceChanged(new StockPriceChangedEvent("UU9", 100_000L));
+    priceHistoryService.onStockPriceChanged(new StockPriceChangedEvent("AB1", 50_000L));
+    priceHistoryService.onStockPriceChanged(new StockPriceChangedEvent("UU9", 110_000L));
+
+    // Act
+    priceHistoryService.flush();
+
+    // Assert
+    ArgumentCaptor<List<PricePoint>> captor = ArgumentCaptor.forClass(List.class);
+    verify(priceHistoryRepository, times(2)).append(captor.capture());
+    List<List<PricePoint>> batches = captor.getAllValues();
+    assertEquals(2, batches.get(0).size());
+    assertEquals("UU9", batches.get(0).get(0).symbol());
+    assertEquals(100_000L, batches.get(0).get(0).price());
+    assertEquals("AB1", batches.get(0).get(1).symbol());
+    assertEquals(1, batches.get(1).size());
+    assertEquals(110_000L, batches.get(1).get(0).price());
+    assertEquals(0.0d, meterRegistry.get("stock.history.queue.depth").gauge().value(), 0.0);
+  }
+
+  /**
+   * Method under test: {@link PriceHistoryService#flush()}
+   */
+  @Test
+  public void testFlush2() {
+    // Arrange, Act and Assert
+    priceHistoryService.flush();
+    verify(priceHistoryRepository, never()).append(Mockito.any());
+  }
+
+  /**
+   * Method under test: {@link PriceHistoryService#flush()}
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testFlush3() {
+    // Arrange
+    priceHistoryService.onStockPriceChanged(new StockPriceChangedEvent("UU9", 100_000L));
+    priceHistoryService.onStockPriceChanged(new StockPriceChangedEvent("AB1", 50_000L));
+    priceHistoryService.onStockPriceChanged(new StockPriceChangedEvent("UU9", 110_000L));
+    Mockito.doThrow(new QueryTimeoutException("timeout")).doNothing()
+            .when(priceHistoryRepository).append(Mockito.any());
+
+    // Act
+    assertThrows(QueryTimeoutException.class, priceHistoryService::flush);
+    priceHistoryService.flush();
+
+    // Assert that the failed batch was written by the next flush
+    ArgumentCaptor<List<PricePoint>> captor = ArgumentCaptor.forClass(List.class);
+    verify(priceHistoryRepository, times(3)).append(captor.capture());
+    List<List<PricePoint>> batches = captor.getAllValues();
+    assertEquals(batches.get(0), batches.get(1));
+    assertEquals(110_000L, batches.get(2).get(0).price());
+    assertEquals(1.0d, meterRegistry.counter("stock.history.write.failures").count(), 0.0);
+    assertEquals(0.0d, meterRegistry.get("stock.history.queue.depth").gauge().value(), 0.0);
+  }
+
+  /**
+   * Method under test: {@link PriceHistoryService#flush()}
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testFlush4() {
+    // Arrange: the database refuses the AB1 point, and with it every batch holding it.
+    priceHistoryService.onStockPriceChanged(new StockPriceChangedEvent("UU9", 100_000L));
+    priceHistoryService.onStockPriceChanged(new StockPriceChangedEvent("AB1", 50_000L));
+    priceHistoryService.onStockPriceChanged(new StockPriceChangedEvent("UU9", 110_000L));
+    Mockito.doAnswer(invocation -> {
+      List<PricePoint> points = invocation.getArgument(0);
+      if (points.stream().anyMatch(point -> point.symbol().equals("AB1"))) {
+        throw new DataIntegrityViolationException("no partition of relation found for row");
+      }
+      return null;
+    }).when(priceHistoryRepository).append(Mockito.any());
+
+    // Act
+    assertThrows(DataIntegrityViolationException.class, priceHistoryService::flush);
+    priceHistoryService.flush();
+
+    // Assert that the batch was split after the second attempt and only AB1 was dropped
+    ArgumentCaptor<List<PricePoint>> captor = ArgumentCaptor.forClass(List.class);
+    verify(priceHistoryRepository, times(5)).append(captor.capture());
+    List<List<PricePoint>> batches = captor.getAllValues();
+    assertEquals(List.of(batches.get(0).get(0)), batches.get(2));
+    assertEquals(List.of(batches.get(0).get(1)), batches.get(3));
+    assertEquals(110_000L, batches.get(4).get(0).price());
+    assertEquals(2.0d, meterRegistry.counter("stock.history.write.failures").count(), 0.0);
+    assertEquals(1.0d, meterRegistry.counter("stock.history.rejected").count(), 0.0);
+    assertEquals(0.0d, meterRegistry.get("stock.history.queue.depth").gauge().value(), 0.0);
+  }
+
+  /**
+   * Method under test: {@link PriceHistoryService#flush()}
+   */
+  @Test
+  public void testFlush5() {
+    // Arrange
+    priceHistoryService.onStockPriceChanged(new StockPriceChangedEvent("UU9", 100_000L));
+    priceHistoryService.onStockPriceChanged(new StockPriceChangedEvent("AB1", 50_000L));
+    Mockito.doThrow(new QueryTimeoutException("timeout")).when(priceHistoryRepository).append(Mockito.any());
+
+    // Act
+    assertThrows(QueryTimeoutException.class, priceHistoryService::flush);
+    assertThrows(QueryTimeoutException.class, priceHistoryService::flush);
+
+    // Assert that a failure other than an invalid point keeps the points queued
+    assertEquals(0.0d, meterRegistry.counter("stock.history.rejected").count(), 0.0);
+    assertEquals(2.0d, meterRegistry.get("stock.history.queue.depth").gauge().value(), 0.0);
+  }
+
+  /**
+   * Method under test: {@link PriceHistoryService#maintainPartitions()}
+   */
+  @Test
+  public void testMaintainPartitions() {
+    // Arrange, Act and Assert
+    priceHistoryService.maintainPartitions();
+    verify(priceHistoryRepository).maintainPartitions(7, 30);
+  }
+
+  /**
+   * Method under test: {@link PriceHistoryService#getBars(String, Instant, Instant, Duration)}
+   */
+  @Test
+  public void testGetBars() {
+    // Arrange
+    Instant from = Instant.parse("2024-01-02T00:00:00Z");
+    Instant to = Instant.parse("2024-01-09T00:00:00Z");
+    List<PriceBar> bars = List.of(new PriceBar(from, 100_000L, 120_000L, 90_000L, 110_000L));
+    when(priceHistoryRepository.findBars("UU9", PriceBarResolution.DAY, from, to, Duration.ofDays(1)))
+            .thenReturn(bars);
+
+    // Act and Assert
+    assertSame(bars, priceHistoryService.getBars("UU9", from, to, Duration.ofDays(1)));
+  }
+
+  /**
+   * Method under test: {@link PriceHistoryService#getBars(String, Instant, Instant, Duration)}
+   */
+  @Test
+  public void testGetBars2() {
+    // Arrange
+    Instant from = Instant.parse("2024-01-02T09:30:15Z");
+    Instant to = Instant.parse("2024-01-02T16:00:00Z");
+
+    // Act
+    priceHistoryService.getBars("UU9", from, to, Duration.ofHours(1));
+
+    // Assert
+    verify(priceHistoryRepository).findBars("UU9", PriceBarResolution.MINUTE,
+            Instant.parse("2024-01-02T09:30:00Z"), to, Duration.ofHours(1));
+  }
+
+  /**
+   * Method under test: {@link PriceHistoryService#getBars(String, Instant, Instant, Duration)}
+   */
+  @Test
+  public void testGetBars3() {
+    // Arrange
+    Instant from = Instant.parse("2024-01-02T09:00:00Z");
+    Instant to = Instant.parse("2024-01-02T16:00:00Z");
+
+    // Act
+    priceHistoryService.getBars("UU9", from, to, Duration.ofMinutes(90));
+
+    // Assert
+    verify(priceHistoryRepository).findBars("UU9", PriceBarResolution.MINUTE, from, to, Duration.ofMinutes(90));
+  }
+
+  /**
+   * Method under test: {@link PriceHistoryService#getBars(String, Instant, Instant, Duration)}
+   */
+  @Test
+  public void testGetBars4() {
+    // Arrange
+    Instant from = Instant.parse("2024-01-02T09:00:00Z");
+    Instant to = Instant.parse("2024-01-02T16:00:00Z");
+
+    // Act and Assert
+    assertThrows(InvalidPriceHistoryQueryException.class,
+            () -> priceHistoryService.getBars("UU9", to, from, Duration.ofMinutes(1)));
+    assertThrows(InvalidPriceHistoryQueryException.class,
+            () -> priceHistoryService.getBars("UU9", from, from.plusSeconds(30), Duration.ofMinutes(1)));
+    assertThrows(InvalidPriceHistoryQueryException.class,
+            () -> priceHistoryService.getBars("UU9", from, to, Duration.ofSeconds(30)));
+    assertThrows(InvalidPriceHistoryQueryException.class,
+            () -> priceHistoryService.getBars("UU9", from, to, Duration.ofSeconds(90)));
+    assertThrows(InvalidPriceHistoryQueryException.class,
+            () -> priceHistoryService.getBars("UU9", from, from.plus(Duration.ofDays(100)), Duration.ofMinutes(1)));
+    verify(priceHistoryRepository, never()).findBars(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+            Mockito.any());
+  }
+}
@@ -0,0 +1,164 @@
+package com.mandacarubroker.service;
+
+import com.mandacarubroker.config.CacheConfig;
+import com.mandacarubroker.domain.stock.PriceTick;
+import com.mandacarubroker.domain.stock.StockPriceChangedEvent;
+import com.mandacarubroker.domain.stock.StockPriceWriter;
+import com.mandacarubroker.domain.stock.StockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PriceTickIngestorTest {
+  private StockPriceWriter stockPriceWriter;
+  private StockRepository stockRepository;
+  private CacheManager cacheManager;
+  private ApplicationEventPublisher eventPublisher;
+  private SimpleMeterRegistry meterRegistry;
+  private PriceTickIngestor priceTickIngestor;
+
+  @Before
+  public void setUp() {
+    stockPriceWriter = mock(StockPriceWriter.class);
+    stockRepository = mock(StockRepository.class);
+    cacheManager = new ConcurrentMapCacheManager(CacheConfig.STOCKS_BY_ID, CacheConfig.STOCKS_BY_SYMBOL);
+    eventPublisher = mock(ApplicationEventPublisher.class);
+    meterRegistry = new SimpleMeterRegistry();
+    priceTickIngestor = new PriceTickIngestor(stockPriceWriter, stockRepository, cacheManager, eventPublisher,
+            meterRegistry, 2, 1);
+    when(stockPriceWriter.updatePrices(Mockito.any())).thenReturn(new int[] {1});
+  }
+
+  /**
+   * Method under test: {@link PriceTickIngestor#offer(PriceTick)}
+   */
+  @Test
+  public void testOffer() {
+    // Arrange, Act and Assert
+    assertTrue(priceTickIngestor.offer(new PriceTick("UU9", 100_000L)));
+    assertTrue(priceTickIngestor.offer(new PriceTick("UU9", 110_000L)));
+    assertTrue(priceTickIngestor.offer(new PriceTick("AB1", 50_000L)));
+    assertFalse(priceTickIngestor.offer(new PriceTick("CD2", 70_000L)));
+    assertTrue(priceTickIngestor.offer(new PriceTick("AB1", 60_000L)));
+
+    assertEquals(2, priceTickIngestor.getQueueDepth());
+    assertEquals(4.0d, meterRegistry.counter("stock.ticks.accepted").count(), 0.0);
+    assertEquals(2.0d, meterRegistry.counter("stock.ticks.coalesced").count(), 0.0);
+    assertEquals(1.0d, meterRegistry.counter("stock.ticks.rejected").count(), 0.0);
+    assertEquals(2.0d, meterRegistry.get("stock.ticks.queue.depth").gauge().value(), 0.0);
+  }
+
+  /**
+   * Method under test: {@link PriceTickIngestor#flush()}
+   */
+  @Test
+  public void testFlush() {
+    // Arrange
+    cacheManager.getCache(CacheConfig.STOCKS_BY_ID).put("42", "cached");
+    cacheManager.getCache(CacheConfig.STOCKS_BY_ID).put("43", "cached");
+    cacheManager.getCache(CacheConfig.STOCKS_BY_SYMBOL).put("UU9", "cached");
+    when(stockRepository.findIdsBySymbolIn(List.of("UU9"))).thenReturn(List.of("42"));
+    priceTickIngestor.offer(new PriceTick("UU9", 100_000L));
+    priceTickIngestor.offer(new PriceTick("UU9", 110_000L));
+    priceTickIngestor.offer(new PriceTick("AB1", 50_000L));
+
+    // Act
+    priceTickIngestor.flush();
+
+    // Assert
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<PriceTick>> batches = ArgumentCaptor.forClass(List.class);
+    verify(stockPriceWriter, times(2)).updatePrices(batches.capture());
+    Set<PriceTick> written = new HashSet<>();
+    batches.getAllValues().forEach(written::addAll);
+    assertEquals(Set.of(new PriceTick("UU9", 110_000L), new PriceTick("AB1", 50_000L)), written);
+    assertEquals(0, priceTickIngestor.getQueueDepth());
+    assertNull(cacheManager.getCache(CacheConfig.STOCKS_BY_ID).get("42"));
+    assertEquals("cached", cacheManager.getCache(CacheConfig.STOCKS_BY_ID).get("43").get());
+    assertNull(cacheManager.getCache(CacheConfig.STOCKS_BY_SYMBOL).get("UU9"));
+    verify(eventPublisher).publishEvent(new StockPriceChangedEvent("UU9", 110_000L));
+    verify(eventPublisher).publishEvent(new StockPriceChangedEvent("AB1", 50_000L));
+  }
+
+  /**
+   * Method under test: {@link PriceTickIngestor#flush()}
+   */
+  @Test
+  public void testFlush2() {
+    // Arrange
+    when(stockPriceWriter.updatePrices(Mockito.any())).thenReturn(new int[] {0});
+    priceTickIngestor.offer(new PriceTick("UU9", 100_000L));
+
+    // Act
+    priceTickIngestor.flush();
+    priceTickIngestor.flush();
+
+    // Assert
+    verify(stockPriceWriter, times(1)).updatePrices(Mockito.any());
+    assertEquals(1.0d, meterRegistry.counter("stock.ticks.unknown.symbols").count(), 0.0);
+    verify(eventPublisher, never()).publishEvent(Mockito.any(Object.class));
+  }
+
+  /**
+   * Method under test: {@link PriceTickIngestor#flush()}
+   */
+  @Test
+  public void testFlush3() {
+    // Act
+    priceTickIngestor.flush();
+
+    // Assert
+    verify(stockPriceWriter, never()).updatePrices(Mockito.any());
+  }
+
+  /**
+   * Method under test: {@link PriceTickIngestor#flush()}
+   */
+  @Test
+  public void testFlush4() {
+    // Arrange: the first write fails after a newer tick for the same symbol arrived.
+    priceTickIngestor.offer(new PriceTick("UU9", 100_000L));
+    priceTickIngestor.offer(new PriceTick("AB1", 50_000L));
+    when(stockPriceWriter.updatePrices(Mockito.any()))
+            .thenAnswer(invocation -> {
+              priceTickIngestor.offer(new PriceTick("UU9", 110_000L));
+              throw new QueryTimeoutException("timeout");
+            })
+            .thenReturn(new int[] {1});
+
+    // Act
+    assertThrows(QueryTimeoutException.class, priceTickIngestor::flush);
+
+    // Assert
+    assertEquals(2, priceTickIngestor.getQueueDepth());
+    assertEquals(1.0d, meterRegistry.counter("stock.ticks.write.failures").count(), 0.0);
+    priceTickIngestor.flush();
+    assertEquals(0, priceTickIngestor.getQueueDepth());
+    ArgumentCaptor<List<PriceTick>> batches = ArgumentCaptor.forClass(List.class);
+    verify(stockPriceWriter, times(3)).updatePrices(batches.capture());
+    Set<PriceTick> written = new HashSet<>();
+    batches.getAllValues().subList(1, 3).forEach(written::addAll);
+    assertEquals(Set.of(new PriceTick("UU9", 110_000L), new PriceTick("AB1", 50_000L)), written);
+  }
+}
@@ -0,0 +1,45 @@
+package com.mandacarubroker.service;
+
+import com.mandacarubroker.domain.stock.RequestStockDto;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RequestStockDtoValidatorTest {
+  /**
+   * Method under test: {@link RequestStockDtoValidator#isValid(RequestStockDto)}
+   */
+  @Test
+  public void testIsValid() {
+    // Arrange, Act and Assert
+    assertTrue(RequestStockDtoValidator.isValid(new RequestStockDto("UU9", "Company Name", 100_000L)));
+    assertTrue(RequestStockDtoValidator.isValid(new RequestStockDto("ab1", " Company ", -5_000L)));
+    assertTrue(RequestStockDtoValidator.isValid(new RequestStockDto(null, "Company Name", 100_000L)));
+  }
+
+  /**
+   * Method under test: {@link RequestStockDtoValidator#isValid(RequestStockDto)}
+   */
+  @Test
+  public void testIsValid2() {
+    // Arrange, Act and Assert
+    assertFalse(RequestStockDtoValidator.isValid(new RequestStockDto("Symbol", "Company Name", 100_000L)));
+    assertFalse(RequestStockDtoValidator.isValid(new RequestStockDto("$", "Company Name", 100_000L)));
+    assertFalse(RequestStockDtoValidator.isValid(new RequestStockDto("UUU", "Company Name", 100_000L)));
+    assertFalse(RequestStockDtoValidator.isValid(new RequestStockDto("U99", "Company Name", 100_000L)));
+    assertFalse(RequestStockDtoValidator.isValid(new RequestStockDto("UU\u0663", "Company Name", 100_000L)));
+  }
+
+  /**
+   * Method under test: {@link RequestStockDtoValidator#isValid(RequestStockDto)}
+   */
+  @Test
+  public void testIsValid3() {
+    // Arrange, Act and Assert
+    assertFalse(RequestStockDtoValidator.isValid(new RequestStockDto("UU9", null, 100_000L)));
+    assertFalse(RequestStockDtoValidator.isValid(new RequestStockDto("UU9", "", 100_000L)));
+    assertFalse(RequestStockDtoValidator.isValid(new RequestStockDto("UU9", " \t\n", 100_000L)));
+    assertFalse(RequestStockDtoValidator.isValid(new RequestStockDto("UU9", "\u2003", 100_000L)));
+  }
+}
@@ -0,0 +1,221 @@
+package com.mandacarubroker.service;
+
+import com.mandacarubroker.domain.journal.FsyncPolicy;
+import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.domain.stock.StockDeletedEvent;
+import com.mandacarubroker.domain.stock.StockPriceChangedEvent;
+import com.mandacarubroker.domain.stock.StockSavedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class StockJournalServiceTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private StockService stockService;
+  private PlatformTransactionManager transactionManager;
+  private Path directory;
+
+  @Before
+  public void setUp() {
+    stockService = mock(StockService.class);
+    transactionManager = mock(PlatformTransactionManager.class);
+    directory = folder.getRoot().toPath();
+    doAnswer(invocation -> {
+      Consumer<Stock> action = invocation.getArgument(0);
+      action.accept(new Stock("42", "UU9", "Company Name", 100_000L, 1L, Instant.parse("2024-01-02T09:00:00Z")));
+      return null;
+    }).when(stockService).forEachStock(Mockito.any());
+  }
+
+  /**
+   * Method under test: {@link StockJournalService#recover()}
+   */
+  @Test
+  public void testRecover() throws IOException {
+    // Arrange
+    StockJournalService service = newService();
+
+    // Act
+    service.recover();
+
+    // Assert
+    verify(stockService, times(1)).forEachStock(Mockito.any());
+    assertEquals(100_000L, service.getStock("42").orElseThrow().getPrice());
+    verify(transactionManager).getTransaction(Mockito.argThat(definition -> !definition.isReadOnly()));
+  }
+
+  /**
+   * Method under test: {@link StockJournalService#recover()}
+   */
+  @Test
+  public void testRecover2() throws IOException {
+    // Arrange
+    StockJournalService service = newService();
+    service.recover();
+    service.onStockSaved(new StockSavedEvent(new Stock("43", "AB1", "Other Company", 50_000L, 1L, null)));
+    service.onStockPriceChanged(new StockPriceChangedEvent("UU9", 110_000L));
+    service.snapshot();
+    service.onStockSaved(new StockSavedEvent(new Stock("43", "AB2", "Other Company", 60_000L, 2L, null)));
+    service.onStockDeleted(new StockDeletedEvent("42"));
+    service.close();
+
+    // Act
+    StockJournalService restarted = newService();
+    restarted.recover();
+
+    // Assert
+    verify(stockService, times(1)).forEachStock(Mockito.any());
+    assertTrue(restarted.getStock("42").isEmpty());
+    Stock stock = restarted.getStock("43").orElseThrow();
+    assertEquals("AB2", stock.getSymbol());
+    assertEquals(60_000L, stock.getPrice());
+    assertEquals(2L, (long) stock.getVersion());
+    assertEquals(1, restarted.getStocks().size());
+  }
+
+  /**
+   * Method under test: {@link StockJournalService#onStockPriceChanged(StockPriceChangedEvent)}
+   */
+  @Test
+  public void testOnStockPriceChanged() throws IOException {
+    // Arrange
+    StockJournalService service = newService();
+    service.recover();
+    service.onStockPriceChanged(new StockPriceChangedEvent("UU9", 120_000L));
+    service.close();
+
+    // Act
+    StockJournalService restarted = newService();
+    restarted.recover();
+
+    // Assert
+    Stock stock = restarted.getStock("42").orElseThrow();
+    assertEquals(120_000L, stock.getPrice());
+    assertNull(stock.getVersion());
+  }
+
+  /**
+   * Method under test: {@link StockJournalService#snapshot()}
+   */
+  @Test
+  public void testSnapshot() throws IOException {
+    // Arrange
+    StockJournalService service = newService();
+    service.recover();
+    int files = folder.getRoot().list().length;
+
+    // Act
+    service.snapshot();
+
+    // Assert
+    assertEquals(files, folder.getRoot().list().length);
+    verify(stockService, never()).getStockById(Mockito.any());
+  }
+
+  /**
+   * Method under test: {@link StockJournalService#onStockPriceChanged(StockPriceChangedEvent)}
+   */
+  @Test
+  public void testOnStockPriceChanged2() throws IOException {
+    // Arrange: new journal segments cannot be created once the directory is gone.
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    StockJournalService service = new StockJournalService(stockService, transactionManager, meterRegistry, directory, 4096,
+            FsyncPolicy.ALWAYS);
+    service.recover();
+    FileSystemUtils.deleteRecursively(directory);
+
+    // Act
+    for (int i = 1; i <= 200; i++) {
+      service.onStockPriceChanged(new StockPriceChangedEvent("UU9", 100_000L + i));
+    }
+
+    // Assert
+    assertTrue(meterRegistry.counter("stock.journal.append.failures").count() > 0);
+    assertEquals(100_200L, service.getStock("42").orElseThrow().getPrice());
+  }
+
+  /**
+   * Method under test: {@link StockJournalService#snapshot()}
+   */
+  @Test
+  public void testSnapshot2() throws IOException {
+    // Arrange
+    StockJournalService service = newService();
+    service.recover();
+    FileSystemUtils.deleteRecursively(directory);
+    for (int i = 1; i <= 200; i++) {
+      service.onStockPriceChanged(new StockPriceChangedEvent("UU9", 100_000L + i));
+    }
+    Files.createDirectories(directory);
+
+    // Act
+    service.snapshot();
+    service.snapshot();
+
+    // Assert that the state was reseeded from the database once
+    verify(stockService, times(2)).forEachStock(Mockito.any());
+    assertEquals(100_000L, service.getStock("42").orElseThrow().getPrice());
+    StockJournalService restarted = newService();
+    restarted.recover();
+    assertEquals(100_000L, restarted.getStock("42").orElseThrow().getPrice());
+  }
+
+  /**
+   * Method under test: {@link StockJournalService#snapshot()}
+   */
+  @Test
+  public void testSnapshot3() throws IOException {
+    // Arrange
+    StockJournalService service = newService();
+    service.recover();
+    FileSystemUtils.deleteRecursively(directory);
+    for (int i = 1; i <= 200; i++) {
+      service.onStockPriceChanged(new StockPriceChangedEvent("UU9", 100_000L + i));
+    }
+    Files.createDirectories(directory);
+    doAnswer(invocation -> {
+      Consumer<Stock> action = invocation.getArgument(0);
+      action.accept(new Stock("42", "UU9", "Company Name", 110_000L, 2L, Instant.parse("2024-01-02T09:00:00Z")));
+      // A write made while the database is being read must not wait for the read to finish.
+      service.onStockPriceChanged(new StockPriceChangedEvent("UU9", 120_000L));
+      return null;
+    }).when(stockService).forEachStock(Mockito.any());
+
+    // Act
+    service.snapshot();
+
+    // Assert that the write was applied on top of the reseeded state
+    assertEquals(120_000L, service.getStock("42").orElseThrow().getPrice());
+    verify(transactionManager, times(2)).getTransaction(Mockito.argThat(definition -> !definition.isReadOnly()));
+    StockJournalService restarted = newService();
+    restarted.recover();
+    assertEquals(120_000L, restarted.getStock("42").orElseThrow().getPrice());
+  }
+
+  private StockJournalService newService() throws IOException {
+    return new StockJournalService(stockService, transactionManager, new SimpleMeterRegistry(), directory, 4096,
+            FsyncPolicy.ALWAYS);
+  }
+}
@@ -0,0 +1,193 @@
+package com.mandacarubroker.service;
+
+import com.mandacarubroker.domain.stock.StockPriceChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StockPriceBroadcasterTest {
+  private final List<Runnable> scheduledDrains = new ArrayList<>();
+  private final AtomicLong nanoTime = new AtomicLong();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private StockPriceBroadcaster stockPriceBroadcaster;
+
+  @Before
+  public void setUp() {
+    Executor executor = scheduledDrains::add;
+    stockPriceBroadcaster = new StockPriceBroadcaster(executor, meterRegistry, 0L, 5000L, nanoTime::get);
+  }
+
+  /**
+   * Method under test:
+   * {@link StockPriceBroadcaster#onStockPriceChanged(StockPriceChangedEvent)}
+   */
+  @Test
+  public void testOnStockPriceChanged() {
+    // Arrange
+    RecordingEmitter emitter = new RecordingEmitter();
+    stockPriceBroadcaster.register(emitter, Set.of("UU9", "AB1"));
+
+    // Act
+    stockPriceBroadcaster.onStockPriceChanged(new StockPriceChangedEvent("UU9", 100_000L));
+    stockPriceBroadcaster.onStockPriceChanged(new StockPriceChangedEvent("UU9", 110_000L));
+    stockPriceBroadcaster.onStockPriceChanged(new StockPriceChangedEvent("CD2", 10_000L));
+    stockPriceBroadcaster.onStockPriceChanged(new StockPriceChangedEvent("AB1", 50_000L));
+    runScheduledDrains();
+
+    // Assert that only the latest price of each subscribed symbol was sent
+    assertEquals(Set.of(new StockPriceChangedEvent("UU9", 110_000L), new StockPriceChangedEvent("AB1", 50_000L)),
+            Set.copyOf(emitter.sent));
+    assertEquals(2, emitter.sent.size());
+  }
+
+  /**
+   * Method under test:
+   * {@link StockPriceBroadcaster#onStockPriceChanged(StockPriceChangedEvent)}
+   */
+  @Test
+  public void testOnStockPriceChanged2() {
+    // Arrange
+    RecordingEmitter emitter = new RecordingEmitter();
+    emitter.failing = true;
+    stockPriceBroadcaster.register(emitter, Set.of("UU9"));
+
+    // Act
+    stockPriceBroadcaster.onStockPriceChanged(new StockPriceChangedEvent("UU9", 100_000L));
+    runScheduledDrains();
+    stockPriceBroadcaster.onStockPriceChanged(new StockPriceChangedEvent("UU9", 110_000L));
+
+    // Assert that a subscription is dropped once its client goes away
+    assertEquals(0, stockPriceBroadcaster.getSubscriptionCount());
+    assertTrue(scheduledDrains.isEmpty());
+  }
+
+  /**
+   * Method under test: {@link StockPriceBroadcaster#subscribe(Set)}
+   */
+  @Test
+  public void testSubscribe() {
+    // Act
+    stockPriceBroadcaster.subscribe(Set.of("UU9"));
+    stockPriceBroadcaster.subscribe(Set.of("UU9", "AB1"));
+
+    // Assert
+    assertEquals(2, stockPriceBroadcaster.getSubscriptionCount());
+  }
+
+  /**
+   * Method under test: {@link StockPriceBroadcaster#evictSlowSubscribers()}
+   */
+  @Test
+  public void testEvictSlowSubscribers() {
+    // Arrange: the client stops reading while the first change is being written.
+    RecordingEmitter emitter = new RecordingEmitter();
+    emitter.onSend = () -> {
+      nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+      stockPriceBroadcaster.evictSlowSubscribers();
+      nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(5));
+      stockPriceBroadcaster.evictSlowSubscribers();
+    };
+    stockPriceBroadcaster.register(emitter, Set.of("UU9", "AB1"));
+    stockPriceBroadcaster.onStockPriceChanged(new StockPriceChangedEvent("UU9", 100_000L));
+    stockPriceBroadcaster.onStockPriceChanged(new StockPriceChangedEvent("AB1", 50_000L));
+
+    // Act
+    runScheduledDrains();
+    stockPriceBroadcaster.onStockPriceChanged(new StockPriceChangedEvent("UU9", 110_000L));
+
+    // Assert
+    assertEquals(1, emitter.sent.size());
+    assertEquals(0, stockPriceBroadcaster.getSubscriptionCount());
+    assertEquals(1.0, meterRegistry.counter("stock.prices.subscribers.evicted").count(), 0.0);
+    assertTrue(scheduledDrains.isEmpty());
+    assertEquals(1, emitter.errors.size());
+    assertTrue(emitter.errors.get(0) instanceof TimeoutException);
+  }
+
+  /**
+   * Method under test: {@link StockPriceBroadcaster#evictSlowSubscribers()}
+   */
+  @Test
+  public void testEvictSlowSubscribers3() {
+    // Arrange: the write is still blocked when the subscription is evicted.
+    RecordingEmitter emitter = new RecordingEmitter();
+    List<Integer> errorsWhileSending = new ArrayList<>();
+    emitter.onSend = () -> {
+      nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(6));
+      stockPriceBroadcaster.evictSlowSubscribers();
+      errorsWhileSending.add(emitter.errors.size());
+    };
+    stockPriceBroadcaster.register(emitter, Set.of("UU9"));
+    stockPriceBroadcaster.onStockPriceChanged(new StockPriceChangedEvent("UU9", 100_000L));
+
+    // Act
+    runScheduledDrains();
+
+    // Assert that the emitter was completed once the write returned, not while it was blocked
+    assertEquals(List.of(0), errorsWhileSending);
+    assertEquals(1, emitter.errors.size());
+    assertEquals(0, stockPriceBroadcaster.getSubscriptionCount());
+  }
+
+  /**
+   * Method under test: {@link StockPriceBroadcaster#evictSlowSubscribers()}
+   */
+  @Test
+  public void testEvictSlowSubscribers2() {
+    // Arrange
+    RecordingEmitter emitter = new RecordingEmitter();
+    stockPriceBroadcaster.register(emitter, Set.of("UU9"));
+    stockPriceBroadcaster.onStockPriceChanged(new StockPriceChangedEvent("UU9", 100_000L));
+    runScheduledDrains();
+
+    // Act: a subscription that is not writing is never evicted, however long it idles.
+    nanoTime.addAndGet(TimeUnit.MINUTES.toNanos(10));
+    stockPriceBroadcaster.evictSlowSubscribers();
+
+    // Assert
+    assertEquals(1, stockPriceBroadcaster.getSubscriptionCount());
+  }
+
+  private void runScheduledDrains() {
+    while (!scheduledDrains.isEmpty()) {
+      scheduledDrains.remove(0).run();
+    }
+  }
+
+  private static class RecordingEmitter extends SseEmitter {
+    private final List<Object> sent = new ArrayList<>();
+    private final List<Throwable> errors = new ArrayList<>();
+    private boolean failing;
+    private Runnable onSend = () -> { };
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+      if (failing) {
+        throw new IOException("Broken pipe");
+      }
+      onSend.run();
+      builder.build().stream()
+              .map(part -> part.getData())
+              .filter(StockPriceChangedEvent.class::isInstance)
+              .forEach(sent::add);
+    }
+
+    @Override
+    public void completeWithError(Throwable error) {
+      errors.add(error);
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package com.mandacarubroker.service;
+
+import com.mandacarubroker.domain.search.StockSearchHit;
+import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.domain.stock.StockChange;
+import com.mandacarubroker.domain.stock.StockDeletedEvent;
+import com.mandacarubroker.domain.stock.StockSavedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class StockSearchServiceTest {
+  private StockService stockService;
+  private SimpleMeterRegistry meterRegistry;
+  private StockSearchService stockSearchService;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    stockService = mock(StockService.class);
+    doAnswer(invocation -> {
+      Consumer<Stock> action = invocation.getArgument(0);
+      action.accept(new Stock("1", "VL3", "Vale S.A.", 600_000L, 0L, null));
+      action.accept(new Stock("2", "BB3", "Banco do Brasil", 250_000L, 0L, null));
+      return null;
+    }).when(stockService).forEachStock(any(Consumer.class));
+    meterRegistry = new SimpleMeterRegistry();
+    stockSearchService = new StockSearchService(stockService, meterRegistry);
+    stockSearchService.load();
+  }
+
+  /**
+   * Method under test: {@link StockSearchService#load()}
+   */
+  @Test
+  public void testLoad() {
+    // Arrange, Act and Assert
+    assertEquals(2.0d, meterRegistry.get("stock.search.entries").gauge().value(), 0.0);
+    assertEquals(List.of(new StockSearchHit("1", "VL3", "Vale S.A.")), stockSearchService.search("val", 10));
+    assertEquals(1L, meterRegistry.timer("stock.search").count());
+  }
+
+  /**
+   * Method under test: {@link StockSearchService#onStockSaved(StockSavedEvent)}
+   */
+  @Test
+  public void testOnStockSaved() {
+    // Arrange and Act
+    stockSearchService.onStockSaved(new StockSavedEvent(new Stock("3", "BR1", "Braskem", 300_000L, 0L, null)));
+    stockSearchService.onStockSaved(new StockSavedEvent(new Stock("2", "BB3", "Banco do Brasil S.A.", 0L, 1L, null)));
+
+    // Assert
+    assertEquals(List.of("3", "2"), stockSearchService.search("br", 10).stream().map(StockSearchHit::id).toList());
+    assertEquals("Banco do Brasil S.A.", stockSearchService.search("banco", 10).get(0).companyName());
+  }
+
+  /**
+   * Method under test: {@link StockSearchService#onStockDeleted(StockDeletedEvent)}
+   */
+  @Test
+  public void testOnStockDeleted() {
+    // Arrange and Act
+    stockSearchService.onStockDeleted(new StockDeletedEvent("1"));
+
+    // Assert
+    assertTrue(stockSearchService.search("vale", 10).isEmpty());
+    assertEquals(1.0d, meterRegistry.get("stock.search.entries").gauge().value(), 0.0);
+  }
+
+  /**
+   * Method under test: {@link StockSearchService#reconcile()}
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testReconcile() {
+    // Arrange: another instance renamed a stock, deleted one and then created one.
+    doAnswer(invocation -> {
+      Consumer<StockChange> action = invocation.getArgument(1);
+      action.accept(StockChange.upsert(new Stock("2", "BB3", "Banco do Brasil S.A.", 250_000L, 1L, null)));
+      action.accept(StockChange.delete("1"));
+      return 7L;
+    }).when(stockService).forEachChangeSince(eq(0L), any(Consumer.class));
+    doAnswer(invocation -> {
+      Consumer<StockChange> action = invocation.getArgument(1);
+      action.accept(StockChange.upsert(new Stock("3", "BR1", "Braskem", 300_000L, 0L, null)));
+      return 9L;
+    }).when(stockService).forEachChangeSince(eq(7L), any(Consumer.class));
+
+    // Act
+    stockSearchService.reconcile();
+    stockSearchService.reconcile();
+
+    // Assert
+    assertTrue(stockSearchService.search("vale", 10).isEmpty());
+    assertEquals("Banco do Brasil S.A.", stockSearchService.search("banco", 10).get(0).companyName());
+    assertEquals("3", stockSearchService.search("braskem", 10).get(0).id());
+    assertEquals(2.0d, meterRegistry.get("stock.search.entries").gauge().value(), 0.0);
+  }
+
+  /**
+   * Method under test: {@link StockSearchService#search(String, int)}
+   */
+  @Test
+  public void testSearch() {
+    // Arrange, Act and Assert
+    assertThrows(InvalidStockSearchQueryException.class, () -> stockSearchService.search(" .", 10));
+    assertThrows(InvalidStockSearchQueryException.class, () -> stockSearchService.search(null, 10));
+    assertThrows(InvalidStockSearchQueryException.class, () -> stockSearchService.search("vale", 0));
+    assertThrows(InvalidStockSearchQueryException.class,
+            () -> stockSearchService.search("vale", StockSearchService.MAX_LIMIT + 1));
+  }
+}
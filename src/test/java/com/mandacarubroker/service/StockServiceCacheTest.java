@@ -0,0 +1,192 @@
+package com.mandacarubroker.service;
+
+import com.mandacarubroker.config.CacheConfig;
+import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.domain.stock.StockPriceView;
+import com.mandacarubroker.domain.stock.StockRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ContextConfiguration(classes = {StockService.class, CacheConfig.class})
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+@RunWith(SpringJUnit4ClassRunner.class)
+public class StockServiceCacheTest {
+  @MockBean
+  private StockRepository stockRepository;
+
+  @MockBean
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private StockService stockService;
+
+  @Autowired
+  private CacheManager cacheManager;
+
+  @Before
+  public void clearCaches() {
+    cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+  }
+
+  /**
+   * Method under test: {@link StockService#getStockById(String)}
+   */
+  @Test
+  public void testGetStockById() {
+    // Arrange
+    Stock stock = new Stock();
+    stock.setId("42");
+    stock.setSymbol("UU9");
+    when(stockRepository.findById("42")).thenReturn(Optional.of(stock));
+
+    // Act
+    stockService.getStockById("42");
+    Optional<Stock> actualStockById = stockService.getStockById("42");
+
+    // Assert
+    verify(stockRepository, times(1)).findById("42");
+    assertSame(stock, actualStockById.get());
+  }
+
+  /**
+   * Method under test: {@link StockService#getStockById(String)}
+   */
+  @Test
+  public void testGetStockById2() {
+    // Arrange
+    when(stockRepository.findById("42")).thenReturn(Optional.empty());
+
+    // Act
+    stockService.getStockById("42");
+    Optional<Stock> actualStockById = stockService.getStockById("42");
+
+    // Assert that misses are not cached
+    verify(stockRepository, times(2)).findById("42");
+    assertFalse(actualStockById.isPresent());
+  }
+
+  /**
+   * Method under test: {@link StockService#getStockBySymbol(String)}
+   */
+  @Test
+  public void testGetStockBySymbol() {
+    // Arrange
+    Stock stock = new Stock();
+    stock.setId("42");
+    stock.setSymbol("UU9");
+    when(stockRepository.findBySymbol("UU9")).thenReturn(Optional.of(stock));
+
+    // Act
+    stockService.getStockBySymbol("UU9");
+    Optional<Stock> actualStockBySymbol = stockService.getStockBySymbol("UU9");
+
+    // Assert
+    verify(stockRepository, times(1)).findBySymbol("UU9");
+    assertSame(stock, actualStockBySymbol.get());
+  }
+
+  /**
+   * Method under test: {@link StockService#updateStock(String, Stock)}
+   */
+  @Test
+  public void testUpdateStock() {
+    // Arrange
+    Stock stock = new Stock();
+    stock.setId("42");
+    stock.setSymbol("UU9");
+    when(stockRepository.findById("42")).thenReturn(Optional.of(stock));
+    when(stockRepository.findBySymbol("UU9")).thenReturn(Optional.of(stock));
+    when(stockRepository.save(Mockito.any())).thenReturn(stock);
+    stockService.getStockById("42");
+    stockService.getStockBySymbol("UU9");
+
+    // Act
+    stockService.updateStock("42", stock);
+    stockService.getStockById("42");
+    stockService.getStockBySymbol("UU9");
+
+    // Assert
+    verify(stockRepository, times(3)).findById("42");
+    verify(stockRepository, times(2)).findBySymbol("UU9");
+  }
+
+  /**
+   * Method under test: {@link StockService#adjustPrice(String, long)}
+   */
+  @Test
+  public void testAdjustPrice() {
+    // Arrange
+    Stock stock = new Stock();
+    stock.setId("42");
+    stock.setSymbol("UU9");
+    StockPriceView adjusted = mock(StockPriceView.class);
+    when(adjusted.getSymbol()).thenReturn("UU9");
+    when(stockRepository.findById("42")).thenReturn(Optional.of(stock));
+    when(stockRepository.findBySymbol("UU9")).thenReturn(Optional.of(stock));
+    when(stockRepository.adjustPrice(Mockito.eq("42"), Mockito.eq(15_000L), Mockito.any())).thenReturn(Optional.of(adjusted));
+    stockService.getStockById("42");
+    stockService.getStockBySymbol("UU9");
+
+    // Act
+    stockService.adjustPrice("42", 15_000L);
+    stockService.getStockById("42");
+    stockService.getStockBySymbol("UU9");
+
+    // Assert
+    verify(stockRepository, times(2)).findById("42");
+    verify(stockRepository, times(2)).findBySymbol("UU9");
+  }
+
+  /**
+   * Method under test: {@link StockService#adjustPrice(String, long)}
+   */
+  @Test
+  public void testAdjustPrice2() {
+    // Arrange
+    when(stockRepository.adjustPrice(Mockito.eq("42"), Mockito.eq(15_000L), Mockito.any())).thenReturn(Optional.empty());
+
+    // Act
+    Optional<StockPriceView> actualAdjustment = stockService.adjustPrice("42", 15_000L);
+
+    // Assert
+    assertFalse(actualAdjustment.isPresent());
+  }
+
+  /**
+   * Method under test: {@link StockService#deleteStock(String)}
+   */
+  @Test
+  public void testDeleteStock() {
+    // Arrange
+    Stock stock = new Stock();
+    stock.setId("42");
+    when(stockRepository.findById("42")).thenReturn(Optional.of(stock));
+    stockService.getStockById("42");
+
+    // Act
+    stockService.deleteStock("42");
+    stockService.getStockById("42");
+
+    // Assert
+    verify(stockRepository, times(2)).findById("42");
+  }
+}
@@ -0,0 +1,79 @@
+package com.mandacarubroker.service;
+
+import com.mandacarubroker.config.MetricsConfig;
+import com.mandacarubroker.domain.stock.RequestStockDto;
+import com.mandacarubroker.domain.stock.StockRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolationException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ContextConfiguration(classes = {StockService.class, MetricsConfig.class, SimpleMeterRegistry.class})
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@RunWith(SpringJUnit4ClassRunner.class)
+public class StockServiceMetricsTest {
+  @MockBean
+  private StockRepository stockRepository;
+
+  @MockBean
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private StockService stockService;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  /**
+   * Method under test: {@link StockService#getStockById(String)}
+   */
+  @Test
+  public void testGetStockById() {
+    // Arrange
+    when(stockRepository.findById("42")).thenReturn(Optional.empty());
+
+    // Act
+    stockService.getStockById("42");
+    stockService.getStockById("42");
+
+    // Assert
+    assertEquals(2L, meterRegistry.get("stock.service").tag("method", "getStockById").timer().count());
+  }
+
+  /**
+   * Method under test: {@link StockService#validateRequestStockDto(RequestStockDto)}
+   */
+  @Test
+  public void testValidateRequestStockDto() {
+    // Arrange
+    SimpleMeterRegistry globalRegistry = new SimpleMeterRegistry();
+    Metrics.addRegistry(globalRegistry);
+
+    try {
+      // Act
+      assertThrows(ConstraintViolationException.class,
+              () -> StockService.validateRequestStockDto(new RequestStockDto("$", "", 100_000L)));
+
+      // Assert
+      assertEquals(1.0d, globalRegistry.counter(StockService.VALIDATION_FAILURES, "field", "symbol").count(), 0.0);
+      assertEquals(1.0d, globalRegistry.counter(StockService.VALIDATION_FAILURES, "field", "companyName").count(), 0.0);
+    } finally {
+      Metrics.removeRegistry(globalRegistry);
+    }
+  }
+}
@@ -2,6 +2,9 @@ package com.mandacarubroker.service;
 
 import com.mandacarubroker.domain.stock.RequestStockDto;
 import com.mandacarubroker.domain.stock.Stock;
+import com.mandacarubroker.domain.stock.StockImportResult;
+import com.mandacarubroker.domain.stock.StockPage;
+import com.mandacarubroker.domain.stock.StockPageOrder;
 import com.mandacarubroker.domain.stock.StockRepository;
 import jakarta.validation.ConstraintViolationException;
 import org.junit.Test;
@@ -9,13 +12,18 @@ import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -26,6 +34,9 @@ public class StockServiceTest {
   @MockBean
   private StockRepository stockRepository;
 
+  @MockBean
+  private PlatformTransactionManager transactionManager;
+
   @Autowired
   private StockService stockService;
 
@@ -75,7 +86,7 @@ public class StockServiceTest {
     Stock stock = new Stock();
     stock.setCompanyName("Company Name");
     stock.setId("42");
-    stock.setPrice(10.0d);
+    stock.setPrice(100_000L);
     stock.setSymbol("Symbol");
     Optional<Stock> ofResult = Optional.of(stock);
     when(stockRepository.findById(Mockito.any())).thenReturn(ofResult);
@@ -104,6 +115,67 @@ public class StockServiceTest {
     verify(stockRepository).findById(Mockito.any());
   }
 
+  /**
+   * Method under test:
+   * {@link StockService#getStockPage(StockPageOrder, String, int)}
+   */
+  @Test
+  public void testGetStockPage() {
+    // Arrange
+    Stock first = new Stock();
+    first.setId("1");
+    Stock second = new Stock();
+    second.setId("2");
+    Stock third = new Stock();
+    third.setId("3");
+    when(stockRepository.findByIdGreaterThanOrderByIdAsc("", Limit.of(3)))
+            .thenReturn(List.of(first, second, third));
+
+    // Act
+    StockPage actualPage = stockService.getStockPage(StockPageOrder.ID, null, 2);
+
+    // Assert
+    assertEquals(List.of(first, second), actualPage.content());
+    assertEquals("2", actualPage.next());
+  }
+
+  /**
+   * Method under test:
+   * {@link StockService#getStockPage(StockPageOrder, String, int)}
+   */
+  @Test
+  public void testGetStockPage2() {
+    // Arrange
+    Stock stock = new Stock();
+    stock.setId("42");
+    stock.setSymbol("UU9");
+    when(stockRepository.findBySymbolGreaterThanOrderBySymbolAsc("AB1", Limit.of(StockService.MAX_PAGE_SIZE + 1)))
+            .thenReturn(List.of(stock));
+
+    // Act
+    StockPage actualPage = stockService.getStockPage(StockPageOrder.SYMBOL, "AB1", Integer.MAX_VALUE);
+
+    // Assert
+    assertEquals(List.of(stock), actualPage.content());
+    assertNull(actualPage.next());
+  }
+
+  /**
+   * Method under test: {@link StockService#forEachStock(Consumer)}
+   */
+  @Test
+  public void testForEachStock() {
+    // Arrange
+    Consumer<Stock> action = stock -> {
+    };
+
+    // Act
+    stockService.forEachStock(action);
+
+    // Assert
+    verify(stockRepository).forEachOrderedById(action);
+  }
+
   /**
    * Method under test: {@link StockService#createStock(RequestStockDto)}
    *
@@ -112,8 +184,8 @@ public class StockServiceTest {
   @Test
   public void testCreateStock() {
     // Arrange
-    RequestStockDto request1 = new RequestStockDto("Symbol", "Company Name", 10.0d);
-    RequestStockDto request2 = new RequestStockDto("$", "Company Name", 10.0d);
+    RequestStockDto request1 = new RequestStockDto("Symbol", "Company Name", 100_000L);
+    RequestStockDto request2 = new RequestStockDto("$", "Company Name", 100_000L);
 
     // Act and Assert
     try {
@@ -142,12 +214,12 @@ public class StockServiceTest {
     Stock stock = new Stock();
     stock.setCompanyName("Company Name");
     stock.setId("42");
-    stock.setPrice(10.0d);
+    stock.setPrice(100_000L);
     stock.setSymbol("Symbol");
     when(stockRepository.save(Mockito.any())).thenReturn(stock);
 
     // Act
-    Stock actualCreateStockResult = stockService.createStock(new RequestStockDto("UU9", "Company Name", 10.0d));
+    Stock actualCreateStockResult = stockService.createStock(new RequestStockDto("UU9", "Company Name", 100_000L));
 
     // Assert
     verify(stockRepository).save(Mockito.any());
@@ -165,12 +237,12 @@ public class StockServiceTest {
     Stock stock = new Stock();
     stock.setCompanyName("Company Name");
     stock.setId("42");
-    stock.setPrice(10.0d);
+    stock.setPrice(100_000L);
     stock.setSymbol("Symbol");
     when(stockRepository.save(Mockito.any())).thenReturn(stock);
 
     // Act
-    Stock actualCreateStockResult = stockService.createStock(new RequestStockDto("UU9", "Company Name", -0.5d));
+    Stock actualCreateStockResult = stockService.createStock(new RequestStockDto("UU9", "Company Name", -5_000L));
 
     // Assert
     verify(stockRepository).save(Mockito.any());
@@ -188,13 +260,105 @@ public class StockServiceTest {
     when(stockRepository.save(Mockito.any())).thenThrow(new ConstraintViolationException(new HashSet<>()));
 
     // Act
-    RequestStockDto request = new RequestStockDto("UU9", "Company Name", 10.0d);
+    RequestStockDto request = new RequestStockDto("UU9", "Company Name", 100_000L);
 
     // Assert
     assertThrows(ConstraintViolationException.class, () -> stockService.createStock(request));
     verify(stockRepository).save(Mockito.any());
   }
 
+  /**
+   * Method under test:
+   * {@link StockService#importStocks(java.util.Iterator, Consumer)}
+   */
+  @Test
+  public void testImportStocks() {
+    // Arrange
+    List<RequestStockDto> requests = new ArrayList<>();
+    for (int i = 0; i < StockService.IMPORT_CHUNK_SIZE; i++) {
+      requests.add(new RequestStockDto("UU9", "Company Name", 100_000L));
+    }
+    requests.add(new RequestStockDto("$", "Company Name", 100_000L));
+    requests.add(new RequestStockDto("AB1", "Company Name", 100_000L));
+    when(stockRepository.saveAll(Mockito.any())).thenAnswer(invocation -> {
+      List<Stock> chunk = new ArrayList<>(invocation.getArgument(0));
+      chunk.forEach(stock -> stock.setId("id-" + stock.getSymbol()));
+      return chunk;
+    });
+    List<StockImportResult> results = new ArrayList<>();
+
+    // Act
+    stockService.importStocks(requests.iterator(), results::add);
+
+    // Assert
+    verify(stockRepository, times(2)).saveAll(Mockito.any());
+    assertEquals(requests.size(), results.size());
+    assertEquals(StockService.IMPORT_CHUNK_SIZE - 1, results.get(StockService.IMPORT_CHUNK_SIZE - 1).index());
+    assertTrue(results.get(StockService.IMPORT_CHUNK_SIZE - 1).success());
+    StockImportResult rejected = results.get(StockService.IMPORT_CHUNK_SIZE);
+    assertEquals(StockService.IMPORT_CHUNK_SIZE, rejected.index());
+    assertFalse(rejected.success());
+    assertEquals("$", rejected.symbol());
+    StockImportResult created = results.get(StockService.IMPORT_CHUNK_SIZE + 1);
+    assertEquals(StockService.IMPORT_CHUNK_SIZE + 1, created.index());
+    assertTrue(created.success());
+    assertEquals("id-AB1", created.id());
+  }
+
+  /**
+   * Method under test:
+   * {@link StockService#importStocks(java.util.Iterator, Consumer)}
+   */
+  @Test
+  public void testImportStocks2() {
+    // Arrange
+    when(stockRepository.saveAll(Mockito.any())).thenThrow(new DataIntegrityViolationException("duplicate symbol"));
+    when(stockRepository.save(Mockito.any())).thenAnswer(invocation -> {
+      Stock stock = invocation.getArgument(0);
+      if ("AB1".equals(stock.getSymbol())) {
+        throw new DataIntegrityViolationException("duplicate symbol");
+      }
+      stock.setId("id-" + stock.getSymbol());
+      return stock;
+    });
+    List<StockImportResult> results = new ArrayList<>();
+
+    // Act
+    stockService.importStocks(List.of(new RequestStockDto("UU9", "Company Name", 100_000L),
+            new RequestStockDto("AB1", "Company Name", 100_000L)).iterator(), results::add);
+
+    // Assert
+    verify(stockRepository, times(2)).save(Mockito.any());
+    assertEquals(2, results.size());
+    assertTrue(results.get(0).success());
+    assertEquals("id-UU9", results.get(0).id());
+    assertEquals(StockImportResult.rejected(1, "AB1", "duplicate symbol"), results.get(1));
+  }
+
+  /**
+   * Method under test:
+   * {@link StockService#importStocks(java.util.Iterator, Consumer)}
+   */
+  @Test
+  public void testImportStocks3() {
+    // Arrange
+    when(stockRepository.saveAll(Mockito.any())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(0)));
+    List<RequestStockDto> requests = new ArrayList<>();
+    requests.add(null);
+    requests.add(new RequestStockDto("UU9", "Company Name", 100_000L));
+    List<StockImportResult> results = new ArrayList<>();
+
+    // Act
+    stockService.importStocks(requests.iterator(), results::add);
+
+    // Assert
+    assertEquals(2, results.size());
+    assertEquals(0, results.get(0).index());
+    assertFalse(results.get(0).success());
+    assertEquals(1, results.get(1).index());
+    assertTrue(results.get(1).success());
+  }
+
   /**
    * Method under test: {@link StockService#updateStock(String, Stock)}
    *
@@ -206,14 +370,14 @@ public class StockServiceTest {
     Stock stock = new Stock();
     stock.setCompanyName("Company Name");
     stock.setId("42");
-    stock.setPrice(10.0d);
+    stock.setPrice(100_000L);
     stock.setSymbol("Symbol");
     Optional<Stock> ofResult = Optional.of(stock);
 
     Stock stock2 = new Stock();
     stock2.setCompanyName("Company Name");
     stock2.setId("42");
-    stock2.setPrice(10.0d);
+    stock2.setPrice(100_000L);
     stock2.setSymbol("Symbol");
     when(stockRepository.save(Mockito.any())).thenReturn(stock2);
     when(stockRepository.findById(Mockito.any())).thenReturn(ofResult);
@@ -221,7 +385,7 @@ public class StockServiceTest {
     Stock updatedStock = new Stock();
     updatedStock.setCompanyName("Company Name");
     updatedStock.setId("42");
-    updatedStock.setPrice(10.0d);
+    updatedStock.setPrice(100_000L);
     updatedStock.setSymbol("Symbol");
 
     // Act
@@ -244,7 +408,7 @@ public class StockServiceTest {
     Stock stock = new Stock();
     stock.setCompanyName("Company Name");
     stock.setId("42");
-    stock.setPrice(10.0d);
+    stock.setPrice(100_000L);
     stock.setSymbol("Symbol");
     Optional<Stock> ofResult = Optional.of(stock);
     when(stockRepository.save(Mockito.any())).thenThrow(new ConstraintViolationException(new HashSet<>()));
@@ -253,7 +417,7 @@ public class StockServiceTest {
     Stock updatedStock = new Stock();
     updatedStock.setCompanyName("Company Name");
     updatedStock.setId("42");
-    updatedStock.setPrice(10.0d);
+    updatedStock.setPrice(100_000L);
     updatedStock.setSymbol("Symbol");
 
     // Act and Assert
@@ -271,21 +435,21 @@ public class StockServiceTest {
   public void testUpdateStock3() {
     // Arrange
     Stock stock = mock(Stock.class);
-    when(stock.changePrice(anyDouble(), anyBoolean())).thenReturn(10.0d);
+    when(stock.changePrice(anyLong(), anyBoolean())).thenReturn(100_000L);
     doNothing().when(stock).setCompanyName(Mockito.any());
     doNothing().when(stock).setId(Mockito.any());
-    doNothing().when(stock).setPrice(anyDouble());
+    doNothing().when(stock).setPrice(anyLong());
     doNothing().when(stock).setSymbol(Mockito.any());
     stock.setCompanyName("Company Name");
     stock.setId("42");
-    stock.setPrice(10.0d);
+    stock.setPrice(100_000L);
     stock.setSymbol("Symbol");
     Optional<Stock> ofResult = Optional.of(stock);
 
     Stock stock2 = new Stock();
     stock2.setCompanyName("Company Name");
     stock2.setId("42");
-    stock2.setPrice(10.0d);
+    stock2.setPrice(100_000L);
     stock2.setSymbol("Symbol");
     when(stockRepository.save(Mockito.any())).thenReturn(stock2);
     when(stockRepository.findById(Mockito.any())).thenReturn(ofResult);
@@ -293,17 +457,17 @@ public class StockServiceTest {
     Stock updatedStock = new Stock();
     updatedStock.setCompanyName("Company Name");
     updatedStock.setId("42");
-    updatedStock.setPrice(10.0d);
+    updatedStock.setPrice(100_000L);
     updatedStock.setSymbol("Symbol");
 
     // Act
     Optional<Stock> actualUpdateStockResult = stockService.updateStock("42", updatedStock);
 
     // Assert
-    verify(stock).changePrice(anyDouble(), anyBoolean());
+    verify(stock).changePrice(anyLong(), anyBoolean());
     verify(stock, atLeast(1)).setCompanyName(Mockito.any());
     verify(stock).setId(Mockito.any());
-    verify(stock, atLeast(1)).setPrice(anyDouble());
+    verify(stock, atLeast(1)).setPrice(anyLong());
     verify(stock, atLeast(1)).setSymbol(Mockito.any());
     verify(stockRepository).findById(Mockito.any());
     verify(stockRepository).save(Mockito.any());
@@ -324,7 +488,7 @@ public class StockServiceTest {
     Stock updatedStock = new Stock();
     updatedStock.setCompanyName("Company Name");
     updatedStock.setId("42");
-    updatedStock.setPrice(10.0d);
+    updatedStock.setPrice(100_000L);
     updatedStock.setSymbol("Symbol");
 
     // Act
@@ -345,42 +509,42 @@ public class StockServiceTest {
   public void testUpdateStock5() {
     // Arrange
     Stock stock = mock(Stock.class);
-    when(stock.changePrice(anyDouble(), anyBoolean())).thenReturn(10.0d);
+    when(stock.changePrice(anyLong(), anyBoolean())).thenReturn(100_000L);
     doNothing().when(stock).setCompanyName(Mockito.any());
     doNothing().when(stock).setId(Mockito.any());
-    doNothing().when(stock).setPrice(anyDouble());
+    doNothing().when(stock).setPrice(anyLong());
     doNothing().when(stock).setSymbol(Mockito.any());
     stock.setCompanyName("Company Name");
     stock.setId("42");
-    stock.setPrice(10.0d);
+    stock.setPrice(100_000L);
     stock.setSymbol("Symbol");
     Optional<Stock> ofResult = Optional.of(stock);
 
     Stock stock2 = new Stock();
     stock2.setCompanyName("Company Name");
     stock2.setId("42");
-    stock2.setPrice(10.0d);
+    stock2.setPrice(100_000L);
     stock2.setSymbol("Symbol");
     when(stockRepository.save(Mockito.any())).thenReturn(stock2);
     when(stockRepository.findById(Mockito.any())).thenReturn(ofResult);
     Stock updatedStock = mock(Stock.class);
-    when(updatedStock.getPrice()).thenReturn(10.0d);
+    when(updatedStock.getPrice()).thenReturn(100_000L);
     when(updatedStock.getCompanyName()).thenReturn("Company Name");
     when(updatedStock.getSymbol()).thenReturn("Symbol");
     doNothing().when(updatedStock).setCompanyName(Mockito.any());
     doNothing().when(updatedStock).setId(Mockito.any());
-    doNothing().when(updatedStock).setPrice(anyDouble());
+    doNothing().when(updatedStock).setPrice(anyLong());
     doNothing().when(updatedStock).setSymbol(Mockito.any());
     updatedStock.setCompanyName("Company Name");
     updatedStock.setId("42");
-    updatedStock.setPrice(10.0d);
+    updatedStock.setPrice(100_000L);
     updatedStock.setSymbol("Symbol");
 
     // Act
     Optional<Stock> actualUpdateStockResult = stockService.updateStock("42", updatedStock);
 
     // Assert
-    verify(stock).changePrice(anyDouble(), anyBoolean());
+    verify(stock).changePrice(anyLong(), anyBoolean());
     verify(updatedStock).getCompanyName();
     verify(updatedStock).getPrice();
     verify(updatedStock).getSymbol();
@@ -388,8 +552,8 @@ public class StockServiceTest {
     verify(stock, atLeast(1)).setCompanyName(Mockito.any());
     verify(stock).setId(Mockito.any());
     verify(updatedStock).setId(Mockito.any());
-    verify(updatedStock).setPrice(anyDouble());
-    verify(stock, atLeast(1)).setPrice(anyDouble());
+    verify(updatedStock).setPrice(anyLong());
+    verify(stock, atLeast(1)).setPrice(anyLong());
     verify(updatedStock).setSymbol(Mockito.any());
     verify(stock, atLeast(1)).setSymbol(Mockito.any());
     verify(stockRepository).findById(Mockito.any());
@@ -397,6 +561,106 @@ public class StockServiceTest {
     assertTrue(actualUpdateStockResult.isPresent());
   }
 
+  /**
+   * Method under test: {@link StockService#updateStock(String, Stock)}
+   */
+  @Test
+  public void testUpdateStock6() {
+    // Arrange
+    Stock stock = new Stock();
+    stock.setId("42");
+    stock.setPrice(100_000L);
+    stock.setSymbol("UU9");
+    stock.setVersion(1L);
+    when(stockRepository.findById("42")).thenReturn(Optional.of(stock));
+    when(stockRepository.save(Mockito.any()))
+            .thenThrow(new ObjectOptimisticLockingFailureException(Stock.class, "42"))
+            .thenReturn(stock);
+
+    Stock updatedStock = new Stock();
+    updatedStock.setSymbol("UU9");
+    updatedStock.setPrice(10_000L);
+
+    // Act
+    Optional<Stock> actualUpdateStockResult = stockService.updateStock("42", updatedStock);
+
+    // Assert that the lost race was retried on a fresh read
+    verify(stockRepository, times(2)).findById("42");
+    verify(stockRepository, times(2)).save(Mockito.any());
+    assertTrue(actualUpdateStockResult.isPresent());
+  }
+
+  /**
+   * Method under test: {@link StockService#updateStock(String, Stock)}
+   */
+  @Test
+  public void testUpdateStock7() {
+    // Arrange
+    Stock stock = new Stock();
+    stock.setId("42");
+    when(stockRepository.findById("42")).thenReturn(Optional.of(stock));
+    when(stockRepository.save(Mockito.any()))
+            .thenThrow(new ObjectOptimisticLockingFailureException(Stock.class, "42"));
+
+    // Act and Assert
+    assertThrows(ObjectOptimisticLockingFailureException.class, () -> stockService.updateStock("42", new Stock()));
+    verify(stockRepository, times(StockService.MAX_UPDATE_ATTEMPTS)).save(Mockito.any());
+  }
+
+  /**
+   * Method under test: {@link StockService#updateStock(String, Stock, long)}
+   */
+  @Test
+  public void testUpdateStock8() {
+    // Arrange
+    Stock stock = new Stock();
+    stock.setId("42");
+    stock.setVersion(3L);
+    when(stockRepository.findById("42")).thenReturn(Optional.of(stock));
+    when(stockRepository.save(Mockito.any())).thenReturn(stock);
+
+    // Act
+    Optional<Stock> actualUpdateStockResult = stockService.updateStock("42", new Stock(), 3L);
+
+    // Assert
+    verify(stockRepository).save(stock);
+    assertTrue(actualUpdateStockResult.isPresent());
+  }
+
+  /**
+   * Method under test: {@link StockService#updateStock(String, Stock, long)}
+   */
+  @Test
+  public void testUpdateStock9() {
+    // Arrange
+    Stock stock = new Stock();
+    stock.setId("42");
+    stock.setVersion(4L);
+    when(stockRepository.findById("42")).thenReturn(Optional.of(stock));
+
+    // Act and Assert
+    assertThrows(StaleStockVersionException.class, () -> stockService.updateStock("42", new Stock(), 3L));
+    verify(stockRepository, never()).save(Mockito.any());
+  }
+
+  /**
+   * Method under test: {@link StockService#updateStock(String, Stock, long)}
+   */
+  @Test
+  public void testUpdateStock10() {
+    // Arrange
+    Stock stock = new Stock();
+    stock.setId("42");
+    stock.setVersion(3L);
+    when(stockRepository.findById("42")).thenReturn(Optional.of(stock));
+    when(stockRepository.save(Mockito.any()))
+            .thenThrow(new ObjectOptimisticLockingFailureException(Stock.class, "42"));
+
+    // Act and Assert
+    assertThrows(StaleStockVersionException.class, () -> stockService.updateStock("42", new Stock(), 3L));
+    verify(stockRepository, times(1)).save(Mockito.any());
+  }
+
   /**
    * Method under test: {@link StockService#deleteStock(String)}
    *
@@ -439,14 +703,14 @@ public class StockServiceTest {
   public void testValidateRequestStockDto() {
     // First test case
     try {
-      StockService.validateRequestStockDto(new RequestStockDto("Symbol", "Company Name", 10.0d));
+      StockService.validateRequestStockDto(new RequestStockDto("Symbol", "Company Name", 100_000L));
     } catch (ConstraintViolationException e) {
       // Expected exception
     }
 
     // Second test case
     try {
-      StockService.validateRequestStockDto(new RequestStockDto("$", "Company Name", 10.0d));
+      StockService.validateRequestStockDto(new RequestStockDto("$", "Company Name", 100_000L));
     } catch (ConstraintViolationException e) {
       // Expected exception
     }